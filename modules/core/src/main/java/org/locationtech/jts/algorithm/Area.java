@@ -93,21 +93,20 @@ public class Area {
      * Based on the Shoelace formula.
      * http://en.wikipedia.org/wiki/Shoelace_formula
      */
-    Coordinate p0 = new Coordinate();
-    Coordinate p1 = new Coordinate();
-    Coordinate p2 = new Coordinate();
-    ring.getCoordinate(0, p1);
-    ring.getCoordinate(1, p2);
-    double x0 = p1.x;
-    p2.x -= x0;
+    double x0 = ring.getX(0);
+    double y0;
+    double x1 = 0.0;
+    double y1 = ring.getY(0);
+    double x2 = ring.getX(1) - x0;
+    double y2 = ring.getY(1);
     double sum = 0.0;
     for (int i = 1; i < n - 1; i++) {
-      p0.y = p1.y;
-      p1.x = p2.x;
-      p1.y = p2.y;
-      ring.getCoordinate(i + 1, p2);
-      p2.x -= x0;
-      sum += p1.x * (p0.y - p2.y);
+      y0 = y1;
+      x1 = x2;
+      y1 = y2;
+      x2 = ring.getX(i + 1) - x0;
+      y2 = ring.getY(i + 1);
+      sum += x1 * (y0 - y2);
     }
     return sum / 2.0;
   }
@@ -13,6 +13,7 @@
 package org.locationtech.jts.algorithm;
 
 import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.CoordinateSequence;
 import org.locationtech.jts.geom.Geometry;
 import org.locationtech.jts.geom.GeometryCollection;
 import org.locationtech.jts.geom.LineString;
@@ -63,7 +64,6 @@ public class Centroid
   }
   
   private Coordinate areaBasePt = null;// the point all triangles are based at
-  private Coordinate triangleCent3 = new Coordinate();// temporary variable to hold centroid of triangle
   private double  areasum2 = 0;        /* Partial area sum */
   private Coordinate cg3 = new Coordinate(); // partial centroid sum
   
@@ -96,7 +96,7 @@ public class Centroid
       addPoint(geom.getCoordinate());
     }
     else if (geom instanceof LineString) {
-      addLineSegments(geom.getCoordinates());
+      addLineSegments(((LineString) geom).getCoordinateSequence());
     }
     else if (geom instanceof Polygon) {
       Polygon poly = (Polygon) geom;
@@ -158,87 +158,98 @@ public class Centroid
   
   private void add(Polygon poly)
   {
-    addShell(poly.getExteriorRing().getCoordinates());
+    addShell(poly.getExteriorRing().getCoordinateSequence());
     for (int i = 0; i < poly.getNumInteriorRing(); i++) {
-      addHole(poly.getInteriorRingN(i).getCoordinates());
+      addHole(poly.getInteriorRingN(i).getCoordinateSequence());
     }
   }
 
-  private void addShell(Coordinate[] pts)
+  private void addShell(CoordinateSequence pts)
   {
-    if (pts.length > 0) 
-      setAreaBasePoint(pts[0]);
+    if (pts.size() > 0) 
+      setAreaBasePoint(new Coordinate(pts.getX(0), pts.getY(0)));
     boolean isPositiveArea = ! Orientation.isCCW(pts);
-    for (int i = 0; i < pts.length - 1; i++) {
-      addTriangle(areaBasePt, pts[i], pts[i+1], isPositiveArea);
-    }
+    addTriangles(pts, isPositiveArea);
     addLineSegments(pts);
   }
   
-  private void addHole(Coordinate[] pts)
+  private void addHole(CoordinateSequence pts)
   {
     boolean isPositiveArea = Orientation.isCCW(pts);
-    for (int i = 0; i < pts.length - 1; i++) {
-      addTriangle(areaBasePt, pts[i], pts[i+1], isPositiveArea);
-    }
+    addTriangles(pts, isPositiveArea);
     addLineSegments(pts);
   }
-  private void addTriangle(Coordinate p0, Coordinate p1, Coordinate p2, boolean isPositiveArea)
-  {
-    double sign = (isPositiveArea) ? 1.0 : -1.0;
-    centroid3( p0, p1, p2, triangleCent3 );
-    double area2 =  area2( p0, p1, p2 );
-    cg3.x += sign * area2 * triangleCent3.x;
-    cg3.y += sign * area2 * triangleCent3.y;
-    areasum2 += sign * area2;
-  }
+
   /**
-   * Computes three times the centroid of the triangle p1-p2-p3.
-   * The factor of 3 is
-   * left in to permit division to be avoided until later.
+   * Adds the triangles formed by the area base point
+   * and each segment of a ring.
+   * Ordinates are read directly from the sequence,
+   * to avoid creating coordinates.
    */
-  private static void centroid3( Coordinate p1, Coordinate p2, Coordinate p3, Coordinate c )
+  private void addTriangles(CoordinateSequence pts, boolean isPositiveArea)
   {
-    c.x = p1.x + p2.x + p3.x;
-    c.y = p1.y + p2.y + p3.y;
-    return;
+    for (int i = 0; i < pts.size() - 1; i++) {
+      addTriangle(areaBasePt.x, areaBasePt.y, 
+          pts.getX(i), pts.getY(i), 
+          pts.getX(i + 1), pts.getY(i + 1), isPositiveArea);
+    }
   }
 
+  private void addTriangle(double p0x, double p0y, double p1x, double p1y, 
+      double p2x, double p2y, boolean isPositiveArea)
+  {
+    double sign = (isPositiveArea) ? 1.0 : -1.0;
+    // three times the centroid of the triangle
+    double cent3x = p0x + p1x + p2x;
+    double cent3y = p0y + p1y + p2y;
+    double area2 =  area2( p0x, p0y, p1x, p1y, p2x, p2y );
+    cg3.x += sign * area2 * cent3x;
+    cg3.y += sign * area2 * cent3y;
+    areasum2 += sign * area2;
+  }
   /**
    * Returns twice the signed area of the triangle p1-p2-p3.
    * The area is positive if the triangle is oriented CCW, and negative if CW.
    */
-  private static double area2( Coordinate p1, Coordinate p2, Coordinate p3 )
+  private static double area2( double p1x, double p1y, double p2x, double p2y, 
+      double p3x, double p3y )
   {
     return
-    (p2.x - p1.x) * (p3.y - p1.y) -
-        (p3.x - p1.x) * (p2.y - p1.y);
+    (p2x - p1x) * (p3y - p1y) -
+        (p3x - p1x) * (p2y - p1y);
   }
 
   /**
-   * Adds the line segments defined by an array of coordinates
+   * Adds the line segments defined by a sequence of coordinates
    * to the linear centroid accumulators.
    * 
-   * @param pts an array of {@link Coordinate}s
+   * @param pts a {@link CoordinateSequence}
    */
-  private void addLineSegments(Coordinate[] pts)
+  private void addLineSegments(CoordinateSequence pts)
   {
+    int n = pts.size();
     double lineLen = 0.0;
-    for (int i = 0; i < pts.length - 1; i++) {
-      double segmentLen = pts[i].distance(pts[i + 1]);
+    for (int i = 0; i < n - 1; i++) {
+      double x0 = pts.getX(i);
+      double y0 = pts.getY(i);
+      double x1 = pts.getX(i + 1);
+      double y1 = pts.getY(i + 1);
+      double dx = x0 - x1;
+      double dy = y0 - y1;
+      double segmentLen = Math.sqrt(dx * dx + dy * dy);
       if (segmentLen == 0.0)
         continue;
       
       lineLen += segmentLen;
 
-      double midx = (pts[i].x + pts[i + 1].x) / 2;
+      double midx = (x0 + x1) / 2;
       lineCentSum.x += segmentLen * midx;
-      double midy = (pts[i].y + pts[i + 1].y) / 2;
+      double midy = (y0 + y1) / 2;
       lineCentSum.y += segmentLen * midy;
     }
     totalLength += lineLen;
-    if (lineLen == 0.0 && pts.length > 0)
-      addPoint(pts[0]);
+    if (lineLen == 0.0 && n > 0)
+      addPoint(pts.getX(0), pts.getY(0));
   }
 
   /**
@@ -246,10 +257,15 @@ public class Centroid
    * @param pt a {@link Coordinate}
    */
   private void addPoint(Coordinate pt)
+  {
+    addPoint(pt.x, pt.y);
+  }
+
+  private void addPoint(double x, double y)
   {
     ptCount += 1;
-    ptCentSum.x += pt.x;
-    ptCentSum.y += pt.y;
+    ptCentSum.x += x;
+    ptCentSum.y += y;
   }
 
 
@@ -11,7 +11,6 @@
  */
 package org.locationtech.jts.algorithm;
 
-import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.CoordinateSequence;
 
 /**
@@ -37,15 +36,12 @@ public class Length {
   
     double len = 0.0;
   
-    Coordinate p = new Coordinate();
-    pts.getCoordinate(0, p);
-    double x0 = p.x;
-    double y0 = p.y;
+    double x0 = pts.getX(0);
+    double y0 = pts.getY(0);
   
     for (int i = 1; i < n; i++) {
-      pts.getCoordinate(i, p);
-      double x1 = p.x;
-      double y1 = p.y;
+      double x1 = pts.getX(i);
+      double y1 = pts.getY(i);
       double dx = x1 - x0;
       double dy = y1 - y0;
   
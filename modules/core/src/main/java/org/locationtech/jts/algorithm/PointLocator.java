@@ -179,7 +179,7 @@ public class PointLocator
   	// bounding-box check
   	if (! ring.getEnvelopeInternal().intersects(p)) return Location.EXTERIOR;
 
-  	return PointLocation.locateInRing(p, ring.getCoordinates());
+  	return PointLocation.locateInRing(p, ring.getCoordinateSequence());
   }
 
   private int locateInPolygon(Coordinate p, Polygon poly)
@@ -0,0 +1,412 @@
+/*
+ * Copyright (c) 2021 Martin Davis.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jts.geom;
+
+import java.util.Arrays;
+
+/**
+ * An array of envelopes stored in a flat array of <code>double</code>s,
+ * with the values of each envelope in the order
+ * <code>minX, minY, maxX, maxY</code>.
+ * This uses much less memory than an array of {@link Envelope} objects,
+ * and allows envelopes to be stored and tested without object allocation
+ * or dereferencing.
+ * <p>
+ * The batch operations test all envelopes in the array against a single envelope,
+ * using simple branch-free loops over the primitive array
+ * which the JIT compiler can unroll and vectorize.
+ * <p>
+ * Null envelopes are stored as <code>NaN</code> values.
+ * They do not intersect or contain any envelope,
+ * and their distance to any envelope is <code>NaN</code>.
+ *
+ * @author Martin Davis
+ *
+ * @see Envelope
+ */
+public class EnvelopeArray {
+
+  private static final int ENV_SIZE = 4;
+
+  private static final int INITIAL_CAPACITY = 16;
+
+  /**
+   * Creates an array containing the envelopes of a set of geometries.
+   *
+   * @param geoms the geometries
+   * @return an array of the geometry envelopes
+   */
+  public static EnvelopeArray create(Geometry[] geoms) {
+    EnvelopeArray envs = new EnvelopeArray(geoms.length);
+    for (int i = 0; i < geoms.length; i++) {
+      envs.add(geoms[i].getEnvelopeInternal());
+    }
+    return envs;
+  }
+
+  /**
+   * Creates an array containing a set of envelopes.
+   *
+   * @param envelopes the envelopes
+   * @return an array of the envelopes
+   */
+  public static EnvelopeArray create(Envelope[] envelopes) {
+    EnvelopeArray envs = new EnvelopeArray(envelopes.length);
+    for (int i = 0; i < envelopes.length; i++) {
+      envs.add(envelopes[i]);
+    }
+    return envs;
+  }
+
+  private double[] bounds;
+  private int size = 0;
+
+  /**
+   * Creates an empty array.
+   */
+  public EnvelopeArray() {
+    this(INITIAL_CAPACITY);
+  }
+
+  /**
+   * Creates an empty array with storage for a given number of envelopes.
+   *
+   * @param capacity the number of envelopes to allocate storage for
+   */
+  public EnvelopeArray(int capacity) {
+    bounds = new double[ENV_SIZE * Math.max(1, capacity)];
+  }
+
+  /**
+   * Creates an array backed by an array of envelope values,
+   * in the order <code>minX, minY, maxX, maxY</code>.
+   * The values are not copied.
+   *
+   * @param bounds the envelope values
+   */
+  public EnvelopeArray(double[] bounds) {
+    if (bounds.length % ENV_SIZE != 0)
+      throw new IllegalArgumentException("Bounds array length must be a multiple of 4");
+    this.bounds = bounds;
+    size = bounds.length / ENV_SIZE;
+  }
+
+  /**
+   * Gets the number of envelopes in the array.
+   *
+   * @return the number of envelopes
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Gets the array holding the envelope values.
+   * Only the first <code>4 * size()</code> values are used.
+   *
+   * @return the envelope values array
+   */
+  public double[] getBoundsArray() {
+    return bounds;
+  }
+
+  /**
+   * Adds an envelope to the end of the array.
+   *
+   * @param env the envelope to add
+   */
+  public void add(Envelope env) {
+    ensureCapacity(size + 1);
+    size++;
+    set(size - 1, env);
+  }
+
+  /**
+   * Adds an envelope to the end of the array.
+   *
+   * @param minX the minimum X value
+   * @param minY the minimum Y value
+   * @param maxX the maximum X value
+   * @param maxY the maximum Y value
+   */
+  public void add(double minX, double minY, double maxX, double maxY) {
+    ensureCapacity(size + 1);
+    size++;
+    set(size - 1, minX, minY, maxX, maxY);
+  }
+
+  private void ensureCapacity(int capacity) {
+    if (ENV_SIZE * capacity <= bounds.length) return;
+    int newCapacity = Math.max(capacity, 2 * size);
+    bounds = Arrays.copyOf(bounds, ENV_SIZE * newCapacity);
+  }
+
+  /**
+   * Sets an envelope in the array.
+   *
+   * @param i the index of the envelope
+   * @param env the envelope value
+   */
+  public void set(int i, Envelope env) {
+    if (env.isNull()) {
+      set(i, Double.NaN, Double.NaN, Double.NaN, Double.NaN);
+      return;
+    }
+    set(i, env.getMinX(), env.getMinY(), env.getMaxX(), env.getMaxY());
+  }
+
+  /**
+   * Sets an envelope in the array.
+   *
+   * @param i the index of the envelope
+   * @param minX the minimum X value
+   * @param minY the minimum Y value
+   * @param maxX the maximum X value
+   * @param maxY the maximum Y value
+   */
+  public void set(int i, double minX, double minY, double maxX, double maxY) {
+    checkIndex(i);
+    int index = ENV_SIZE * i;
+    bounds[index] = minX;
+    bounds[index + 1] = minY;
+    bounds[index + 2] = maxX;
+    bounds[index + 3] = maxY;
+  }
+
+  private void checkIndex(int i) {
+    if (i < 0 || i >= size)
+      throw new IndexOutOfBoundsException("Index: " + i + ", Size: " + size);
+  }
+
+  /**
+   * Gets the minimum X value of an envelope in the array.
+   *
+   * @param i the index of the envelope
+   * @return the minimum X value
+   */
+  public double getMinX(int i) {
+    return bounds[ENV_SIZE * i];
+  }
+
+  /**
+   * Gets the minimum Y value of an envelope in the array.
+   *
+   * @param i the index of the envelope
+   * @return the minimum Y value
+   */
+  public double getMinY(int i) {
+    return bounds[ENV_SIZE * i + 1];
+  }
+
+  /**
+   * Gets the maximum X value of an envelope in the array.
+   *
+   * @param i the index of the envelope
+   * @return the maximum X value
+   */
+  public double getMaxX(int i) {
+    return bounds[ENV_SIZE * i + 2];
+  }
+
+  /**
+   * Gets the maximum Y value of an envelope in the array.
+   *
+   * @param i the index of the envelope
+   * @return the maximum Y value
+   */
+  public double getMaxY(int i) {
+    return bounds[ENV_SIZE * i + 3];
+  }
+
+  /**
+   * Tests whether an envelope in the array is null.
+   *
+   * @param i the index of the envelope
+   * @return true if the envelope is null
+   */
+  public boolean isNull(int i) {
+    return Double.isNaN(bounds[ENV_SIZE * i]);
+  }
+
+  /**
+   * Creates an {@link Envelope} with the value of an envelope in the array.
+   *
+   * @param i the index of the envelope
+   * @return a new envelope
+   */
+  public Envelope getEnvelope(int i) {
+    if (isNull(i)) return new Envelope();
+    return new Envelope(getMinX(i), getMaxX(i), getMinY(i), getMaxY(i));
+  }
+
+  /**
+   * Computes the envelope containing all the envelopes in the array.
+   *
+   * @return the extent of the envelopes
+   */
+  public Envelope getExtent() {
+    Envelope extent = new Envelope();
+    for (int i = 0; i < size; i++) {
+      if (isNull(i)) continue;
+      extent.expandToInclude(getMinX(i), getMinY(i));
+      extent.expandToInclude(getMaxX(i), getMaxY(i));
+    }
+    return extent;
+  }
+
+  /**
+   * Tests whether an envelope in the array intersects an envelope.
+   *
+   * @param i the index of the envelope
+   * @param env the envelope to test
+   * @return true if the envelopes intersect
+   */
+  public boolean intersects(int i, Envelope env) {
+    if (env.isNull()) return false;
+    int index = ENV_SIZE * i;
+    return bounds[index] <= env.getMaxX()
+        && bounds[index + 1] <= env.getMaxY()
+        && bounds[index + 2] >= env.getMinX()
+        && bounds[index + 3] >= env.getMinY();
+  }
+
+  /**
+   * Tests which of the envelopes in the array intersect an envelope.
+   *
+   * @param env the envelope to test
+   * @param result an array to hold the result for each envelope
+   */
+  public void intersects(Envelope env, boolean[] result) {
+    if (env.isNull()) {
+      Arrays.fill(result, 0, size, false);
+      return;
+    }
+    double minX = env.getMinX();
+    double minY = env.getMinY();
+    double maxX = env.getMaxX();
+    double maxY = env.getMaxY();
+    double[] b = bounds;
+    for (int i = 0; i < size; i++) {
+      int index = ENV_SIZE * i;
+      result[i] = b[index] <= maxX
+          & b[index + 1] <= maxY
+          & b[index + 2] >= minX
+          & b[index + 3] >= minY;
+    }
+  }
+
+  /**
+   * Finds the indexes of the envelopes in the array
+   * which intersect an envelope.
+   *
+   * @param env the envelope to test
+   * @param indexes an array to hold the indexes found, of length at least <code>size()</code>
+   * @return the number of indexes found
+   */
+  public int selectIntersecting(Envelope env, int[] indexes) {
+    if (env.isNull()) return 0;
+    double minX = env.getMinX();
+    double minY = env.getMinY();
+    double maxX = env.getMaxX();
+    double maxY = env.getMaxY();
+    double[] b = bounds;
+    int count = 0;
+    for (int i = 0; i < size; i++) {
+      int index = ENV_SIZE * i;
+      boolean isIntersecting = b[index] <= maxX
+          & b[index + 1] <= maxY
+          & b[index + 2] >= minX
+          & b[index + 3] >= minY;
+      // unconditional write keeps the loop branch-free
+      indexes[count] = i;
+      count += isIntersecting ? 1 : 0;
+    }
+    return count;
+  }
+
+  /**
+   * Tests which of the envelopes in the array contain an envelope.
+   * As with {@link Envelope#contains(Envelope)},
+   * envelopes contain their boundary.
+   *
+   * @param env the envelope to test
+   * @param result an array to hold the result for each envelope
+   */
+  public void contains(Envelope env, boolean[] result) {
+    if (env.isNull()) {
+      Arrays.fill(result, 0, size, false);
+      return;
+    }
+    double minX = env.getMinX();
+    double minY = env.getMinY();
+    double maxX = env.getMaxX();
+    double maxY = env.getMaxY();
+    double[] b = bounds;
+    for (int i = 0; i < size; i++) {
+      int index = ENV_SIZE * i;
+      result[i] = b[index] <= minX
+          & b[index + 1] <= minY
+          & b[index + 2] >= maxX
+          & b[index + 3] >= maxY;
+    }
+  }
+
+  /**
+   * Tests which of the envelopes in the array are covered by an envelope.
+   *
+   * @param env the envelope to test
+   * @param result an array to hold the result for each envelope
+   */
+  public void coveredBy(Envelope env, boolean[] result) {
+    if (env.isNull()) {
+      Arrays.fill(result, 0, size, false);
+      return;
+    }
+    double minX = env.getMinX();
+    double minY = env.getMinY();
+    double maxX = env.getMaxX();
+    double maxY = env.getMaxY();
+    double[] b = bounds;
+    for (int i = 0; i < size; i++) {
+      int index = ENV_SIZE * i;
+      result[i] = b[index] >= minX
+          & b[index + 1] >= minY
+          & b[index + 2] <= maxX
+          & b[index + 3] <= maxY;
+    }
+  }
+
+  /**
+   * Computes the distance between each envelope in the array and an envelope.
+   * The distance is zero if the envelopes intersect.
+   *
+   * @param env the envelope to compute the distance to
+   * @param result an array to hold the distance for each envelope
+   */
+  public void distance(Envelope env, double[] result) {
+    if (env.isNull()) {
+      Arrays.fill(result, 0, size, Double.NaN);
+      return;
+    }
+    double minX = env.getMinX();
+    double minY = env.getMinY();
+    double maxX = env.getMaxX();
+    double maxY = env.getMaxY();
+    double[] b = bounds;
+    for (int i = 0; i < size; i++) {
+      int index = ENV_SIZE * i;
+      double dx = Math.max(0.0, Math.max(b[index] - maxX, minX - b[index + 2]));
+      double dy = Math.max(0.0, Math.max(b[index + 1] - maxY, minY - b[index + 3]));
+      result[i] = Math.sqrt(dx * dx + dy * dy);
+    }
+  }
+}
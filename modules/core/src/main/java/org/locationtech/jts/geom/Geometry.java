@@ -12,12 +12,14 @@
 package org.locationtech.jts.geom;
 
 import java.io.Serializable;
+import java.lang.ref.SoftReference;
 import java.util.Collection;
 import java.util.Iterator;
 
 import org.locationtech.jts.algorithm.Centroid;
 import org.locationtech.jts.algorithm.ConvexHull;
 import org.locationtech.jts.algorithm.InteriorPoint;
+import org.locationtech.jts.geom.util.GeometryFingerprint;
 import org.locationtech.jts.io.WKTWriter;
 import org.locationtech.jts.operation.buffer.BufferOp;
 import org.locationtech.jts.operation.buffer.BufferParameters;
@@ -25,7 +27,6 @@ import org.locationtech.jts.operation.distance.DistanceOp;
 import org.locationtech.jts.operation.linemerge.LineMerger;
 import org.locationtech.jts.operation.predicate.RectangleContains;
 import org.locationtech.jts.operation.predicate.RectangleIntersects;
-import org.locationtech.jts.operation.relate.RelateOp;
 import org.locationtech.jts.operation.union.UnaryUnionOp;
 import org.locationtech.jts.operation.valid.IsSimpleOp;
 import org.locationtech.jts.operation.valid.IsValidOp;
@@ -170,6 +171,24 @@ public abstract class Geometry
   public static final String TYPENAME_POLYGON = "Polygon";
   public static final String TYPENAME_MULTIPOLYGON = "MultiPolygon";
   public static final String TYPENAME_GEOMETRYCOLLECTION = "GeometryCollection";
+
+  /**
+   * Property cache mode indicating that derived properties are not cached.
+   * This is the default.
+   */
+  public static final int PROPERTY_CACHE_NONE = 0;
+  /**
+   * Property cache mode indicating that derived properties are cached
+   * for the lifetime of the geometry (or until {@link #geometryChanged()} is called).
+   */
+  public static final int PROPERTY_CACHE_STRONG = 1;
+  /**
+   * Property cache mode indicating that derived properties are cached
+   * using a {@link SoftReference}, so that the memory they use
+   * can be reclaimed if the JVM runs low on memory.
+   * This is suitable for large datasets.
+   */
+  public static final int PROPERTY_CACHE_SOFT = 2;
   
   private final static GeometryComponentFilter geometryChangedFilter = new GeometryComponentFilter() {
     public void filter(Geometry geom) {
@@ -198,6 +217,19 @@ public abstract class Geometry
    */
   private Object userData = null;
 
+  /**
+   * The mode used to cache derived properties
+   */
+  private transient int propertyCacheMode = PROPERTY_CACHE_NONE;
+
+  /**
+   * The cached derived properties (a {@link GeometryPropertyCache}
+   * or a {@link SoftReference} to one), or null if none are cached.
+   * This is volatile so that a cache created in one thread
+   * is seen fully initialized by other threads.
+   */
+  private transient volatile Object propertyCache = null;
+
   /**
    * Creates a new <code>Geometry</code> via the specified GeometryFactory.
    *
@@ -411,6 +443,16 @@ public abstract class Geometry
    */
   public boolean isSimple()
   {
+    GeometryPropertyCache cache = getPropertyCache();
+    if (cache == null)
+      return computeIsSimple();
+    if (cache.isSimple == GeometryPropertyCache.UNKNOWN) {
+      cache.isSimple = GeometryPropertyCache.toState(computeIsSimple());
+    }
+    return cache.isSimple == GeometryPropertyCache.TRUE;
+  }
+
+  private boolean computeIsSimple() {
     IsSimpleOp op = new IsSimpleOp(this);
     return op.isSimple();
   }
@@ -427,7 +469,13 @@ public abstract class Geometry
    */
   public boolean isValid()
   {
-  	return IsValidOp.isValid(this);
+    GeometryPropertyCache cache = getPropertyCache();
+    if (cache == null)
+      return IsValidOp.isValid(this);
+    if (cache.isValid == GeometryPropertyCache.UNKNOWN) {
+      cache.isValid = GeometryPropertyCache.toState(IsValidOp.isValid(this));
+    }
+    return cache.isValid == GeometryPropertyCache.TRUE;
   }
 
   /**
@@ -484,12 +532,32 @@ public abstract class Geometry
   /**
    *  Returns the area of this <code>Geometry</code>.
    *  Areal Geometries have a non-zero area.
-   *  They override this function to compute the area.
    *  Others return 0.0
    *
    *@return the area of the Geometry
    */
   public double getArea()
+  {
+    GeometryPropertyCache cache = getPropertyCache();
+    if (cache == null)
+      return computeArea();
+    double area = cache.area;
+    if (Double.isNaN(area)) {
+      area = computeArea();
+      cache.area = area;
+    }
+    return area;
+  }
+
+  /**
+   * Computes the area of this geometry.
+   * Areal Geometries override this function to compute the area.
+   *
+   * @return the area of the Geometry
+   *
+   * @see #getArea()
+   */
+  protected double computeArea()
   {
     return 0.0;
   }
@@ -498,12 +566,32 @@ public abstract class Geometry
    *  Returns the length of this <code>Geometry</code>.
    *  Linear geometries return their length.
    *  Areal geometries return their perimeter.
-   *  They override this function to compute the area.
    *  Others return 0.0
    *
    *@return the length of the Geometry
    */
   public double getLength()
+  {
+    GeometryPropertyCache cache = getPropertyCache();
+    if (cache == null)
+      return computeLength();
+    double length = cache.length;
+    if (Double.isNaN(length)) {
+      length = computeLength();
+      cache.length = length;
+    }
+    return length;
+  }
+
+  /**
+   * Computes the length of this geometry.
+   * Linear and areal geometries override this function to compute the length.
+   *
+   * @return the length of the Geometry
+   *
+   * @see #getLength()
+   */
+  protected double computeLength()
   {
     return 0.0;
   }
@@ -520,6 +608,20 @@ public abstract class Geometry
    * @return a {@link Point} which is the centroid of this Geometry
    */
   public Point getCentroid()
+  {
+    GeometryPropertyCache cache = getPropertyCache();
+    if (cache == null)
+      return computeCentroid();
+    Point centroid = cache.centroid;
+    if (centroid == null) {
+      centroid = computeCentroid();
+      cache.centroid = centroid;
+    }
+    // return a copy, since the cached point must not be modified
+    return (Point) centroid.copy();
+  }
+
+  private Point computeCentroid()
   {
     if (isEmpty())
       return factory.createPoint();
@@ -538,12 +640,89 @@ public abstract class Geometry
    * @return a {@link Point} which is in the interior of this Geometry
    */
   public Point getInteriorPoint()
+  {
+    GeometryPropertyCache cache = getPropertyCache();
+    if (cache == null)
+      return computeInteriorPoint();
+    Point interiorPoint = cache.interiorPoint;
+    if (interiorPoint == null) {
+      interiorPoint = computeInteriorPoint();
+      cache.interiorPoint = interiorPoint;
+    }
+    // return a copy, since the cached point must not be modified
+    return (Point) interiorPoint.copy();
+  }
+
+  private Point computeInteriorPoint()
   {
     if (isEmpty()) return factory.createPoint();
     Coordinate pt = InteriorPoint.getInteriorPoint(this);
     return createPointFromInternalCoord(pt, this);
   }
 
+  /**
+   * Sets the mode used to cache the derived properties of this geometry
+   * (area, length, centroid, interior point, validity and simplicity).
+   * When caching is enabled, each property is computed 
+   * the first time it is requested,
+   * and subsequent requests return the cached value.
+   * This is useful when the same properties are requested repeatedly. 
+   * <p>
+   * The cache is cleared when {@link #geometryChanged()} is called.
+   * The mode applies to this geometry only, not to its components.
+   * Setting the mode clears any cached values.
+   *
+   * @param mode one of {@link #PROPERTY_CACHE_NONE}, {@link #PROPERTY_CACHE_STRONG}
+   *   or {@link #PROPERTY_CACHE_SOFT}
+   */
+  public void setPropertyCacheMode(int mode)
+  {
+    if (mode != PROPERTY_CACHE_NONE
+        && mode != PROPERTY_CACHE_STRONG
+        && mode != PROPERTY_CACHE_SOFT)
+      throw new IllegalArgumentException("Invalid property cache mode: " + mode);
+    propertyCacheMode = mode;
+    propertyCache = null;
+  }
+
+  /**
+   * Gets the mode used to cache the derived properties of this geometry.
+   *
+   * @return the property cache mode
+   *
+   * @see #setPropertyCacheMode(int)
+   */
+  public int getPropertyCacheMode()
+  {
+    return propertyCacheMode;
+  }
+
+  /**
+   * Gets the cache for derived properties, creating it if necessary.
+   *
+   * @return the property cache, or null if properties are not cached
+   */
+  private GeometryPropertyCache getPropertyCache()
+  {
+    if (propertyCacheMode == PROPERTY_CACHE_NONE)
+      return null;
+    Object cacheRef = propertyCache;
+    if (propertyCacheMode == PROPERTY_CACHE_STRONG) {
+      if (cacheRef == null) {
+        cacheRef = new GeometryPropertyCache();
+        propertyCache = cacheRef;
+      }
+      return (GeometryPropertyCache) cacheRef;
+    }
+    GeometryPropertyCache cache = cacheRef == null ? null
+        : (GeometryPropertyCache) ((SoftReference<?>) cacheRef).get();
+    if (cache == null) {
+      cache = new GeometryPropertyCache();
+      propertyCache = new SoftReference<GeometryPropertyCache>(cache);
+    }
+    return cache;
+  }
+
   /**
    * Returns the dimension of this geometry.
    * The dimension of a geometry is is the topological
@@ -629,7 +808,8 @@ public abstract class Geometry
    * Notifies this geometry that its coordinates have been changed by an external
    * party (for example, via a {@link CoordinateFilter}).
    * When this method is called the geometry will flush
-   * and/or update any derived information it has cached (such as its {@link Envelope} ).
+   * and/or update any derived information it has cached (such as its {@link Envelope}
+   * and any cached properties).
    * The operation is applied to all component Geometries.
    */
   public void geometryChanged() {
@@ -645,6 +825,7 @@ public abstract class Geometry
    */
   protected void geometryChangedAction() {
     envelope = null;
+    propertyCache = null;
   }
 
   /**
@@ -698,7 +879,7 @@ public abstract class Geometry
     // short-circuit test
     if (! getEnvelopeInternal().intersects(g.getEnvelopeInternal()))
       return false;
-    return relate(g).isTouches(getDimension(), g.getDimension());
+    return GeometryRelate.touches(this, g);
   }
 
   /**
@@ -764,7 +945,7 @@ public abstract class Geometry
       return false;
     }
     // general case
-    return relate(g).isIntersects();
+    return GeometryRelate.intersects(this, g);
   }
 
   /**
@@ -795,7 +976,7 @@ public abstract class Geometry
     // short-circuit test
     if (! getEnvelopeInternal().intersects(g.getEnvelopeInternal()))
       return false;
-    return relate(g).isCrosses(getDimension(), g.getDimension());
+    return GeometryRelate.crosses(this, g);
   }
 
   /**
@@ -876,7 +1057,7 @@ public abstract class Geometry
       return RectangleContains.contains((Polygon) this, g);
     }
     // general case
-    return relate(g).isContains();
+    return GeometryRelate.contains(this, g);
   }
 
   /**
@@ -904,7 +1085,7 @@ public abstract class Geometry
     // short-circuit test
     if (! getEnvelopeInternal().intersects(g.getEnvelopeInternal()))
       return false;
-    return relate(g).isOverlaps(getDimension(), g.getDimension());
+    return GeometryRelate.overlaps(this, g);
   }
 
   /**
@@ -959,7 +1140,7 @@ public abstract class Geometry
     	// since we have already tested that the test envelope is covered
       return true;
     }
-    return relate(g).isCovers();
+    return GeometryRelate.covers(this, g);
   }
 
   /**
@@ -1019,7 +1200,7 @@ public abstract class Geometry
    * @see IntersectionMatrix
    */
   public boolean relate(Geometry g, String intersectionPattern) {
-    return relate(g).matches(intersectionPattern);
+    return GeometryRelate.relate(this, g, intersectionPattern);
   }
 
   /**
@@ -1030,9 +1211,7 @@ public abstract class Geometry
    *      boundaries and exteriors of the two <code>Geometry</code>s
    */
   public IntersectionMatrix relate(Geometry g) {
-    checkNotGeometryCollection(this);
-    checkNotGeometryCollection(g);
-    return RelateOp.relate(this, g);
+    return GeometryRelate.relate(this, g);
   }
 
   /**
@@ -1086,7 +1265,7 @@ public abstract class Geometry
     // short-circuit test
     if (! getEnvelopeInternal().equals(g.getEnvelopeInternal()))
       return false;
-    return relate(g).isEquals(getDimension(), g.getDimension());
+    return GeometryRelate.equalsTopo(this, g);
   }
 
   /**
@@ -1522,6 +1701,39 @@ public abstract class Geometry
     return norm().equalsExact(g.norm());
   }
 
+  /**
+   * Computes a 64-bit fingerprint of the structure and coordinates
+   * of this geometry.
+   * Geometries which are equal according to {@link #equalsExact(Geometry)}
+   * have the same fingerprint.
+   * This allows geometries to be compared and deduplicated by hash,
+   * with an exact comparison required only when fingerprints are equal.
+   *
+   * @return the fingerprint of this geometry
+   *
+   * @see GeometryFingerprint
+   */
+  public long fingerprint()
+  {
+    return GeometryFingerprint.fingerprint(this);
+  }
+
+  /**
+   * Computes a 64-bit fingerprint of this geometry
+   * which is independent of its normalization.
+   * Geometries which are equal according to {@link #equalsNorm(Geometry)}
+   * have the same normalized fingerprint.
+   * This is much faster than normalizing the geometry.
+   *
+   * @return the normalized fingerprint of this geometry
+   *
+   * @see GeometryFingerprint
+   */
+  public long fingerprintNorm()
+  {
+    return GeometryFingerprint.fingerprintNorm(this);
+  }
+
 
   /**
    *  Performs an operation with or on this <code>Geometry</code>'s
@@ -1582,6 +1794,8 @@ public abstract class Geometry
     try {
       Geometry clone = (Geometry) super.clone();
       if (clone.envelope != null) { clone.envelope = new Envelope(clone.envelope); }
+      // clone may be modified, so does not share cached properties
+      clone.propertyCache = null;
       return clone;
     }
     catch (CloneNotSupportedException e) {
@@ -1594,7 +1808,8 @@ public abstract class Geometry
    * Creates a deep copy of this {@link Geometry} object.
    * Coordinate sequences contained in it are copied.
    * All instance fields are copied 
-   * (i.e. <code>envelope</code>, <tt>SRID</tt> and <tt>userData</tt>).
+   * (i.e. <code>envelope</code>, <tt>SRID</tt>, <tt>userData</tt>
+   * and the property cache mode).
    * <p>
    * <b>NOTE:</b> the userData object reference (if present) is copied,
    * but the value itself is not copied.
@@ -1607,6 +1822,7 @@ public abstract class Geometry
     copy.envelope = envelope == null ? null : envelope.copy();
     copy.SRID = this.SRID;
     copy.userData = this.userData;
+    copy.propertyCacheMode = this.propertyCacheMode;
     return copy;
   }
 
@@ -137,11 +137,11 @@ public class GeometryCollection extends Geometry {
   }
 
   /**
-   *  Returns the area of this <code>GeometryCollection</code>
+   *  Computes the area of this <code>GeometryCollection</code>
    *
    * @return the area of the polygon
    */
-  public double getArea()
+  protected double computeArea()
   {
     double area = 0.0;
     for (int i = 0; i < geometries.length; i++) {
@@ -150,7 +150,7 @@ public class GeometryCollection extends Geometry {
     return area;
   }
 
-  public double getLength()
+  protected double computeLength()
   {
     double sum = 0.0;
     for (int i = 0; i < geometries.length; i++) {
@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2021 Martin Davis.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jts.geom;
+
+/**
+ * Holds the derived properties of a {@link Geometry}
+ * which have been computed, when property caching is enabled.
+ * The cache is published through a volatile field of the geometry,
+ * so it is seen with its initial (unknown) values by all threads.
+ * Fields are volatile so that values computed in one thread
+ * are seen fully initialized by other threads.
+ * Computing a value more than once in concurrent threads is harmless,
+ * since the result is the same.
+ *
+ * @author Martin Davis
+ *
+ * @see Geometry#setPropertyCacheMode(int)
+ */
+class GeometryPropertyCache {
+
+  static final int UNKNOWN = -1;
+  static final int FALSE = 0;
+  static final int TRUE = 1;
+
+  volatile double area = Double.NaN;
+  volatile double length = Double.NaN;
+  volatile int isValid = UNKNOWN;
+  volatile int isSimple = UNKNOWN;
+  volatile Point centroid = null;
+  volatile Point interiorPoint = null;
+
+  static int toState(boolean value) {
+    return value ? TRUE : FALSE;
+  }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2021 Martin Davis.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jts.geom;
+
+import org.locationtech.jts.operation.relate.RelateOp;
+import org.locationtech.jts.operation.relateng.RelateNG;
+import org.locationtech.jts.operation.relateng.RelatePredicate;
+
+/**
+ * Internal class which encapsulates the runtime switch to use RelateNG.
+ * <p>
+ * This class allows the {@link Geometry} predicate methods to be
+ * switched between the original algorithm and the RelateNG codebase
+ * via a system property <code>jts.relate</code>.
+ * <ul>
+ * <li><code>jts.relate=old</code> - (default) use original RelateOp algorithm
+ * <li><code>jts.relate=ng</code> - use RelateNG
+ * </ul>
+ * RelateNG evaluates named predicates with short-circuiting,
+ * so that computation stops as soon as the predicate value is known.
+ * <p>
+ * The class is public only so that other packages
+ * (such as {@link org.locationtech.jts.geom.prep}) can query the current setting.
+ *
+ * @author Martin Davis
+ *
+ */
+public class GeometryRelate
+{
+  public static String RELATE_PROPERTY_NAME = "jts.relate";
+
+  public static String RELATE_PROPERTY_VALUE_NG = "ng";
+  public static String RELATE_PROPERTY_VALUE_OLD = "old";
+
+  /**
+   * Currently the original JTS relate implementation is the default
+   */
+  public static boolean RELATE_NG_DEFAULT = false;
+
+  private static boolean isRelateNG = RELATE_NG_DEFAULT;
+
+  static {
+    setRelateImpl(System.getProperty(RELATE_PROPERTY_NAME));
+  }
+
+  /**
+   * This function is provided primarily for unit testing.
+   * It is not recommended to use it dynamically, since
+   * that may result in inconsistent predicate behaviour.
+   *
+   * @param relateImplCode the code for the relate method (may be null)
+   */
+  static void setRelateImpl(String relateImplCode) {
+    if (relateImplCode == null)
+      return;
+    // set flag explicitly since current value may not be default
+    isRelateNG = RELATE_NG_DEFAULT;
+
+    if (RELATE_PROPERTY_VALUE_NG.equalsIgnoreCase(relateImplCode) )
+      isRelateNG = true;
+  }
+
+  private GeometryRelate() {
+  }
+
+  /**
+   * Tests whether the RelateNG implementation is in use.
+   *
+   * @return true if predicates are evaluated using RelateNG
+   */
+  public static boolean isRelateNG() {
+    return isRelateNG;
+  }
+
+  static boolean intersects(Geometry a, Geometry b)
+  {
+    if (isRelateNG) {
+      return RelateNG.relate(a, b, RelatePredicate.intersects());
+    }
+    return relateOld(a, b).isIntersects();
+  }
+
+  static boolean contains(Geometry a, Geometry b)
+  {
+    if (isRelateNG) {
+      return RelateNG.relate(a, b, RelatePredicate.contains());
+    }
+    return relateOld(a, b).isContains();
+  }
+
+  static boolean covers(Geometry a, Geometry b)
+  {
+    if (isRelateNG) {
+      return RelateNG.relate(a, b, RelatePredicate.covers());
+    }
+    return relateOld(a, b).isCovers();
+  }
+
+  static boolean crosses(Geometry a, Geometry b)
+  {
+    if (isRelateNG) {
+      return RelateNG.relate(a, b, RelatePredicate.crosses());
+    }
+    return relateOld(a, b).isCrosses(a.getDimension(), b.getDimension());
+  }
+
+  static boolean overlaps(Geometry a, Geometry b)
+  {
+    if (isRelateNG) {
+      return RelateNG.relate(a, b, RelatePredicate.overlaps());
+    }
+    return relateOld(a, b).isOverlaps(a.getDimension(), b.getDimension());
+  }
+
+  static boolean touches(Geometry a, Geometry b)
+  {
+    if (isRelateNG) {
+      return RelateNG.relate(a, b, RelatePredicate.touches());
+    }
+    return relateOld(a, b).isTouches(a.getDimension(), b.getDimension());
+  }
+
+  static boolean equalsTopo(Geometry a, Geometry b)
+  {
+    if (isRelateNG) {
+      return RelateNG.relate(a, b, RelatePredicate.equalsTopo());
+    }
+    return relateOld(a, b).isEquals(a.getDimension(), b.getDimension());
+  }
+
+  static boolean relate(Geometry a, Geometry b, String intersectionPattern)
+  {
+    if (isRelateNG) {
+      return RelateNG.relate(a, b, intersectionPattern);
+    }
+    return relateOld(a, b).matches(intersectionPattern);
+  }
+
+  static IntersectionMatrix relate(Geometry a, Geometry b)
+  {
+    if (isRelateNG) {
+      return RelateNG.relate(a, b);
+    }
+    return relateOld(a, b);
+  }
+
+  private static IntersectionMatrix relateOld(Geometry a, Geometry b)
+  {
+    Geometry.checkNotGeometryCollection(a);
+    Geometry.checkNotGeometryCollection(b);
+    return RelateOp.relate(a, b);
+  }
+}
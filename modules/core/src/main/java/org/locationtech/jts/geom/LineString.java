@@ -142,7 +142,9 @@ public class LineString
     if (isEmpty()) {
       return false;
     }
-    return getCoordinateN(0).equals2D(getCoordinateN(getNumPoints() - 1));
+    int last = points.size() - 1;
+    return points.getX(0) == points.getX(last)
+        && points.getY(0) == points.getY(last);
   }
 
   public boolean isRing() {
@@ -154,11 +156,11 @@ public class LineString
   }
 
   /**
-   *  Returns the length of this <code>LineString</code>
+   *  Computes the length of this <code>LineString</code>
    *
    *@return the length of the linestring
    */
-  public double getLength()
+  protected double computeLength()
   {
    return Length.ofLine(points);
   }
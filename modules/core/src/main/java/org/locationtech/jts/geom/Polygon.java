@@ -225,11 +225,11 @@ public class Polygon
   }
 
   /**
-   *  Returns the area of this <code>Polygon</code>
+   *  Computes the area of this <code>Polygon</code>
    *
    *@return the area of the polygon
    */
-  public double getArea()
+  protected double computeArea()
   {
     double area = 0.0;
     area += Area.ofRing(shell.getCoordinateSequence());
@@ -240,11 +240,11 @@ public class Polygon
   }
 
   /**
-   *  Returns the perimeter of this <code>Polygon</code>
+   *  Computes the perimeter of this <code>Polygon</code>
    *
    *@return the perimeter of the polygon
    */
-  public double getLength()
+  protected double computeLength()
   {
     double len = 0.0;
     len += shell.getLength();
@@ -0,0 +1,303 @@
+/*
+ * Copyright (c) 2021 Martin Davis.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jts.geom.impl;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.CoordinateSequences;
+import org.locationtech.jts.geom.CoordinateXY;
+import org.locationtech.jts.geom.CoordinateXYM;
+import org.locationtech.jts.geom.CoordinateXYZM;
+import org.locationtech.jts.geom.Envelope;
+
+/**
+ * A {@link CoordinateSequence} implementation which stores
+ * ordinate values as packed <code>double</code>s in a {@link ByteBuffer}.
+ * The buffer can be a direct buffer or a memory-mapped file region,
+ * allowing coordinate data to be held off the Java heap
+ * and used without copying.
+ * <p>
+ * Ordinates are stored in coordinate order, with <code>dimension</code> values
+ * per coordinate (X, Y, then Z and/or M as given by the
+ * dimension and measures), in the byte order of the buffer.
+ * <p>
+ * {@link Coordinate}s returned by {@link #getCoordinate(int)} and
+ * {@link #toCoordinateArray()} are copies of the buffer values,
+ * and are not cached (since that would place the data back on the heap).
+ * To change values use {@link #setOrdinate(int, int, double)}.
+ * <p>
+ * Ordinate values are read using absolute buffer accesses,
+ * so a sequence can be read by multiple threads concurrently.
+ * When serialized the ordinate values are written out,
+ * and deserialized into a new direct buffer.
+ *
+ * @author Martin Davis
+ *
+ * @see BufferCoordinateSequenceFactory
+ */
+public class BufferCoordinateSequence
+    implements CoordinateSequence, Serializable
+{
+  private static final long serialVersionUID = 3641923757163466418L;
+
+  private static final int BYTES_PER_ORDINATE = 8;
+
+  /**
+   * Allocates a direct buffer large enough to hold a sequence
+   * of a given size and dimension, in native byte order.
+   *
+   * @param size the number of coordinates
+   * @param dimension the coordinate dimension
+   * @return a new direct buffer
+   */
+  static ByteBuffer allocate(int size, int dimension) {
+    return allocate(size, dimension, ByteOrder.nativeOrder());
+  }
+
+  static ByteBuffer allocate(int size, int dimension, ByteOrder byteOrder) {
+    return ByteBuffer.allocateDirect(BYTES_PER_ORDINATE * size * dimension).order(byteOrder);
+  }
+
+  private int dimension;
+  private int measures;
+  private int size;
+  private transient ByteBuffer buffer;
+  private transient DoubleBuffer ordinates;
+
+  /**
+   * Creates a sequence backed by the contents of a buffer,
+   * from its current position to its limit.
+   * The buffer contents are not copied,
+   * and the buffer position and limit are not changed.
+   *
+   * @param buffer the buffer containing the ordinate values
+   * @param dimension the total number of ordinates that make up a {@link Coordinate} in this sequence.
+   * @param measures the number of measure-ordinates each {@link Coordinate} in this sequence has.
+   */
+  public BufferCoordinateSequence(ByteBuffer buffer, int dimension, int measures) {
+    if (dimension - measures < 2) {
+      throw new IllegalArgumentException("Must have at least 2 spatial dimensions");
+    }
+    int numOrdinates = buffer.remaining() / BYTES_PER_ORDINATE;
+    if (buffer.remaining() % BYTES_PER_ORDINATE != 0
+        || numOrdinates % dimension != 0) {
+      throw new IllegalArgumentException("Buffer does not contain "
+          + "an integral number of coordinates");
+    }
+    this.dimension = dimension;
+    this.measures = measures;
+    this.size = numOrdinates / dimension;
+    init(buffer);
+  }
+
+  /**
+   * Creates a sequence backed by a new direct buffer
+   * of a given size and dimension, in native byte order.
+   *
+   * @param size the number of coordinates in this sequence
+   * @param dimension the total number of ordinates that make up a {@link Coordinate} in this sequence.
+   * @param measures the number of measure-ordinates each {@link Coordinate} in this sequence has.
+   */
+  public BufferCoordinateSequence(int size, int dimension, int measures) {
+    this(allocate(size, dimension), dimension, measures);
+  }
+
+  private void init(ByteBuffer buf) {
+    // slice() resets the byte order, so it must be set again
+    this.buffer = buf.slice().order(buf.order());
+    this.ordinates = buffer.asDoubleBuffer();
+  }
+
+  /**
+   * Gets the buffer holding the ordinate values of this sequence.
+   * The buffer position is zero, and its limit is the end of the sequence data.
+   *
+   * @return the buffer of ordinate values
+   */
+  public ByteBuffer getBuffer() {
+    return buffer.duplicate().order(buffer.order());
+  }
+
+  /**
+   * @see CoordinateSequence#getDimension()
+   */
+  public int getDimension() {
+    return dimension;
+  }
+
+  /**
+   * @see CoordinateSequence#getMeasures()
+   */
+  @Override
+  public int getMeasures() {
+    return measures;
+  }
+
+  /**
+   * @see CoordinateSequence#size()
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * @see CoordinateSequence#getCoordinate(int)
+   */
+  public Coordinate getCoordinate(int i) {
+    return getCoordinateCopy(i);
+  }
+
+  /**
+   * @see CoordinateSequence#getCoordinateCopy(int)
+   */
+  public Coordinate getCoordinateCopy(int i) {
+    int offset = i * dimension;
+    double x = ordinates.get(offset);
+    double y = ordinates.get(offset + 1);
+    if (dimension == 2 && measures == 0) {
+      return new CoordinateXY(x, y);
+    }
+    else if (dimension == 3 && measures == 0) {
+      return new Coordinate(x, y, ordinates.get(offset + 2));
+    }
+    else if (dimension == 3 && measures == 1) {
+      return new CoordinateXYM(x, y, ordinates.get(offset + 2));
+    }
+    else if (dimension == 4) {
+      return new CoordinateXYZM(x, y, ordinates.get(offset + 2), ordinates.get(offset + 3));
+    }
+    return new Coordinate(x, y);
+  }
+
+  /**
+   * @see CoordinateSequence#getCoordinate(int, Coordinate)
+   */
+  public void getCoordinate(int i, Coordinate coord) {
+    coord.x = getX(i);
+    coord.y = getY(i);
+    if (hasZ()) {
+      coord.setZ(getZ(i));
+    }
+    if (hasM()) {
+      coord.setM(getM(i));
+    }
+  }
+
+  /**
+   * @see CoordinateSequence#getX(int)
+   */
+  public double getX(int index) {
+    return ordinates.get(index * dimension);
+  }
+
+  /**
+   * @see CoordinateSequence#getY(int)
+   */
+  public double getY(int index) {
+    return ordinates.get(index * dimension + 1);
+  }
+
+  /**
+   * @see CoordinateSequence#getOrdinate(int, int)
+   *      For performance reasons the ordinate index is not checked.
+   *      If it is larger than the dimension a meaningless
+   *      value may be returned.
+   */
+  public double getOrdinate(int index, int ordinateIndex) {
+    return ordinates.get(index * dimension + ordinateIndex);
+  }
+
+  /**
+   * @see CoordinateSequence#setOrdinate(int, int, double)
+   */
+  public void setOrdinate(int index, int ordinateIndex, double value) {
+    ordinates.put(index * dimension + ordinateIndex, value);
+  }
+
+  /**
+   * @see CoordinateSequence#toCoordinateArray()
+   */
+  public Coordinate[] toCoordinateArray() {
+    Coordinate[] coords = new Coordinate[size];
+    for (int i = 0; i < size; i++) {
+      coords[i] = getCoordinateCopy(i);
+    }
+    return coords;
+  }
+
+  /**
+   * @see CoordinateSequence#expandEnvelope(Envelope)
+   */
+  public Envelope expandEnvelope(Envelope env) {
+    int n = size * dimension;
+    for (int i = 0; i < n; i += dimension) {
+      env.expandToInclude(ordinates.get(i), ordinates.get(i + 1));
+    }
+    return env;
+  }
+
+  /**
+   * @see java.lang.Object#clone()
+   * @see CoordinateSequence#clone()
+   * @deprecated
+   */
+  public Object clone() {
+    return copy();
+  }
+
+  /**
+   * Creates a copy of this sequence in a new buffer
+   * of the same kind (direct or heap), with the same byte order.
+   *
+   * @see CoordinateSequence#copy()
+   */
+  public BufferCoordinateSequence copy() {
+    ByteBuffer copyBuf = buffer.isDirect()
+        ? allocate(size, dimension, buffer.order())
+        : ByteBuffer.allocate(BYTES_PER_ORDINATE * size * dimension).order(buffer.order());
+    copyBuf.put(getBuffer());
+    //-- call via Buffer, since ByteBuffer.flip() does not exist on Java 8
+    ((Buffer) copyBuf).flip();
+    return new BufferCoordinateSequence(copyBuf, dimension, measures);
+  }
+
+  public String toString() {
+    return CoordinateSequences.toString(this);
+  }
+
+  private void writeObject(ObjectOutputStream out) throws IOException {
+    out.defaultWriteObject();
+    int n = size * dimension;
+    for (int i = 0; i < n; i++) {
+      out.writeDouble(ordinates.get(i));
+    }
+  }
+
+  private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+    in.defaultReadObject();
+    ByteBuffer buf = allocate(size, dimension);
+    init(buf);
+    int n = size * dimension;
+    for (int i = 0; i < n; i++) {
+      ordinates.put(i, in.readDouble());
+    }
+  }
+}
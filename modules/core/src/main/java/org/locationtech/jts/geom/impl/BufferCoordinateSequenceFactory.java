@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2021 Martin Davis.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jts.geom.impl;
+
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.CoordinateSequenceFactory;
+import org.locationtech.jts.geom.Coordinates;
+
+/**
+ * Builds {@link BufferCoordinateSequence}s,
+ * which store coordinates off the Java heap in direct buffers.
+ * New sequences are allocated in native byte order.
+ * <p>
+ * Sequences can also be created over existing buffers
+ * (such as memory-mapped files) without copying,
+ * using {@link #create(ByteBuffer, int, int)}.
+ *
+ * @author Martin Davis
+ */
+public class BufferCoordinateSequenceFactory implements
+    CoordinateSequenceFactory, Serializable
+{
+  private static final long serialVersionUID = -6314573624519398452L;
+
+  private static final BufferCoordinateSequenceFactory instanceObject = new BufferCoordinateSequenceFactory();
+
+  private static final int DEFAULT_DIMENSION = 3;
+
+  private static final int DEFAULT_MEASURES = 0;
+
+  /**
+   * Returns the singleton instance of {@link BufferCoordinateSequenceFactory}
+   *
+   * @return the singleton instance
+   */
+  public static BufferCoordinateSequenceFactory instance() {
+    return instanceObject;
+  }
+
+  private BufferCoordinateSequenceFactory() {
+  }
+
+  private Object readResolve() {
+    return BufferCoordinateSequenceFactory.instance();
+  }
+
+  /**
+   * @see CoordinateSequenceFactory#create(Coordinate[])
+   */
+  public CoordinateSequence create(Coordinate[] coordinates) {
+    if (coordinates == null)
+      coordinates = new Coordinate[0];
+    int dimension = DEFAULT_DIMENSION;
+    int measures = DEFAULT_MEASURES;
+    if (coordinates.length > 0 && coordinates[0] != null) {
+      dimension = Coordinates.dimension(coordinates[0]);
+      measures = Coordinates.measures(coordinates[0]);
+    }
+    BufferCoordinateSequence seq = new BufferCoordinateSequence(coordinates.length, dimension, measures);
+    for (int i = 0; i < coordinates.length; i++) {
+      seq.setOrdinate(i, 0, coordinates[i].x);
+      seq.setOrdinate(i, 1, coordinates[i].y);
+      if (dimension >= 3)
+        seq.setOrdinate(i, 2, coordinates[i].getOrdinate(2)); // Z or M
+      if (dimension >= 4)
+        seq.setOrdinate(i, 3, coordinates[i].getOrdinate(3)); // M
+    }
+    return seq;
+  }
+
+  /**
+   * @see CoordinateSequenceFactory#create(CoordinateSequence)
+   */
+  public CoordinateSequence create(CoordinateSequence coordSeq) {
+    if (coordSeq instanceof BufferCoordinateSequence) {
+      return ((BufferCoordinateSequence) coordSeq).copy();
+    }
+    int dimension = coordSeq.getDimension();
+    BufferCoordinateSequence seq = new BufferCoordinateSequence(coordSeq.size(),
+        dimension, coordSeq.getMeasures());
+    for (int i = 0; i < coordSeq.size(); i++) {
+      for (int j = 0; j < dimension; j++) {
+        seq.setOrdinate(i, j, coordSeq.getOrdinate(i, j));
+      }
+    }
+    return seq;
+  }
+
+  /**
+   * Creates a sequence backed by an existing buffer,
+   * without copying the ordinate values.
+   * The sequence uses the contents of the buffer from
+   * its current position to its limit, in the buffer byte order.
+   *
+   * @param buffer the buffer containing packed <code>double</code> ordinate values
+   * @param dimension the coordinate dimension
+   * @param measures the coordinate measure count
+   * @return a sequence backed by the buffer
+   */
+  public CoordinateSequence create(ByteBuffer buffer, int dimension, int measures) {
+    return new BufferCoordinateSequence(buffer, dimension, measures);
+  }
+
+  /**
+   * @see org.locationtech.jts.geom.CoordinateSequenceFactory#create(int, int)
+   */
+  public CoordinateSequence create(int size, int dimension) {
+    return new BufferCoordinateSequence(size, dimension,
+        Math.max(DEFAULT_MEASURES, dimension - 3));
+  }
+
+  /**
+   * @see org.locationtech.jts.geom.CoordinateSequenceFactory#create(int, int, int)
+   */
+  public CoordinateSequence create(int size, int dimension, int measures) {
+    return new BufferCoordinateSequence(size, dimension, measures);
+  }
+}
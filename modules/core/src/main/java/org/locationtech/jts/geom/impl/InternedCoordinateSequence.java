@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2021 Martin Davis.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jts.geom.impl;
+
+import org.locationtech.jts.geom.Coordinate;
+
+/**
+ * A {@link CoordinateArraySequence} whose {@link Coordinate}s
+ * are shared with other sequences,
+ * as created by an {@link InterningCoordinateSequenceFactory}.
+ * Writing an ordinate value via {@link #setOrdinate(int, int, double)}
+ * first replaces the vertex at that index with a private copy,
+ * so that the change does not affect other sequences
+ * or other indexes of this sequence referencing the same vertex
+ * (such as the start and end point of a ring).
+ * <p>
+ * The {@link Coordinate}s returned by {@link #getCoordinate(int)}
+ * and {@link #toCoordinateArray()} may be shared,
+ * and must not be modified directly.
+ *
+ * @author Martin Davis
+ *
+ */
+class InternedCoordinateSequence
+    extends CoordinateArraySequence
+{
+  private static final long serialVersionUID = -3412775396028870151L;
+
+  /**
+   * Flags the indexes whose vertex has been replaced by a private copy.
+   * Created on the first write, since most sequences are never modified.
+   */
+  private boolean[] isCopied = null;
+
+  InternedCoordinateSequence(Coordinate[] coordinates, int dimension, int measures)
+  {
+    super(coordinates, dimension, measures);
+  }
+
+  /**
+   * Sets an ordinate value, after replacing the vertex
+   * at the index with a private copy if it is still shared.
+   *
+   * @see org.locationtech.jts.geom.CoordinateSequence#setOrdinate(int, int, double)
+   */
+  public void setOrdinate(int index, int ordinateIndex, double value)
+  {
+    unshare(index);
+    super.setOrdinate(index, ordinateIndex, value);
+  }
+
+  private void unshare(int index)
+  {
+    if (isCopied == null) {
+      isCopied = new boolean[size()];
+    }
+    if (isCopied[index]) return;
+    Coordinate[] pts = toCoordinateArray();
+    pts[index] = pts[index].copy();
+    isCopied[index] = true;
+  }
+}
@@ -0,0 +1,263 @@
+/*
+ * Copyright (c) 2021 Martin Davis.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jts.geom.impl;
+
+import java.io.Serializable;
+
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.CoordinateArrays;
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.CoordinateSequenceFactory;
+import org.locationtech.jts.geom.Coordinates;
+import org.locationtech.jts.geom.GeometryFactory;
+
+/**
+ * Creates {@link CoordinateArraySequence}s whose {@link Coordinate}s
+ * are interned, so that all sequences created by the factory
+ * share a single {@link Coordinate} object for each distinct vertex.
+ * This reduces the memory used by datasets in which vertices are repeated,
+ * such as polygonal coverages in which adjacent polygons share boundary vertices.
+ * <p>
+ * Vertices are equal if they have the same type (dimension and measures)
+ * and identical ordinate values.
+ * The interned vertices are held in an open-addressing hash table
+ * keyed directly on the ordinate values,
+ * so looking up a vertex creates a new {@link Coordinate} 
+ * only if the vertex is not already present.
+ * Input {@link Coordinate} objects are never placed in the table,
+ * so callers may reuse them.
+ * <p>
+ * Sequences created from coordinate arrays or sequences are interned.
+ * Sequences created empty (with {@link #create(int, int)}) are not,
+ * since their values are not yet known.
+ * This is how the WKT and WKB readers create sequences,
+ * so geometries read by them should be interned by using
+ * {@link GeometryFactory#createGeometry(org.locationtech.jts.geom.Geometry)}
+ * with a factory using this sequence factory.
+ * <p>
+ * Since coordinates are shared between sequences,
+ * the created sequences copy a vertex before modifying it
+ * via {@link CoordinateSequence#setOrdinate(int, int, double)}.
+ * So geometries may be modified in place by a 
+ * {@link org.locationtech.jts.geom.CoordinateSequenceFilter}
+ * (such as {@link org.locationtech.jts.geom.util.AffineTransformation}).
+ * However, the {@link Coordinate}s returned by the sequences are shared,
+ * and must not be modified directly
+ * (e.g. by a {@link org.locationtech.jts.geom.CoordinateFilter}).
+ * {@link org.locationtech.jts.geom.Geometry#copy()} creates geometries
+ * with unshared coordinates, which may be modified freely.
+ * <p>
+ * The number of vertices processed and interned
+ * is reported by {@link #getInputCount()} and {@link #getUniqueCount()}.
+ * This class is thread-safe.
+ *
+ * @author Martin Davis
+ *
+ */
+public class InterningCoordinateSequenceFactory
+    implements CoordinateSequenceFactory, Serializable
+{
+  private static final long serialVersionUID = 6247325617958193843L;
+
+  private static final int INITIAL_CAPACITY = 1024;
+
+  private Coordinate[] table;
+  private int uniqueCount = 0;
+  private long inputCount = 0;
+
+  /**
+   * Creates a new factory with an empty vertex table.
+   */
+  public InterningCoordinateSequenceFactory() {
+    table = new Coordinate[INITIAL_CAPACITY];
+  }
+
+  /**
+   * Gets the number of vertices which have been processed
+   * by the factory.
+   *
+   * @return the number of vertices processed
+   */
+  public synchronized long getInputCount() {
+    return inputCount;
+  }
+
+  /**
+   * Gets the number of distinct vertices held by the factory.
+   *
+   * @return the number of distinct vertices
+   */
+  public synchronized int getUniqueCount() {
+    return uniqueCount;
+  }
+
+  /**
+   * Gets the ratio of the number of vertices processed
+   * to the number of distinct vertices stored.
+   * For example, a value of 2 indicates that
+   * half as many coordinate objects were stored as
+   * would be without interning.
+   *
+   * @return the deduplication ratio (1 if no vertices have been processed)
+   */
+  public synchronized double getDedupRatio() {
+    if (uniqueCount == 0) return 1.0;
+    return inputCount / (double) uniqueCount;
+  }
+
+  /**
+   * Removes all vertices from the table.
+   * Sequences created previously are not affected,
+   * but their vertices will not be shared with sequences created subsequently.
+   */
+  public synchronized void clear() {
+    table = new Coordinate[INITIAL_CAPACITY];
+    uniqueCount = 0;
+    inputCount = 0;
+  }
+
+  /**
+   * Creates a sequence using the interned values of
+   * the given coordinates.
+   * The input array is not modified.
+   *
+   * @see CoordinateSequenceFactory#create(Coordinate[])
+   */
+  public CoordinateSequence create(Coordinate[] coordinates) {
+    if (coordinates == null)
+      return new CoordinateArraySequence(new Coordinate[0]);
+    Coordinate[] pts = new Coordinate[coordinates.length];
+    synchronized (this) {
+      for (int i = 0; i < coordinates.length; i++) {
+        pts[i] = intern(coordinates[i]);
+      }
+    }
+    return new InternedCoordinateSequence(pts,
+        CoordinateArrays.dimension(pts), CoordinateArrays.measures(pts));
+  }
+
+  /**
+   * @see CoordinateSequenceFactory#create(CoordinateSequence)
+   */
+  public CoordinateSequence create(CoordinateSequence coordSeq) {
+    int dim = coordSeq.getDimension();
+    int measures = coordSeq.getMeasures();
+    // use the dimension and measures of the coordinate type created for the sequence
+    Coordinate template = Coordinates.create(dim, measures);
+    int coordDim = Coordinates.dimension(template);
+    int coordMeasures = Coordinates.measures(template);
+    boolean hasZ = coordDim - coordMeasures > 2;
+    boolean hasM = coordMeasures > 0;
+    Coordinate[] pts = new Coordinate[coordSeq.size()];
+    synchronized (this) {
+      for (int i = 0; i < pts.length; i++) {
+        double z = hasZ ? coordSeq.getZ(i) : Double.NaN;
+        double m = hasM ? coordSeq.getM(i) : Double.NaN;
+        pts[i] = intern(coordSeq.getX(i), coordSeq.getY(i), z, m, 
+            coordDim, coordMeasures);
+      }
+    }
+    return new InternedCoordinateSequence(pts, dim, measures);
+  }
+
+  /**
+   * Creates an empty sequence, whose coordinates are not interned.
+   *
+   * @see CoordinateSequenceFactory#create(int, int)
+   */
+  public CoordinateSequence create(int size, int dimension) {
+    return CoordinateArraySequenceFactory.instance().create(size, dimension);
+  }
+
+  /**
+   * Creates an empty sequence, whose coordinates are not interned.
+   *
+   * @see CoordinateSequenceFactory#create(int, int, int)
+   */
+  public CoordinateSequence create(int size, int dimension, int measures) {
+    return CoordinateArraySequenceFactory.instance().create(size, dimension, measures);
+  }
+
+  private Coordinate intern(Coordinate p) {
+    return intern(p.x, p.y, p.getZ(), p.getM(),
+        Coordinates.dimension(p), Coordinates.measures(p));
+  }
+
+  /**
+   * Finds the interned vertex with the given values,
+   * adding a new one if not already present.
+   * Input coordinates are never added to the table,
+   * since the caller may modify them later.
+   *
+   * @return the interned vertex
+   */
+  private Coordinate intern(double x, double y, double z, double m,
+      int dim, int measures) {
+    inputCount++;
+    int mask = table.length - 1;
+    int index = hash(x, y) & mask;
+    while (true) {
+      Coordinate c = table[index];
+      if (c == null) break;
+      if (isEqual(c, x, y, z, m, dim, measures))
+        return c;
+      index = (index + 1) & mask;
+    }
+    Coordinate p = Coordinates.create(dim, measures);
+    p.x = x;
+    p.y = y;
+    if (dim - measures > 2) p.setZ(z);
+    if (measures > 0) p.setM(m);
+    table[index] = p;
+    uniqueCount++;
+    // keep load factor below 0.5, so probe sequences are short
+    if (2 * uniqueCount > table.length) {
+      grow();
+    }
+    return p;
+  }
+
+  private static boolean isEqual(Coordinate c, double x, double y, double z, double m,
+      int dim, int measures) {
+    return c.x == x && c.y == y
+        && isSame(c.getZ(), z) && isSame(c.getM(), m)
+        && Coordinates.dimension(c) == dim
+        && Coordinates.measures(c) == measures;
+  }
+
+  private static boolean isSame(double v1, double v2) {
+    return Double.doubleToLongBits(v1) == Double.doubleToLongBits(v2);
+  }
+
+  private void grow() {
+    Coordinate[] oldTable = table;
+    table = new Coordinate[2 * oldTable.length];
+    int mask = table.length - 1;
+    for (int i = 0; i < oldTable.length; i++) {
+      Coordinate c = oldTable[i];
+      if (c == null) continue;
+      int index = hash(c.x, c.y) & mask;
+      while (table[index] != null) {
+        index = (index + 1) & mask;
+      }
+      table[index] = c;
+    }
+  }
+
+  private static int hash(double x, double y) {
+    long bits = Double.doubleToLongBits(x) * 31 + Double.doubleToLongBits(y);
+    // spread the high bits into the low bits used for indexing
+    bits ^= (bits >>> 32);
+    int h = (int) bits;
+    return h ^ (h >>> 16);
+  }
+}
@@ -0,0 +1,520 @@
+/*
+ * Copyright (c) 2021 Martin Davis.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jts.geom.impl;
+
+import java.io.Serializable;
+
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.CoordinateSequences;
+import org.locationtech.jts.geom.Coordinates;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.PrecisionModel;
+
+/**
+ * A {@link CoordinateSequence} which stores the X and Y ordinates
+ * as integers on the grid of a fixed {@link PrecisionModel},
+ * delta-encoded and packed into a byte array.
+ * This uses much less memory than storing <code>double</code>s
+ * (typically 2 to 4 bytes per coordinate, rather than 16),
+ * while representing precise coordinates exactly.
+ * <p>
+ * X and Y values are rounded to the precision model grid
+ * (giving the same values as {@link PrecisionModel#makePrecise(double)}).
+ * Each coordinate is encoded as the difference from the previous coordinate,
+ * using variable-length integers.
+ * To provide fast random access, the coordinates are divided into blocks.
+ * The first coordinate of each block is encoded relative to
+ * the first coordinate of the sequence (the origin),
+ * and the start offset of each block is recorded.
+ * Accessing a coordinate thus decodes at most one block.
+ * Z and M ordinates (if any) are stored uncompressed.
+ * <p>
+ * The encoded representation is immutable.
+ * If the sequence is modified using {@link #setOrdinate(int, int, double)}
+ * it is converted to an uncompressed representation.
+ * This is also the case for sequences created empty with a given size,
+ * and for sequences containing <code>NaN</code> X or Y values.
+ * Uncompressed sequences can be compressed by copying them with
+ * {@link QuantizedCoordinateSequenceFactory#create(CoordinateSequence)}.
+ * <p>
+ * The encoded representation can be read by multiple threads concurrently.
+ *
+ * @author Martin Davis
+ *
+ * @see QuantizedCoordinateSequenceFactory
+ */
+public class QuantizedCoordinateSequence
+    implements CoordinateSequence, Serializable
+{
+  private static final long serialVersionUID = -7468341795720351023L;
+
+  /**
+   * The number of coordinates in each block
+   */
+  private static final int BLOCK_SIZE = 16;
+
+  private final double scale;
+  private final int dimension;
+  private final int measures;
+  private final int size;
+
+  /**
+   * The X and Y origin of the encoded values
+   */
+  private long originX;
+  private long originY;
+  /**
+   * The delta-encoded X and Y values.
+   * Null if the sequence is uncompressed.
+   */
+  private byte[] data;
+  /**
+   * The offset in the data of the start of each block
+   */
+  private int[] blockOffset;
+  /**
+   * The Z and M ordinate values, if any
+   */
+  private double[] extraOrdinates;
+  /**
+   * The ordinate values, if the sequence is uncompressed
+   */
+  private double[] ordinates;
+
+  /**
+   * Creates an encoded sequence from a sequence of coordinates.
+   *
+   * @param seq the coordinates
+   * @param scale the precision model scale
+   */
+  QuantizedCoordinateSequence(CoordinateSequence seq, double scale) {
+    this(seq.size(), seq.getDimension(), seq.getMeasures(), scale);
+    if (isEncodable(seq, scale)) {
+      encode(seq);
+    }
+    else {
+      ordinates = new double[size * dimension];
+      for (int i = 0; i < size; i++) {
+        for (int j = 0; j < dimension; j++) {
+          ordinates[i * dimension + j] = seq.getOrdinate(i, j);
+        }
+      }
+    }
+  }
+
+  /**
+   * Creates an uncompressed sequence of a given size,
+   * with all ordinates zero.
+   *
+   * @param size the number of coordinates
+   * @param dimension the coordinate dimension
+   * @param measures the number of measures
+   * @param scale the precision model scale
+   */
+  QuantizedCoordinateSequence(int size, int dimension, int measures, double scale) {
+    if (dimension - measures < 2) {
+      throw new IllegalArgumentException("Must have at least 2 spatial dimensions");
+    }
+    this.size = size;
+    this.dimension = dimension;
+    this.measures = measures;
+    this.scale = scale;
+    ordinates = new double[size * dimension];
+  }
+
+  private QuantizedCoordinateSequence(QuantizedCoordinateSequence seq) {
+    this.size = seq.size;
+    this.dimension = seq.dimension;
+    this.measures = seq.measures;
+    this.scale = seq.scale;
+    this.originX = seq.originX;
+    this.originY = seq.originY;
+    // encoded data is immutable so can be shared
+    this.data = seq.data;
+    this.blockOffset = seq.blockOffset;
+    if (seq.extraOrdinates != null)
+      this.extraOrdinates = seq.extraOrdinates.clone();
+    if (seq.ordinates != null)
+      this.ordinates = seq.ordinates.clone();
+  }
+
+  /**
+   * Tests whether the X and Y values of a sequence can be encoded
+   * (i.e. they are not NaN, and their quantized values fit in a long).
+   */
+  private static boolean isEncodable(CoordinateSequence seq, double scale) {
+    // limit values so that differences do not overflow
+    double maxVal = (double) (Long.MAX_VALUE / 4);
+    for (int i = 0; i < seq.size(); i++) {
+      double x = seq.getX(i) * scale;
+      double y = seq.getY(i) * scale;
+      if (! (Math.abs(x) < maxVal && Math.abs(y) < maxVal))
+        return false;
+    }
+    return true;
+  }
+
+  private void encode(CoordinateSequence seq) {
+    ordinates = null;
+    int numExtra = dimension - 2;
+    if (numExtra > 0)
+      extraOrdinates = new double[size * numExtra];
+    blockOffset = new int[(size + BLOCK_SIZE - 1) / BLOCK_SIZE];
+    ByteWriter writer = new ByteWriter(2 * size + 16);
+    long prevX = 0;
+    long prevY = 0;
+    for (int i = 0; i < size; i++) {
+      long qx = Math.round(seq.getX(i) * scale);
+      long qy = Math.round(seq.getY(i) * scale);
+      if (i == 0) {
+        originX = qx;
+        originY = qy;
+      }
+      if (i % BLOCK_SIZE == 0) {
+        blockOffset[i / BLOCK_SIZE] = writer.size();
+        writer.write(qx - originX);
+        writer.write(qy - originY);
+      }
+      else {
+        writer.write(qx - prevX);
+        writer.write(qy - prevY);
+      }
+      prevX = qx;
+      prevY = qy;
+      for (int j = 0; j < numExtra; j++) {
+        extraOrdinates[i * numExtra + j] = seq.getOrdinate(i, j + 2);
+      }
+    }
+    data = writer.toByteArray();
+  }
+
+  /**
+   * Tests whether this sequence is stored in compressed form.
+   *
+   * @return true if the sequence is compressed
+   */
+  public boolean isCompressed() {
+    return data != null;
+  }
+
+  /**
+   * Gets the number of bytes used to store the X and Y ordinates
+   * of this sequence.
+   *
+   * @return the number of bytes used for X and Y
+   */
+  public int getXYByteSize() {
+    if (data == null)
+      return size * 2 * 8;
+    return data.length + 4 * blockOffset.length;
+  }
+
+  /**
+   * @see CoordinateSequence#getDimension()
+   */
+  public int getDimension() {
+    return dimension;
+  }
+
+  /**
+   * @see CoordinateSequence#getMeasures()
+   */
+  @Override
+  public int getMeasures() {
+    return measures;
+  }
+
+  /**
+   * @see CoordinateSequence#size()
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * @see CoordinateSequence#getCoordinate(int)
+   */
+  public Coordinate getCoordinate(int i) {
+    return getCoordinateCopy(i);
+  }
+
+  /**
+   * @see CoordinateSequence#getCoordinateCopy(int)
+   */
+  public Coordinate getCoordinateCopy(int i) {
+    Coordinate coord = Coordinates.create(dimension, measures);
+    getCoordinate(i, coord);
+    return coord;
+  }
+
+  /**
+   * @see CoordinateSequence#getCoordinate(int, Coordinate)
+   */
+  public void getCoordinate(int i, Coordinate coord) {
+    if (data == null) {
+      coord.x = ordinates[i * dimension];
+      coord.y = ordinates[i * dimension + 1];
+    }
+    else {
+      coord.x = decodeOrdinate(i, 0) / scale;
+      coord.y = decodeOrdinate(i, 1) / scale;
+    }
+    if (hasZ()) {
+      coord.setZ(getZ(i));
+    }
+    if (hasM()) {
+      coord.setM(getM(i));
+    }
+  }
+
+  /**
+   * @see CoordinateSequence#getX(int)
+   */
+  public double getX(int index) {
+    return getOrdinate(index, 0);
+  }
+
+  /**
+   * @see CoordinateSequence#getY(int)
+   */
+  public double getY(int index) {
+    return getOrdinate(index, 1);
+  }
+
+  /**
+   * @see CoordinateSequence#getOrdinate(int, int)
+   */
+  public double getOrdinate(int index, int ordinateIndex) {
+    if (data == null)
+      return ordinates[index * dimension + ordinateIndex];
+    if (ordinateIndex >= 2)
+      return extraOrdinates[index * (dimension - 2) + ordinateIndex - 2];
+    return decodeOrdinate(index, ordinateIndex) / scale;
+  }
+
+  /**
+   * Decodes the quantized X or Y value of a coordinate.
+   * The deltas of the other ordinate are skipped without decoding them.
+   * No objects are allocated, so this is efficient for 
+   * the frequent calls made by algorithms accessing X and Y values.
+   *
+   * @param index the index of the coordinate
+   * @param ordinateIndex the ordinate index (0 for X, 1 for Y)
+   * @return the quantized value
+   */
+  private long decodeOrdinate(int index, int ordinateIndex) {
+    byte[] buf = data;
+    int pos = blockOffset[index / BLOCK_SIZE];
+    long v = ordinateIndex == 0 ? originX : originY;
+    // deltas are stored as interleaved X,Y pairs
+    int n = 2 * (index % BLOCK_SIZE + 1);
+    for (int k = 0; k < n; k++) {
+      if ((k & 1) != ordinateIndex) {
+        // skip varint
+        while ((buf[pos++] & 0x80) != 0) { }
+        continue;
+      }
+      long u = 0;
+      int shift = 0;
+      byte b;
+      do {
+        b = buf[pos++];
+        u |= (long) (b & 0x7F) << shift;
+        shift += 7;
+      } while ((b & 0x80) != 0);
+      v += (u >>> 1) ^ -(u & 1);
+    }
+    return v;
+  }
+
+  /**
+   * Sets an ordinate value.
+   * If the sequence is compressed, it is converted
+   * to the uncompressed representation.
+   *
+   * @see CoordinateSequence#setOrdinate(int, int, double)
+   */
+  public void setOrdinate(int index, int ordinateIndex, double value) {
+    if (data != null)
+      decompress();
+    ordinates[index * dimension + ordinateIndex] = value;
+  }
+
+  private void decompress() {
+    double[] ords = new double[size * dimension];
+    for (int i = 0; i < size; i++) {
+      for (int j = 0; j < dimension; j++) {
+        ords[i * dimension + j] = getOrdinate(i, j);
+      }
+    }
+    ordinates = ords;
+    data = null;
+    blockOffset = null;
+    extraOrdinates = null;
+  }
+
+  /**
+   * @see CoordinateSequence#toCoordinateArray()
+   */
+  public Coordinate[] toCoordinateArray() {
+    final Coordinate[] coords = new Coordinate[size];
+    for (int i = 0; i < size; i++) {
+      coords[i] = Coordinates.create(dimension, measures);
+    }
+    if (data == null) {
+      for (int i = 0; i < size; i++) {
+        getCoordinate(i, coords[i]);
+      }
+      return coords;
+    }
+    decodeAll(new XYVisitor() {
+      public void visit(int i, double x, double y) {
+        Coordinate c = coords[i];
+        c.x = x;
+        c.y = y;
+        if (hasZ()) {
+          c.setZ(getZ(i));
+        }
+        if (hasM()) {
+          c.setM(getM(i));
+        }
+      }
+    });
+    return coords;
+  }
+
+  /**
+   * @see CoordinateSequence#expandEnvelope(Envelope)
+   */
+  public Envelope expandEnvelope(final Envelope env) {
+    if (data == null) {
+      for (int i = 0; i < ordinates.length; i += dimension) {
+        env.expandToInclude(ordinates[i], ordinates[i + 1]);
+      }
+      return env;
+    }
+    decodeAll(new XYVisitor() {
+      public void visit(int i, double x, double y) {
+        env.expandToInclude(x, y);
+      }
+    });
+    return env;
+  }
+
+  private interface XYVisitor {
+    void visit(int i, double x, double y);
+  }
+
+  /**
+   * Decodes all coordinates sequentially,
+   * which is faster than accessing them individually.
+   */
+  private void decodeAll(XYVisitor visitor) {
+    ByteReader reader = new ByteReader(data, 0);
+    long x = 0;
+    long y = 0;
+    for (int i = 0; i < size; i++) {
+      if (i % BLOCK_SIZE == 0) {
+        x = originX + reader.read();
+        y = originY + reader.read();
+      }
+      else {
+        x += reader.read();
+        y += reader.read();
+      }
+      visitor.visit(i, x / scale, y / scale);
+    }
+  }
+
+  /**
+   * @see java.lang.Object#clone()
+   * @see CoordinateSequence#clone()
+   * @deprecated
+   */
+  public Object clone() {
+    return copy();
+  }
+
+  /**
+   * @see CoordinateSequence#copy()
+   */
+  public QuantizedCoordinateSequence copy() {
+    return new QuantizedCoordinateSequence(this);
+  }
+
+  public String toString() {
+    return CoordinateSequences.toString(this);
+  }
+
+  /**
+   * Writes zig-zag variable-length encoded integers to a growable byte array.
+   */
+  private static class ByteWriter {
+    private byte[] buf;
+    private int count = 0;
+
+    ByteWriter(int capacity) {
+      buf = new byte[Math.max(16, capacity)];
+    }
+
+    int size() {
+      return count;
+    }
+
+    void write(long value) {
+      // zig-zag encoding maps small negative values to small positive ones
+      long v = (value << 1) ^ (value >> 63);
+      if (count + 10 > buf.length) {
+        byte[] newBuf = new byte[2 * buf.length + 10];
+        System.arraycopy(buf, 0, newBuf, 0, count);
+        buf = newBuf;
+      }
+      while ((v & ~0x7FL) != 0) {
+        buf[count++] = (byte) ((v & 0x7F) | 0x80);
+        v >>>= 7;
+      }
+      buf[count++] = (byte) v;
+    }
+
+    byte[] toByteArray() {
+      byte[] result = new byte[count];
+      System.arraycopy(buf, 0, result, 0, count);
+      return result;
+    }
+  }
+
+  /**
+   * Reads zig-zag variable-length encoded integers from a byte array.
+   */
+  private static class ByteReader {
+    private final byte[] buf;
+    private int pos;
+
+    ByteReader(byte[] buf, int pos) {
+      this.buf = buf;
+      this.pos = pos;
+    }
+
+    long read() {
+      long v = 0;
+      int shift = 0;
+      byte b;
+      do {
+        b = buf[pos++];
+        v |= (long) (b & 0x7F) << shift;
+        shift += 7;
+      } while ((b & 0x80) != 0);
+      return (v >>> 1) ^ -(v & 1);
+    }
+  }
+}
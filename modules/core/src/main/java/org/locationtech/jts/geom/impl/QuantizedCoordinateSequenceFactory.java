@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2021 Martin Davis.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jts.geom.impl;
+
+import java.io.Serializable;
+
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.CoordinateSequenceFactory;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.PrecisionModel;
+
+/**
+ * Builds {@link QuantizedCoordinateSequence}s,
+ * which store X and Y ordinates compactly as delta-encoded integers
+ * on the grid of a fixed {@link PrecisionModel}.
+ * The factory should be used in a {@link GeometryFactory}
+ * with the same precision model.
+ * <p>
+ * Sequences created from coordinate arrays or sequences are compressed.
+ * Sequences created empty (with {@link #create(int, int)}) are not,
+ * since their values are not yet known.
+ * This is how the WKT and WKB readers create sequences,
+ * so geometries read by them should be compressed by using
+ * {@link GeometryFactory#createGeometry(org.locationtech.jts.geom.Geometry)}.
+ *
+ * @author Martin Davis
+ *
+ * @see QuantizedCoordinateSequence
+ */
+public class QuantizedCoordinateSequenceFactory
+    implements CoordinateSequenceFactory, Serializable
+{
+  private static final long serialVersionUID = 2936284722405711620L;
+
+  private static final int DEFAULT_DIMENSION = 3;
+
+  private static final int DEFAULT_MEASURES = 0;
+
+  private final PrecisionModel precisionModel;
+  private final double scale;
+
+  /**
+   * Creates a factory for sequences quantized to the grid of
+   * a fixed precision model.
+   *
+   * @param precisionModel the precision model to use
+   * @throws IllegalArgumentException if the precision model is not fixed
+   */
+  public QuantizedCoordinateSequenceFactory(PrecisionModel precisionModel) {
+    if (precisionModel.isFloating())
+      throw new IllegalArgumentException("Precision model must be fixed");
+    this.precisionModel = precisionModel;
+    this.scale = precisionModel.getScale();
+  }
+
+  /**
+   * Gets the precision model used to quantize coordinates.
+   *
+   * @return the precision model
+   */
+  public PrecisionModel getPrecisionModel() {
+    return precisionModel;
+  }
+
+  /**
+   * Creates a compressed sequence.
+   * X and Y values are rounded to the precision model grid.
+   *
+   * @see CoordinateSequenceFactory#create(Coordinate[])
+   */
+  public CoordinateSequence create(Coordinate[] coordinates) {
+    if (coordinates == null)
+      coordinates = new Coordinate[0];
+    return new QuantizedCoordinateSequence(new CoordinateArraySequence(coordinates), scale);
+  }
+
+  /**
+   * Creates a compressed sequence.
+   * X and Y values are rounded to the precision model grid.
+   *
+   * @see CoordinateSequenceFactory#create(CoordinateSequence)
+   */
+  public CoordinateSequence create(CoordinateSequence coordSeq) {
+    return new QuantizedCoordinateSequence(coordSeq, scale);
+  }
+
+  /**
+   * Creates an uncompressed sequence.
+   *
+   * @see CoordinateSequenceFactory#create(int, int)
+   */
+  public CoordinateSequence create(int size, int dimension) {
+    return new QuantizedCoordinateSequence(size, dimension,
+        Math.max(DEFAULT_MEASURES, dimension - DEFAULT_DIMENSION), scale);
+  }
+
+  /**
+   * Creates an uncompressed sequence.
+   *
+   * @see CoordinateSequenceFactory#create(int, int, int)
+   */
+  public CoordinateSequence create(int size, int dimension, int measures) {
+    return new QuantizedCoordinateSequence(size, dimension, measures, scale);
+  }
+}
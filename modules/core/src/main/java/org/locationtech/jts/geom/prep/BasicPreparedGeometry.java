@@ -15,16 +15,32 @@ import java.util.Iterator;
 import java.util.List;
 
 import org.locationtech.jts.algorithm.PointLocator;
+import org.locationtech.jts.algorithm.locate.SimplePointInAreaLocator;
 import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Dimension;
 import org.locationtech.jts.geom.Geometry;
 import org.locationtech.jts.geom.GeometryCollection;
+import org.locationtech.jts.geom.GeometryRelate;
+import org.locationtech.jts.geom.IntersectionMatrix;
 import org.locationtech.jts.geom.util.ComponentCoordinateExtracter;
+import org.locationtech.jts.operation.distance.IndexedFacetDistance;
+import org.locationtech.jts.operation.relateng.RelateNG;
+import org.locationtech.jts.operation.relateng.RelatePredicate;
 
 
 /**
  * A base class for {@link PreparedGeometry} subclasses.
- * Contains default implementations for methods, which simply delegate
- * to the equivalent {@link Geometry} methods.
+ * Contains default implementations for methods.
+ * When RelateNG is enabled 
+ * (via the <code>jts.relate</code> system property,
+ * or by {@link PreparedGeometryFactory#setRelateNG(boolean)})
+ * topological predicates, {@link #relate(Geometry)} and {@link #equalsTopo(Geometry)}
+ * are evaluated using a prepared {@link RelateNG}
+ * instance, which caches the edge index and point locator
+ * for the base geometry so that they are reused across calls.
+ * Otherwise (the default) they delegate to the equivalent {@link Geometry} methods,
+ * so that prepared and non-prepared predicates always agree,
+ * but nothing is cached.
  * This class may be used as a "no-op" class for Geometry types
  * which do not have a corresponding {@link PreparedGeometry} implementation.
  * 
@@ -36,6 +52,9 @@ class BasicPreparedGeometry
 {
   private final Geometry baseGeom;
   private final List representativePts;  // List<Coordinate>
+  private volatile boolean isRelateNG = false;
+  private volatile RelateNG relateNG = null;
+  private volatile IndexedFacetDistance facetDistance = null;
 
   public BasicPreparedGeometry(Geometry geom) 
   {
@@ -79,6 +98,160 @@ class BasicPreparedGeometry
 		return false;
 	}
 
+  /**
+   * Sets whether this prepared geometry always uses RelateNG,
+   * regardless of the <code>jts.relate</code> system property.
+   * 
+   * @param isRelateNG true if RelateNG is to be used
+   */
+  void setRelateNG(boolean isRelateNG)
+  {
+    this.isRelateNG = isRelateNG;
+  }
+
+  /**
+   * Tests whether topological predicates are evaluated
+   * using the prepared {@link RelateNG} instance.
+   * 
+   * @return true if RelateNG is used
+   */
+  protected boolean isRelateNG()
+  {
+    return isRelateNG || GeometryRelate.isRelateNG();
+  }
+
+  /**
+   * Gets the prepared {@link RelateNG} instance for the base geometry.
+   * This is created lazily, and caches the indexes
+   * used to evaluate topological predicates.
+   * 
+   * @return the prepared relate evaluator
+   */
+  protected RelateNG getRelateNG()
+  {
+    RelateNG rng = relateNG;
+    if (rng != null)
+      return rng;
+    synchronized (this) {
+      if (relateNG == null)
+        relateNG = RelateNG.prepare(baseGeom);
+      return relateNG;
+    }
+  }
+
+  /**
+   * Gets the indexed facet distance finder for the base geometry.
+   * This is created lazily, and caches the facet index.
+   * 
+   * @return the facet distance finder
+   */
+  protected IndexedFacetDistance getFacetDistance()
+  {
+    IndexedFacetDistance ifd = facetDistance;
+    if (ifd != null)
+      return ifd;
+    synchronized (this) {
+      if (facetDistance == null)
+        facetDistance = new IndexedFacetDistance(baseGeom);
+      return facetDistance;
+    }
+  }
+
+  /**
+   * Tests whether a point lies in the interior or boundary
+   * of the area components of the base geometry.
+   * Subclasses may override this to use an indexed locator.
+   * 
+   * @param p the point to test
+   * @return true if the point is in the area of the base geometry
+   */
+  protected boolean isInArea(Coordinate p)
+  {
+    return SimplePointInAreaLocator.isContained(p, baseGeom);
+  }
+
+  /**
+   * Finds a point which is common to both geometries 
+   * because a component of one lies in the area of the other.
+   * This is only required when the geometry facets are disjoint, 
+   * in which case each component is either wholly inside or wholly outside 
+   * the area of the other geometry, so testing one point per component suffices.
+   * 
+   * @param g the test geometry
+   * @return a common point, or null if there is none
+   */
+  private Coordinate findAreaContainedPoint(Geometry g)
+  {
+    if (baseGeom.getDimension() == Dimension.A) {
+      List pts = ComponentCoordinateExtracter.getCoordinates(g);
+      for (Iterator i = pts.iterator(); i.hasNext(); ) {
+        Coordinate p = (Coordinate) i.next();
+        //-- empty components have no coordinate
+        if (p == null) continue;
+        if (isInArea(p))
+          return p;
+      }
+    }
+    if (g.getDimension() == Dimension.A) {
+      for (Iterator i = representativePts.iterator(); i.hasNext(); ) {
+        Coordinate p = (Coordinate) i.next();
+        if (p == null) continue;
+        if (SimplePointInAreaLocator.isContained(p, g))
+          return p;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Computes the distance using the cached facet index.
+   * If one geometry lies in the area of the other 
+   * the distance is zero.
+   */
+  public double distance(Geometry g)
+  {
+    if (baseGeom.isEmpty() || g.isEmpty())
+      return 0.0;
+    double dist = getFacetDistance().distance(g);
+    if (dist > 0.0 && findAreaContainedPoint(g) != null)
+      return 0.0;
+    return dist;
+  }
+
+  /**
+   * Tests the distance using the cached facet index.
+   * If one geometry lies in the area of the other 
+   * they are within any non-negative distance.
+   */
+  public boolean isWithinDistance(Geometry g, double distance)
+  {
+    if (baseGeom.isEmpty() || g.isEmpty())
+      return false;
+    if (baseGeom.getEnvelopeInternal().distance(g.getEnvelopeInternal()) > distance)
+      return false;
+    if (getFacetDistance().isWithinDistance(g, distance))
+      return true;
+    return distance >= 0.0 && findAreaContainedPoint(g) != null;
+  }
+
+  /**
+   * Computes the nearest points using the cached facet index.
+   * If one geometry lies in the area of the other 
+   * both nearest points are a common point.
+   */
+  public Coordinate[] nearestPoints(Geometry g)
+  {
+    if (baseGeom.isEmpty() || g.isEmpty())
+      return null;
+    Coordinate[] pts = getFacetDistance().nearestPoints(g);
+    if (pts[0].distance(pts[1]) > 0.0) {
+      Coordinate p = findAreaContainedPoint(g);
+      if (p != null)
+        return new Coordinate[] { p.copy(), p.copy() };
+    }
+    return pts;
+  }
+
   /**
    * Determines whether a Geometry g interacts with 
    * this geometry by testing the geometry envelopes.
@@ -113,6 +286,8 @@ class BasicPreparedGeometry
    */
   public boolean contains(Geometry g)
   {
+    if (isRelateNG())
+      return getRelateNG().evaluate(g, RelatePredicate.contains());
     return baseGeom.contains(g);
   }
 
@@ -128,6 +303,8 @@ class BasicPreparedGeometry
       return false;
   	
     // otherwise, compute using relate mask
+    if (isRelateNG())
+      return getRelateNG().evaluate(g, "T**FF*FF*");
     return baseGeom.relate(g, "T**FF*FF*");
   }
 
@@ -136,6 +313,8 @@ class BasicPreparedGeometry
    */
   public boolean coveredBy(Geometry g)
   {
+    if (isRelateNG())
+      return getRelateNG().evaluate(g, RelatePredicate.coveredBy());
     return baseGeom.coveredBy(g);
   }
 
@@ -144,6 +323,8 @@ class BasicPreparedGeometry
    */
   public boolean covers(Geometry g)
   {
+    if (isRelateNG())
+      return getRelateNG().evaluate(g, RelatePredicate.covers());
     return baseGeom.covers(g);
   }
 
@@ -152,9 +333,21 @@ class BasicPreparedGeometry
    */
   public boolean crosses(Geometry g)
   {
+    if (isRelateNG())
+      return getRelateNG().evaluate(g, RelatePredicate.crosses());
     return baseGeom.crosses(g);
   }
   
+  /**
+   * Default implementation.
+   */
+  public boolean equalsTopo(Geometry g)
+  {
+    if (isRelateNG())
+      return getRelateNG().evaluate(g, RelatePredicate.equalsTopo());
+    return baseGeom.equalsTopo(g);
+  }
+  
   /**
    * Standard implementation for all geometries.
    * Supports {@link GeometryCollection}s as input.
@@ -177,6 +370,8 @@ class BasicPreparedGeometry
    */
   public boolean overlaps(Geometry g)
   {
+    if (isRelateNG())
+      return getRelateNG().evaluate(g, RelatePredicate.overlaps());
     return baseGeom.overlaps(g);
   }
   
@@ -185,6 +380,8 @@ class BasicPreparedGeometry
    */
   public boolean touches(Geometry g)
   {
+    if (isRelateNG())
+      return getRelateNG().evaluate(g, RelatePredicate.touches());
     return baseGeom.touches(g);
   }
   
@@ -193,9 +390,37 @@ class BasicPreparedGeometry
    */
   public boolean within(Geometry g)
   {
+    if (isRelateNG())
+      return getRelateNG().evaluate(g, RelatePredicate.within());
     return baseGeom.within(g);
   }
   
+  /**
+   * Computes the DE-9IM matrix,
+   * using the cached indexes if RelateNG is enabled.
+   * Otherwise this delegates to the base geometry,
+   * and no state is reused between calls.
+   */
+  public IntersectionMatrix relate(Geometry g)
+  {
+    if (isRelateNG())
+      return getRelateNG().evaluate(g);
+    return baseGeom.relate(g);
+  }
+  
+  /**
+   * Tests a DE-9IM pattern,
+   * using the cached indexes if RelateNG is enabled.
+   * Otherwise this delegates to the base geometry,
+   * and no state is reused between calls.
+   */
+  public boolean relate(Geometry g, String intersectionPattern)
+  {
+    if (isRelateNG())
+      return getRelateNG().evaluate(g, intersectionPattern);
+    return baseGeom.relate(g, intersectionPattern);
+  }
+  
   public String toString()
   {
   	return baseGeom.toString();
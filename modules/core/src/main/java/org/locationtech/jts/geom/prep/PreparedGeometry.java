@@ -11,8 +11,11 @@
  */
 package org.locationtech.jts.geom.prep;
 
+import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.Geometry;
 import org.locationtech.jts.geom.GeometryCollection;
+import org.locationtech.jts.geom.IntersectionMatrix;
+import org.locationtech.jts.operation.distance.DistanceOp;
 
 /**
  * An interface for classes which prepare {@link Geometry}s 
@@ -27,6 +30,14 @@ import org.locationtech.jts.geom.GeometryCollection;
  * See the implementing classes for documentation about which methods and situations
  * they optimize.
  * <p>
+ * <b>Note:</b> in the implementations created by {@link PreparedGeometryFactory},
+ * {@link #relate(Geometry)}, {@link #relate(Geometry, String)} and {@link #equalsTopo(Geometry)}
+ * are only optimized when RelateNG is used.
+ * By default (unless the <code>jts.relate</code> system property selects RelateNG)
+ * they delegate to the base geometry, so no state is reused between calls.
+ * To evaluate them using cached indexes, 
+ * create prepared geometries with {@link PreparedGeometryFactory#setRelateNG(boolean)}.
+ * <p>
  * Subclasses are intended to be thread-safe, to allow <code>PreparedGeometry</code>
  * to be used in a multi-threaded context 
  * (which allows extracting maximum benefit from the prepared state).
@@ -117,6 +128,19 @@ public interface PreparedGeometry
 	 */
 	boolean crosses(Geometry geom);
 
+	/**
+	 * Tests whether the base {@link Geometry} is topologically equal to a given geometry.
+	 * The default implementation delegates to the base geometry.
+	 * 
+	 * @param geom the Geometry to test
+	 * @return true if this Geometry is topologically equal to the given Geometry
+	 * 
+	 * @see Geometry#equalsTopo(Geometry)
+	 */
+	default boolean equalsTopo(Geometry geom) {
+		return getGeometry().equalsTopo(geom);
+	}
+
 	/**
 	 * Tests whether the base {@link Geometry} is disjoint from a given geometry.
 	 * This method supports {@link GeometryCollection}s as input
@@ -169,4 +193,79 @@ public interface PreparedGeometry
 	 */
 	boolean within(Geometry geom);
 
+	/**
+	 * Computes the DE-9IM {@link IntersectionMatrix} for the base {@link Geometry}
+	 * and a given geometry.
+	 * The default implementation delegates to the base geometry.
+	 * 
+	 * @param geom the Geometry to relate
+	 * @return the DE-9IM matrix describing the relationship
+	 * 
+	 * @see Geometry#relate(Geometry)
+	 */
+	default IntersectionMatrix relate(Geometry geom) {
+		return getGeometry().relate(geom);
+	}
+
+	/**
+	 * Tests whether the DE-9IM matrix for the base {@link Geometry}
+	 * and a given geometry matches a pattern.
+	 * The default implementation delegates to the base geometry.
+	 * 
+	 * @param geom the Geometry to relate
+	 * @param intersectionPattern the DE-9IM pattern to match
+	 * @return true if the DE-9IM matrix for the geometries matches the pattern
+	 * 
+	 * @see Geometry#relate(Geometry, String)
+	 */
+	default boolean relate(Geometry geom, String intersectionPattern) {
+		return getGeometry().relate(geom, intersectionPattern);
+	}
+
+	/**
+	 * Computes the distance between the base {@link Geometry} and a given geometry.
+	 * The default implementation delegates to the base geometry.
+	 * 
+	 * @param geom the Geometry to compute the distance to
+	 * @return the distance between the geometries, or 0 if either is empty
+	 * 
+	 * @see Geometry#distance(Geometry)
+	 */
+	default double distance(Geometry geom) {
+		return getGeometry().distance(geom);
+	}
+
+	/**
+	 * Tests whether the base {@link Geometry} is within a given distance 
+	 * of a given geometry.
+	 * The default implementation delegates to the base geometry.
+	 * 
+	 * @param geom the Geometry to test
+	 * @param distance the distance to test
+	 * @return true if the geometries are within the given distance, 
+	 *   or false if either is empty
+	 * 
+	 * @see Geometry#isWithinDistance(Geometry, double)
+	 */
+	default boolean isWithinDistance(Geometry geom, double distance) {
+		return getGeometry().isWithinDistance(geom, distance);
+	}
+
+	/**
+	 * Computes a pair of nearest points on the base {@link Geometry} 
+	 * and a given geometry.
+	 * The first point lies on the base geometry.
+	 * The default implementation uses {@link DistanceOp}.
+	 * 
+	 * @param geom the Geometry to compute the nearest points to
+	 * @return the nearest points, or null if either geometry is empty
+	 * 
+	 * @see DistanceOp#nearestPoints(Geometry, Geometry)
+	 */
+	default Coordinate[] nearestPoints(Geometry geom) {
+		if (getGeometry().isEmpty() || geom.isEmpty())
+			return null;
+		return DistanceOp.nearestPoints(getGeometry(), geom);
+	}
+
 }
@@ -0,0 +1,235 @@
+/*
+ * Copyright (c) 2021 Martin Davis.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jts.geom.prep;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.locationtech.jts.geom.Geometry;
+
+/**
+ * A bounded cache of {@link PreparedGeometry}s,
+ * keyed by the identity of the base {@link Geometry}.
+ * This allows the indexes built by a prepared geometry
+ * to be reused across repeated predicate calls
+ * against the same geometry object.
+ * <p>
+ * The size of the cache is limited by a maximum total weight,
+ * where the weight of an entry is the number of vertices in its geometry.
+ * When the limit is exceeded the least-recently used entries are evicted.
+ * Geometries which are heavier than the maximum weight
+ * are prepared but not cached.
+ * <p>
+ * Since entries are keyed by object identity,
+ * geometries must not be modified while they are in the cache.
+ * <p>
+ * Instances of this class are thread-safe.
+ *
+ * @author Martin Davis
+ *
+ * @see PreparedGeometryFactory
+ */
+public class PreparedGeometryCache
+{
+  private PreparedGeometryFactory factory;
+  private long maxWeight;
+  private long weight = 0;
+  private long hitCount = 0;
+  private long missCount = 0;
+  private long evictionCount = 0;
+
+  private LinkedHashMap<IdentityKey, PreparedGeometry> cache
+    = new LinkedHashMap<IdentityKey, PreparedGeometry>(16, 0.75f, true);
+
+  /**
+   * Creates a new cache with a given maximum weight,
+   * using a default {@link PreparedGeometryFactory}.
+   *
+   * @param maxWeight the maximum total number of vertices of the cached geometries
+   */
+  public PreparedGeometryCache(long maxWeight)
+  {
+    this(new PreparedGeometryFactory(), maxWeight);
+  }
+
+  /**
+   * Creates a new cache with a given maximum weight,
+   * using a given factory to create the prepared geometries.
+   *
+   * @param factory the factory to use
+   * @param maxWeight the maximum total number of vertices of the cached geometries
+   */
+  public PreparedGeometryCache(PreparedGeometryFactory factory, long maxWeight)
+  {
+    if (maxWeight < 0)
+      throw new IllegalArgumentException("Maximum weight must be non-negative");
+    this.factory = factory;
+    this.maxWeight = maxWeight;
+  }
+
+  /**
+   * Gets a {@link PreparedGeometry} for a geometry,
+   * creating it if it is not already in the cache.
+   *
+   * @param geom the geometry to prepare
+   * @return the prepared geometry
+   */
+  public PreparedGeometry prepare(Geometry geom)
+  {
+    IdentityKey key = new IdentityKey(geom);
+    synchronized (this) {
+      PreparedGeometry pg = cache.get(key);
+      if (pg != null) {
+        hitCount++;
+        return pg;
+      }
+      missCount++;
+    }
+    /**
+     * Create outside the lock, since preparation may be expensive
+     */
+    PreparedGeometry pg = factory.create(geom);
+    long geomWeight = weight(geom);
+    if (geomWeight > maxWeight)
+      return pg;
+
+    synchronized (this) {
+      //-- another thread may have added the geometry in the meantime
+      PreparedGeometry existing = cache.get(key);
+      if (existing != null)
+        return existing;
+      cache.put(key, pg);
+      weight += geomWeight;
+      evict();
+    }
+    return pg;
+  }
+
+  private void evict()
+  {
+    Iterator<Map.Entry<IdentityKey, PreparedGeometry>> it = cache.entrySet().iterator();
+    while (weight > maxWeight && it.hasNext()) {
+      Map.Entry<IdentityKey, PreparedGeometry> entry = it.next();
+      weight -= weight(entry.getKey().geom);
+      it.remove();
+      evictionCount++;
+    }
+  }
+
+  private static long weight(Geometry geom)
+  {
+    return Math.max(1, geom.getNumPoints());
+  }
+
+  /**
+   * Removes all entries from the cache.
+   * The statistics are not reset.
+   */
+  public synchronized void clear()
+  {
+    cache.clear();
+    weight = 0;
+  }
+
+  /**
+   * Gets the number of geometries in the cache.
+   *
+   * @return the number of cached geometries
+   */
+  public synchronized int size()
+  {
+    return cache.size();
+  }
+
+  /**
+   * Gets the current total weight of the cached geometries.
+   *
+   * @return the total number of vertices in the cached geometries
+   */
+  public synchronized long getWeight()
+  {
+    return weight;
+  }
+
+  /**
+   * Gets the maximum total weight of the cache.
+   *
+   * @return the maximum weight
+   */
+  public long getMaxWeight()
+  {
+    return maxWeight;
+  }
+
+  /**
+   * Gets the number of requests which were satisfied from the cache.
+   *
+   * @return the number of cache hits
+   */
+  public synchronized long getHitCount()
+  {
+    return hitCount;
+  }
+
+  /**
+   * Gets the number of requests which required a geometry to be prepared.
+   *
+   * @return the number of cache misses
+   */
+  public synchronized long getMissCount()
+  {
+    return missCount;
+  }
+
+  /**
+   * Gets the number of entries which have been evicted from the cache.
+   *
+   * @return the number of evictions
+   */
+  public synchronized long getEvictionCount()
+  {
+    return evictionCount;
+  }
+
+  public synchronized String toString()
+  {
+    return "PreparedGeometryCache[size=" + cache.size()
+        + ", weight=" + weight + "/" + maxWeight
+        + ", hits=" + hitCount + ", misses=" + missCount
+        + ", evictions=" + evictionCount + "]";
+  }
+
+  /**
+   * A map key which compares geometries by identity.
+   */
+  private static class IdentityKey
+  {
+    final Geometry geom;
+
+    IdentityKey(Geometry geom)
+    {
+      this.geom = geom;
+    }
+
+    public int hashCode()
+    {
+      return System.identityHashCode(geom);
+    }
+
+    public boolean equals(Object o)
+    {
+      if (! (o instanceof IdentityKey)) return false;
+      return geom == ((IdentityKey) o).geom;
+    }
+  }
+}
@@ -25,9 +25,22 @@ import org.locationtech.jts.geom.Puntal;
  * special optimizations which can be performed.
  * <p>
  * Instances of this class are thread-safe. 
+ * <p>
+ * To reuse prepared geometries across repeated calls
+ * with the same geometries, use a {@link PreparedGeometryCache}.
+ * <p>
+ * By default {@link PreparedGeometry#relate(Geometry)},
+ * {@link PreparedGeometry#equalsTopo(Geometry)}
+ * and the predicates which are not optimized for a geometry type
+ * follow the relate implementation selected by the <code>jts.relate</code> system property.
+ * Unless that selects RelateNG, they delegate to the base geometry
+ * and do not cache any state.
+ * Use {@link #setRelateNG(boolean)} to create prepared geometries 
+ * which always evaluate them using a prepared RelateNG.
  * 
  * @author Martin Davis
  *
+ * @see PreparedGeometryCache
  */
 public class PreparedGeometryFactory 
 {
@@ -42,9 +55,31 @@ public class PreparedGeometryFactory
 		return (new PreparedGeometryFactory()).create(geom); 
 	}
 
+  private boolean isRelateNG = false;
+
   public PreparedGeometryFactory() {
   }
 
+  /**
+   * Sets whether the created prepared geometries 
+   * evaluate {@link PreparedGeometry#relate(Geometry)},
+   * {@link PreparedGeometry#equalsTopo(Geometry)}
+   * and the non-optimized predicates using a prepared 
+   * {@link org.locationtech.jts.operation.relateng.RelateNG},
+   * which caches the indexes of the base geometry.
+   * If not set, the <code>jts.relate</code> system property determines this.
+   * <p>
+   * RelateNG results may differ from those of the original relate implementation
+   * in some edge cases (e.g. zero-length lines),
+   * so prepared and non-prepared results may then disagree.
+   * This should be set before the factory is used.
+   * 
+   * @param isRelateNG true if RelateNG is always to be used
+   */
+  public void setRelateNG(boolean isRelateNG) {
+    this.isRelateNG = isRelateNG;
+  }
+
   /**
    * Creates a new {@link PreparedGeometry} appropriate for the argument {@link Geometry}.
    * 
@@ -52,6 +87,14 @@ public class PreparedGeometryFactory
    * @return the prepared geometry
    */
   public PreparedGeometry create(Geometry geom)
+  {
+    BasicPreparedGeometry pg = createPrepared(geom);
+    if (isRelateNG)
+      pg.setRelateNG(true);
+    return pg;
+  }
+
+  private static BasicPreparedGeometry createPrepared(Geometry geom)
   {
     if (geom instanceof Polygonal) 
       return new PreparedPolygon((Polygonal) geom);
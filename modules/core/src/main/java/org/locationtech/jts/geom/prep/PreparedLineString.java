@@ -27,13 +27,21 @@ import org.locationtech.jts.noding.SegmentStringUtil;
 public class PreparedLineString
   extends BasicPreparedGeometry
 {
-  private FastSegmentSetIntersectionFinder segIntFinder = null;
+  // volatile to allow lock-free access once created
+  private volatile FastSegmentSetIntersectionFinder segIntFinder = null;
 
   public PreparedLineString(Lineal line) {
     super((Geometry) line);
   }
 
-  public synchronized FastSegmentSetIntersectionFinder getIntersectionFinder()
+  /**
+   * Gets the indexed intersection finder for this geometry.
+   * The index is created on first use.
+   * Subsequent calls do not acquire a lock.
+   * 
+   * @return the intersection finder
+   */
+  public FastSegmentSetIntersectionFinder getIntersectionFinder()
   {
   	/**
   	 * MD - Another option would be to use a simple scan for 
@@ -41,9 +49,14 @@ public class PreparedLineString
   	 * However, testing indicates that there is no particular advantage 
   	 * to this approach.
   	 */
-  	if (segIntFinder == null)
-  		segIntFinder = new FastSegmentSetIntersectionFinder(SegmentStringUtil.extractSegmentStrings(getGeometry()));
-    return segIntFinder;
+  	FastSegmentSetIntersectionFinder finder = segIntFinder;
+  	if (finder != null)
+  		return finder;
+  	synchronized (this) {
+  		if (segIntFinder == null)
+  			segIntFinder = new FastSegmentSetIntersectionFinder(SegmentStringUtil.extractSegmentStrings(getGeometry()));
+  		return segIntFinder;
+  	}
   }
   
   public boolean intersects(Geometry g)
@@ -14,7 +14,9 @@ package org.locationtech.jts.geom.prep;
 
 import org.locationtech.jts.algorithm.locate.IndexedPointInAreaLocator;
 import org.locationtech.jts.algorithm.locate.PointOnGeometryLocator;
+import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.Location;
 import org.locationtech.jts.geom.MultiPolygon;
 import org.locationtech.jts.geom.Polygon;
 import org.locationtech.jts.geom.Polygonal;
@@ -40,8 +42,9 @@ public class PreparedPolygon
 {
 	private final boolean isRectangle;
 	// create these lazily, since they are expensive
-	private FastSegmentSetIntersectionFinder segIntFinder = null;
-	private PointOnGeometryLocator pia = null;
+	// (volatile to allow lock-free access once created)
+	private volatile FastSegmentSetIntersectionFinder segIntFinder = null;
+	private volatile PointOnGeometryLocator pia = null;
 
   public PreparedPolygon(Polygonal poly) {
     super((Geometry) poly);
@@ -50,10 +53,12 @@ public class PreparedPolygon
 
   /**
    * Gets the indexed intersection finder for this geometry.
+   * The index is created on first use.
+   * Subsequent calls do not acquire a lock.
    * 
    * @return the intersection finder
    */
-  public synchronized FastSegmentSetIntersectionFinder getIntersectionFinder()
+  public FastSegmentSetIntersectionFinder getIntersectionFinder()
   {
   	/**
   	 * MD - Another option would be to use a simple scan for 
@@ -61,17 +66,39 @@ public class PreparedPolygon
   	 * However, testing indicates that there is no particular advantage 
   	 * to this approach.
   	 */
-  	if (segIntFinder == null)
-  		segIntFinder = new FastSegmentSetIntersectionFinder(SegmentStringUtil.extractSegmentStrings(getGeometry()));
-  	return segIntFinder;
+  	FastSegmentSetIntersectionFinder finder = segIntFinder;
+  	if (finder != null)
+  		return finder;
+  	synchronized (this) {
+  		if (segIntFinder == null)
+  			segIntFinder = new FastSegmentSetIntersectionFinder(SegmentStringUtil.extractSegmentStrings(getGeometry()));
+  		return segIntFinder;
+  	}
   }
   
-  public synchronized PointOnGeometryLocator getPointLocator()
+  /**
+   * Gets the indexed point-in-area locator for this geometry.
+   * 
+   * @return the point locator
+   */
+  public PointOnGeometryLocator getPointLocator()
+  {
+  	PointOnGeometryLocator locator = pia;
+  	if (locator != null)
+  		return locator;
+  	synchronized (this) {
+  		if (pia == null)
+  			pia = new IndexedPointInAreaLocator(getGeometry());
+  		return pia;
+  	}
+  }
+  
+  /**
+   * Uses the cached point locator.
+   */
+  protected boolean isInArea(Coordinate p)
   {
-  	if (pia == null)
-      pia = new IndexedPointInAreaLocator(getGeometry());
- 		
-    return pia;
+    return Location.EXTERIOR != getPointLocator().locate(p);
   }
   
   public boolean intersects(Geometry g)
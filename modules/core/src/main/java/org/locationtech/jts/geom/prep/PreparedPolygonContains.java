@@ -13,6 +13,7 @@ package org.locationtech.jts.geom.prep;
 
 
 import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.operation.relateng.RelatePredicate;
 
 /**
  * Computes the <tt>contains</tt> spatial relationship predicate
@@ -73,6 +74,8 @@ class PreparedPolygonContains
 	 */
 	protected boolean fullTopologicalPredicate(Geometry geom)
 	{
+		if (prepPoly.isRelateNG())
+			return prepPoly.getRelateNG().evaluate(geom, RelatePredicate.contains());
 		boolean isContained = prepPoly.getGeometry().contains(geom);
 		return isContained;
 	}
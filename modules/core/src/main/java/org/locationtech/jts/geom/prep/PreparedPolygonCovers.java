@@ -12,6 +12,7 @@
 package org.locationtech.jts.geom.prep;
 
 import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.operation.relateng.RelatePredicate;
 
 /**
  * Computes the <tt>covers</tt> spatial relationship predicate
@@ -73,6 +74,8 @@ class PreparedPolygonCovers
 	 */
 	protected boolean fullTopologicalPredicate(Geometry geom)
 	{
+		if (prepPoly.isRelateNG())
+			return prepPoly.getRelateNG().evaluate(geom, RelatePredicate.covers());
 		boolean result = prepPoly.getGeometry().covers(geom);
 		return result;
 	}
@@ -12,11 +12,20 @@
 
 package org.locationtech.jts.geom.util;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.CoordinateSequence;
 import org.locationtech.jts.geom.CoordinateSequenceFilter;
 import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryComponentFilter;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.impl.CoordinateArraySequence;
+import org.locationtech.jts.geom.impl.PackedCoordinateSequence;
 import org.locationtech.jts.util.Assert;
+import org.locationtech.jts.util.ParallelRange;
 /**
  * Represents an affine transformation on the 2D Cartesian plane. 
  * It can be used to transform a {@link Coordinate} or {@link Geometry}.
@@ -61,6 +70,14 @@ import org.locationtech.jts.util.Assert;
  * <p>
  * The composition of transformations is in general <i>not</i> commutative.
  * 
+ * <h3>Bulk Transformation</h3>
+ * Geometries and coordinate sequences are transformed in bulk
+ * (see {@link #transform(CoordinateSequence)}).
+ * Packed and array-based sequences are transformed
+ * directly in their underlying arrays.
+ * The components of large geometries can be transformed in parallel
+ * using {@link #transform(Geometry, boolean)}.
+ * 
  * <h3>Transformation Inversion</h3>
  * Affine transformations may be invertible or non-invertible.  
  * If a transformation is invertible, then there exists 
@@ -238,6 +255,11 @@ public class AffineTransformation
     return trans;
   }
   
+  /**
+   * The minimum number of vertices worth transforming in a parallel task
+   */
+  private static final int PARALLEL_MIN_SIZE = 16384;
+
   // affine matrix entries
   // (bottom row is always [ 0 0 1 ])
   private double m00;
@@ -980,12 +1002,147 @@ public class AffineTransformation
    *@return a transformed Geometry
    */
   public Geometry transform(Geometry g)
+  {
+    return transform(g, false);
+  }
+  
+  /**
+   * Creates a new {@link Geometry} which is the result
+   * of this transformation applied to the input Geometry,
+   * optionally transforming the components of the geometry in parallel.
+   * Parallel transformation is worthwhile only for geometries 
+   * with a large number of vertices in many components.
+   * 
+   *@param g  a <code>Geometry</code>
+   *@param isParallel true if components should be transformed in parallel
+   *@return a transformed Geometry
+   */
+  public Geometry transform(Geometry g, boolean isParallel)
   {
     Geometry g2 = g.copy();
-    g2.apply(this);
+    final List<CoordinateSequence> seqs = new ArrayList<CoordinateSequence>();
+    g2.apply(new GeometryComponentFilter() {
+      public void filter(Geometry geom) {
+        if (geom instanceof LineString) {
+          seqs.add(((LineString) geom).getCoordinateSequence());
+        }
+        else if (geom instanceof Point) {
+          seqs.add(((Point) geom).getCoordinateSequence());
+        }
+      }
+    });
+    int numPts = g2.getNumPoints();
+    if (isParallel && numPts > PARALLEL_MIN_SIZE && seqs.size() > 1) {
+      // size blocks to contain roughly the minimum number of vertices
+      int blockSize = (int) Math.max(1, (long) seqs.size() * PARALLEL_MIN_SIZE / numPts);
+      ParallelRange.execute(seqs.size(), blockSize, new ParallelRange.Procedure() {
+        public void compute(int start, int end) {
+          for (int i = start; i < end; i++) {
+            transform(seqs.get(i));
+          }
+        }
+      });
+    }
+    else {
+      for (CoordinateSequence seq : seqs) {
+        transform(seq);
+      }
+    }
+    g2.geometryChanged();
     return g2;    
   }
   
+  /**
+   * Applies this transformation to all coordinates
+   * in the given CoordinateSequence.
+   * Packed and array-based sequences are transformed
+   * directly in their underlying arrays,
+   * which is much faster than transforming
+   * each coordinate individually.
+   * <p>
+   * If the sequence belongs to a geometry,
+   * {@link Geometry#geometryChanged()} must be called afterwards.
+   * 
+   *@param seq  a <code>CoordinateSequence</code>
+   */
+  public void transform(CoordinateSequence seq)
+  {
+    int n = seq.size();
+    if (n == 0) return;
+    if (seq instanceof PackedCoordinateSequence.Double) {
+      // setOrdinate clears the cached coordinates of the sequence
+      transform(seq, 0);
+      transform(((PackedCoordinateSequence.Double) seq).getRawCoordinates(), 
+          seq.getDimension(), 1, n);
+    }
+    else if (seq instanceof PackedCoordinateSequence.Float) {
+      transform(seq, 0);
+      transform(((PackedCoordinateSequence.Float) seq).getRawCoordinates(), 
+          seq.getDimension(), 1, n);
+    }
+    else if (seq instanceof CoordinateArraySequence) {
+      // this is the underlying array for this sequence type
+      transform(seq.toCoordinateArray());
+    }
+    else {
+      for (int i = 0; i < n; i++) {
+        double x = seq.getX(i);
+        double y = seq.getY(i);
+        seq.setOrdinate(i, 0, m00 * x + m01 * y + m02);
+        seq.setOrdinate(i, 1, m10 * x + m11 * y + m12);
+      }
+    }
+  }
+  
+  /**
+   * Applies this transformation to a range of coordinates 
+   * stored in a packed array of ordinates.
+   * 
+   * @param ords the ordinate values
+   * @param dimension the number of ordinates for each coordinate
+   * @param start the index of the first coordinate to transform
+   * @param end the index after the last coordinate to transform
+   */
+  public void transform(double[] ords, int dimension, int start, int end)
+  {
+    // copy fields to locals to allow the JIT to keep them in registers
+    double a00 = m00, a01 = m01, a02 = m02;
+    double a10 = m10, a11 = m11, a12 = m12;
+    int iEnd = end * dimension;
+    for (int i = start * dimension; i < iEnd; i += dimension) {
+      double x = ords[i];
+      double y = ords[i + 1];
+      ords[i] = a00 * x + a01 * y + a02;
+      ords[i + 1] = a10 * x + a11 * y + a12;
+    }
+  }
+  
+  private void transform(float[] ords, int dimension, int start, int end)
+  {
+    double a00 = m00, a01 = m01, a02 = m02;
+    double a10 = m10, a11 = m11, a12 = m12;
+    int iEnd = end * dimension;
+    for (int i = start * dimension; i < iEnd; i += dimension) {
+      double x = ords[i];
+      double y = ords[i + 1];
+      ords[i] = (float) (a00 * x + a01 * y + a02);
+      ords[i + 1] = (float) (a10 * x + a11 * y + a12);
+    }
+  }
+  
+  private void transform(Coordinate[] pts)
+  {
+    double a00 = m00, a01 = m01, a02 = m02;
+    double a10 = m10, a11 = m11, a12 = m12;
+    for (int i = 0; i < pts.length; i++) {
+      Coordinate p = pts[i];
+      double x = p.x;
+      double y = p.y;
+      p.x = a00 * x + a01 * y + a02;
+      p.y = a10 * x + a11 * y + a12;
+    }
+  }
+  
   /**
    * Applies this transformation to the i'th coordinate
    * in the given CoordinateSequence.
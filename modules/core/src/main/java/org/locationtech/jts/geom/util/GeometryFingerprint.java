@@ -0,0 +1,239 @@
+/*
+ * Copyright (c) 2021 Martin Davis.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jts.geom.util;
+
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryCollection;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.geom.MultiLineString;
+import org.locationtech.jts.geom.MultiPoint;
+import org.locationtech.jts.geom.MultiPolygon;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.Polygon;
+
+/**
+ * Computes 64-bit structural fingerprints of geometries,
+ * allowing geometries to be compared and deduplicated by hash.
+ * A fingerprint is computed in a single pass over the geometry coordinates,
+ * without creating any objects.
+ * <p>
+ * Two kinds of fingerprint are provided:
+ * <ul>
+ * <li>{@link #fingerprint(Geometry)} reflects the exact structure of the geometry.
+ * Geometries which are equal according to {@link Geometry#equalsExact(Geometry)}
+ * have the same fingerprint.
+ * <li>{@link #fingerprintNorm(Geometry)} is independent of the
+ * order of components in collections, the order of polygon holes,
+ * the start point and orientation of polygon rings, and the direction of lines.
+ * Geometries which are equal according to {@link Geometry#equalsNorm(Geometry)}
+ * have the same normalized fingerprint.
+ * This avoids the cost of copying and normalizing the geometries.
+ * </ul>
+ * Geometries with different fingerprints are not equal.
+ * Geometries with the same fingerprint are very likely to be equal,
+ * but this must be confirmed by an exact comparison.
+ * <p>
+ * Fingerprints depend only on the geometry type, structure and
+ * X and Y ordinate values (as is the case for geometry equality).
+ * They are stable across JVM runs and platforms,
+ * so may be persisted and compared between datasets.
+ *
+ * @author Martin Davis
+ *
+ * @see Geometry#equalsExact(Geometry)
+ * @see Geometry#equalsNorm(Geometry)
+ */
+public class GeometryFingerprint {
+
+  private static final long TYPE_POINT = 1;
+  private static final long TYPE_LINESTRING = 2;
+  private static final long TYPE_POLYGON = 3;
+  private static final long TYPE_MULTIPOINT = 4;
+  private static final long TYPE_MULTILINESTRING = 5;
+  private static final long TYPE_MULTIPOLYGON = 6;
+  private static final long TYPE_GEOMETRYCOLLECTION = 7;
+
+  private static final long PRIME = 0x100000001B3L;
+  private static final long GOLDEN = 0x9E3779B97F4A7C15L;
+
+  /**
+   * Computes the fingerprint of a geometry.
+   * Geometries which are equal according to {@link Geometry#equalsExact(Geometry)}
+   * have the same fingerprint.
+   *
+   * @param geom the geometry
+   * @return the fingerprint of the geometry
+   */
+  public static long fingerprint(Geometry geom) {
+    return mix(hash(geom, false));
+  }
+
+  /**
+   * Computes the normalized fingerprint of a geometry.
+   * Geometries which are equal according to {@link Geometry#equalsNorm(Geometry)}
+   * have the same normalized fingerprint.
+   *
+   * @param geom the geometry
+   * @return the normalized fingerprint of the geometry
+   */
+  public static long fingerprintNorm(Geometry geom) {
+    return mix(hash(geom, true));
+  }
+
+  private static long hash(Geometry geom, boolean isNorm) {
+    if (geom instanceof Point) {
+      return hashPoint((Point) geom);
+    }
+    if (geom instanceof LineString) {
+      // LinearRings are equal to LineStrings, so have the same type
+      CoordinateSequence seq = ((LineString) geom).getCoordinateSequence();
+      long h = isNorm ? hashLineNorm(seq) : hashSequence(seq);
+      return combine(TYPE_LINESTRING, h);
+    }
+    if (geom instanceof Polygon) {
+      return hashPolygon((Polygon) geom, isNorm);
+    }
+    return hashCollection((GeometryCollection) geom, isNorm);
+  }
+
+  private static long hashPoint(Point pt) {
+    CoordinateSequence seq = pt.getCoordinateSequence();
+    long h = TYPE_POINT;
+    if (seq.size() > 0) {
+      h = combine(h, hashXY(seq.getX(0), seq.getY(0)));
+    }
+    return h;
+  }
+
+  private static long hashPolygon(Polygon poly, boolean isNorm) {
+    long h = combine(TYPE_POLYGON, poly.getNumInteriorRing());
+    if (! isNorm) {
+      h = combine(h, hashSequence(poly.getExteriorRing().getCoordinateSequence()));
+      for (int i = 0; i < poly.getNumInteriorRing(); i++) {
+        h = combine(h, hashSequence(poly.getInteriorRingN(i).getCoordinateSequence()));
+      }
+      return h;
+    }
+    h = combine(h, hashRingNorm(poly.getExteriorRing().getCoordinateSequence()));
+    // holes are summed, so their order is not significant
+    long holeSum = 0;
+    for (int i = 0; i < poly.getNumInteriorRing(); i++) {
+      holeSum += mix(hashRingNorm(poly.getInteriorRingN(i).getCoordinateSequence()));
+    }
+    return combine(h, holeSum);
+  }
+
+  private static long hashCollection(GeometryCollection gc, boolean isNorm) {
+    int n = gc.getNumGeometries();
+    long h = combine(collectionType(gc), n);
+    if (! isNorm) {
+      for (int i = 0; i < n; i++) {
+        h = combine(h, hash(gc.getGeometryN(i), false));
+      }
+      return h;
+    }
+    // components are summed, so their order is not significant
+    long sum = 0;
+    for (int i = 0; i < n; i++) {
+      sum += mix(hash(gc.getGeometryN(i), true));
+    }
+    return combine(h, sum);
+  }
+
+  private static long collectionType(GeometryCollection gc) {
+    if (gc instanceof MultiPoint) return TYPE_MULTIPOINT;
+    if (gc instanceof MultiLineString) return TYPE_MULTILINESTRING;
+    if (gc instanceof MultiPolygon) return TYPE_MULTIPOLYGON;
+    return TYPE_GEOMETRYCOLLECTION;
+  }
+
+  /**
+   * Hashes the coordinates of a sequence in order.
+   */
+  private static long hashSequence(CoordinateSequence seq) {
+    int n = seq.size();
+    long h = n;
+    for (int i = 0; i < n; i++) {
+      h = combine(h, bits(seq.getX(i)));
+      h = combine(h, bits(seq.getY(i)));
+    }
+    return h;
+  }
+
+  /**
+   * Hashes the coordinates of a sequence independent of its direction,
+   * by hashing in both directions in the same pass.
+   */
+  private static long hashLineNorm(CoordinateSequence seq) {
+    int n = seq.size();
+    long hFwd = n;
+    long hRev = n;
+    for (int i = 0; i < n; i++) {
+      int j = n - 1 - i;
+      hFwd = combine(hFwd, bits(seq.getX(i)));
+      hFwd = combine(hFwd, bits(seq.getY(i)));
+      hRev = combine(hRev, bits(seq.getX(j)));
+      hRev = combine(hRev, bits(seq.getY(j)));
+    }
+    return Math.min(hFwd, hRev);
+  }
+
+  /**
+   * Hashes a closed ring independent of its start point and orientation,
+   * by summing hashes of its undirected edges.
+   */
+  private static long hashRingNorm(CoordinateSequence seq) {
+    int n = seq.size();
+    if (n == 0) return 0;
+    long sum = 0;
+    long hPrev = hashXY(seq.getX(0), seq.getY(0));
+    for (int i = 1; i < n; i++) {
+      long h = hashXY(seq.getX(i), seq.getY(i));
+      // sum is symmetric, so edge direction is not significant
+      sum += mix(hPrev + h);
+      hPrev = h;
+    }
+    return combine(n, sum);
+  }
+
+  private static long hashXY(double x, double y) {
+    return mix(bits(x) * GOLDEN + bits(y));
+  }
+
+  /**
+   * Gets the bits of an ordinate value,
+   * with positive and negative zero having the same value
+   * (since they are equal).
+   */
+  private static long bits(double v) {
+    if (v == 0.0) return 0L;
+    return Double.doubleToLongBits(v);
+  }
+
+  private static long combine(long h, long v) {
+    return Long.rotateLeft((h ^ v) * PRIME, 31);
+  }
+
+  /**
+   * Mixes the bits of a hash value
+   * (using the MurmurHash3 finalizer).
+   */
+  private static long mix(long h) {
+    h ^= h >>> 33;
+    h *= 0xFF51AFD7ED558CCDL;
+    h ^= h >>> 33;
+    h *= 0xC4CEB9FE1A85EC53L;
+    h ^= h >>> 33;
+    return h;
+  }
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) 2021 Martin Davis.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jts.index;
+
+/**
+ * A visitor for the items found by a {@link BatchQuery}.
+ * Each item is visited along with the index of the 
+ * query envelope which found it.
+ * <p>
+ * If the batch query is executed in parallel
+ * the visitor is called concurrently from multiple threads,
+ * so it must be thread-safe.
+ * 
+ * @author Martin Davis
+ *
+ */
+public interface BatchItemVisitor
+{
+  /**
+   * Visits an item found by a query.
+   * 
+   * @param queryIndex the index of the query envelope in the batch
+   * @param item the item found
+   */
+  void visitItem(int queryIndex, Object item);
+}
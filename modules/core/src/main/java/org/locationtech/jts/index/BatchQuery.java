@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2021 Martin Davis.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jts.index;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.index.hprtree.HilbertEncoder;
+import org.locationtech.jts.util.ParallelRange;
+
+/**
+ * Executes a batch of envelope queries against a {@link SpatialIndex}
+ * (such as an {@link org.locationtech.jts.index.strtree.STRtree},
+ * {@link org.locationtech.jts.index.hprtree.HPRtree} or
+ * {@link org.locationtech.jts.index.quadtree.Quadtree}).
+ * <p>
+ * The queries are executed in the Hilbert order
+ * of the midpoints of the query envelopes.
+ * Consecutive queries thus tend to be spatially close,
+ * and visit many of the same index nodes,
+ * which improves memory cache reuse.
+ * The results for each query are the same as
+ * if it was executed individually.
+ * <p>
+ * The batch can optionally be executed in parallel,
+ * using a {@link ForkJoinPool}.
+ * Each task executes a contiguous run of queries in Hilbert order.
+ * The index must support concurrent queries
+ * (which is the case for the JTS index classes once they are built).
+ *
+ * @author Martin Davis
+ *
+ */
+public class BatchQuery
+{
+  private static final int HILBERT_LEVEL = 12;
+
+  /**
+   * The number of queries executed by each task in a parallel batch.
+   */
+  private static final int PARALLEL_BLOCK_SIZE = 256;
+
+  private SpatialIndex index;
+  private ForkJoinPool pool = null;
+
+  /**
+   * Creates a new batch query for an index.
+   *
+   * @param index the index to query
+   */
+  public BatchQuery(SpatialIndex index) {
+    this.index = index;
+  }
+
+  /**
+   * Sets the pool used to execute batches in parallel.
+   * If the pool is <code>null</code> (the default),
+   * the queries are executed serially in the calling thread.
+   *
+   * @param pool the pool to execute queries in, or null
+   */
+  public void setPool(ForkJoinPool pool) {
+    this.pool = pool;
+  }
+
+  /**
+   * Queries the index for the items intersecting each of
+   * a set of query envelopes.
+   *
+   * @param queryEnvs the query envelopes
+   * @return an array of lists of the items found by each query,
+   *   in the order of the query envelopes
+   */
+  public List[] query(final Envelope[] queryEnvs) {
+    final List[] results = new List[queryEnvs.length];
+    execute(queryEnvs, new QueryProcedure(queryEnvs) {
+      protected void query(int queryIndex) {
+        results[queryIndex] = index.query(queryEnvs[queryIndex]);
+      }
+    });
+    return results;
+  }
+
+  /**
+   * Queries the index for the items intersecting each of
+   * a set of query envelopes,
+   * passing each item found along with the index of its query
+   * to a {@link BatchItemVisitor}.
+   * If the batch is executed in parallel,
+   * the visitor must be thread-safe.
+   *
+   * @param queryEnvs the query envelopes
+   * @param visitor the visitor to apply to the query results
+   */
+  public void query(final Envelope[] queryEnvs, final BatchItemVisitor visitor) {
+    execute(queryEnvs, new QueryProcedure(queryEnvs) {
+      protected void query(final int queryIndex) {
+        index.query(queryEnvs[queryIndex], new ItemVisitor() {
+          public void visitItem(Object item) {
+            visitor.visitItem(queryIndex, item);
+          }
+        });
+      }
+    });
+  }
+
+  private void execute(Envelope[] queryEnvs, QueryProcedure proc) {
+    if (queryEnvs.length == 0) return;
+    /**
+     * Execute the first query in the calling thread,
+     * so that an index which is built lazily
+     * is built before queries are executed in parallel.
+     */
+    proc.compute(0, 1);
+    if (pool == null) {
+      proc.compute(1, queryEnvs.length);
+    }
+    else {
+      final QueryProcedure queryProc = proc;
+      ParallelRange.execute(pool, queryEnvs.length - 1, PARALLEL_BLOCK_SIZE,
+          new ParallelRange.Procedure() {
+        public void compute(int start, int end) {
+          queryProc.compute(start + 1, end + 1);
+        }
+      });
+    }
+  }
+
+  /**
+   * Computes the order of a set of query envelopes
+   * along the Hilbert curve of their midpoints.
+   *
+   * @param queryEnvs the query envelopes
+   * @return the indexes of the envelopes in Hilbert order
+   */
+  static int[] hilbertOrder(Envelope[] queryEnvs) {
+    Envelope extent = new Envelope();
+    for (int i = 0; i < queryEnvs.length; i++) {
+      extent.expandToInclude(queryEnvs[i]);
+    }
+    HilbertEncoder encoder = new HilbertEncoder(HILBERT_LEVEL, extent);
+    long[] keys = new long[queryEnvs.length];
+    for (int i = 0; i < queryEnvs.length; i++) {
+      int hcode = queryEnvs[i].isNull() ? 0 : encoder.encode(queryEnvs[i]);
+      // combine with the query index, to provide a stable order
+      keys[i] = ((long) hcode << 32) | i;
+    }
+    Arrays.sort(keys);
+    int[] order = new int[queryEnvs.length];
+    for (int i = 0; i < order.length; i++) {
+      order[i] = (int) keys[i];
+    }
+    return order;
+  }
+
+  /**
+   * Executes the queries at a range of positions
+   * in the Hilbert order of the query envelopes.
+   */
+  private static abstract class QueryProcedure implements ParallelRange.Procedure {
+    private int[] order;
+
+    QueryProcedure(Envelope[] queryEnvs) {
+      order = hilbertOrder(queryEnvs);
+    }
+
+    public void compute(int start, int end) {
+      for (int i = start; i < end; i++) {
+        query(order[i]);
+      }
+    }
+
+    protected abstract void query(int queryIndex);
+  }
+}
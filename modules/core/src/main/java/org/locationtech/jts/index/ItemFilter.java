@@ -0,0 +1,27 @@
+/*
+ * Copyright (c) 2021 Martin Davis.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+
+package org.locationtech.jts.index;
+
+/**
+ * A filter which selects items in a {@link SpatialIndex}.
+ */
+public interface ItemFilter
+{
+  /**
+   * Tests whether an item is selected by the filter.
+   * 
+   * @param item an index item
+   * @return true if the item is selected
+   */
+  boolean isSelected(Object item);
+}
@@ -12,16 +12,20 @@
 package org.locationtech.jts.index.hprtree;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.Comparator;
 import java.util.List;
+import java.util.PriorityQueue;
 
 import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.EnvelopeArray;
 import org.locationtech.jts.geom.GeometryFactory;
 import org.locationtech.jts.index.ArrayListVisitor;
 import org.locationtech.jts.index.ItemVisitor;
 import org.locationtech.jts.index.SpatialIndex;
+import org.locationtech.jts.index.strtree.ItemDistance;
 import org.locationtech.jts.index.strtree.STRtree;
+import org.locationtech.jts.util.ParallelRange;
 
 /**
  * A Hilbert-Packed R-tree.  This is a static R-tree
@@ -38,6 +42,11 @@ import org.locationtech.jts.index.strtree.STRtree;
  * <li>For each block a layer node is created with range
  * equal to the envelope of the items/nodess in the block
  * </ul>
+ * The items are stored in a struct-of-arrays layout,
+ * using a flat array of item bounds
+ * and an array of item values
+ * (or an array of integer ids, if items are 
+ * inserted via {@link #insertItemId(Envelope, int)}).
  * The internal layers are stored using an array to
  * store the node bounds.
  * The link between a node and its children is 
@@ -52,6 +61,15 @@ import org.locationtech.jts.index.strtree.STRtree;
  * However, it is not clear whether this 
  * will produce a significant improvement 
  * for use in JTS operations.
+ * <p>
+ * The tree can optionally be built in parallel
+ * (see {@link #setParallelBuild(boolean)}).
+ * This produces a tree identical to a serial build.
+ * <p>
+ * Nearest-neighbour and within-distance searches 
+ * are supported using an {@link ItemDistance} metric.
+ * They use a Branch-and-Bound traversal
+ * which operates directly on the packed node bounds.
  * 
  * @see STRtree
  * 
@@ -64,11 +82,47 @@ public class HPRtree
 {
   private static final int ENV_SIZE = 4;
 
+  /**
+   * The layer index used to reference leaf items
+   * in distance searches.
+   */
+  static final int ITEM_LAYER = -1;
+
   private static final int HILBERT_LEVEL = 12;
 
   private static int DEFAULT_NODE_CAPACITY = 16;
   
-  private List<Item> items = new ArrayList<Item>();
+  private static final int INITIAL_ITEM_CAPACITY = 16;
+
+  /**
+   * The number of items or nodes processed by each task 
+   * in a parallel build.
+   */
+  private static final int PARALLEL_BLOCK_SIZE = 8192;
+
+  private int numItems = 0;
+
+  /**
+   * The bounds of the items, stored as minX, minY, maxX, maxY.
+   */
+  private double[] itemBounds = new double[0];
+
+  /**
+   * The item values, if the tree stores objects.
+   */
+  private Object[] itemValues;
+
+  /**
+   * The item ids, if the tree stores integer ids.
+   */
+  private int[] itemIds;
+
+  /**
+   * The first id assigned by the next call to {@link #insertItemIds(EnvelopeArray)}.
+   * This is greater than every id previously inserted by any method,
+   * so that assigned ids are unique.
+   */
+  private long nextItemId = 0;
   
   private int nodeCapacity = DEFAULT_NODE_CAPACITY;
 
@@ -80,6 +134,8 @@ public class HPRtree
 
   private boolean isBuilt = false;
 
+  private boolean isParallelBuild = false;
+
   //public int nodeIntersectsCount;
 
   /**
@@ -98,24 +154,197 @@ public class HPRtree
     this.nodeCapacity = nodeCapacity;
   }
   
+  /**
+   * Sets whether the tree is built in parallel,
+   * using the fork-join common pool
+   * (or the current pool, if the build is run in a {@link java.util.concurrent.ForkJoinPool}).
+   * Parallel building reduces the build time for large trees
+   * on multi-core machines. 
+   * The tree produced is identical to one built serially.
+   * 
+   * @param isParallelBuild true if the tree should be built in parallel
+   */
+  public void setParallelBuild(boolean isParallelBuild) {
+    this.isParallelBuild = isParallelBuild;
+  }
+
   /**
    * Gets the number of items in the index.
    * 
    * @return the number of items
    */
   public int size() {
-    return items.size();
+    return numItems;
   }
   
   @Override
   public void insert(Envelope itemEnv, Object item) {
+    checkInsert(itemIds != null);
+    if (itemValues == null) itemValues = new Object[0];
+    if (numItems >= itemValues.length) {
+      itemValues = Arrays.copyOf(itemValues, newItemCapacity());
+    }
+    itemValues[numItems] = item;
+    addItemBounds(itemEnv);
+  }
+
+  /**
+   * Inserts an item identified by an integer id.
+   * A tree containing id items stores no item objects,
+   * which minimizes its memory footprint.
+   * The ids of items can be retrieved 
+   * using {@link #queryItemIds(Envelope, ItemIdVisitor)}.
+   * A tree must contain either id items or object items, not both.
+   * 
+   * @param itemEnv the envelope of the item
+   * @param itemId the id of the item
+   */
+  public void insertItemId(Envelope itemEnv, int itemId) {
+    checkInsert(itemValues != null);
+    if (itemIds == null) itemIds = new int[0];
+    if (numItems >= itemIds.length) {
+      itemIds = Arrays.copyOf(itemIds, newItemCapacity());
+    }
+    itemIds[numItems] = itemId;
+    addItemBounds(itemEnv);
+    updateNextItemId(itemId);
+  }
+
+  /**
+   * Inserts a set of items with envelopes given by an {@link EnvelopeArray}.
+   * The envelope values are copied directly,
+   * without creating any {@link Envelope} objects.
+   * Items with null envelopes are not inserted.
+   * 
+   * @param itemEnvs the envelopes of the items
+   * @param items the items to insert
+   */
+  public void insert(EnvelopeArray itemEnvs, Object[] items) {
+    checkInsert(itemIds != null);
+    checkSameSize(itemEnvs, items.length);
+    int n = items.length;
+    if (itemValues == null) itemValues = new Object[0];
+    if (numItems + n > itemValues.length) {
+      itemValues = Arrays.copyOf(itemValues, Math.max(numItems + n, newItemCapacity()));
+    }
+    ensureBoundsCapacity(numItems + n);
+    for (int i = 0; i < n; i++) {
+      if (itemEnvs.isNull(i)) continue;
+      itemValues[numItems] = items[i];
+      addItemBounds(itemEnvs, i);
+    }
+    totalExtent.expandToInclude(itemEnvs.getExtent());
+  }
+
+  /**
+   * Inserts a set of id items with envelopes given by an {@link EnvelopeArray}.
+   * The items are assigned consecutive ids in the order of the envelope array,
+   * starting at one more than the largest id previously inserted 
+   * (by any of the id insertion methods), or 0 if none.
+   * (I.e. if only this method is used, the ids are 
+   * the indices in the concatenation of the arrays.)
+   * Ids are also assigned to (but not inserted for) null envelopes.
+   * The envelope values are copied directly,
+   * without creating any {@link Envelope} objects.
+   * Items with null envelopes are not inserted.
+   * 
+   * @param itemEnvs the envelopes of the items
+   * @throws IllegalStateException if the ids would exceed the integer range
+   */
+  public void insertItemIds(EnvelopeArray itemEnvs) {
+    int n = itemEnvs.size();
+    if (nextItemId + n - 1 > Integer.MAX_VALUE) {
+      throw new IllegalStateException("Item ids exceed the integer range");
+    }
+    int[] ids = new int[n];
+    for (int i = 0; i < n; i++) {
+      ids[i] = (int) nextItemId + i;
+    }
+    insertItemIds(itemEnvs, ids);
+  }
+
+  /**
+   * Inserts a set of id items with envelopes given by an {@link EnvelopeArray}
+   * and ids given by an array.
+   * The envelope values are copied directly,
+   * without creating any {@link Envelope} objects.
+   * Items with null envelopes are not inserted.
+   * 
+   * @param itemEnvs the envelopes of the items
+   * @param ids the ids of the items
+   */
+  public void insertItemIds(EnvelopeArray itemEnvs, int[] ids) {
+    checkInsert(itemValues != null);
+    checkSameSize(itemEnvs, ids.length);
+    int n = ids.length;
+    if (itemIds == null) itemIds = new int[0];
+    if (numItems + n > itemIds.length) {
+      itemIds = Arrays.copyOf(itemIds, Math.max(numItems + n, newItemCapacity()));
+    }
+    ensureBoundsCapacity(numItems + n);
+    for (int i = 0; i < n; i++) {
+      updateNextItemId(ids[i]);
+      if (itemEnvs.isNull(i)) continue;
+      itemIds[numItems] = ids[i];
+      addItemBounds(itemEnvs, i);
+    }
+    totalExtent.expandToInclude(itemEnvs.getExtent());
+  }
+
+  private void updateNextItemId(int itemId) {
+    if (itemId >= nextItemId) {
+      nextItemId = (long) itemId + 1;
+    }
+  }
+
+  private static void checkSameSize(EnvelopeArray itemEnvs, int numItems) {
+    if (itemEnvs.size() != numItems)
+      throw new IllegalArgumentException("Envelope array and item array must have the same size");
+  }
+
+  private void checkInsert(boolean isOtherItemType) {
     if (isBuilt) {
       throw new IllegalStateException("Cannot insert items after tree is built.");
     }
-    items.add( new Item(itemEnv, item) );
+    if (isOtherItemType) {
+      throw new IllegalStateException("Cannot insert both object items and id items.");
+    }
+  }
+
+  private int newItemCapacity() {
+    return Math.max(INITIAL_ITEM_CAPACITY, 2 * numItems);
+  }
+
+  private void addItemBounds(Envelope itemEnv) {
+    int index = ENV_SIZE * numItems;
+    if (index >= itemBounds.length) {
+      itemBounds = Arrays.copyOf(itemBounds, ENV_SIZE * newItemCapacity());
+    }
+    itemBounds[index] = itemEnv.getMinX();
+    itemBounds[index+1] = itemEnv.getMinY();
+    itemBounds[index+2] = itemEnv.getMaxX();
+    itemBounds[index+3] = itemEnv.getMaxY();
+    numItems++;
     totalExtent.expandToInclude(itemEnv);
   }
 
+  private void ensureBoundsCapacity(int capacity) {
+    int length = ENV_SIZE * capacity;
+    if (length > itemBounds.length) {
+      itemBounds = Arrays.copyOf(itemBounds, Math.max(length, ENV_SIZE * newItemCapacity()));
+    }
+  }
+
+  /**
+   * Adds the bounds of an envelope in an array.
+   * The bounds capacity must already be sufficient,
+   * and the tree extent is updated by the caller.
+   */
+  private void addItemBounds(EnvelopeArray itemEnvs, int i) {
+    System.arraycopy(itemEnvs.getBoundsArray(), ENV_SIZE * i, itemBounds, ENV_SIZE * numItems, ENV_SIZE);
+    numItems++;
+  }
+
   @Override
   public List query(Envelope searchEnv) {
     build();
@@ -129,7 +358,42 @@ public class HPRtree
   }
 
   @Override
-  public void query(Envelope searchEnv, ItemVisitor visitor) {
+  public void query(Envelope searchEnv, final ItemVisitor visitor) {
+    queryItemIndex(searchEnv, new ItemIdVisitor() {
+      public void visitItem(int itemIndex) {
+        visitor.visitItem(getItem(itemIndex));
+      }
+    });
+  }
+
+  /**
+   * Queries the index for the ids of all items 
+   * whose extents intersect the given search envelope.
+   * The tree must contain id items
+   * inserted using {@link #insertItemId(Envelope, int)}.
+   * 
+   * @param searchEnv the envelope to query for
+   * @param visitor a visitor object to apply to the ids found
+   */
+  public void queryItemIds(Envelope searchEnv, final ItemIdVisitor visitor) {
+    if (itemValues != null) {
+      throw new IllegalStateException("Tree does not contain id items");
+    }
+    queryItemIndex(searchEnv, new ItemIdVisitor() {
+      public void visitItem(int itemIndex) {
+        visitor.visitItem(itemIds[itemIndex]);
+      }
+    });
+  }
+
+  /**
+   * Queries the index for the items intersecting a search envelope,
+   * passing the internal index of each item found to a visitor.
+   * 
+   * @param searchEnv the envelope to query for
+   * @param visitor a visitor to apply to the indexes of the items found
+   */
+  private void queryItemIndex(Envelope searchEnv, ItemIdVisitor visitor) {
     build();
     if (! totalExtent.intersects(searchEnv)) 
       return;
@@ -141,7 +405,7 @@ public class HPRtree
     }
   }
 
-  private void queryTopLayer(Envelope searchEnv, ItemVisitor visitor) {
+  private void queryTopLayer(Envelope searchEnv, ItemIdVisitor visitor) {
     int layerIndex = layerStartIndex.length - 2;
     int layerSize = layerSize(layerIndex);
     // query each node in layer
@@ -150,7 +414,7 @@ public class HPRtree
     }
   }
 
-  private void queryNode(int layerIndex, int nodeOffset, Envelope searchEnv, ItemVisitor visitor) {
+  private void queryNode(int layerIndex, int nodeOffset, Envelope searchEnv, ItemIdVisitor visitor) {
     int layerStart = layerStartIndex[layerIndex];
     int nodeIndex = layerStart + nodeOffset;
     if (! intersects(nodeIndex, searchEnv)) return;
@@ -173,7 +437,7 @@ public class HPRtree
     return ! isBeyond;
   }
   
-  private void queryNodeChildren(int layerIndex, int blockOffset, Envelope searchEnv, ItemVisitor visitor) {
+  private void queryNodeChildren(int layerIndex, int blockOffset, Envelope searchEnv, ItemIdVisitor visitor) {
     int layerStart = layerStartIndex[layerIndex];
     int layerEnd = layerStartIndex[layerIndex + 1];
     for (int i = 0; i < nodeCapacity; i++) {
@@ -185,36 +449,24 @@ public class HPRtree
     }
   }
 
-  private void queryItems(int blockStart, Envelope searchEnv, ItemVisitor visitor) {
-    for (int i = 0; i < nodeCapacity; i++) {
-      int itemIndex = blockStart + i; 
-      // don't query past end of items
-      if (itemIndex >= items.size()) break;
-      
+  private void queryItems(int blockStart, Envelope searchEnv, ItemIdVisitor visitor) {
+    double minX = searchEnv.getMinX();
+    double minY = searchEnv.getMinY();
+    double maxX = searchEnv.getMaxX();
+    double maxY = searchEnv.getMaxY();
+    int blockEnd = Math.min(blockStart + nodeCapacity, numItems);
+    for (int itemIndex = blockStart; itemIndex < blockEnd; itemIndex++) {
       // visit the item if its envelope intersects search env
-      Item item = items.get(itemIndex);
-      //nodeIntersectsCount++;
-      if (intersects( item.getEnvelope(), searchEnv) ) {
-      //if (item.getEnvelope().intersects(searchEnv)) {
-        visitor.visitItem(item.getItem());
+      int index = ENV_SIZE * itemIndex;
+      boolean isBeyond = (maxX < itemBounds[index]) 
+          || (maxY < itemBounds[index+1]) 
+          || (minX > itemBounds[index+2]) 
+          || (minY > itemBounds[index+3]);
+      if (! isBeyond) {
+        visitor.visitItem(itemIndex);
       }
     }    
   }
-
-  /**
-   * Tests whether two envelopes intersect.
-   * Avoids the null check in {@link Envelope#intersects(Envelope)}.
-   * 
-   * @param env1 an envelope
-   * @param env2 an envelope
-   * @return true if the envelopes intersect
-   */
-  private static boolean intersects(Envelope env1, Envelope env2) {
-    return !(env2.getMinX() > env1.getMaxX() ||
-        env2.getMaxX() < env1.getMinX() ||
-        env2.getMinY() > env1.getMaxY() ||
-        env2.getMaxY() < env1.getMinY());
-  }
   
   private int layerSize(int layerIndex) {
     int layerStart = layerStartIndex[layerIndex];
@@ -235,21 +487,31 @@ public class HPRtree
     // skip if already built
     if (isBuilt) return;
     isBuilt  = true;
+    trimItems();
     // don't need to build an empty or very small tree
-    if (items.size() <= nodeCapacity) return;
+    if (numItems <= nodeCapacity) return;
 
     sortItems();
-    //dumpItems(items);
+    //dumpItems();
     
-    layerStartIndex = computeLayerIndices(items.size(), nodeCapacity);
+    layerStartIndex = computeLayerIndices(numItems, nodeCapacity);
     // allocate storage
     int nodeCount = layerStartIndex[ layerStartIndex.length - 1 ] / 4;
     nodeBounds = createBoundsArray(nodeCount);
     
     // compute tree nodes
-    computeLeafNodes(layerStartIndex[1]);
+    computeRange(layerNodeCount(0), new ParallelRange.Procedure() {
+      public void compute(int start, int end) {
+        computeLeafNodes(start, end);
+      }
+    });
     for (int i = 1; i < layerStartIndex.length - 1; i++) {
-      computeLayerNodes(i);
+      final int layerIndex = i;
+      computeRange(layerNodeCount(layerIndex), new ParallelRange.Procedure() {
+        public void compute(int start, int end) {
+          computeLayerNodes(layerIndex, start, end);
+        }
+      });
     }
     //dumpNodes();
   }
@@ -264,11 +526,25 @@ public class HPRtree
   }
 */
   
-  private static void dumpItems(List<Item> items) {
+  private void dumpItems() {
     GeometryFactory fact = new GeometryFactory();
-    for (Item item : items) {
-      Envelope env = item.getEnvelope();
-      System.out.println(fact.toGeometry(env));
+    for (int i = 0; i < numItems; i++) {
+      System.out.println(fact.toGeometry(getItemEnvelope(i)));
+    }
+  }
+
+  /**
+   * Releases the unused capacity of the item arrays.
+   */
+  private void trimItems() {
+    if (ENV_SIZE * numItems < itemBounds.length) {
+      itemBounds = Arrays.copyOf(itemBounds, ENV_SIZE * numItems);
+    }
+    if (itemValues != null && numItems < itemValues.length) {
+      itemValues = Arrays.copyOf(itemValues, numItems);
+    }
+    if (itemIds != null && numItems < itemIds.length) {
+      itemIds = Arrays.copyOf(itemIds, numItems);
     }
   }
 
@@ -284,12 +560,28 @@ public class HPRtree
     return a;
   }
 
-  private void computeLayerNodes(int layerIndex) {
+  /**
+   * Executes a build computation over a range of items or nodes,
+   * in parallel if required.
+   * 
+   * @param size the size of the range
+   * @param proc the computation to execute
+   */
+  private void computeRange(int size, ParallelRange.Procedure proc) {
+    if (isParallelBuild) {
+      ParallelRange.execute(size, PARALLEL_BLOCK_SIZE, proc);
+    }
+    else {
+      proc.compute(0, size);
+    }
+  }
+
+  private void computeLayerNodes(int layerIndex, int startNode, int endNode) {
     int layerStart = layerStartIndex[layerIndex];
     int childLayerStart = layerStartIndex[layerIndex - 1];
-    int layerSize = layerSize(layerIndex);
     int childLayerEnd = layerStart;
-    for (int i = 0; i < layerSize; i += ENV_SIZE) {
+    for (int node = startNode; node < endNode; node++) {
+      int i = ENV_SIZE * node;
       int childStart = childLayerStart + nodeCapacity * i;
       computeNodeBounds(layerStart + i, childStart, childLayerEnd);
       //System.out.println("Layer: " + layerIndex + " node: " + i + " - " + getNodeEnvelope(layerStart + i));
@@ -304,18 +596,18 @@ public class HPRtree
     } 
   }
 
-  private void computeLeafNodes(int layerSize) {
-    for (int i = 0; i < layerSize; i += ENV_SIZE) {
-      computeLeafNodeBounds(i, nodeCapacity * i/4);
+  private void computeLeafNodes(int startNode, int endNode) {
+    for (int node = startNode; node < endNode; node++) {
+      computeLeafNodeBounds(ENV_SIZE * node, nodeCapacity * node);
     }
   }
 
   private void computeLeafNodeBounds(int nodeIndex, int blockStart) {
     for (int i = 0; i <= nodeCapacity; i++ ) {
       int itemIndex = blockStart + i;
-      if (itemIndex >= items.size()) break;
-      Envelope env = items.get(itemIndex).getEnvelope();
-      updateNodeBounds(nodeIndex, env.getMinX(), env.getMinY(), env.getMaxX(), env.getMaxY());
+      if (itemIndex >= numItems) break;
+      int index = ENV_SIZE * itemIndex;
+      updateNodeBounds(nodeIndex, itemBounds[index], itemBounds[index+1], itemBounds[index+2], itemBounds[index+3]);
     }
   }
 
@@ -365,6 +657,413 @@ public class HPRtree
     return array;
   }
 
+  /**
+   * Finds the item in this tree which is nearest to the given {@link Object}, 
+   * using {@link ItemDistance} as the distance metric.
+   * A Branch-and-Bound tree traversal algorithm is used
+   * to provide an efficient search.
+   * <p>
+   * The query <tt>item</tt> does <b>not</b> have to be 
+   * contained in the tree, but it does 
+   * have to be compatible with the <tt>itemDist</tt> 
+   * distance metric. 
+   * 
+   * @param env the envelope of the query item
+   * @param item the item to find the nearest neighbour of
+   * @param itemDist a distance metric applicable to the items in this tree and the query item
+   * @return the nearest item in this tree
+   *    or <code>null</code> if the tree is empty
+   */
+  public Object nearestNeighbour(Envelope env, Object item, ItemDistance itemDist)
+  {
+    Object[] nn = nearestNeighbour(env, item, itemDist, 1);
+    if (nn.length == 0) return null;
+    return nn[0];
+  }
+
+  /**
+   * Finds the k items in this tree which are nearest to the given {@link Object}, 
+   * using {@link ItemDistance} as the distance metric.
+   * A Branch-and-Bound tree traversal algorithm is used
+   * to provide an efficient search.
+   * The items are returned in order of increasing distance.
+   * <p>
+   * The query <tt>item</tt> does <b>not</b> have to be 
+   * contained in the tree, but it does 
+   * have to be compatible with the <tt>itemDist</tt> 
+   * distance metric. 
+   * 
+   * @param env the envelope of the query item
+   * @param item the item to find the nearest neighbours of
+   * @param itemDist a distance metric applicable to the items in this tree and the query item
+   * @param k the number of nearest items to find
+   * @return the k nearest items in this tree, nearest first
+   *    (fewer if the tree contains fewer than k items)
+   */
+  public Object[] nearestNeighbour(Envelope env, Object item, ItemDistance itemDist, int k)
+  {
+    build();
+    if (size() == 0 || k <= 0) return new Object[0];
+    HPRtree queryTree = createQueryTree(env, item);
+    NodePair np = rootPair(queryTree, itemDist);
+    return nearestNeighbourK(np, k);
+  }
+
+  /**
+   * Finds the two nearest distinct items in the tree, 
+   * using {@link ItemDistance} as the distance metric.
+   * A Branch-and-Bound tree traversal algorithm is used
+   * to provide an efficient search.
+   * <p>
+   * Pairs consisting of the same item on both sides
+   * are not considered.
+   * 
+   * @param itemDist a distance metric applicable to the items in this tree
+   * @return the pair of the nearest items
+   *    or <code>null</code> if the tree has fewer than two items
+   */
+  public Object[] nearestNeighbour(ItemDistance itemDist)
+  {
+    build();
+    if (size() == 0) return null;
+    return nearestNeighbour(rootPair(this, itemDist));
+  }
+
+  /**
+   * Finds the two nearest items from this tree 
+   * and another tree,
+   * using {@link ItemDistance} as the distance metric.
+   * A Branch-and-Bound tree traversal algorithm is used
+   * to provide an efficient search.
+   * The result value is a pair of items, 
+   * the first from this tree and the second
+   * from the argument tree.
+   * 
+   * @param tree another tree
+   * @param itemDist a distance metric applicable to the items in the trees
+   * @return the pair of the nearest items, one from each tree
+   *    or <code>null</code> if either tree is empty
+   */
+  public Object[] nearestNeighbour(HPRtree tree, ItemDistance itemDist)
+  {
+    build();
+    tree.build();
+    if (size() == 0 || tree.size() == 0) return null;
+    return nearestNeighbour(rootPair(tree, itemDist));
+  }
+
+  /**
+   * Tests whether some item in this tree
+   * lies within a given distance of a query item.
+   * {@link ItemDistance} is used as the distance metric.
+   * A Branch-and-Bound tree traversal algorithm is used
+   * to provide an efficient search.
+   * 
+   * @param env the envelope of the query item
+   * @param item the query item
+   * @param itemDist a distance metric applicable to the items in this tree and the query item
+   * @param maxDistance the distance limit for the search
+   * @return true if there is an item within the distance
+   */
+  public boolean isWithinDistance(Envelope env, Object item, ItemDistance itemDist, double maxDistance)
+  {
+    build();
+    if (size() == 0) return false;
+    HPRtree queryTree = createQueryTree(env, item);
+    return isWithinDistance(rootPair(queryTree, itemDist), maxDistance);
+  }
+
+  /**
+   * Tests whether some two items from this tree and another tree
+   * lie within a given distance.
+   * {@link ItemDistance} is used as the distance metric.
+   * A Branch-and-Bound tree traversal algorithm is used
+   * to provide an efficient search.
+   * 
+   * @param tree another tree
+   * @param itemDist a distance metric applicable to the items in the trees
+   * @param maxDistance the distance limit for the search
+   * @return true if there are items within the distance
+   */
+  public boolean isWithinDistance(HPRtree tree, ItemDistance itemDist, double maxDistance)
+  {
+    build();
+    tree.build();
+    if (size() == 0 || tree.size() == 0) return false;
+    return isWithinDistance(rootPair(tree, itemDist), maxDistance);
+  }
+
+  private static HPRtree createQueryTree(Envelope env, Object item) {
+    HPRtree queryTree = new HPRtree();
+    queryTree.insert(env, item);
+    queryTree.build();
+    return queryTree;
+  }
+
+  private NodePair rootPair(HPRtree tree, ItemDistance itemDist) {
+    return new NodePair(this, rootLayer(), 0, tree, tree.rootLayer(), 0, itemDist);
+  }
+
+  private static Object[] nearestNeighbour(NodePair initPair) 
+  {
+    double distanceLowerBound = Double.POSITIVE_INFINITY;
+    NodePair minPair = null;
+    
+    PriorityQueue<NodePair> priQ = new PriorityQueue<NodePair>();
+    priQ.add(initPair);
+
+    while (! priQ.isEmpty() && distanceLowerBound > 0.0) {
+      NodePair pair = priQ.poll();
+      double pairDistance = pair.getDistance();
+      
+      /**
+       * If the distance for the first pair in the queue
+       * is >= current minimum distance, other pairs
+       * in the queue must also have a greater distance.
+       * So the current minimum must be the true minimum.
+       */
+      if (pairDistance >= distanceLowerBound) 
+        break;  
+
+      if (pair.isLeaves()) {
+        distanceLowerBound = pairDistance;
+        minPair = pair;
+      }
+      else {
+        pair.expandToQueue(priQ, distanceLowerBound);
+      }
+    }
+    if (minPair == null) 
+      return null;
+    return new Object[] { minPair.getItem(0), minPair.getItem(1) };
+  }
+
+  private static Object[] nearestNeighbourK(NodePair initPair, int k) 
+  {
+    double distanceLowerBound = Double.POSITIVE_INFINITY;
+    
+    PriorityQueue<NodePair> priQ = new PriorityQueue<NodePair>();
+    priQ.add(initPair);
+    // max-heap, so the farthest of the current k nearest is at the head
+    PriorityQueue<NodePair> kNearest = new PriorityQueue<NodePair>(k, Collections.reverseOrder());
+
+    while (! priQ.isEmpty()) {
+      NodePair pair = priQ.poll();
+      double pairDistance = pair.getDistance();
+      
+      /**
+       * If the distance for the first pair in the queue
+       * is >= the farthest of the k nearest items found, 
+       * all other pairs in the queue must also have a greater distance.
+       */
+      if (pairDistance >= distanceLowerBound)
+        break;  
+
+      if (pair.isLeaves()) {
+        kNearest.add(pair);
+        if (kNearest.size() > k) {
+          kNearest.poll();
+        }
+        if (kNearest.size() == k) {
+          distanceLowerBound = kNearest.peek().getDistance();
+        }
+      }
+      else {
+        pair.expandToQueue(priQ, distanceLowerBound);
+      }
+    }
+    Object[] result = new Object[kNearest.size()];
+    for (int i = result.length - 1; i >= 0; i--) {
+      result[i] = kNearest.poll().getItem(0);
+    }
+    return result;
+  }
+
+  /**
+   * Performs a withinDistance search on the tree node pairs.
+   * The maximum distance between nodes is used 
+   * to confirm that two nodes must contain items 
+   * closer than the maxDistance, and short-circuit the search.
+   * 
+   * @param initPair the initial pair containing the tree root nodes
+   * @param maxDistance the maximum distance to search for
+   * @return true if two items lie within the given distance
+   */
+  private static boolean isWithinDistance(NodePair initPair, double maxDistance) 
+  {
+    PriorityQueue<NodePair> priQ = new PriorityQueue<NodePair>();
+    priQ.add(initPair);
+
+    while (! priQ.isEmpty()) {
+      NodePair pair = priQ.poll();
+      double pairDistance = pair.getDistance();
+      
+      /**
+       * If the distance for the first pair in the queue
+       * is > maxDistance, all other pairs
+       * in the queue must have a greater distance as well.
+       */
+      if (pairDistance > maxDistance) 
+        return false;  
+
+      if (pair.isLeaves()) {
+        // the queue is ordered, so this is the closest pair
+        return true;
+      }
+      /**
+       * If the maximum distance between the nodes
+       * is less than the maxDistance,
+       * than all items in the nodes must be 
+       * closer than the max distance.
+       */
+      if (pair.maximumDistance() <= maxDistance)
+        return true;
+      
+      pair.expandToQueue(priQ, Double.POSITIVE_INFINITY);
+    }
+    return false;
+  }
+
+  /**
+   * Gets the node capacity of the tree.
+   * 
+   * @return the node capacity
+   */
+  public int getNodeCapacity() {
+    return nodeCapacity;
+  }
+
+  /**
+   * Tests whether the tree contains id items.
+   * 
+   * @return true if the tree contains id items
+   * @see #insertItemId(Envelope, int)
+   */
+  public boolean isItemIdTree() {
+    return itemValues == null && numItems > 0;
+  }
+
+  Envelope getTotalExtent() {
+    return totalExtent;
+  }
+
+  int[] getLayerStartIndex() {
+    return layerStartIndex;
+  }
+
+  double[] getNodeBounds() {
+    return nodeBounds;
+  }
+
+  double[] getItemBounds() {
+    return itemBounds;
+  }
+
+  int[] getItemIds() {
+    return itemIds;
+  }
+
+  /**
+   * Gets the layer index of the (virtual) root node,
+   * whose bounds are the total extent of the tree.
+   * The children of the root are the nodes of the top layer,
+   * or all the items if the tree has no internal layers.
+   * 
+   * @return the layer index of the root
+   */
+  int rootLayer() {
+    if (layerStartIndex == null) return 0;
+    return layerStartIndex.length - 1;
+  }
+
+  /**
+   * Gets the number of nodes in a layer, 
+   * or the number of items for {@link #ITEM_LAYER}.
+   * 
+   * @param layer a layer index
+   * @return the number of nodes in the layer
+   */
+  private int layerNodeCount(int layer) {
+    if (layer == ITEM_LAYER) return numItems;
+    return layerSize(layer) / ENV_SIZE;
+  }
+
+  /**
+   * Gets the index of the first child of a node.
+   * Child indexes are relative to the next lower layer.
+   * 
+   * @param node the index of the node in its layer
+   * @return the index of the first child in the child layer
+   */
+  int getChildStart(int node) {
+    return node * nodeCapacity;
+  }
+
+  /**
+   * Gets the index after the last child of a node.
+   * 
+   * @param layer the layer index of the node
+   * @param node the index of the node in its layer
+   * @return the index after the last child in the child layer
+   */
+  int getChildEnd(int layer, int node) {
+    return Math.min((node + 1) * nodeCapacity, layerNodeCount(layer - 1));
+  }
+
+  /**
+   * Gets an item value.
+   * For a tree containing id items
+   * the id is returned as an {@link Integer}.
+   * 
+   * @param itemIndex the index of the item
+   * @return the item value
+   */
+  Object getItem(int itemIndex) {
+    if (itemIds != null) return itemIds[itemIndex];
+    return itemValues[itemIndex];
+  }
+
+  Envelope getItemEnvelope(int itemIndex) {
+    int index = ENV_SIZE * itemIndex;
+    return new Envelope(itemBounds[index], itemBounds[index+2], 
+        itemBounds[index+1], itemBounds[index+3]);
+  }
+
+  double getMinX(int layer, int node) {
+    return getBound(layer, node, 0);
+  }
+
+  double getMinY(int layer, int node) {
+    return getBound(layer, node, 1);
+  }
+
+  double getMaxX(int layer, int node) {
+    return getBound(layer, node, 2);
+  }
+
+  double getMaxY(int layer, int node) {
+    return getBound(layer, node, 3);
+  }
+
+  private double getBound(int layer, int node, int ordinateIndex) {
+    if (layer == ITEM_LAYER) 
+      return itemBounds[ENV_SIZE * node + ordinateIndex];
+    if (layer == rootLayer()) {
+      switch (ordinateIndex) {
+      case 0: return totalExtent.getMinX();
+      case 1: return totalExtent.getMinY();
+      case 2: return totalExtent.getMaxX();
+      default: return totalExtent.getMaxY();
+      }
+    }
+    return nodeBounds[layerStartIndex[layer] + ENV_SIZE * node + ordinateIndex];
+  }
+
+  double getArea(int layer, int node) {
+    return (getMaxX(layer, node) - getMinX(layer, node)) 
+        * (getMaxY(layer, node) - getMinY(layer, node));
+  }
+
   /**
    * Gets the extents of the internal index nodes
    * 
@@ -382,25 +1081,56 @@ public class HPRtree
     return bounds;
   }
   
+  /**
+   * Sorts the items by the Hilbert code of their envelope midpoint.
+   * The sort keys combine the Hilbert code and the item index,
+   * so that sorting them as primitives is stable.
+   * The item arrays are then permuted into the sorted order.
+   */
   private void sortItems() {
-    ItemComparator comp = new ItemComparator(new HilbertEncoder(HILBERT_LEVEL, totalExtent));
-    Collections.sort(items, comp);
+    final HilbertEncoder encoder = new HilbertEncoder(HILBERT_LEVEL, totalExtent);
+    final long[] keys = new long[numItems];
+    computeRange(numItems, new ParallelRange.Procedure() {
+      public void compute(int start, int end) {
+        for (int i = start; i < end; i++) {
+          int index = ENV_SIZE * i;
+          int hcode = encoder.encode(itemBounds[index], itemBounds[index+1], 
+              itemBounds[index+2], itemBounds[index+3]);
+          keys[i] = sortKey(hcode, i);
+        }
+      }
+    });
+    if (isParallelBuild) {
+      Arrays.parallelSort(keys);
+    }
+    else {
+      Arrays.sort(keys);
+    }
+    permuteItems(keys);
   }
-  
-  static class ItemComparator implements Comparator<Item> {
 
-    private HilbertEncoder encoder;
-    
-    public ItemComparator(HilbertEncoder encoder) {
-      this.encoder = encoder;
-    }
+  private static long sortKey(int hcode, int itemIndex) {
+    return ((long) hcode << 32) | itemIndex;
+  }
 
-    @Override
-    public int compare(Item item1, Item item2) {
-      int hcode1 = encoder.encode(item1.getEnvelope());
-      int hcode2 = encoder.encode(item2.getEnvelope());
-      return Integer.compare(hcode1, hcode2);
-    }
+  private void permuteItems(final long[] sortedKeys) {
+    final double[] sortedBounds = new double[ENV_SIZE * numItems];
+    final Object[] sortedValues = itemValues == null ? null : new Object[numItems];
+    final int[] sortedIds = itemIds == null ? null : new int[numItems];
+    computeRange(numItems, new ParallelRange.Procedure() {
+      public void compute(int start, int end) {
+        for (int i = start; i < end; i++) {
+          int srcItem = (int) sortedKeys[i];
+          System.arraycopy(itemBounds, ENV_SIZE * srcItem, sortedBounds, ENV_SIZE * i, ENV_SIZE);
+          if (sortedValues != null) sortedValues[i] = itemValues[srcItem];
+          if (sortedIds != null) sortedIds[i] = itemIds[srcItem];
+        }
+      }
+    });
+    itemBounds = sortedBounds;
+    itemValues = sortedValues;
+    itemIds = sortedIds;
   }
 
+
 }
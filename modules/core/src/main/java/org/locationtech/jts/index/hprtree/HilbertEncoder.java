@@ -29,16 +29,30 @@ public class HilbertEncoder {
     double extentX = extent.getWidth();
     strideX = extentX / hside;
     
-    miny = extent.getMinX();
+    miny = extent.getMinY();
     double extentY = extent.getHeight();
     strideY = extentY / hside;
   }
 
   public int encode(Envelope env) {
-    double midx = env.getWidth()/2 + env.getMinX();
+    return encode(env.getMinX(), env.getMinY(), env.getMaxX(), env.getMaxY());
+  }
+
+  /**
+   * Computes the Hilbert code of the midpoint of an envelope
+   * given by its ordinate values.
+   * 
+   * @param envMinX the minimum X ordinate of the envelope
+   * @param envMinY the minimum Y ordinate of the envelope
+   * @param envMaxX the maximum X ordinate of the envelope
+   * @param envMaxY the maximum Y ordinate of the envelope
+   * @return the Hilbert code of the envelope midpoint
+   */
+  public int encode(double envMinX, double envMinY, double envMaxX, double envMaxY) {
+    double midx = (envMaxX - envMinX)/2 + envMinX;
     int x = (int) ((midx - minx) / strideX);
 
-    double midy = env.getHeight()/2 + env.getMinY();
+    double midy = (envMaxY - envMinY)/2 + envMinY;
     int y = (int) ((midy - miny) / strideY);
       
     return HilbertCode.encode(level, x, y);
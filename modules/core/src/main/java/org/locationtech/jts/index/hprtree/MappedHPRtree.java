@@ -0,0 +1,352 @@
+/*
+ * Copyright (c) 2021 Martin Davis.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jts.index.hprtree;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.util.List;
+
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.index.ArrayListVisitor;
+import org.locationtech.jts.index.ItemVisitor;
+import org.locationtech.jts.index.SpatialIndex;
+
+/**
+ * A read-only {@link HPRtree} stored in a {@link ByteBuffer}
+ * using a compact binary format.
+ * The buffer may be a memory-mapped file
+ * (see {@link #open(File)}),
+ * in which case the tree is available immediately
+ * without any deserialization,
+ * and its storage is shared between processes
+ * and does not occupy the Java heap.
+ * Queries operate directly on the node and item bounds in the buffer.
+ * <p>
+ * A tree is written using {@link #write(HPRtree, OutputStream)}.
+ * Only trees containing id items can be written
+ * (see {@link HPRtree#insertItemId(Envelope, int)}).
+ * The ids typically index an external array or file of features.
+ * Query results provide the item ids,
+ * either directly via {@link #queryItemIds(Envelope, ItemIdVisitor)}
+ * or as {@link Integer} items via the {@link SpatialIndex} methods.
+ * <p>
+ * The format is (using big-endian byte order):
+ * <pre>
+ * int      magic number (0x48505254, "HPRT")
+ * int      format version
+ * int      node capacity
+ * int      number of items (N)
+ * int      number of layer indexes (L, 0 if the tree has no nodes)
+ * int[L]   layer start indexes
+ * int      padding (if L is even, to align the doubles)
+ * double[4] total extent (minX, minY, maxX, maxY)
+ * double[] node bounds (the last layer start index gives the size)
+ * double[4N] item bounds (minX, minY, maxX, maxY)
+ * int[N]   item ids
+ * </pre>
+ * Because a buffer is limited to 2 GB,
+ * the format supports trees of up to about 50 million items.
+ * <p>
+ * Querying the tree is thread-safe.
+ *
+ * @author Martin Davis
+ *
+ */
+public class MappedHPRtree
+  implements SpatialIndex
+{
+  static final int MAGIC = 0x48505254;
+
+  static final int VERSION = 1;
+
+  private static final int ENV_SIZE = 4;
+
+  private static final int HEADER_INTS = 5;
+
+  /**
+   * Writes a built tree containing id items to a stream.
+   * The tree is built if necessary.
+   * The stream is not closed.
+   *
+   * @param tree the tree to write
+   * @param os the stream to write to
+   * @throws IOException if an I/O error occurs
+   * @throws IllegalArgumentException if the tree does not contain id items
+   */
+  public static void write(HPRtree tree, OutputStream os)
+    throws IOException
+  {
+    tree.build();
+    if (tree.size() > 0 && ! tree.isItemIdTree()) {
+      throw new IllegalArgumentException("Only trees containing id items can be written");
+    }
+    DataOutputStream out = new DataOutputStream(new BufferedOutputStream(os));
+    int[] layerStartIndex = tree.getLayerStartIndex();
+    if (layerStartIndex == null) layerStartIndex = new int[0];
+
+    out.writeInt(MAGIC);
+    out.writeInt(VERSION);
+    out.writeInt(tree.getNodeCapacity());
+    out.writeInt(tree.size());
+    out.writeInt(layerStartIndex.length);
+    for (int i = 0; i < layerStartIndex.length; i++) {
+      out.writeInt(layerStartIndex[i]);
+    }
+    if (isPadded(layerStartIndex.length)) {
+      out.writeInt(0);
+    }
+    Envelope extent = tree.getTotalExtent();
+    out.writeDouble(extent.getMinX());
+    out.writeDouble(extent.getMinY());
+    out.writeDouble(extent.getMaxX());
+    out.writeDouble(extent.getMaxY());
+
+    int numNodeBounds = nodeBoundsSize(layerStartIndex);
+    double[] nodeBounds = tree.getNodeBounds();
+    for (int i = 0; i < numNodeBounds; i++) {
+      out.writeDouble(nodeBounds[i]);
+    }
+    double[] itemBounds = tree.getItemBounds();
+    for (int i = 0; i < ENV_SIZE * tree.size(); i++) {
+      out.writeDouble(itemBounds[i]);
+    }
+    int[] itemIds = tree.getItemIds();
+    for (int i = 0; i < tree.size(); i++) {
+      out.writeInt(itemIds[i]);
+    }
+    out.flush();
+  }
+
+  /**
+   * Opens a tree stored in a file, by memory-mapping it.
+   * The file can be closed (and the mapping remains valid)
+   * once this method returns.
+   *
+   * @param file the file containing the tree
+   * @return the tree stored in the file
+   * @throws IOException if an I/O error occurs
+   * @throws IllegalArgumentException if the file does not contain a valid tree
+   */
+  public static MappedHPRtree open(File file)
+    throws IOException
+  {
+    RandomAccessFile raf = new RandomAccessFile(file, "r");
+    try {
+      FileChannel channel = raf.getChannel();
+      ByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      return new MappedHPRtree(buf);
+    }
+    finally {
+      raf.close();
+    }
+  }
+
+  private static boolean isPadded(int numLayerIndexes) {
+    // the header ints plus the layer indexes must be an even number
+    return (HEADER_INTS + numLayerIndexes) % 2 != 0;
+  }
+
+  private static int nodeBoundsSize(int[] layerStartIndex) {
+    if (layerStartIndex.length == 0) return 0;
+    return layerStartIndex[layerStartIndex.length - 1];
+  }
+
+  private int nodeCapacity;
+  private int numItems;
+  private int[] layerStartIndex;
+  private Envelope totalExtent;
+  private DoubleBuffer nodeBounds;
+  private DoubleBuffer itemBounds;
+  private IntBuffer itemIds;
+
+  /**
+   * Creates a tree over a buffer containing a tree
+   * written by {@link #write(HPRtree, OutputStream)}.
+   * The tree data starts at the current position of the buffer.
+   * The buffer contents must not be modified while the tree is in use.
+   *
+   * @param buf the buffer containing the tree
+   * @throws IllegalArgumentException if the buffer does not contain a valid tree
+   */
+  public MappedHPRtree(ByteBuffer buf) {
+    ByteBuffer data = buf.slice();
+    if (data.remaining() < 4 * HEADER_INTS || data.getInt(0) != MAGIC) {
+      throw new IllegalArgumentException("Buffer does not contain an HPRtree");
+    }
+    if (data.getInt(4) != VERSION) {
+      throw new IllegalArgumentException("Unsupported HPRtree format version: " + data.getInt(4));
+    }
+    nodeCapacity = data.getInt(8);
+    numItems = data.getInt(12);
+    int numLayerIndexes = data.getInt(16);
+    layerStartIndex = new int[numLayerIndexes];
+    int offset = 4 * HEADER_INTS;
+    for (int i = 0; i < numLayerIndexes; i++) {
+      layerStartIndex[i] = data.getInt(offset);
+      offset += 4;
+    }
+    if (isPadded(numLayerIndexes)) offset += 4;
+
+    totalExtent = new Envelope(data.getDouble(offset), data.getDouble(offset + 16),
+        data.getDouble(offset + 8), data.getDouble(offset + 24));
+    offset += 8 * ENV_SIZE;
+
+    int numNodeBounds = nodeBoundsSize(layerStartIndex);
+    nodeBounds = doubleBuffer(data, offset, numNodeBounds);
+    offset += 8 * numNodeBounds;
+    itemBounds = doubleBuffer(data, offset, ENV_SIZE * numItems);
+    offset += 8 * ENV_SIZE * numItems;
+    if (data.limit() < offset + 4 * numItems) {
+      throw new IllegalArgumentException("Buffer is too small for HPRtree");
+    }
+    //-- position via Buffer, since the ByteBuffer overrides do not exist on Java 8
+    ((Buffer) data).position(offset);
+    ((Buffer) data).limit(offset + 4 * numItems);
+    itemIds = data.slice().asIntBuffer();
+  }
+
+  private static DoubleBuffer doubleBuffer(ByteBuffer data, int offset, int size) {
+    if (data.limit() < offset + 8 * size) {
+      throw new IllegalArgumentException("Buffer is too small for HPRtree");
+    }
+    ((Buffer) data).position(offset);
+    ((Buffer) data).limit(offset + 8 * size);
+    DoubleBuffer db = data.slice().asDoubleBuffer();
+    ((Buffer) data).clear();
+    return db;
+  }
+
+  /**
+   * Gets the number of items in the index.
+   *
+   * @return the number of items
+   */
+  public int size() {
+    return numItems;
+  }
+
+  /**
+   * Gets the node capacity of the tree.
+   *
+   * @return the node capacity
+   */
+  public int getNodeCapacity() {
+    return nodeCapacity;
+  }
+
+  /**
+   * Not supported, since the tree is read-only.
+   *
+   * @throws UnsupportedOperationException always
+   */
+  public void insert(Envelope itemEnv, Object item) {
+    throw new UnsupportedOperationException("Cannot insert items into a mapped tree");
+  }
+
+  /**
+   * Not supported, since the tree is read-only.
+   *
+   * @throws UnsupportedOperationException always
+   */
+  public boolean remove(Envelope itemEnv, Object item) {
+    throw new UnsupportedOperationException("Cannot remove items from a mapped tree");
+  }
+
+  /**
+   * Queries the index for the items whose extents intersect a search envelope.
+   * The items are the item ids, as {@link Integer}s.
+   */
+  public List query(Envelope searchEnv) {
+    ArrayListVisitor visitor = new ArrayListVisitor();
+    query(searchEnv, visitor);
+    return visitor.getItems();
+  }
+
+  /**
+   * Queries the index for the items whose extents intersect a search envelope.
+   * The items visited are the item ids, as {@link Integer}s.
+   */
+  public void query(Envelope searchEnv, final ItemVisitor visitor) {
+    queryItemIds(searchEnv, new ItemIdVisitor() {
+      public void visitItem(int itemId) {
+        visitor.visitItem(itemId);
+      }
+    });
+  }
+
+  /**
+   * Queries the index for the ids of all items
+   * whose extents intersect the given search envelope.
+   *
+   * @param searchEnv the envelope to query for
+   * @param visitor a visitor object to apply to the ids found
+   */
+  public void queryItemIds(Envelope searchEnv, ItemIdVisitor visitor) {
+    if (numItems == 0 || ! totalExtent.intersects(searchEnv))
+      return;
+    if (layerStartIndex.length == 0) {
+      queryItems(0, searchEnv, visitor);
+    }
+    else {
+      int topLayer = layerStartIndex.length - 2;
+      int topLayerSize = layerNodeCount(topLayer);
+      for (int node = 0; node < topLayerSize; node++) {
+        queryNode(topLayer, node, searchEnv, visitor);
+      }
+    }
+  }
+
+  private int layerNodeCount(int layerIndex) {
+    return (layerStartIndex[layerIndex + 1] - layerStartIndex[layerIndex]) / ENV_SIZE;
+  }
+
+  private void queryNode(int layerIndex, int node, Envelope searchEnv, ItemIdVisitor visitor) {
+    int nodeIndex = layerStartIndex[layerIndex] + ENV_SIZE * node;
+    if (! intersects(nodeBounds, nodeIndex, searchEnv)) return;
+    int childStart = node * nodeCapacity;
+    if (layerIndex == 0) {
+      queryItems(childStart, searchEnv, visitor);
+      return;
+    }
+    int childLayer = layerIndex - 1;
+    int childEnd = Math.min(childStart + nodeCapacity, layerNodeCount(childLayer));
+    for (int child = childStart; child < childEnd; child++) {
+      queryNode(childLayer, child, searchEnv, visitor);
+    }
+  }
+
+  private void queryItems(int blockStart, Envelope searchEnv, ItemIdVisitor visitor) {
+    int blockEnd = Math.min(blockStart + nodeCapacity, numItems);
+    for (int itemIndex = blockStart; itemIndex < blockEnd; itemIndex++) {
+      if (intersects(itemBounds, ENV_SIZE * itemIndex, searchEnv)) {
+        visitor.visitItem(itemIds.get(itemIndex));
+      }
+    }
+  }
+
+  private static boolean intersects(DoubleBuffer bounds, int index, Envelope env) {
+    boolean isBeyond = (env.getMaxX() < bounds.get(index))
+        || (env.getMaxY() < bounds.get(index + 1))
+        || (env.getMinX() > bounds.get(index + 2))
+        || (env.getMinY() > bounds.get(index + 3));
+    return ! isBeyond;
+  }
+}
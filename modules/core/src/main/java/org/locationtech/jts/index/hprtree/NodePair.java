@@ -0,0 +1,220 @@
+/*
+ * Copyright (c) 2019 Martin Davis.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jts.index.hprtree;
+
+import java.util.PriorityQueue;
+
+import org.locationtech.jts.index.strtree.ItemBoundable;
+import org.locationtech.jts.index.strtree.ItemDistance;
+
+/**
+ * A pair of nodes or items from two {@link HPRtree}s
+ * (which may be the same tree),
+ * whose leaf items support a distance metric between them.
+ * Nodes are referenced by their layer and their position in the layer,
+ * so that the packed node bounds can be accessed directly
+ * without creating intermediate objects.
+ * <p>
+ * Used as the element of the priority queue
+ * in the Branch-and-Bound distance searches.
+ * Provides an ordering based on the distance between the members.
+ *
+ * @author Martin Davis
+ *
+ * @see HPRtree#nearestNeighbour(HPRtree, ItemDistance)
+ */
+class NodePair
+  implements Comparable<NodePair>
+{
+  private HPRtree tree1;
+  private int layer1;
+  private int node1;
+  private HPRtree tree2;
+  private int layer2;
+  private int node2;
+  private ItemDistance itemDistance;
+  private double distance;
+
+  public NodePair(HPRtree tree1, int layer1, int node1,
+      HPRtree tree2, int layer2, int node2,
+      ItemDistance itemDistance)
+  {
+    this.tree1 = tree1;
+    this.layer1 = layer1;
+    this.node1 = node1;
+    this.tree2 = tree2;
+    this.layer2 = layer2;
+    this.node2 = node2;
+    this.itemDistance = itemDistance;
+    distance = distance();
+  }
+
+  /**
+   * Gets the item referenced by one side of the pair
+   * (indexed by [0, 1]).
+   * Only valid if the pair consists of leaf items.
+   *
+   * @param i the index of the member to return (0 or 1)
+   * @return the item of the chosen member
+   */
+  public Object getItem(int i) {
+    if (i == 0) return tree1.getItem(node1);
+    return tree2.getItem(node2);
+  }
+
+  /**
+   * Tests whether this pair consists of the same item
+   * of the same tree on both sides.
+   *
+   * @return true if the pair members are the identical item
+   */
+  public boolean isSameItem() {
+    return isLeaves() && tree1 == tree2 && node1 == node2;
+  }
+
+  /**
+   * Gets the minimum possible distance between the members of
+   * this pair.
+   * If the members are both items, this will be the
+   * exact distance between them.
+   * Otherwise, this distance will be a lower bound on
+   * the distances between the items in the members.
+   *
+   * @return the exact or lower bound distance for this pair
+   */
+  public double getDistance() { return distance; }
+
+  private double distance()
+  {
+    if (isLeaves()) {
+      return itemDistance.distance(
+          new ItemBoundable(tree1.getItemEnvelope(node1), tree1.getItem(node1)),
+          new ItemBoundable(tree2.getItemEnvelope(node2), tree2.getItem(node2)));
+    }
+    double dx = 0.0;
+    if (tree2.getMaxX(layer2, node2) < tree1.getMinX(layer1, node1))
+      dx = tree1.getMinX(layer1, node1) - tree2.getMaxX(layer2, node2);
+    else if (tree2.getMinX(layer2, node2) > tree1.getMaxX(layer1, node1))
+      dx = tree2.getMinX(layer2, node2) - tree1.getMaxX(layer1, node1);
+
+    double dy = 0.0;
+    if (tree2.getMaxY(layer2, node2) < tree1.getMinY(layer1, node1))
+      dy = tree1.getMinY(layer1, node1) - tree2.getMaxY(layer2, node2);
+    else if (tree2.getMinY(layer2, node2) > tree1.getMaxY(layer1, node1))
+      dy = tree2.getMinY(layer2, node2) - tree1.getMaxY(layer1, node1);
+
+    if (dx == 0.0) return dy;
+    if (dy == 0.0) return dx;
+    return Math.sqrt(dx * dx + dy * dy);
+  }
+
+  /**
+   * Computes the maximum distance between any
+   * two items in the pair of nodes.
+   * This is the length of the diagonal of the
+   * envelope containing both members.
+   *
+   * @return the maximum distance between items in the pair
+   */
+  public double maximumDistance()
+  {
+    double minx = Math.min(tree1.getMinX(layer1, node1), tree2.getMinX(layer2, node2));
+    double miny = Math.min(tree1.getMinY(layer1, node1), tree2.getMinY(layer2, node2));
+    double maxx = Math.max(tree1.getMaxX(layer1, node1), tree2.getMaxX(layer2, node2));
+    double maxy = Math.max(tree1.getMaxY(layer1, node1), tree2.getMaxY(layer2, node2));
+    double dx = maxx - minx;
+    double dy = maxy - miny;
+    return Math.sqrt(dx * dx + dy * dy);
+  }
+
+  /**
+   * Compares two pairs based on their minimum distances
+   */
+  public int compareTo(NodePair o)
+  {
+    return Double.compare(distance, o.distance);
+  }
+
+  /**
+   * Tests if both elements of the pair are leaf items
+   *
+   * @return true if both pair elements are leaf items
+   */
+  public boolean isLeaves()
+  {
+    return layer1 == HPRtree.ITEM_LAYER && layer2 == HPRtree.ITEM_LAYER;
+  }
+
+  /**
+   * For a pair which is not a leaf
+   * (i.e. has at least one node member)
+   * computes the new pairs
+   * from the expansion of the larger node
+   * with distance less than minDistance
+   * and adds them to a priority queue.
+   *
+   * @param priQ the priority queue to add the new pairs to
+   * @param minDistance the limit on the distance between added pairs
+   */
+  public void expandToQueue(PriorityQueue<NodePair> priQ, double minDistance)
+  {
+    boolean isNode1 = layer1 != HPRtree.ITEM_LAYER;
+    boolean isNode2 = layer2 != HPRtree.ITEM_LAYER;
+
+    /**
+     * HEURISTIC: If both members are nodes,
+     * choose the one with largest area to expand.
+     * Otherwise, simply expand whichever is a node.
+     */
+    if (isNode1 && isNode2) {
+      if (tree1.getArea(layer1, node1) > tree2.getArea(layer2, node2)) {
+        expand1(priQ, minDistance);
+      }
+      else {
+        expand2(priQ, minDistance);
+      }
+    }
+    else if (isNode1) {
+      expand1(priQ, minDistance);
+    }
+    else if (isNode2) {
+      expand2(priQ, minDistance);
+    }
+    else {
+      throw new IllegalArgumentException("neither member is a node");
+    }
+  }
+
+  private void expand1(PriorityQueue<NodePair> priQ, double minDistance) {
+    int childLayer = layer1 - 1;
+    int start = tree1.getChildStart(node1);
+    int end = tree1.getChildEnd(layer1, node1);
+    for (int child = start; child < end; child++) {
+      NodePair np = new NodePair(tree1, childLayer, child, tree2, layer2, node2, itemDistance);
+      if (np.getDistance() < minDistance && ! np.isSameItem()) {
+        priQ.add(np);
+      }
+    }
+  }
+
+  private void expand2(PriorityQueue<NodePair> priQ, double minDistance) {
+    int childLayer = layer2 - 1;
+    int start = tree2.getChildStart(node2);
+    int end = tree2.getChildEnd(layer2, node2);
+    for (int child = start; child < end; child++) {
+      NodePair np = new NodePair(tree1, layer1, node1, tree2, childLayer, child, itemDistance);
+      if (np.getDistance() < minDistance && ! np.isSameItem()) {
+        priQ.add(np);
+      }
+    }
+  }
+}
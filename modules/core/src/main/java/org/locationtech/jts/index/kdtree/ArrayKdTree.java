@@ -0,0 +1,474 @@
+/*
+ * Copyright (c) 2021 Martin Davis.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+
+package org.locationtech.jts.index.kdtree;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.Envelope;
+
+/**
+ * A 2-D KD-Tree which stores its nodes in primitive arrays,
+ * rather than as {@link KdNode} objects.
+ * The tree has the same structure and semantics as {@link KdTree}
+ * (including snapping of points within a distance tolerance),
+ * but uses much less memory and creates very few objects,
+ * which makes it suitable for indexing very large numbers of points.
+ * <p>
+ * Nodes are identified by an integer index,
+ * which is returned by {@link #insert(Coordinate, Object)}
+ * and can be used to access the node properties.
+ * Queries report nodes to a {@link KdNodeVisitor},
+ * using a {@link KdNode} created for each node visited.
+ * These nodes are detached copies: they do not provide the child nodes,
+ * and do not reflect later changes to the tree.
+ * <p>
+ * Storage for the node data objects is only allocated
+ * if a non-null data object is inserted.
+ * <p>
+ * As with {@link KdTree}, the tree may become imbalanced
+ * if coherent point sets are inserted in order.
+ * This can be avoided by using {@link #load(Coordinate[])}.
+ *
+ * @author Martin Davis
+ *
+ * @see KdTree
+ */
+public class ArrayKdTree {
+
+  private static final int NO_NODE = -1;
+
+  private static final int DEFAULT_CAPACITY = 16;
+
+  private double tolerance;
+  private int numNodes = 0;
+  private double[] nodeX;
+  private double[] nodeY;
+  private int[] nodeCount;
+  private int[] nodeLeft;
+  private int[] nodeRight;
+  private Object[] nodeData = null;
+
+  /**
+   * Creates a new tree with a snapping tolerance of 0.0.
+   * (I.e. distinct points will <i>not</i> be snapped)
+   */
+  public ArrayKdTree() {
+    this(0.0);
+  }
+
+  /**
+   * Creates a new tree, specifying a snapping distance tolerance.
+   * Points which lie closer than the tolerance to a point already in
+   * the tree will be treated as identical to the existing point.
+   *
+   * @param tolerance
+   *          the tolerance distance for considering two points equal
+   */
+  public ArrayKdTree(double tolerance) {
+    this(tolerance, DEFAULT_CAPACITY);
+  }
+
+  /**
+   * Creates a new tree, specifying a snapping distance tolerance
+   * and the number of nodes to allocate storage for initially.
+   *
+   * @param tolerance
+   *          the tolerance distance for considering two points equal
+   * @param initialCapacity the initial number of nodes to allocate storage for
+   */
+  public ArrayKdTree(double tolerance, int initialCapacity) {
+    this.tolerance = tolerance;
+    int capacity = Math.max(1, initialCapacity);
+    nodeX = new double[capacity];
+    nodeY = new double[capacity];
+    nodeCount = new int[capacity];
+    nodeLeft = new int[capacity];
+    nodeRight = new int[capacity];
+  }
+
+  /**
+   * Tests whether the index contains any items.
+   *
+   * @return true if the index does not contain any items
+   */
+  public boolean isEmpty() {
+    return numNodes == 0;
+  }
+
+  /**
+   * Gets the number of nodes in the tree.
+   *
+   * @return the size of the tree
+   */
+  public int size() {
+    return numNodes;
+  }
+
+  /**
+   * Gets the X ordinate of a node.
+   *
+   * @param node the index of a node
+   * @return the X ordinate of the node
+   */
+  public double getX(int node) {
+    return nodeX[node];
+  }
+
+  /**
+   * Gets the Y ordinate of a node.
+   *
+   * @param node the index of a node
+   * @return the Y ordinate of the node
+   */
+  public double getY(int node) {
+    return nodeY[node];
+  }
+
+  /**
+   * Gets the number of inserted points that a node represents.
+   *
+   * @param node the index of a node
+   * @return the number of points represented by the node
+   */
+  public int getCount(int node) {
+    return nodeCount[node];
+  }
+
+  /**
+   * Gets the data object of a node.
+   *
+   * @param node the index of a node
+   * @return the data object of the node (may be null)
+   */
+  public Object getData(int node) {
+    if (nodeData == null) return null;
+    return nodeData[node];
+  }
+
+  /**
+   * Creates a {@link KdNode} containing the values of a node.
+   * The created node does not link to any child nodes.
+   *
+   * @param node the index of a node
+   * @return a KdNode for the node
+   */
+  public KdNode getNode(int node) {
+    return new KdNode(nodeX[node], nodeY[node], getData(node), nodeCount[node]);
+  }
+
+  /**
+   * Inserts a new point in the tree, with no data.
+   *
+   * @param p
+   *          the point to insert
+   * @return the index of the node containing the point
+   */
+  public int insert(Coordinate p) {
+    return insert(p, null);
+  }
+
+  /**
+   * Inserts a new point into the tree.
+   * If the point lies within the tolerance of an existing node,
+   * the count of that node is incremented and its index returned.
+   *
+   * @param p
+   *          the point to insert
+   * @param data
+   *          a data item for the point
+   * @return the index of a new node, or of the existing node the point was snapped to
+   */
+  public int insert(Coordinate p, Object data) {
+    if (numNodes == 0) {
+      return addNode(p, data);
+    }
+    if (tolerance > 0) {
+      int matchNode = findBestMatchNode(p);
+      if (matchNode != NO_NODE) {
+        nodeCount[matchNode]++;
+        return matchNode;
+      }
+    }
+    return insertExact(p, data);
+  }
+
+  /**
+   * Inserts a set of points into the tree,
+   * in an order which produces a balanced tree.
+   *
+   * @param pts the points to insert
+   *
+   * @see KdTree#load(Coordinate[])
+   */
+  public void load(Coordinate[] pts) {
+    Coordinate[] ordered = KdTree.medianOrder(pts);
+    ensureCapacity(numNodes + ordered.length);
+    for (int i = 0; i < ordered.length; i++) {
+      insert(ordered[i]);
+    }
+  }
+
+  /**
+   * Inserts the points of a {@link CoordinateSequence} into the tree,
+   * in an order which produces a balanced tree.
+   *
+   * @param seq the points to insert
+   *
+   * @see KdTree#load(Coordinate[])
+   */
+  public void load(CoordinateSequence seq) {
+    Coordinate[] pts = new Coordinate[seq.size()];
+    for (int i = 0; i < pts.length; i++) {
+      pts[i] = new Coordinate(seq.getX(i), seq.getY(i));
+    }
+    load(pts);
+  }
+
+  /**
+   * Finds the node which is the best match for a point being inserted.
+   * This is the closest node within the tolerance distance,
+   * and if several are the same distance, the lowest one.
+   *
+   * @param p the point being inserted
+   * @return the index of the best matching node, or NO_NODE if none
+   */
+  private int findBestMatchNode(final Coordinate p) {
+    Envelope queryEnv = new Envelope(p);
+    queryEnv.expandBy(tolerance);
+    final int[] matchNode = new int[] { NO_NODE };
+    final double[] matchDist = new double[1];
+    queryNode(0, queryEnv, true, new NodeIndexVisitor() {
+
+      public void visit(int node) {
+        double dist = distance(p, node);
+        if (dist > tolerance) return;
+        int match = matchNode[0];
+        if (match == NO_NODE
+            || dist < matchDist[0]
+            // if distances are the same, record the lesser coordinate
+            || (dist == matchDist[0] && compare(node, match) < 1)) {
+          matchNode[0] = node;
+          matchDist[0] = dist;
+        }
+      }
+    });
+    return matchNode[0];
+  }
+
+  private int compare(int node1, int node2) {
+    if (nodeX[node1] < nodeX[node2]) return -1;
+    if (nodeX[node1] > nodeX[node2]) return 1;
+    if (nodeY[node1] < nodeY[node2]) return -1;
+    if (nodeY[node1] > nodeY[node2]) return 1;
+    return 0;
+  }
+
+  private double distance(Coordinate p, int node) {
+    double dx = p.x - nodeX[node];
+    double dy = p.y - nodeY[node];
+    return Math.sqrt(dx * dx + dy * dy);
+  }
+
+  /**
+   * Inserts a point known to be beyond the distance tolerance of any existing node.
+   * The point is inserted at the bottom of the exact splitting path,
+   * so that tree shape is deterministic.
+   *
+   * @param p the point to insert
+   * @param data the data for the point
+   * @return the index of the node containing the point
+   */
+  private int insertExact(Coordinate p, Object data) {
+    int currentNode = 0;
+    int leafNode = 0;
+    boolean isOddLevel = true;
+    boolean isLessThan = true;
+
+    while (currentNode != NO_NODE) {
+      if (distance(p, currentNode) <= tolerance) {
+        nodeCount[currentNode]++;
+        return currentNode;
+      }
+      if (isOddLevel) {
+        isLessThan = p.x < nodeX[currentNode];
+      } else {
+        isLessThan = p.y < nodeY[currentNode];
+      }
+      leafNode = currentNode;
+      currentNode = isLessThan ? nodeLeft[currentNode] : nodeRight[currentNode];
+      isOddLevel = ! isOddLevel;
+    }
+    int node = addNode(p, data);
+    if (isLessThan) {
+      nodeLeft[leafNode] = node;
+    } else {
+      nodeRight[leafNode] = node;
+    }
+    return node;
+  }
+
+  private int addNode(Coordinate p, Object data) {
+    ensureCapacity(numNodes + 1);
+    int node = numNodes++;
+    nodeX[node] = p.x;
+    nodeY[node] = p.y;
+    nodeCount[node] = 1;
+    nodeLeft[node] = NO_NODE;
+    nodeRight[node] = NO_NODE;
+    if (data != null && nodeData == null) {
+      nodeData = new Object[nodeX.length];
+    }
+    if (nodeData != null) {
+      nodeData[node] = data;
+    }
+    return node;
+  }
+
+  private void ensureCapacity(int capacity) {
+    if (capacity <= nodeX.length) return;
+    int newCapacity = Math.max(capacity, 2 * nodeX.length);
+    nodeX = Arrays.copyOf(nodeX, newCapacity);
+    nodeY = Arrays.copyOf(nodeY, newCapacity);
+    nodeCount = Arrays.copyOf(nodeCount, newCapacity);
+    nodeLeft = Arrays.copyOf(nodeLeft, newCapacity);
+    nodeRight = Arrays.copyOf(nodeRight, newCapacity);
+    if (nodeData != null) {
+      nodeData = Arrays.copyOf(nodeData, newCapacity);
+    }
+  }
+
+  /**
+   * Performs a range search of the points in the index and visits all nodes found.
+   *
+   * @param queryEnv
+   *          the range rectangle to query
+   * @param visitor a visitor to visit all nodes found by the search
+   */
+  public void query(Envelope queryEnv, final KdNodeVisitor visitor) {
+    if (numNodes == 0) return;
+    queryNode(0, queryEnv, true, new NodeIndexVisitor() {
+
+      public void visit(int node) {
+        visitor.visit(getNode(node));
+      }
+    });
+  }
+
+  /**
+   * Performs a range search of the points in the index.
+   *
+   * @param queryEnv
+   *          the range rectangle to query
+   * @return a list of the KdNodes found
+   */
+  public List query(Envelope queryEnv) {
+    final List result = new ArrayList();
+    query(queryEnv, new KdNodeVisitor() {
+
+      public void visit(KdNode node) {
+        result.add(node);
+      }
+
+    });
+    return result;
+  }
+
+  /**
+   * Searches for a given point in the index and returns its node if found.
+   *
+   * @param queryPt the point to query
+   * @return the point node, if it is found in the index, or null if not
+   */
+  public KdNode query(Coordinate queryPt) {
+    int node = queryNodePoint(queryPt);
+    if (node == NO_NODE) return null;
+    return getNode(node);
+  }
+
+  private void queryNode(int currentNode, Envelope queryEnv, boolean odd, NodeIndexVisitor visitor) {
+    if (currentNode == NO_NODE)
+      return;
+
+    double min;
+    double max;
+    double discriminant;
+    if (odd) {
+      min = queryEnv.getMinX();
+      max = queryEnv.getMaxX();
+      discriminant = nodeX[currentNode];
+    } else {
+      min = queryEnv.getMinY();
+      max = queryEnv.getMaxY();
+      discriminant = nodeY[currentNode];
+    }
+    boolean searchLeft = min < discriminant;
+    boolean searchRight = discriminant <= max;
+
+    // search is computed via in-order traversal
+    if (searchLeft) {
+      queryNode(nodeLeft[currentNode], queryEnv, !odd, visitor);
+    }
+    if (queryEnv.contains(nodeX[currentNode], nodeY[currentNode])) {
+      visitor.visit(currentNode);
+    }
+    if (searchRight) {
+      queryNode(nodeRight[currentNode], queryEnv, !odd, visitor);
+    }
+  }
+
+  private int queryNodePoint(Coordinate queryPt) {
+    if (numNodes == 0) return NO_NODE;
+    int currentNode = 0;
+    boolean odd = true;
+    while (currentNode != NO_NODE) {
+      if (nodeX[currentNode] == queryPt.x && nodeY[currentNode] == queryPt.y)
+        return currentNode;
+      boolean searchLeft;
+      if (odd) {
+        searchLeft = queryPt.x < nodeX[currentNode];
+      } else {
+        searchLeft = queryPt.y < nodeY[currentNode];
+      }
+      currentNode = searchLeft ? nodeLeft[currentNode] : nodeRight[currentNode];
+      odd = ! odd;
+    }
+    return NO_NODE;
+  }
+
+  /**
+   * Computes the depth of the tree.
+   *
+   * @return the depth of the tree
+   */
+  public int depth() {
+    if (numNodes == 0) return 0;
+    return depthNode(0);
+  }
+
+  private int depthNode(int currentNode) {
+    if (currentNode == NO_NODE)
+      return 0;
+
+    int dL = depthNode(nodeLeft[currentNode]);
+    int dR = depthNode(nodeRight[currentNode]);
+    return 1 + (dL > dR ? dL : dR);
+  }
+
+  private static interface NodeIndexVisitor {
+    void visit(int node);
+  }
+}
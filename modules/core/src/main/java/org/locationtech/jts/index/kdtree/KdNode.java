@@ -56,6 +56,19 @@ public class KdNode {
         this.data = data;
     }
 
+    /**
+     * Creates a new KdNode representing a given number of points.
+     * 
+     * @param x coordinate of point
+     * @param y coordinate of point
+     * @param data a data objects to associate with this node
+     * @param count the number of points the node represents
+     */
+    KdNode(double x, double y, Object data, int count) {
+        this(x, y, data);
+        this.count = count;
+    }
+
     /**
      * Returns the X coordinate of the node
      * 
@@ -13,12 +13,16 @@
 package org.locationtech.jts.index.kdtree;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
+import java.util.PriorityQueue;
 
 import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.CoordinateList;
+import org.locationtech.jts.geom.CoordinateSequence;
 import org.locationtech.jts.geom.Envelope;
 
 
@@ -47,6 +51,12 @@ import org.locationtech.jts.geom.Envelope;
  * an extremely deep tree may cause a {@link StackOverflowException}.
  * One solution to this is to randomize the order of points before insertion
  * (e.g. by using <a href="https://en.wikipedia.org/wiki/Fisher%E2%80%93Yates_shuffle">Fisher-Yates shuffling</a>).
+ * A better solution, when the points are known in advance, 
+ * is to load them using {@link #load(Coordinate[])}, 
+ * which inserts them in median-split order to produce a balanced tree.
+ * <p>
+ * As well as range queries, the tree supports 
+ * k-nearest-neighbour and radius queries.
  * 
  * @author David Skea
  * @author Martin Davis
@@ -166,6 +176,123 @@ public class KdTree {
     return insertExact(p, data);
   }
     
+  /**
+   * Inserts a set of points into the tree,
+   * in an order which produces a balanced tree.
+   * The points are ordered by recursively splitting them at the median
+   * of the X and Y ordinates alternately,
+   * so that the median point of each subset becomes the root of its subtree.
+   * If the tree is empty and the tolerance is zero, 
+   * the tree is perfectly balanced (up to repeated ordinate values).
+   * Otherwise points may be snapped to existing nodes as usual,
+   * and the tree is close to balanced.
+   * <p>
+   * This avoids the deep trees produced by inserting
+   * coherent point sets (such as GPS traces) in their given order.
+   * 
+   * @param pts the points to insert
+   */
+  public void load(Coordinate[] pts) {
+    Coordinate[] ordered = medianOrder(pts);
+    for (int i = 0; i < ordered.length; i++) {
+      insert(ordered[i]);
+    }
+  }
+
+  /**
+   * Inserts the points of a {@link CoordinateSequence} into the tree,
+   * in an order which produces a balanced tree.
+   * 
+   * @param seq the points to insert
+   * 
+   * @see #load(Coordinate[])
+   */
+  public void load(CoordinateSequence seq) {
+    Coordinate[] pts = new Coordinate[seq.size()];
+    for (int i = 0; i < pts.length; i++) {
+      pts[i] = new Coordinate(seq.getX(i), seq.getY(i));
+    }
+    load(pts);
+  }
+
+  /**
+   * Orders a set of points so that inserting them in order
+   * produces a balanced tree.
+   * <p>
+   * Exact duplicate points are collapsed before ordering,
+   * since they do not create new nodes 
+   * (they only increment the count of the existing node).
+   * The duplicates are placed after the distinct points.
+   * Since the distinct points never have both ordinates equal,
+   * runs of equal values in one ordinate are split by the other ordinate
+   * at the next level, so the recursion depth is at most about 2 log(n).
+   * 
+   * @param pts the points to order
+   * @return a new array containing the points in insertion order
+   */
+  static Coordinate[] medianOrder(Coordinate[] pts) {
+    int n = pts.length;
+    Coordinate[] sorted = new Coordinate[n];
+    System.arraycopy(pts, 0, sorted, 0, n);
+    Arrays.sort(sorted, XY_COMPARATOR);
+    
+    Coordinate[] unique = new Coordinate[n];
+    Coordinate[] dups = new Coordinate[n];
+    int nUnique = 0;
+    int nDup = 0;
+    for (int i = 0; i < n; i++) {
+      if (nUnique > 0 && XY_COMPARATOR.compare(sorted[i], unique[nUnique - 1]) == 0) {
+        dups[nDup++] = sorted[i];
+      }
+      else {
+        unique[nUnique++] = sorted[i];
+      }
+    }
+    Coordinate[] ordered = new Coordinate[n];
+    medianOrder(unique, 0, nUnique, true, ordered, 0);
+    System.arraycopy(dups, 0, ordered, nUnique, nDup);
+    return ordered;
+  }
+
+  private static int medianOrder(Coordinate[] pts, int start, int end, boolean odd,
+      Coordinate[] ordered, int orderedIndex) {
+    if (start >= end) return orderedIndex;
+    Arrays.sort(pts, start, end, odd ? X_COMPARATOR : Y_COMPARATOR);
+    int mid = (start + end) / 2;
+    /**
+     * Points with an ordinate equal to the splitting point 
+     * are inserted to the right of it,
+     * so the split must be at the first such point.
+     */
+    double midOrd = odd ? pts[mid].x : pts[mid].y;
+    while (mid > start && midOrd == (odd ? pts[mid - 1].x : pts[mid - 1].y)) {
+      mid--;
+    }
+    ordered[orderedIndex++] = pts[mid];
+    orderedIndex = medianOrder(pts, start, mid, ! odd, ordered, orderedIndex);
+    return medianOrder(pts, mid + 1, end, ! odd, ordered, orderedIndex);
+  }
+
+  private static final Comparator<Coordinate> XY_COMPARATOR = new Comparator<Coordinate>() {
+    public int compare(Coordinate p1, Coordinate p2) {
+      int comp = Double.compare(p1.x, p2.x);
+      if (comp != 0) return comp;
+      return Double.compare(p1.y, p2.y);
+    }
+  };
+
+  private static final Comparator<Coordinate> X_COMPARATOR = new Comparator<Coordinate>() {
+    public int compare(Coordinate p1, Coordinate p2) {
+      return Double.compare(p1.x, p2.x);
+    }
+  };
+
+  private static final Comparator<Coordinate> Y_COMPARATOR = new Comparator<Coordinate>() {
+    public int compare(Coordinate p1, Coordinate p2) {
+      return Double.compare(p1.y, p2.y);
+    }
+  };
+
   /**
    * Finds the node in the tree which is the best match for a point
    * being inserted.
@@ -393,6 +520,125 @@ public class KdTree {
     return queryNodePoint(root, queryPt, true);
   }
 
+  /**
+   * Performs a radius search of the points in the index
+   * and visits all nodes found.
+   * 
+   * @param centre the centre of the search circle
+   * @param radius the radius of the search circle
+   * @param visitor a visitor to visit all nodes lying within the circle
+   */
+  public void query(final Coordinate centre, final double radius, final KdNodeVisitor visitor) {
+    Envelope queryEnv = new Envelope(centre);
+    queryEnv.expandBy(radius);
+    queryNode(root, queryEnv, true, new KdNodeVisitor() {
+
+      public void visit(KdNode node) {
+        if (centre.distance(node.getCoordinate()) <= radius) {
+          visitor.visit(node);
+        }
+      }
+      
+    });
+  }
+
+  /**
+   * Performs a radius search of the points in the index.
+   * 
+   * @param centre the centre of the search circle
+   * @param radius the radius of the search circle
+   * @return a list of the KdNodes lying within the circle
+   */
+  public List query(Coordinate centre, double radius) {
+    final List result = new ArrayList();
+    query(centre, radius, new KdNodeVisitor() {
+
+      public void visit(KdNode node) {
+        result.add(node);
+      }
+      
+    });
+    return result;
+  }
+
+  /**
+   * Finds the node nearest to a given point.
+   * 
+   * @param p the query point
+   * @return the nearest node, or null if the tree is empty
+   */
+  public KdNode nearestNeighbour(Coordinate p) {
+    KdNode[] nearest = nearestNeighbours(p, 1);
+    if (nearest.length == 0) return null;
+    return nearest[0];
+  }
+
+  /**
+   * Finds the k nodes nearest to a given point.
+   * Each node is counted once, regardless of how many 
+   * inserted points it represents.
+   * The search is a branch-and-bound traversal,
+   * which prunes subtrees lying farther from the query point
+   * than the k-th nearest node found so far.
+   * 
+   * @param p the query point
+   * @param k the number of nodes to find
+   * @return the k nearest nodes, nearest first
+   *    (fewer if the tree contains fewer than k nodes)
+   */
+  public KdNode[] nearestNeighbours(final Coordinate p, int k) {
+    if (k <= 0) return new KdNode[0];
+    // max-heap, so the farthest of the current k nearest is at the head
+    PriorityQueue<KdNode> kNearest = new PriorityQueue<KdNode>(k, new Comparator<KdNode>() {
+      public int compare(KdNode n1, KdNode n2) {
+        return Double.compare(p.distance(n2.getCoordinate()), p.distance(n1.getCoordinate()));
+      }
+    });
+    nearestNode(root, p, true, k, kNearest);
+    KdNode[] result = new KdNode[kNearest.size()];
+    for (int i = result.length - 1; i >= 0; i--) {
+      result[i] = kNearest.poll();
+    }
+    return result;
+  }
+
+  private static void nearestNode(KdNode currentNode, Coordinate p, boolean odd, 
+      int k, PriorityQueue<KdNode> kNearest) {
+    if (currentNode == null)
+      return;
+    
+    if (kNearest.size() < k) {
+      kNearest.add(currentNode);
+    }
+    else if (p.distance(currentNode.getCoordinate()) < p.distance(kNearest.peek().getCoordinate())) {
+      kNearest.poll();
+      kNearest.add(currentNode);
+    }
+    
+    double ord;
+    double discriminant;
+    if (odd) {
+      ord = p.getX();
+      discriminant = currentNode.getX();
+    } else {
+      ord = p.getY();
+      discriminant = currentNode.getY();
+    }
+    boolean isLeftNearer = ord < discriminant;
+    KdNode nearChild = isLeftNearer ? currentNode.getLeft() : currentNode.getRight();
+    KdNode farChild = isLeftNearer ? currentNode.getRight() : currentNode.getLeft();
+    
+    nearestNode(nearChild, p, !odd, k, kNearest);
+    /**
+     * The far side of the splitting line only needs to be searched
+     * if it is nearer than the farthest of the current k nearest nodes
+     */
+    if (kNearest.size() < k 
+        || Math.abs(ord - discriminant) < p.distance(kNearest.peek().getCoordinate())) {
+      nearestNode(farChild, p, !odd, k, kNearest);
+    }
+  }
+
   /**
    * Computes the depth of the tree.
    * 
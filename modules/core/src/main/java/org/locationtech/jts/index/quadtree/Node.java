@@ -104,6 +104,25 @@ public class Node
     return this;
   }
 
+  /**
+   * Finds the smallest existing node in this subtree
+   * which contains two envelopes,
+   * both of which are contained in this node.
+   * 
+   * @param env1 an envelope
+   * @param env2 an envelope
+   * @return the smallest node containing both envelopes
+   */
+  Node findCommonAncestor(Envelope env1, Envelope env2)
+  {
+    int subnodeIndex = getSubnodeIndex(env1, centrex, centrey);
+    if (subnodeIndex == -1 
+        || subnode[subnodeIndex] == null
+        || subnodeIndex != getSubnodeIndex(env2, centrex, centrey))
+      return this;
+    return subnode[subnodeIndex].findCommonAncestor(env1, env2);
+  }
+
   void insertNode(Node node)
   {
     Assert.isTrue(env == null || env.contains(node.env));
@@ -18,6 +18,7 @@ import java.util.Iterator;
 import java.util.List;
 
 import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.index.ItemFilter;
 import org.locationtech.jts.index.ItemVisitor;
 
 
@@ -109,6 +110,67 @@ public abstract class NodeBase implements Serializable {
     return found;
   }
 
+  /**
+   * Removes all items in this subtree which are selected by a filter.
+   * Subnodes which become empty are pruned.
+   *
+   * @param filter the filter selecting the items to remove
+   * @return the number of items removed
+   */
+  int removeAll(ItemFilter filter)
+  {
+    int count = 0;
+    for (Iterator i = items.iterator(); i.hasNext(); ) {
+      if (filter.isSelected(i.next())) {
+        i.remove();
+        count++;
+      }
+    }
+    for (int i = 0; i < 4; i++) {
+      if (subnode[i] != null) {
+        count += subnode[i].removeAll(filter);
+        if (subnode[i].isPrunable())
+          subnode[i] = null;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Prunes all empty subnodes in this subtree,
+   * and releases unused storage in the item lists.
+   */
+  void compact()
+  {
+    if (items instanceof ArrayList) {
+      ((ArrayList) items).trimToSize();
+    }
+    for (int i = 0; i < 4; i++) {
+      if (subnode[i] != null) {
+        subnode[i].compact();
+        if (subnode[i].isPrunable())
+          subnode[i] = null;
+      }
+    }
+  }
+
+  /**
+   * Gets the only subnode of this node, if it has exactly one.
+   *
+   * @return the single subnode, or null if there are none or more than one
+   */
+  Node getSingleSubnode()
+  {
+    Node single = null;
+    for (int i = 0; i < 4; i++) {
+      if (subnode[i] != null) {
+        if (single != null) return null;
+        single = subnode[i];
+      }
+    }
+    return single;
+  }
+
   public boolean isPrunable()
   {
     return ! (hasChildren() || hasItems());
@@ -227,7 +289,7 @@ public abstract class NodeBase implements Serializable {
     int subSize = 0;
     for (int i = 0; i < 4; i++) {
       if (subnode[i] != null) {
-        subSize += subnode[i].size();
+        subSize += subnode[i].getNodeCount();
       }
     }
     return subSize + 1;
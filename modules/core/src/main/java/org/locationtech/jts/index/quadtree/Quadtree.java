@@ -19,6 +19,7 @@ import java.util.List;
 import org.locationtech.jts.geom.Envelope;
 import org.locationtech.jts.geom.Geometry;
 import org.locationtech.jts.index.ArrayListVisitor;
+import org.locationtech.jts.index.ItemFilter;
 import org.locationtech.jts.index.ItemVisitor;
 import org.locationtech.jts.index.SpatialIndex;
 /**
@@ -158,6 +159,54 @@ public class Quadtree
     return root.remove(posEnv, item);
   }
 
+  /**
+   * Moves an item in the tree to a new envelope.
+   * This is equivalent to removing the item and inserting it 
+   * with the new envelope, but is faster when the envelopes are close,
+   * since the tree is only traversed from the smallest node 
+   * containing both envelopes.
+   * If the item is not found the tree is not changed.
+   *
+   * @param oldEnv the Envelope the item was inserted with
+   * @param newEnv the new Envelope of the item
+   * @param item the item to move
+   * @return <code>true</code> if the item was found (and thus moved)
+   */
+  public boolean update(Envelope oldEnv, Envelope newEnv, Object item)
+  {
+    Envelope posOldEnv = ensureExtent(oldEnv, minExtent);
+    collectStats(newEnv);
+    Envelope posNewEnv = ensureExtent(newEnv, minExtent);
+    return root.update(posOldEnv, posNewEnv, item);
+  }
+
+  /**
+   * Removes all items in the tree which are selected by a filter.
+   * Nodes which become empty are removed.
+   *
+   * @param filter the filter selecting the items to remove
+   * @return the number of items removed
+   */
+  public int removeAll(ItemFilter filter)
+  {
+    return root.removeAll(filter);
+  }
+
+  /**
+   * Compacts the tree by removing all empty nodes
+   * and releasing unused item storage.
+   * Removing items prunes the nodes emptied along the removal path,
+   * but the tree may still retain nodes which were created
+   * to contain items which are no longer present.
+   * For a long-lived tree with continual updates 
+   * (e.g. of moving objects), calling this method periodically
+   * keeps the memory used proportional to the current contents.
+   */
+  public void compact()
+  {
+    root.compact();
+  }
+
 /*
   public List OLDquery(Envelope searchEnv)
   {
@@ -67,6 +67,66 @@ public class Root
     //System.out.println(" size = " + size());
   }
 
+  /**
+   * Moves an item to a new envelope.
+   * The item is removed from and reinserted into the subtree 
+   * rooted at the smallest existing node which contains 
+   * both the old and the new envelope,
+   * so the part of the tree above that node is traversed only once.
+   * If the item is not found the tree is not changed.
+   * 
+   * @param oldEnv the envelope the item was inserted with
+   * @param newEnv the new envelope of the item
+   * @param item the item to move
+   * @return true if the item was found (and thus moved)
+   */
+  public boolean update(Envelope oldEnv, Envelope newEnv, Object item)
+  {
+    int index = getSubnodeIndex(oldEnv, origin.x, origin.y);
+    Node node = index == -1 ? null : subnode[index];
+    if (node == null 
+        || index != getSubnodeIndex(newEnv, origin.x, origin.y)
+        || ! node.getEnvelope().contains(newEnv)) {
+      // no common ancestor below the root
+      if (! remove(oldEnv, item)) return false;
+      insert(newEnv, item);
+      return true;
+    }
+    Node ancestor = node.findCommonAncestor(oldEnv, newEnv);
+    if (ancestor.remove(oldEnv, item)) {
+      insertContained(ancestor, newEnv, item);
+      return true;
+    }
+    /**
+     * An item with a zero-extent envelope may be held in a node 
+     * above the common ancestor, if that was the smallest existing node
+     * when the item was inserted
+     */
+    if (! remove(oldEnv, item)) return false;
+    insert(newEnv, item);
+    return true;
+  }
+
+  /**
+   * Prunes all empty nodes in the tree.
+   * As well, a subquad of the root which has no items and a single child
+   * is replaced by the child, so that the tree does not retain
+   * the levels created to hold items which have been removed.
+   */
+  void compact()
+  {
+    super.compact();
+    for (int i = 0; i < 4; i++) {
+      Node node = subnode[i];
+      while (node != null && ! node.hasItems()) {
+        Node child = node.getSingleSubnode();
+        if (child == null) break;
+        node = child;
+      }
+      subnode[i] = node;
+    }
+  }
+
   /**
    * insert an item which is known to be contained in the tree rooted at
    * the given QuadNode root.  Lower levels of the tree will be created
@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2021 Martin Davis.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jts.index.rstartree;
+
+import org.locationtech.jts.geom.Envelope;
+
+/**
+ * A node of an {@link RStarTree}.
+ * A node at level 0 is a leaf, whose entries are the items of the tree.
+ * The entries of a node at a higher level are the child nodes
+ * at the level below.
+ * <p>
+ * The envelope of a child node entry is the bounds object of the child,
+ * so it reflects changes to the child bounds.
+ * A node has room for one more entry than the tree node capacity,
+ * to hold an entry while an overflow is being treated.
+ *
+ * @author Martin Davis
+ */
+class RStarNode {
+
+  private final int level;
+  private final Envelope[] entryEnvs;
+  private final Object[] entries;
+  private int size = 0;
+  private final Envelope bounds = new Envelope();
+  private RStarNode parent;
+
+  RStarNode(int level, int nodeCapacity) {
+    this.level = level;
+    entryEnvs = new Envelope[nodeCapacity + 1];
+    entries = new Object[nodeCapacity + 1];
+  }
+
+  int getLevel() {
+    return level;
+  }
+
+  boolean isLeaf() {
+    return level == 0;
+  }
+
+  int size() {
+    return size;
+  }
+
+  Envelope getBounds() {
+    return bounds;
+  }
+
+  RStarNode getParent() {
+    return parent;
+  }
+
+  void setParent(RStarNode parent) {
+    this.parent = parent;
+  }
+
+  Envelope getEntryEnvelope(int i) {
+    return entryEnvs[i];
+  }
+
+  Object getEntry(int i) {
+    return entries[i];
+  }
+
+  RStarNode getChild(int i) {
+    return (RStarNode) entries[i];
+  }
+
+  /**
+   * Adds an entry to this node, and expands the bounds of this node.
+   * The bounds of the ancestors are not updated.
+   *
+   * @param env the envelope of the entry
+   * @param entry an item, or a child node
+   */
+  void add(Envelope env, Object entry) {
+    entryEnvs[size] = env;
+    entries[size] = entry;
+    size++;
+    if (entry instanceof RStarNode) {
+      ((RStarNode) entry).parent = this;
+    }
+    bounds.expandToInclude(env);
+  }
+
+  /**
+   * Removes an entry from this node.
+   * The last entry is moved into the removed position.
+   * The bounds are not updated.
+   *
+   * @param i the index of the entry to remove
+   */
+  void remove(int i) {
+    size--;
+    entryEnvs[i] = entryEnvs[size];
+    entries[i] = entries[size];
+    entryEnvs[size] = null;
+    entries[size] = null;
+  }
+
+  int indexOf(Object entry) {
+    for (int i = 0; i < size; i++) {
+      if (entries[i] == entry) return i;
+    }
+    return -1;
+  }
+
+  /**
+   * Removes all entries from this node.
+   */
+  void clear() {
+    for (int i = 0; i < size; i++) {
+      entryEnvs[i] = null;
+      entries[i] = null;
+    }
+    size = 0;
+    bounds.setToNull();
+  }
+
+  /**
+   * Recomputes the bounds of this node from the entry envelopes.
+   * The bounds object is updated in place,
+   * so the entry envelope in the parent node remains valid.
+   */
+  void computeBounds() {
+    bounds.setToNull();
+    for (int i = 0; i < size; i++) {
+      bounds.expandToInclude(entryEnvs[i]);
+    }
+  }
+}
@@ -0,0 +1,706 @@
+/*
+ * Copyright (c) 2021 Martin Davis.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jts.index.rstartree;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.index.ArrayListVisitor;
+import org.locationtech.jts.index.ItemVisitor;
+import org.locationtech.jts.index.SpatialIndex;
+import org.locationtech.jts.index.strtree.AbstractNode;
+import org.locationtech.jts.index.strtree.ItemBoundable;
+import org.locationtech.jts.index.strtree.ItemDistance;
+import org.locationtech.jts.index.strtree.STRtree;
+
+/**
+ * A dynamic R-tree using the R*-tree insertion algorithms.
+ * Unlike the packed {@link STRtree} and
+ * {@link org.locationtech.jts.index.hprtree.HPRtree},
+ * items can be inserted and removed at any time,
+ * and queries can be interleaved with updates.
+ * This makes the tree suitable for indexing data which changes
+ * continually, such as moving objects.
+ * A move is performed by removing the item and inserting it
+ * with its new envelope.
+ * <p>
+ * Insertion uses the R*-tree heuristics:
+ * <ul>
+ * <li>the subtree to insert into is chosen by least overlap enlargement
+ * (at the level above the leaves) or least area enlargement
+ * <li>an overflowing node has some of its entries reinserted
+ * (once per level per insertion) before it is split
+ * <li>nodes are split along the axis with the least total margin,
+ * using the distribution with the least overlap
+ * </ul>
+ * Removal condenses the tree by reinserting the items of underfull nodes.
+ * <p>
+ * A tree can be seeded efficiently with an initial set of items
+ * using {@link #load(Envelope[], Object[])},
+ * which builds the tree using Sort-Tile-Recursive packing.
+ * <p>
+ * Items are matched for removal using {@link Object#equals(Object)}.
+ * <p>
+ * This class is not thread-safe.
+ * Updates and queries performed on more than one thread must be
+ * synchronized externally.
+ * <p>
+ * Described in: N. Beckmann, H.-P. Kriegel, R. Schneider and B. Seeger.
+ * <i>The R*-tree: An Efficient and Robust Access Method for Points and Rectangles</i>.
+ * Proceedings of ACM SIGMOD 1990.
+ *
+ * @author Martin Davis
+ *
+ */
+public class RStarTree
+  implements SpatialIndex
+{
+  private static final int DEFAULT_NODE_CAPACITY = 16;
+
+  private static final double MIN_FILL_RATIO = 0.4;
+
+  private static final double REINSERT_RATIO = 0.3;
+
+  private static final int MIN_X = 0;
+  private static final int MAX_X = 1;
+  private static final int MIN_Y = 2;
+  private static final int MAX_Y = 3;
+
+  private final int nodeCapacity;
+  private final int minEntries;
+  private final int numReinsert;
+  private RStarNode root;
+  private int size = 0;
+
+  /**
+   * Bit flags of the levels at which entries have been reinserted
+   * during the current insertion.
+   */
+  private long reinsertedLevels = 0;
+
+  /**
+   * Creates a new tree with the default node capacity.
+   */
+  public RStarTree() {
+    this(DEFAULT_NODE_CAPACITY);
+  }
+
+  /**
+   * Creates a new tree with the given node capacity.
+   *
+   * @param nodeCapacity the maximum number of entries in a node (at least 4)
+   */
+  public RStarTree(int nodeCapacity) {
+    if (nodeCapacity < 4)
+      throw new IllegalArgumentException("Node capacity must be at least 4");
+    this.nodeCapacity = nodeCapacity;
+    minEntries = Math.max(2, (int) (nodeCapacity * MIN_FILL_RATIO));
+    numReinsert = Math.max(1, (int) (nodeCapacity * REINSERT_RATIO));
+    root = new RStarNode(0, nodeCapacity);
+  }
+
+  /**
+   * Gets the maximum number of entries in a node.
+   *
+   * @return the node capacity
+   */
+  public int getNodeCapacity() {
+    return nodeCapacity;
+  }
+
+  /**
+   * Gets the number of items in the tree.
+   *
+   * @return the number of items in the tree
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Tests whether the tree contains any items.
+   *
+   * @return true if the tree is empty
+   */
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * Gets the number of levels in the tree.
+   *
+   * @return the depth of the tree
+   */
+  public int depth() {
+    return root.getLevel() + 1;
+  }
+
+  RStarNode getRoot() {
+    return root;
+  }
+
+  /**
+   * Loads an empty tree with a set of items,
+   * using Sort-Tile-Recursive packing.
+   * This is much faster than inserting the items individually,
+   * and produces a tree with good query performance.
+   * Items can be inserted and removed afterwards as usual.
+   *
+   * @param itemEnvs the envelopes of the items
+   * @param items the items
+   * @throws IllegalStateException if the tree is not empty
+   */
+  public void load(Envelope[] itemEnvs, Object[] items) {
+    if (size > 0)
+      throw new IllegalStateException("Only an empty tree can be loaded");
+    if (itemEnvs.length != items.length)
+      throw new IllegalArgumentException("Envelope and item arrays must have the same length");
+    if (items.length == 0) return;
+
+    STRtree packed = new STRtree(nodeCapacity);
+    for (int i = 0; i < items.length; i++) {
+      packed.insert(itemEnvs[i], items[i]);
+    }
+    packed.build();
+    root = createNode(packed.getRoot());
+    size = items.length;
+  }
+
+  private RStarNode createNode(AbstractNode packedNode) {
+    RStarNode node = new RStarNode(packedNode.getLevel(), nodeCapacity);
+    for (Iterator i = packedNode.getChildBoundables().iterator(); i.hasNext(); ) {
+      Object child = i.next();
+      if (child instanceof AbstractNode) {
+        RStarNode childNode = createNode((AbstractNode) child);
+        node.add(childNode.getBounds(), childNode);
+      }
+      else {
+        ItemBoundable itemBoundable = (ItemBoundable) child;
+        node.add((Envelope) itemBoundable.getBounds(), itemBoundable.getItem());
+      }
+    }
+    return node;
+  }
+
+  public void insert(Envelope itemEnv, Object item) {
+    insertItem(itemEnv, item);
+    size++;
+  }
+
+  private void insertItem(Envelope itemEnv, Object item) {
+    reinsertedLevels = 0;
+    insertEntry(itemEnv, item, 0);
+  }
+
+  /**
+   * Inserts an entry into a node at a given level,
+   * and treats any resulting overflows.
+   *
+   * @param env the envelope of the entry
+   * @param entry an item or a node
+   * @param level the level of the node to insert the entry into
+   */
+  private void insertEntry(Envelope env, Object entry, int level) {
+    RStarNode node = chooseSubtree(env, level);
+    node.add(env, entry);
+    for (RStarNode parent = node.getParent(); parent != null; parent = parent.getParent()) {
+      parent.getBounds().expandToInclude(env);
+    }
+    while (node != null && node.size() > nodeCapacity) {
+      node = treatOverflow(node);
+    }
+  }
+
+  private RStarNode chooseSubtree(Envelope env, int level) {
+    RStarNode node = root;
+    while (node.getLevel() > level) {
+      int index;
+      if (node.getLevel() == 1) {
+        index = chooseLeastOverlapEnlargement(node, env);
+      }
+      else {
+        index = chooseLeastAreaEnlargement(node, env);
+      }
+      node = node.getChild(index);
+    }
+    return node;
+  }
+
+  private static int chooseLeastAreaEnlargement(RStarNode node, Envelope env) {
+    int best = 0;
+    double bestEnlargement = Double.POSITIVE_INFINITY;
+    double bestArea = Double.POSITIVE_INFINITY;
+    for (int i = 0; i < node.size(); i++) {
+      Envelope childEnv = node.getEntryEnvelope(i);
+      double area = childEnv.getArea();
+      double enlargement = unionArea(childEnv, env) - area;
+      if (enlargement < bestEnlargement
+          || (enlargement == bestEnlargement && area < bestArea)) {
+        best = i;
+        bestEnlargement = enlargement;
+        bestArea = area;
+      }
+    }
+    return best;
+  }
+
+  private static int chooseLeastOverlapEnlargement(RStarNode node, Envelope env) {
+    int best = 0;
+    double bestOverlap = Double.POSITIVE_INFINITY;
+    double bestEnlargement = Double.POSITIVE_INFINITY;
+    double bestArea = Double.POSITIVE_INFINITY;
+    Envelope enlarged = new Envelope();
+    for (int i = 0; i < node.size(); i++) {
+      Envelope childEnv = node.getEntryEnvelope(i);
+      enlarged.init(childEnv);
+      enlarged.expandToInclude(env);
+      double overlap = 0;
+      for (int j = 0; j < node.size(); j++) {
+        if (i == j) continue;
+        Envelope otherEnv = node.getEntryEnvelope(j);
+        overlap += intersectionArea(enlarged, otherEnv) - intersectionArea(childEnv, otherEnv);
+      }
+      double area = childEnv.getArea();
+      double enlargement = enlarged.getArea() - area;
+      if (overlap < bestOverlap
+          || (overlap == bestOverlap && enlargement < bestEnlargement)
+          || (overlap == bestOverlap && enlargement == bestEnlargement && area < bestArea)) {
+        best = i;
+        bestOverlap = overlap;
+        bestEnlargement = enlargement;
+        bestArea = area;
+      }
+    }
+    return best;
+  }
+
+  /**
+   * Treats an overflowing node, either by reinserting some of its entries
+   * (the first time an overflow occurs at its level during an insertion)
+   * or by splitting it.
+   *
+   * @param node an overflowing node
+   * @return the node which may overflow as a result, or null
+   */
+  private RStarNode treatOverflow(RStarNode node) {
+    long levelFlag = 1L << node.getLevel();
+    if (node != root && (reinsertedLevels & levelFlag) == 0) {
+      reinsertedLevels |= levelFlag;
+      reinsert(node);
+      return null;
+    }
+    split(node);
+    return node.getParent();
+  }
+
+  /**
+   * Removes the entries of a node which are farthest from its centre,
+   * and inserts them again, nearest first.
+   *
+   * @param node the node to reinsert entries from
+   */
+  private void reinsert(RStarNode node) {
+    int n = node.size();
+    Envelope[] envs = new Envelope[n];
+    Object[] entries = new Object[n];
+    final double[] dist = new double[n];
+    Integer[] order = new Integer[n];
+    double centreX = centreX(node.getBounds());
+    double centreY = centreY(node.getBounds());
+    for (int i = 0; i < n; i++) {
+      envs[i] = node.getEntryEnvelope(i);
+      entries[i] = node.getEntry(i);
+      double dx = centreX(envs[i]) - centreX;
+      double dy = centreY(envs[i]) - centreY;
+      dist[i] = dx * dx + dy * dy;
+      order[i] = i;
+    }
+    Arrays.sort(order, new Comparator<Integer>() {
+      public int compare(Integer i1, Integer i2) {
+        return Double.compare(dist[i1], dist[i2]);
+      }
+    });
+
+    int numKeep = n - numReinsert;
+    node.clear();
+    for (int i = 0; i < numKeep; i++) {
+      node.add(envs[order[i]], entries[order[i]]);
+    }
+    for (RStarNode parent = node.getParent(); parent != null; parent = parent.getParent()) {
+      parent.computeBounds();
+    }
+    for (int i = numKeep; i < n; i++) {
+      insertEntry(envs[order[i]], entries[order[i]], node.getLevel());
+    }
+  }
+
+  /**
+   * Splits an overflowing node, using the R*-tree split algorithm.
+   * The node keeps the first group of entries,
+   * and a new sibling node is added to the parent
+   * (or to a new root) with the second group.
+   *
+   * @param node the node to split
+   */
+  private void split(RStarNode node) {
+    int n = node.size();
+    Envelope[] envs = new Envelope[n];
+    Object[] entries = new Object[n];
+    for (int i = 0; i < n; i++) {
+      envs[i] = node.getEntryEnvelope(i);
+      entries[i] = node.getEntry(i);
+    }
+
+    // choose the split axis with the least total margin
+    Integer[][] xOrders = new Integer[][] { sortedOrder(envs, MIN_X), sortedOrder(envs, MAX_X) };
+    Integer[][] yOrders = new Integer[][] { sortedOrder(envs, MIN_Y), sortedOrder(envs, MAX_Y) };
+    double xMargin = marginSum(envs, xOrders[0]) + marginSum(envs, xOrders[1]);
+    double yMargin = marginSum(envs, yOrders[0]) + marginSum(envs, yOrders[1]);
+    Integer[][] orders = xMargin <= yMargin ? xOrders : yOrders;
+
+    // choose the distribution with the least overlap, then least area
+    Integer[] bestOrder = null;
+    int bestSplit = 0;
+    double bestOverlap = Double.POSITIVE_INFINITY;
+    double bestArea = Double.POSITIVE_INFINITY;
+    for (int k = 0; k < orders.length; k++) {
+      Integer[] order = orders[k];
+      Envelope[] lower = prefixBounds(envs, order);
+      Envelope[] upper = suffixBounds(envs, order);
+      for (int split = minEntries; split <= n - minEntries; split++) {
+        Envelope env1 = lower[split - 1];
+        Envelope env2 = upper[split];
+        double overlap = intersectionArea(env1, env2);
+        double area = env1.getArea() + env2.getArea();
+        if (overlap < bestOverlap || (overlap == bestOverlap && area < bestArea)) {
+          bestOrder = order;
+          bestSplit = split;
+          bestOverlap = overlap;
+          bestArea = area;
+        }
+      }
+    }
+
+    RStarNode sibling = new RStarNode(node.getLevel(), nodeCapacity);
+    node.clear();
+    for (int i = 0; i < n; i++) {
+      int index = bestOrder[i];
+      if (i < bestSplit) {
+        node.add(envs[index], entries[index]);
+      }
+      else {
+        sibling.add(envs[index], entries[index]);
+      }
+    }
+
+    RStarNode parent = node.getParent();
+    if (parent == null) {
+      RStarNode newRoot = new RStarNode(node.getLevel() + 1, nodeCapacity);
+      newRoot.add(node.getBounds(), node);
+      newRoot.add(sibling.getBounds(), sibling);
+      root = newRoot;
+    }
+    else {
+      parent.add(sibling.getBounds(), sibling);
+    }
+  }
+
+  private static Integer[] sortedOrder(final Envelope[] envs, final int ordinate) {
+    Integer[] order = new Integer[envs.length];
+    for (int i = 0; i < order.length; i++) {
+      order[i] = i;
+    }
+    Arrays.sort(order, new Comparator<Integer>() {
+      public int compare(Integer i1, Integer i2) {
+        return Double.compare(ordinate(envs[i1], ordinate), ordinate(envs[i2], ordinate));
+      }
+    });
+    return order;
+  }
+
+  private double marginSum(Envelope[] envs, Integer[] order) {
+    Envelope[] lower = prefixBounds(envs, order);
+    Envelope[] upper = suffixBounds(envs, order);
+    double sum = 0;
+    for (int split = minEntries; split <= envs.length - minEntries; split++) {
+      sum += margin(lower[split - 1]) + margin(upper[split]);
+    }
+    return sum;
+  }
+
+  /**
+   * Computes the bounds of each prefix of the ordered envelopes.
+   * Element i is the bounds of the envelopes 0 to i.
+   */
+  private static Envelope[] prefixBounds(Envelope[] envs, Integer[] order) {
+    Envelope[] bounds = new Envelope[envs.length];
+    Envelope env = new Envelope();
+    for (int i = 0; i < envs.length; i++) {
+      env.expandToInclude(envs[order[i]]);
+      bounds[i] = new Envelope(env);
+    }
+    return bounds;
+  }
+
+  /**
+   * Computes the bounds of each suffix of the ordered envelopes.
+   * Element i is the bounds of the envelopes i to the end.
+   */
+  private static Envelope[] suffixBounds(Envelope[] envs, Integer[] order) {
+    Envelope[] bounds = new Envelope[envs.length];
+    Envelope env = new Envelope();
+    for (int i = envs.length - 1; i >= 0; i--) {
+      env.expandToInclude(envs[order[i]]);
+      bounds[i] = new Envelope(env);
+    }
+    return bounds;
+  }
+
+  public List query(Envelope searchEnv) {
+    ArrayListVisitor visitor = new ArrayListVisitor();
+    query(searchEnv, visitor);
+    return visitor.getItems();
+  }
+
+  public void query(Envelope searchEnv, ItemVisitor visitor) {
+    if (! root.getBounds().intersects(searchEnv)) return;
+    query(root, searchEnv, visitor);
+  }
+
+  private static void query(RStarNode node, Envelope searchEnv, ItemVisitor visitor) {
+    for (int i = 0; i < node.size(); i++) {
+      if (! node.getEntryEnvelope(i).intersects(searchEnv)) continue;
+      if (node.isLeaf()) {
+        visitor.visitItem(node.getEntry(i));
+      }
+      else {
+        query(node.getChild(i), searchEnv, visitor);
+      }
+    }
+  }
+
+  /**
+   * Removes a single item from the tree.
+   * The item envelope must be the envelope the item was inserted with.
+   *
+   * @param itemEnv the Envelope of the item to remove
+   * @param item the item to remove
+   * @return <code>true</code> if the item was found
+   */
+  public boolean remove(Envelope itemEnv, Object item) {
+    RStarNode leaf = findLeaf(root, itemEnv, item);
+    if (leaf == null) return false;
+    leaf.remove(indexOfItem(leaf, item));
+    size--;
+    condense(leaf);
+    return true;
+  }
+
+  private static RStarNode findLeaf(RStarNode node, Envelope itemEnv, Object item) {
+    if (node.isLeaf()) {
+      return indexOfItem(node, item) >= 0 ? node : null;
+    }
+    for (int i = 0; i < node.size(); i++) {
+      if (! node.getEntryEnvelope(i).covers(itemEnv)) continue;
+      RStarNode leaf = findLeaf(node.getChild(i), itemEnv, item);
+      if (leaf != null) return leaf;
+    }
+    return null;
+  }
+
+  private static int indexOfItem(RStarNode leaf, Object item) {
+    for (int i = 0; i < leaf.size(); i++) {
+      Object entry = leaf.getEntry(i);
+      if (item == null ? entry == null : item.equals(entry)) return i;
+    }
+    return -1;
+  }
+
+  /**
+   * Condenses the tree after an entry has been removed from a leaf.
+   * Underfull nodes on the path to the root are removed,
+   * and their items are inserted again.
+   * The bounds of the remaining nodes on the path are recomputed.
+   *
+   * @param leaf the leaf an entry was removed from
+   */
+  private void condense(RStarNode leaf) {
+    List<RStarNode> eliminated = new ArrayList<RStarNode>();
+    RStarNode node = leaf;
+    while (node != root) {
+      RStarNode parent = node.getParent();
+      if (node.size() < minEntries) {
+        parent.remove(parent.indexOf(node));
+        eliminated.add(node);
+      }
+      else {
+        node.computeBounds();
+      }
+      node = parent;
+    }
+    root.computeBounds();
+
+    while (! root.isLeaf() && root.size() == 1) {
+      root = root.getChild(0);
+      root.setParent(null);
+    }
+    if (root.size() == 0) {
+      root = new RStarNode(0, nodeCapacity);
+    }
+
+    for (RStarNode eliminatedNode : eliminated) {
+      reinsertItems(eliminatedNode);
+    }
+  }
+
+  private void reinsertItems(RStarNode node) {
+    for (int i = 0; i < node.size(); i++) {
+      if (node.isLeaf()) {
+        insertItem(node.getEntryEnvelope(i), node.getEntry(i));
+      }
+      else {
+        reinsertItems(node.getChild(i));
+      }
+    }
+  }
+
+  /**
+   * Finds the item in this tree which is nearest to the given {@link Object},
+   * using {@link ItemDistance} as the distance metric.
+   * A best-first tree traversal is used to provide an efficient search.
+   * <p>
+   * The query <tt>item</tt> does <b>not</b> have to be
+   * contained in the tree, but it does
+   * have to be compatible with the <tt>itemDist</tt>
+   * distance metric.
+   *
+   * @param env the envelope of the query item
+   * @param item the item to find the nearest neighbour of
+   * @param itemDist a distance metric applicable to the items in this tree and the query item
+   * @return the nearest item in this tree
+   *    or <code>null</code> if the tree is empty
+   */
+  public Object nearestNeighbour(Envelope env, Object item, ItemDistance itemDist)
+  {
+    Object[] nn = nearestNeighbour(env, item, itemDist, 1);
+    if (nn.length == 0) return null;
+    return nn[0];
+  }
+
+  /**
+   * Finds the k items in this tree which are nearest to the given {@link Object},
+   * using {@link ItemDistance} as the distance metric.
+   * A best-first tree traversal is used to provide an efficient search.
+   * The items are returned in order of increasing distance.
+   * <p>
+   * The query <tt>item</tt> does <b>not</b> have to be
+   * contained in the tree, but it does
+   * have to be compatible with the <tt>itemDist</tt>
+   * distance metric.
+   *
+   * @param env the envelope of the query item
+   * @param item the item to find the nearest neighbours of
+   * @param itemDist a distance metric applicable to the items in this tree and the query item
+   * @param k the number of nearest items to find
+   * @return the k nearest items in this tree, nearest first
+   *    (fewer if the tree contains fewer than k items)
+   */
+  public Object[] nearestNeighbour(Envelope env, Object item, ItemDistance itemDist, int k)
+  {
+    if (size == 0 || k <= 0) return new Object[0];
+    ItemBoundable queryItem = new ItemBoundable(env, item);
+    List<Object> nearest = new ArrayList<Object>();
+
+    PriorityQueue<Candidate> priQ = new PriorityQueue<Candidate>();
+    priQ.add(new Candidate(root.getBounds().distance(env), root, null));
+    /**
+     * The distance of a node is a lower bound for the distance of its items,
+     * so an item at the head of the queue is nearer than all items not yet found.
+     */
+    while (! priQ.isEmpty() && nearest.size() < k) {
+      Candidate candidate = priQ.poll();
+      RStarNode node = candidate.node;
+      if (node == null) {
+        nearest.add(candidate.item);
+        continue;
+      }
+      for (int i = 0; i < node.size(); i++) {
+        Envelope entryEnv = node.getEntryEnvelope(i);
+        if (node.isLeaf()) {
+          Object entry = node.getEntry(i);
+          double distance = itemDist.distance(new ItemBoundable(entryEnv, entry), queryItem);
+          priQ.add(new Candidate(distance, null, entry));
+        }
+        else {
+          priQ.add(new Candidate(entryEnv.distance(env), node.getChild(i), null));
+        }
+      }
+    }
+    return nearest.toArray();
+  }
+
+  private static class Candidate implements Comparable<Candidate> {
+    final double distance;
+    final RStarNode node;
+    final Object item;
+
+    Candidate(double distance, RStarNode node, Object item) {
+      this.distance = distance;
+      this.node = node;
+      this.item = item;
+    }
+
+    public int compareTo(Candidate o) {
+      return Double.compare(distance, o.distance);
+    }
+  }
+
+  private static double ordinate(Envelope env, int ordinate) {
+    switch (ordinate) {
+    case MIN_X: return env.getMinX();
+    case MAX_X: return env.getMaxX();
+    case MIN_Y: return env.getMinY();
+    }
+    return env.getMaxY();
+  }
+
+  private static double centreX(Envelope env) {
+    return (env.getMinX() + env.getMaxX()) / 2;
+  }
+
+  private static double centreY(Envelope env) {
+    return (env.getMinY() + env.getMaxY()) / 2;
+  }
+
+  private static double margin(Envelope env) {
+    return env.getWidth() + env.getHeight();
+  }
+
+  private static double unionArea(Envelope env1, Envelope env2) {
+    double width = Math.max(env1.getMaxX(), env2.getMaxX()) - Math.min(env1.getMinX(), env2.getMinX());
+    double height = Math.max(env1.getMaxY(), env2.getMaxY()) - Math.min(env1.getMinY(), env2.getMinY());
+    return width * height;
+  }
+
+  private static double intersectionArea(Envelope env1, Envelope env2) {
+    double width = Math.min(env1.getMaxX(), env2.getMaxX()) - Math.max(env1.getMinX(), env2.getMinX());
+    if (width <= 0) return 0;
+    double height = Math.min(env1.getMaxY(), env2.getMaxY()) - Math.max(env1.getMinY(), env2.getMinY());
+    if (height <= 0) return 0;
+    return width * height;
+  }
+}
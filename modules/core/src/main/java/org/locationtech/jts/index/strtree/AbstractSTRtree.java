@@ -35,6 +35,8 @@ import org.locationtech.jts.util.Assert;
  * <p>
  * This class is thread-safe.  Building the tree is synchronized, 
  * and querying is stateless.
+ * Once the tree has been built it is safely published to all threads,
+ * so queries on a built tree do not acquire any locks.
  *
  * @see STRtree
  * @see SIRtree
@@ -65,7 +67,11 @@ public abstract class AbstractSTRtree implements Serializable {
 
   protected AbstractNode root;
 
-  private boolean built = false;
+  /**
+   * Volatile so that a built tree is safely published
+   * to querying threads without synchronization.
+   */
+  private volatile boolean built = false;
   /**
    * Set to <tt>null</tt> when index is built, to avoid retaining memory.
    */
@@ -122,15 +128,24 @@ public abstract class AbstractSTRtree implements Serializable {
    * node, for the data that has been inserted into the tree. Can only be
    * called once, and thus can be called only after all of the data has been
    * inserted into the tree.
+   * <p>
+   * Building is synchronized, but once the tree is built 
+   * this method returns without acquiring a lock.
    */
-  public synchronized void build() {
+  public void build() {
     if (built) return;
-    root = itemBoundables.isEmpty()
-           ? createNode(0)
-           : createHigherLevels(itemBoundables, -1);
-    // the item list is no longer needed
-    itemBoundables = null;
-    built = true;
+    synchronized (this) {
+      if (built) return;
+      AbstractNode node = itemBoundables.isEmpty()
+             ? createNode(0)
+             : createHigherLevels(itemBoundables, -1);
+      // compute the root bounds now, so that queries do not modify the tree
+      node.getBounds();
+      root = node;
+      // the item list is no longer needed
+      itemBoundables = null;
+      built = true;
+    }
   }
 
   protected abstract AbstractNode createNode(int level);
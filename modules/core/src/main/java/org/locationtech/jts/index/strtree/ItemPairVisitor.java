@@ -0,0 +1,31 @@
+/*
+ * Copyright (c) 2021 Martin Davis.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jts.index.strtree;
+
+/**
+ * A visitor for the pairs of items found 
+ * by a join between two {@link STRtree}s.
+ * 
+ * @author Martin Davis
+ * 
+ * @see STRtree#join(STRtree, ItemPairVisitor)
+ */
+public interface ItemPairVisitor
+{
+  /**
+   * Visits a pair of items.
+   * 
+   * @param item1 an item from the first tree
+   * @param item2 an item from the second tree
+   */
+  void visitPair(Object item1, Object item2);
+}
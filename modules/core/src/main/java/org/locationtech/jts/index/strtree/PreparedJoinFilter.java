@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2021 Martin Davis.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jts.index.strtree;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.prep.PreparedGeometry;
+import org.locationtech.jts.geom.prep.PreparedGeometryFactory;
+
+/**
+ * An {@link ItemPairVisitor} which refines the candidate pairs
+ * produced by an {@link STRtree} join
+ * by evaluating a spatial predicate between the items,
+ * and passes the pairs satisfying the predicate on to another visitor.
+ * The items must be {@link Geometry}s.
+ * <p>
+ * The predicate is evaluated using a {@link PreparedGeometry}
+ * for the first item of each pair.
+ * Since a join usually produces many pairs for each item,
+ * the prepared geometries are cached for the lifetime of the filter.
+ * <p>
+ * This class is not thread-safe.
+ *
+ * @author Martin Davis
+ *
+ * @see STRtree#join(STRtree, ItemPairVisitor)
+ */
+public class PreparedJoinFilter
+  implements ItemPairVisitor
+{
+  /**
+   * Predicate code for {@link PreparedGeometry#intersects(Geometry)}
+   */
+  public static final int INTERSECTS = 1;
+  /**
+   * Predicate code for {@link PreparedGeometry#contains(Geometry)}
+   */
+  public static final int CONTAINS = 2;
+  /**
+   * Predicate code for {@link PreparedGeometry#containsProperly(Geometry)}
+   */
+  public static final int CONTAINS_PROPERLY = 3;
+  /**
+   * Predicate code for {@link PreparedGeometry#covers(Geometry)}
+   */
+  public static final int COVERS = 4;
+  /**
+   * Predicate code for {@link PreparedGeometry#coveredBy(Geometry)}
+   */
+  public static final int COVERED_BY = 5;
+  /**
+   * Predicate code for {@link PreparedGeometry#within(Geometry)}
+   */
+  public static final int WITHIN = 6;
+  /**
+   * Predicate code for {@link PreparedGeometry#touches(Geometry)}
+   */
+  public static final int TOUCHES = 7;
+
+  private int predicate;
+  private ItemPairVisitor visitor;
+  private Map<Object, PreparedGeometry> preparedCache = new IdentityHashMap<Object, PreparedGeometry>();
+
+  /**
+   * Creates a filter which passes the pairs
+   * satisfying the <code>intersects</code> predicate.
+   *
+   * @param visitor the visitor to pass the matching pairs to
+   */
+  public PreparedJoinFilter(ItemPairVisitor visitor) {
+    this(INTERSECTS, visitor);
+  }
+
+  /**
+   * Creates a filter which passes the pairs
+   * satisfying a given predicate.
+   *
+   * @param predicate the code of the predicate to evaluate
+   * @param visitor the visitor to pass the matching pairs to
+   */
+  public PreparedJoinFilter(int predicate, ItemPairVisitor visitor) {
+    if (predicate < INTERSECTS || predicate > TOUCHES)
+      throw new IllegalArgumentException("Unknown predicate code: " + predicate);
+    this.predicate = predicate;
+    this.visitor = visitor;
+  }
+
+  public void visitPair(Object item1, Object item2) {
+    PreparedGeometry prep1 = prepared((Geometry) item1);
+    if (isMatch(prep1, (Geometry) item2)) {
+      visitor.visitPair(item1, item2);
+    }
+  }
+
+  private PreparedGeometry prepared(Geometry geom) {
+    PreparedGeometry prep = preparedCache.get(geom);
+    if (prep == null) {
+      prep = PreparedGeometryFactory.prepare(geom);
+      preparedCache.put(geom, prep);
+    }
+    return prep;
+  }
+
+  private boolean isMatch(PreparedGeometry prep, Geometry geom) {
+    switch (predicate) {
+    case CONTAINS: return prep.contains(geom);
+    case CONTAINS_PROPERLY: return prep.containsProperly(geom);
+    case COVERS: return prep.covers(geom);
+    case COVERED_BY: return prep.coveredBy(geom);
+    case WITHIN: return prep.within(geom);
+    case TOUCHES: return prep.touches(geom);
+    }
+    return prep.intersects(geom);
+  }
+}
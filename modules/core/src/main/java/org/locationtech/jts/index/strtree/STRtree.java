@@ -14,6 +14,7 @@ package org.locationtech.jts.index.strtree;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Iterator;
@@ -21,9 +22,11 @@ import java.util.List;
 import java.util.PriorityQueue;
 
 import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.EnvelopeArray;
 import org.locationtech.jts.index.ItemVisitor;
 import org.locationtech.jts.index.SpatialIndex;
 import org.locationtech.jts.util.Assert;
+import org.locationtech.jts.util.ParallelRange;
 
 
 /**
@@ -48,6 +51,12 @@ import org.locationtech.jts.util.Assert;
  * Querying a tree is thread-safe.  
  * The building phase is done synchronously, 
  * and querying is stateless.
+ * Queries on a built tree do not synchronize, 
+ * so a tree can be shared by many querying threads without contention.
+ * <p>
+ * The tree can optionally be built in parallel
+ * (see {@link #setParallelBuild(boolean)}).
+ * This produces a tree identical to a serial build.
  *
  * @version 1.7
  */
@@ -115,6 +124,14 @@ implements SpatialIndex, Serializable
     }
   };
 
+  /**
+   * The minimum number of child boundables in a level
+   * for it to be built in parallel.
+   */
+  private static final int PARALLEL_MIN_SIZE = 10000;
+
+  private boolean isParallelBuild = false;
+
   /**
    * Creates the parent level for the given child level. First, orders the items
    * by the x-values of the midpoints, and groups them into vertical slices.
@@ -124,6 +141,9 @@ implements SpatialIndex, Serializable
    */
   protected List createParentBoundables(List childBoundables, int newLevel) {
     Assert.isTrue(!childBoundables.isEmpty());
+    if (isParallelBuild && childBoundables.size() >= PARALLEL_MIN_SIZE) {
+      return createParentBoundablesParallel(childBoundables, newLevel);
+    }
     int minLeafCount = (int) Math.ceil((childBoundables.size() / (double) getNodeCapacity()));
     ArrayList sortedChildBoundables = new ArrayList(childBoundables);
     Collections.sort(sortedChildBoundables, xComparator);
@@ -132,6 +152,41 @@ implements SpatialIndex, Serializable
     return createParentBoundablesFromVerticalSlices(verticalSlices, newLevel);
   }
 
+  /**
+   * Creates the parent level using the fork-join framework.
+   * The children are sorted using a parallel stable sort,
+   * and the vertical slices are processed in parallel.
+   * The bounds of the created parent nodes are computed 
+   * by the slice tasks, so they are not computed 
+   * concurrently when the next level is sorted.
+   * The result is identical to the serial computation.
+   */
+  private List createParentBoundablesParallel(List childBoundables, final int newLevel) {
+    int minLeafCount = (int) Math.ceil((childBoundables.size() / (double) getNodeCapacity()));
+    Object[] sortedChildBoundables = childBoundables.toArray();
+    Arrays.parallelSort(sortedChildBoundables, xComparator);
+    final List[] verticalSlices = verticalSlices(Arrays.asList(sortedChildBoundables),
+        (int) Math.ceil(Math.sqrt(minLeafCount)));
+
+    final List[] sliceParents = new List[verticalSlices.length];
+    ParallelRange.execute(verticalSlices.length, 1, new ParallelRange.Procedure() {
+      public void compute(int start, int end) {
+        for (int i = start; i < end; i++) {
+          List parents = createParentBoundablesFromVerticalSlice(verticalSlices[i], newLevel);
+          for (Iterator it = parents.iterator(); it.hasNext(); ) {
+            ((Boundable) it.next()).getBounds();
+          }
+          sliceParents[i] = parents;
+        }
+      }
+    });
+    List parentBoundables = new ArrayList();
+    for (int i = 0; i < sliceParents.length; i++) {
+      parentBoundables.addAll(sliceParents[i]);
+    }
+    return parentBoundables;
+  }
+
   private List createParentBoundablesFromVerticalSlices(List[] verticalSlices, int newLevel) {
     Assert.isTrue(verticalSlices.length > 0);
     List parentBoundables = new ArrayList();
@@ -208,6 +263,20 @@ implements SpatialIndex, Serializable
     super(nodeCapacity, itemBoundables);
   }
 
+  /**
+   * Sets whether the tree is built in parallel,
+   * using the fork-join common pool
+   * (or the current pool, if the build is run in a {@link java.util.concurrent.ForkJoinPool}).
+   * Parallel building reduces the build time for large trees
+   * on multi-core machines. 
+   * The tree produced is identical to one built serially.
+   * 
+   * @param isParallelBuild true if the tree should be built in parallel
+   */
+  public void setParallelBuild(boolean isParallelBuild) {
+    this.isParallelBuild = isParallelBuild;
+  }
+
   protected AbstractNode createNode(int level) {
     return new STRtreeNode(level);
   }
@@ -224,6 +293,25 @@ implements SpatialIndex, Serializable
     super.insert(itemEnv, item);
   }
 
+  /**
+   * Inserts a set of items with bounds given by an {@link EnvelopeArray}.
+   * Items with null bounds are not inserted.
+   * <p>
+   * Since the tree nodes reference {@link Envelope}s, 
+   * an envelope is created for each item.
+   * 
+   * @param itemEnvs the bounds of the items
+   * @param items the items to insert
+   */
+  public void insert(EnvelopeArray itemEnvs, Object[] items) {
+    if (itemEnvs.size() != items.length)
+      throw new IllegalArgumentException("Envelope array and item array must have the same size");
+    for (int i = 0; i < items.length; i++) {
+      if (itemEnvs.isNull(i)) continue;
+      super.insert(itemEnvs.getEnvelope(i), items[i]);
+    }
+  }
+
   /**
    * Returns items whose bounds intersect the given envelope.
    */
@@ -497,6 +585,100 @@ implements SpatialIndex, Serializable
     return false;
   }
  
+  /**
+   * Finds all pairs of items from this tree and another tree
+   * whose envelopes intersect,
+   * and passes them to an {@link ItemPairVisitor}.
+   * The pairs are computed by traversing both trees simultaneously,
+   * which is much more efficient than querying one tree
+   * with every item of the other.
+   * The first item of each pair is from this tree,
+   * and the second is from the argument tree.
+   * <p>
+   * The pairs are candidates only.  
+   * They can be refined by an exact geometric test
+   * (for instance by using a {@link PreparedJoinFilter}).
+   * 
+   * @param tree another tree
+   * @param visitor the visitor to pass the pairs to
+   */
+  public void join(STRtree tree, ItemPairVisitor visitor)
+  {
+    joinWithinDistance(tree, 0.0, visitor);
+  }
+
+  /**
+   * Finds all pairs of items from this tree and another tree
+   * whose envelopes lie within a given distance,
+   * and passes them to an {@link ItemPairVisitor}.
+   * The pairs are computed by traversing both trees simultaneously.
+   * The first item of each pair is from this tree,
+   * and the second is from the argument tree.
+   * <p>
+   * The pairs are candidates only.  
+   * They can be refined by an exact distance test
+   * (e.g. using {@link org.locationtech.jts.geom.Geometry#isWithinDistance(org.locationtech.jts.geom.Geometry, double)}).
+   * 
+   * @param tree another tree
+   * @param maxDistance the distance limit for the pairs
+   * @param visitor the visitor to pass the pairs to
+   */
+  public void joinWithinDistance(STRtree tree, double maxDistance, ItemPairVisitor visitor)
+  {
+    if (isEmpty() || tree.isEmpty()) return;
+    AbstractNode root1 = getRoot();
+    AbstractNode root2 = tree.getRoot();
+    if (! isWithinDistance(root1, root2, maxDistance)) return;
+    join(root1, root2, maxDistance, visitor);
+  }
+
+  /**
+   * Joins two boundables whose bounds are known to be within the distance.
+   * One side of the pair is expanded, using the same 
+   * heuristic as the nearest-neighbour search 
+   * (see {@link BoundablePair#expandToQueue(PriorityQueue, double)}).
+   */
+  private static void join(Boundable bnd1, Boundable bnd2, double maxDistance, ItemPairVisitor visitor)
+  {
+    boolean isComp1 = BoundablePair.isComposite(bnd1);
+    boolean isComp2 = BoundablePair.isComposite(bnd2);
+    if (! isComp1 && ! isComp2) {
+      visitor.visitPair(((ItemBoundable) bnd1).getItem(), ((ItemBoundable) bnd2).getItem());
+      return;
+    }
+    boolean isExpand1 = isComp1;
+    if (isComp1 && isComp2) {
+      isExpand1 = ((Envelope) bnd1.getBounds()).getArea() 
+          >= ((Envelope) bnd2.getBounds()).getArea();
+    }
+    if (isExpand1) {
+      List children = ((AbstractNode) bnd1).getChildBoundables();
+      for (int i = 0; i < children.size(); i++) {
+        Boundable child = (Boundable) children.get(i);
+        if (isWithinDistance(child, bnd2, maxDistance)) {
+          join(child, bnd2, maxDistance, visitor);
+        }
+      }
+    }
+    else {
+      List children = ((AbstractNode) bnd2).getChildBoundables();
+      for (int i = 0; i < children.size(); i++) {
+        Boundable child = (Boundable) children.get(i);
+        if (isWithinDistance(bnd1, child, maxDistance)) {
+          join(bnd1, child, maxDistance, visitor);
+        }
+      }
+    }
+  }
+
+  private static boolean isWithinDistance(Boundable bnd1, Boundable bnd2, double maxDistance) {
+    Envelope env1 = (Envelope) bnd1.getBounds();
+    Envelope env2 = (Envelope) bnd2.getBounds();
+    if (maxDistance <= 0.0) 
+      return env1.intersects(env2);
+    return env1.distance(env2) <= maxDistance;
+  }
+
   /**
    * Finds k items in this tree which are the top k nearest neighbors to the given {@code item}, 
    * using {@code itemDist} as the distance metric.
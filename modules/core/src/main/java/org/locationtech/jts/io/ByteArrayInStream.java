@@ -45,6 +45,37 @@ public class ByteArrayInStream
 		this.position = 0;
 	}
 
+	/**
+	 * Gets the bytes being read by this stream.
+	 * 
+	 * @return the bytes being read
+	 */
+	public byte[] getBytes() {
+	  return buffer;
+	}
+
+	/**
+	 * Gets the position of the next byte to be read.
+	 * 
+	 * @return the current position in the buffer
+	 */
+	public int getPosition() {
+	  return position;
+	}
+
+	/**
+	 * Skips over bytes in the stream.
+	 * The position is not moved past the end of the buffer.
+	 * 
+	 * @param numBytes the number of bytes to skip
+	 * @return the number of bytes skipped
+	 */
+	public int skip(int numBytes) {
+	  int numToSkip = Math.min(numBytes, buffer.length - position);
+	  position += numToSkip;
+	  return numToSkip;
+	}
+
 	/**
 	 * Reads up to <tt>buf.length</tt> bytes from the stream
 	 * into the given byte buffer.
@@ -62,6 +62,17 @@ public class ByteOrderDataInStream
     this.byteOrder = byteOrder;
   }
   
+  /**
+   * Gets the byte ordering of the stream,
+   * as a code in {@link ByteOrderValues}.
+   * 
+   * @return the byte order code
+   */
+  public int getOrder()
+  {
+    return byteOrder;
+  }
+
   /**
    * Gets the number of bytes read from the stream.
    * 
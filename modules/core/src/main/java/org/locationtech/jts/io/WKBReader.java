@@ -12,6 +12,8 @@
 package org.locationtech.jts.io;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 
 import org.locationtech.jts.geom.CoordinateSequence;
 import org.locationtech.jts.geom.CoordinateSequenceFactory;
@@ -27,6 +29,7 @@ import org.locationtech.jts.geom.MultiPolygon;
 import org.locationtech.jts.geom.Point;
 import org.locationtech.jts.geom.Polygon;
 import org.locationtech.jts.geom.PrecisionModel;
+import org.locationtech.jts.geom.impl.BufferCoordinateSequence;
 
 /**
  * Reads a {@link Geometry}from a byte stream in Well-Known Binary format.
@@ -72,6 +75,14 @@ import org.locationtech.jts.geom.PrecisionModel;
  * <p>
  * Note that the {@link WKBWriter} is not changed and still writes the PostGIS EWKB
  * geometry format.
+ * <p>
+ * The reader can optionally read coordinates lazily
+ * (see {@link #setLazy(boolean)}).
+ * In this mode geometries read from a byte array 
+ * use {@link BufferCoordinateSequence}s which read ordinates 
+ * directly from the WKB bytes when accessed.
+ * This avoids creating coordinate objects for geometries 
+ * which are only used for their type or envelope.
  * 
  * @see WKBWriter for a formal format specification
  */
@@ -131,6 +142,12 @@ public class WKBReader
   private boolean isStrict = false;
   private ByteOrderDataInStream dis = new ByteOrderDataInStream();
   private double[] ordValues;
+  private boolean hasM = false;
+  private boolean isLazy = false;
+  /**
+   * The stream being read, if coordinates are being read lazily
+   */
+  private ByteArrayInStream lazyStream = null;
 
   private int maxNumFieldValue;
 
@@ -144,6 +161,30 @@ public class WKBReader
     csFactory = factory.getCoordinateSequenceFactory();
   }
 
+  /**
+   * Sets whether coordinates are read lazily
+   * when reading from a byte array.
+   * If lazy reading is used, the coordinate sequences
+   * of the geometries read are {@link BufferCoordinateSequence}s
+   * backed directly by the input byte array,
+   * so the array must not be modified while the geometries are in use.
+   * Ordinate values are only decoded when they are accessed,
+   * and computing the envelope of a geometry does not create any coordinates.
+   * <p>
+   * Since the ordinates are read as they are,
+   * lazy reading is used only if the geometry factory
+   * has a {@link PrecisionModel#FLOATING} precision model
+   * (not {@link PrecisionModel#FLOATING_SINGLE}, which requires rounding).
+   * Coordinate sequences which need repair 
+   * (too-short linestrings and unclosed rings)
+   * are created using the factory coordinate sequence factory.
+   * 
+   * @param isLazy true if coordinates should be read lazily
+   */
+  public void setLazy(boolean isLazy) {
+    this.isLazy = isLazy;
+  }
+
   /**
    * Reads a single {@link Geometry} in WKB format from a byte array.
    *
@@ -155,12 +196,22 @@ public class WKBReader
   {  
     // possibly reuse the ByteArrayInStream?
     // don't throw IOExceptions, since we are not doing any I/O
+    ByteArrayInStream is = new ByteArrayInStream(bytes);
+    /**
+     * Only full double precision is supported,
+     * since other precision models require coordinates to be made precise
+     */
+    if (isLazy && precisionModel.getType() == PrecisionModel.FLOATING)
+      lazyStream = is;
     try {
-      return read(new ByteArrayInStream(bytes), bytes.length / 16);
+      return read(is, bytes.length / 16);
     }
     catch (IOException ex) {
       throw new RuntimeException("Unexpected IOException caught: " + ex.getMessage());
     }
+    finally {
+      lazyStream = null;
+    }
   }
 
   /**
@@ -241,7 +292,7 @@ public class WKBReader
     boolean hasZ = ((typeInt & 0x80000000) != 0 || (typeInt & 0xffff)/1000 == 1 || (typeInt & 0xffff)/1000 == 3);
     // geometries with M coordinates have the 0x40 flag (postgis EWKB)
     // or are in the 1000 range (M) or in the 3000 range (ZM) of geometry type (ISO/OGC 06-103r4)
-    boolean hasM = ((typeInt & 0x40000000) != 0 || (typeInt & 0xffff)/1000 == 2 || (typeInt & 0xffff)/1000 == 3);
+    hasM = ((typeInt & 0x40000000) != 0 || (typeInt & 0xffff)/1000 == 2 || (typeInt & 0xffff)/1000 == 3);
     //System.out.println(typeInt + " - " + geometryType + " - hasZ:" + hasZ);
     inputDimension = 2 + (hasZ ? 1 : 0) + (hasM ? 1 : 0);
 
@@ -392,6 +443,8 @@ public class WKBReader
 
   private CoordinateSequence readCoordinateSequence(int size) throws IOException, ParseException
   {
+    if (lazyStream != null)
+      return readCoordinateSequenceLazy(size);
     CoordinateSequence seq = csFactory.create(size, inputDimension);
     int targetDim = seq.getDimension();
     if (targetDim > inputDimension)
@@ -405,6 +458,23 @@ public class WKBReader
     return seq;
   }
 
+  /**
+   * Creates a sequence which reads the ordinates
+   * directly from the input bytes, 
+   * and skips over them in the stream.
+   */
+  private CoordinateSequence readCoordinateSequenceLazy(int size) throws ParseException
+  {
+    int numBytes = 8 * inputDimension * size;
+    int start = lazyStream.getPosition();
+    if (lazyStream.skip(numBytes) < numBytes)
+      throw new ParseException("Attempt to read past end of input");
+    ByteBuffer buf = ByteBuffer.wrap(lazyStream.getBytes(), start, numBytes);
+    buf.order(dis.getOrder() == ByteOrderValues.LITTLE_ENDIAN 
+        ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN);
+    return new BufferCoordinateSequence(buf, inputDimension, hasM ? 1 : 0);
+  }
+
   private CoordinateSequence readCoordinateSequenceLineString(int size) throws IOException, ParseException
   {
     CoordinateSequence seq = readCoordinateSequence(size);
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2021 Martin Davis.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jts.operation.relateng;
+
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Location;
+
+/**
+ * The base class for relate predicates.
+ * Records the predicate value as a tri-state
+ * (unknown, false or true).
+ * Once the value is known it is never changed.
+ *
+ * @author Martin Davis
+ *
+ */
+public abstract class BasicPredicate implements TopologyPredicate {
+
+  private static final int UNKNOWN = -1;
+  private static final int FALSE = 0;
+  private static final int TRUE = 1;
+
+  private int value = UNKNOWN;
+
+  public void init(int dimA, int dimB) {
+    // default is to do nothing
+  }
+
+  public void init(Envelope envA, Envelope envB) {
+    // default is to do nothing
+  }
+
+  public boolean isKnown() {
+    return value != UNKNOWN;
+  }
+
+  public boolean value() {
+    return value == TRUE;
+  }
+
+  /**
+   * Sets the predicate value, if it is not already known.
+   *
+   * @param val the predicate value
+   */
+  protected void setValue(boolean val) {
+    if (isKnown())
+      return;
+    value = val ? TRUE : FALSE;
+  }
+
+  protected void setValueIf(boolean val, boolean cond) {
+    if (cond)
+      setValue(val);
+  }
+
+  /**
+   * Sets the predicate value to false if a condition does not hold.
+   *
+   * @param cond the condition required for the predicate to be true
+   */
+  protected void require(boolean cond) {
+    if (! cond)
+      setValue(false);
+  }
+
+  protected void requireCovers(Envelope a, Envelope b) {
+    require(a.covers(b));
+  }
+
+  protected static boolean isIntersection(int locA, int locB) {
+    //-- i.e. some location on both geometries intersects
+    return locA != Location.EXTERIOR && locB != Location.EXTERIOR;
+  }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2021 Martin Davis.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jts.operation.relateng;
+
+import org.locationtech.jts.algorithm.RobustLineIntersector;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.noding.SegmentIntersector;
+import org.locationtech.jts.noding.SegmentString;
+
+/**
+ * Computes the intersections of segments of the edges of
+ * two geometries, and adds them as node sections
+ * to a {@link TopologyComputer}.
+ * Noding stops as soon as the predicate result is known.
+ *
+ * @author Martin Davis
+ *
+ */
+class EdgeSegmentIntersector implements SegmentIntersector {
+
+  private RobustLineIntersector li = new RobustLineIntersector();
+  private TopologyComputer topoComputer;
+
+  public EdgeSegmentIntersector(TopologyComputer topoComputer) {
+    this.topoComputer = topoComputer;
+  }
+
+  public boolean isDone() {
+    return topoComputer.isResultKnown();
+  }
+
+  public void processIntersections(SegmentString ss0, int segIndex0, SegmentString ss1, int segIndex1) {
+    RelateSegmentString rss0 = (RelateSegmentString) ss0;
+    RelateSegmentString rss1 = (RelateSegmentString) ss1;
+    //-- only intersections between A and B are of interest
+    if (rss0.isA() == rss1.isA())
+      return;
+    if (rss0.isA()) {
+      addIntersections(rss0, segIndex0, rss1, segIndex1);
+    }
+    else {
+      addIntersections(rss1, segIndex1, rss0, segIndex0);
+    }
+  }
+
+  private void addIntersections(RelateSegmentString ssA, int segIndexA, RelateSegmentString ssB, int segIndexB) {
+    Coordinate a0 = ssA.getCoordinate(segIndexA);
+    Coordinate a1 = ssA.getCoordinate(segIndexA + 1);
+    Coordinate b0 = ssB.getCoordinate(segIndexB);
+    Coordinate b1 = ssB.getCoordinate(segIndexB + 1);
+
+    li.computeIntersection(a0, a1, b0, b1);
+    if (! li.hasIntersection())
+      return;
+
+    /**
+     * A proper intersection lies in the interior of both segments,
+     * so it is reported only once.
+     * The containing segment check is not used,
+     * since round-off may place the computed point on a segment endpoint.
+     */
+    if (li.isProper()) {
+      Coordinate intPt = li.getIntersection(0);
+      NodeSection nsa = ssA.createProperNodeSection(segIndexA, intPt);
+      NodeSection nsb = ssB.createProperNodeSection(segIndexB, intPt);
+      topoComputer.addIntersection(nsa, nsb);
+      return;
+    }
+    for (int i = 0; i < li.getIntersectionNum(); i++) {
+      Coordinate intPt = li.getIntersection(i);
+      /**
+       * Ensure node sections are only added once,
+       * by only processing intersections from the segments
+       * which contain them canonically.
+       */
+      if (! ssA.isContainingSegment(segIndexA, intPt)
+          || ! ssB.isContainingSegment(segIndexB, intPt))
+        continue;
+      NodeSection nsa = ssA.createNodeSection(segIndexA, intPt);
+      NodeSection nsb = ssB.createNodeSection(segIndexB, intPt);
+      topoComputer.addIntersection(nsa, nsb);
+    }
+  }
+}
@@ -0,0 +1,207 @@
+/*
+ * Copyright (c) 2021 Martin Davis.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jts.operation.relateng;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.locationtech.jts.algorithm.Orientation;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.index.chain.MonotoneChain;
+import org.locationtech.jts.index.chain.MonotoneChainBuilder;
+import org.locationtech.jts.index.chain.MonotoneChainOverlapAction;
+import org.locationtech.jts.index.strtree.STRtree;
+
+/**
+ * Intersects the edges of geometry A with the edges of geometry B
+ * using monotone chains and a spatial index.
+ * The index of the edges of A is built separately,
+ * so that it can be cached for a prepared geometry.
+ * <p>
+ * Also supports finding the sections of all edges
+ * which pass through a node.
+ * This is required because intersections of collinear
+ * overlapping segments report only the ends of the overlap,
+ * so some edges through a node may not be reported by noding.
+ *
+ * @author Martin Davis
+ *
+ */
+class EdgeSetIntersector {
+
+  /**
+   * Creates a spatial index of the monotone chains of a set of edges.
+   * The index is fully built, so it is thread-safe.
+   *
+   * @param edges the edges to index
+   * @return the index of the edge monotone chains
+   */
+  public static STRtree createIndex(List<RelateSegmentString> edges) {
+    STRtree index = new STRtree();
+    for (RelateSegmentString edge : edges) {
+      for (MonotoneChain mc : getChains(edge)) {
+        index.insert(mc.getEnvelope(), mc);
+      }
+    }
+    index.build();
+    return index;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static List<MonotoneChain> getChains(RelateSegmentString edge) {
+    return MonotoneChainBuilder.getChains(edge.getCoordinates(), edge);
+  }
+
+  private STRtree indexA;
+  private List<RelateSegmentString> edgesB;
+  private List<MonotoneChain> chainsB;
+  private STRtree indexB = null;
+
+  public EdgeSetIntersector(STRtree indexA, List<RelateSegmentString> edgesB) {
+    this.indexA = indexA;
+    this.edgesB = edgesB;
+  }
+
+  /**
+   * Computes the intersections between the edges of A and B.
+   * Processing stops as soon as the intersector is done.
+   *
+   * @param intersector the intersector to process intersecting segments
+   */
+  public void process(final EdgeSegmentIntersector intersector) {
+    MonotoneChainOverlapAction overlapAction = new MonotoneChainOverlapAction() {
+      public void overlap(MonotoneChain mc1, int start1, MonotoneChain mc2, int start2) {
+        intersector.processIntersections(
+            (RelateSegmentString) mc1.getContext(), start1,
+            (RelateSegmentString) mc2.getContext(), start2);
+      }
+    };
+    chainsB = new ArrayList<MonotoneChain>();
+    for (RelateSegmentString edge : edgesB) {
+      chainsB.addAll(getChains(edge));
+    }
+    for (MonotoneChain queryChain : chainsB) {
+      List<?> overlapChains = indexA.query(queryChain.getEnvelope());
+      for (Object testChain : overlapChains) {
+        queryChain.computeOverlaps((MonotoneChain) testChain, overlapAction);
+        if (intersector.isDone())
+          return;
+      }
+    }
+  }
+
+  /**
+   * Adds node sections for all the edges of A and B
+   * which contain a node point.
+   * If the node is at a vertex of an input edge its location is exact,
+   * so the edges containing it can be found directly.
+   * Otherwise the node is a proper intersection with a rounded location,
+   * so the edges which overlap the intersecting segments collinearly
+   * are found instead.
+   *
+   * @param nodeSections the node sections to add to
+   */
+  public void addNodeSections(NodeSections nodeSections) {
+    if (! nodeSections.isNodeAtVertex()) {
+      addCollinearNodeSections(nodeSections);
+      return;
+    }
+    Coordinate pt = nodeSections.getCoordinate();
+    Envelope env = new Envelope(pt);
+    addNodeSections(indexA.query(env), pt, nodeSections);
+    addNodeSections(getIndexB().query(env), pt, nodeSections);
+  }
+
+  private void addCollinearNodeSections(NodeSections nodeSections) {
+    Coordinate pt = nodeSections.getCoordinate();
+    for (NodeSection ns : nodeSections.getSections()) {
+      Coordinate v0 = ns.getVertex(0);
+      Coordinate v1 = ns.getVertex(1);
+      Envelope env = new Envelope(v0, v1);
+      addCollinearNodeSections(indexA.query(env), pt, v0, v1, nodeSections);
+      addCollinearNodeSections(getIndexB().query(env), pt, v0, v1, nodeSections);
+    }
+  }
+
+  private static void addCollinearNodeSections(List<?> chains, Coordinate pt,
+      Coordinate v0, Coordinate v1, NodeSections nodeSections) {
+    for (Object chain : chains) {
+      MonotoneChain mc = (MonotoneChain) chain;
+      RelateSegmentString edge = (RelateSegmentString) mc.getContext();
+      for (int i = mc.getStartIndex(); i < mc.getEndIndex(); i++) {
+        Coordinate p0 = edge.getCoordinate(i);
+        Coordinate p1 = edge.getCoordinate(i + 1);
+        if (! isCollinear(p0, p1, v0, v1) || ! isInExtent(pt, p0, p1))
+          continue;
+        /**
+         * The node is a proper intersection, so if it equals
+         * a vertex of a collinear edge this is due to round-off.
+         * The edge is still treated as passing through the node.
+         */
+        if (edge.isContainingSegment(i, pt)) {
+          nodeSections.addNodeSection(edge.createProperNodeSection(i, pt));
+        }
+      }
+    }
+  }
+
+  private static boolean isCollinear(Coordinate p0, Coordinate p1, Coordinate q0, Coordinate q1) {
+    return Orientation.index(p0, p1, q0) == Orientation.COLLINEAR
+        && Orientation.index(p0, p1, q1) == Orientation.COLLINEAR;
+  }
+
+  /**
+   * Tests whether a point lies within the extent of a segment,
+   * along the dominant axis of the segment.
+   * This is robust for a point rounded slightly off the segment line.
+   */
+  private static boolean isInExtent(Coordinate p, Coordinate p0, Coordinate p1) {
+    if (Math.abs(p1.x - p0.x) >= Math.abs(p1.y - p0.y))
+      return isBetween(p.x, p0.x, p1.x);
+    return isBetween(p.y, p0.y, p1.y);
+  }
+
+  private static boolean isBetween(double v, double v0, double v1) {
+    return v >= Math.min(v0, v1) && v <= Math.max(v0, v1);
+  }
+
+  private STRtree getIndexB() {
+    if (indexB == null) {
+      indexB = new STRtree();
+      for (MonotoneChain mc : chainsB) {
+        indexB.insert(mc.getEnvelope(), mc);
+      }
+      indexB.build();
+    }
+    return indexB;
+  }
+
+  private static void addNodeSections(List<?> chains, Coordinate pt, NodeSections nodeSections) {
+    for (Object chain : chains) {
+      MonotoneChain mc = (MonotoneChain) chain;
+      RelateSegmentString edge = (RelateSegmentString) mc.getContext();
+      for (int i = mc.getStartIndex(); i < mc.getEndIndex(); i++) {
+        if (isOnSegment(pt, edge.getCoordinate(i), edge.getCoordinate(i + 1))
+            && edge.isContainingSegment(i, pt)) {
+          nodeSections.addNodeSection(edge.createNodeSection(i, pt));
+        }
+      }
+    }
+  }
+
+  private static boolean isOnSegment(Coordinate p, Coordinate p0, Coordinate p1) {
+    if (! Envelope.intersects(p0, p1, p))
+      return false;
+    return Orientation.index(p0, p1, p) == Orientation.COLLINEAR;
+  }
+}
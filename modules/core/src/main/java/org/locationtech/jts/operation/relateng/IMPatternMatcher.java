@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2021 Martin Davis.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jts.operation.relateng;
+
+import org.locationtech.jts.geom.Dimension;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.IntersectionMatrix;
+import org.locationtech.jts.geom.Location;
+
+/**
+ * A predicate that matches a DE-9IM pattern.
+ * The predicate value is determined as false as soon as
+ * a matrix entry exceeds the value allowed by the pattern.
+ *
+ * @author Martin Davis
+ *
+ */
+public class IMPatternMatcher extends IMPredicate {
+
+  private String imPattern;
+  private IntersectionMatrix patternMatrix;
+
+  /**
+   * Creates a predicate matching a DE-9IM pattern.
+   *
+   * @param imPattern the pattern to match
+   */
+  public IMPatternMatcher(String imPattern) {
+    this.imPattern = imPattern;
+    patternMatrix = new IntersectionMatrix(imPattern);
+  }
+
+  public String name() { return "IMPattern"; }
+
+  public void init(Envelope envA, Envelope envB) {
+    //-- if pattern requires interaction then envelopes must intersect
+    if (requireInteraction(patternMatrix)) {
+      require(envA.intersects(envB));
+    }
+  }
+
+  private static boolean requireInteraction(IntersectionMatrix im) {
+    return isInteraction(im.get(Location.INTERIOR, Location.INTERIOR))
+        || isInteraction(im.get(Location.INTERIOR, Location.BOUNDARY))
+        || isInteraction(im.get(Location.BOUNDARY, Location.INTERIOR))
+        || isInteraction(im.get(Location.BOUNDARY, Location.BOUNDARY));
+  }
+
+  private static boolean isInteraction(int imDim) {
+    return imDim == Dimension.TRUE || imDim >= Dimension.P;
+  }
+
+  protected boolean isDetermined() {
+    /**
+     * Matrix entries only increase in dimension as topology is computed.
+     * The predicate can be short-circuited (as false) if
+     * any computed entry is greater than the mask value.
+     */
+    for (int i = 0; i < 3; i++) {
+      for (int j = 0; j < 3; j++) {
+        int patternEntry = patternMatrix.get(i, j);
+        if (patternEntry == Dimension.DONTCARE)
+          continue;
+        int matrixVal = getDimension(i, j);
+        //-- mask entry TRUE requires a known matrix entry
+        if (patternEntry == Dimension.TRUE) {
+          if (matrixVal < 0)
+            return false;
+        }
+        //-- result is known (false) if matrix entry has exceeded mask
+        else if (matrixVal > patternEntry)
+          return true;
+      }
+    }
+    return false;
+  }
+
+  protected boolean valueIM() {
+    return intMatrix.matches(imPattern);
+  }
+
+  public String toString() {
+    return name() + "(" + imPattern + ")";
+  }
+}
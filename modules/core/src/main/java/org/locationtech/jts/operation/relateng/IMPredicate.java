@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2021 Martin Davis.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jts.operation.relateng;
+
+import org.locationtech.jts.geom.Dimension;
+import org.locationtech.jts.geom.IntersectionMatrix;
+import org.locationtech.jts.geom.Location;
+
+/**
+ * A base class for predicates which are
+ * determined by entries in the DE-9IM {@link IntersectionMatrix}.
+ * The matrix entries are built up as topology is computed,
+ * and the predicate value is set as soon as
+ * enough entries are known to determine it.
+ *
+ * @author Martin Davis
+ *
+ */
+public abstract class IMPredicate extends BasicPredicate {
+
+  protected int dimA;
+  protected int dimB;
+  protected IntersectionMatrix intMatrix;
+
+  public IMPredicate() {
+    intMatrix = new IntersectionMatrix();
+    //-- E/E is always dim = 2
+    intMatrix.set(Location.EXTERIOR, Location.EXTERIOR, Dimension.A);
+  }
+
+  public void init(int dimA, int dimB) {
+    this.dimA = dimA;
+    this.dimB = dimB;
+  }
+
+  public void updateDimension(int locA, int locB, int dim) {
+    //-- only record an increased dimension value
+    if (isDimChanged(locA, locB, dim)) {
+      intMatrix.set(locA, locB, dim);
+      //-- set value if predicate value can be known
+      if (isDetermined()) {
+        setValue(valueIM());
+      }
+    }
+  }
+
+  public boolean isDimChanged(int locA, int locB, int dim) {
+    return dim > intMatrix.get(locA, locB);
+  }
+
+  /**
+   * Tests whether predicate evaluation can be short-circuited
+   * due to the current state of the matrix providing
+   * enough information to determine the predicate value.
+   * <p>
+   * If this value is true then {@link #valueIM()}
+   * must provide the correct result of the predicate.
+   *
+   * @return true if the predicate value is determined
+   */
+  protected abstract boolean isDetermined();
+
+  /**
+   * Tests whether the exterior of the specified input geometry
+   * is intersected by any part of the other input.
+   *
+   * @param isA the input geometry
+   * @return true if the input geometry exterior is intersected
+   */
+  protected boolean intersectsExteriorOf(boolean isA) {
+    if (isA) {
+      return isIntersects(Location.EXTERIOR, Location.INTERIOR)
+          || isIntersects(Location.EXTERIOR, Location.BOUNDARY);
+    }
+    return isIntersects(Location.INTERIOR, Location.EXTERIOR)
+        || isIntersects(Location.BOUNDARY, Location.EXTERIOR);
+  }
+
+  protected boolean isIntersects(int locA, int locB) {
+    return intMatrix.get(locA, locB) >= Dimension.P;
+  }
+
+  protected int getDimension(int locA, int locB) {
+    return intMatrix.get(locA, locB);
+  }
+
+  /**
+   * Gets the value of the predicate according to the current
+   * intersection matrix state.
+   *
+   * @return the current predicate value
+   */
+  protected abstract boolean valueIM();
+
+  public void finish() {
+    setValue(valueIM());
+  }
+
+  public String toString() {
+    return name() + ": " + intMatrix;
+  }
+}
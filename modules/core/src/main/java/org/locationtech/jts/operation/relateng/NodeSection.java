@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2021 Martin Davis.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jts.operation.relateng;
+
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Dimension;
+import org.locationtech.jts.io.WKTWriter;
+
+/**
+ * Represents a computed node along with the incident edges on either side of it
+ * (if they exist).
+ * This captures the information about a node in a geometry component
+ * required to determine the component's contribution to the node topology.
+ * A node in an area geometry always has edges on both sides of the node.
+ * A node in a linear geometry may have one or other incident edge missing,
+ * if the node occurs at an endpoint of the line.
+ * Area edges are oriented so that the area interior lies to the right.
+ *
+ * @author Martin Davis
+ *
+ */
+class NodeSection {
+
+  private boolean isA;
+  private int dim;
+  private int id;
+  private int ringId;
+  private boolean isNodeAtVertex;
+  private boolean isProper = false;
+  private Coordinate nodePt;
+  private Coordinate v0;
+  private Coordinate v1;
+
+  public NodeSection(boolean isA, int dimension, int id, int ringId,
+      boolean isNodeAtVertex, Coordinate v0, Coordinate nodePt, Coordinate v1) {
+    this.isA = isA;
+    this.dim = dimension;
+    this.id = id;
+    this.ringId = ringId;
+    this.isNodeAtVertex = isNodeAtVertex;
+    this.nodePt = nodePt;
+    this.v0 = v0;
+    this.v1 = v1;
+  }
+
+  /**
+   * Gets a vertex adjacent to the node.
+   *
+   * @param i the index of the vertex (0 for the previous vertex, 1 for the next)
+   * @return the vertex, or null if the node is at a line endpoint
+   */
+  public Coordinate getVertex(int i) {
+    return i == 0 ? v0 : v1;
+  }
+
+  public Coordinate nodePt() {
+    return nodePt;
+  }
+
+  public int dimension() {
+    return dim;
+  }
+
+  public int id() {
+    return id;
+  }
+
+  public int ringId() {
+    return ringId;
+  }
+
+  public boolean isShell() {
+    return ringId == 0;
+  }
+
+  public boolean isArea() {
+    return dim == Dimension.A;
+  }
+
+  public boolean isA() {
+    return isA;
+  }
+
+  public boolean isNodeAtVertex() {
+    return isNodeAtVertex;
+  }
+
+  /**
+   * Tests whether the node is a proper intersection of the section segment.
+   * In this case the vertices are the endpoints of the segment
+   * which contains the node in its interior.
+   *
+   * @return true if the node is a proper segment intersection
+   */
+  public boolean isProper() {
+    return isProper;
+  }
+
+  void setProper(boolean isProper) {
+    this.isProper = isProper;
+  }
+
+  /**
+   * Tests whether the node is a proper intersection
+   * whose computed location coincides with a vertex of the section
+   * due to round-off.
+   * The node is then in the interior of the section edge,
+   * even if the vertex is a line endpoint.
+   *
+   * @return true if the node is a proper intersection rounded to a vertex
+   */
+  public boolean isRoundedToVertex() {
+    return isProper && (nodePt.equals2D(v0) || nodePt.equals2D(v1));
+  }
+
+  /**
+   * Tests whether a section is identical to this one
+   * (i.e. it is from the same edge of the same geometry element).
+   *
+   * @param ns the section to test
+   * @return true if the sections are identical
+   */
+  public boolean isSameSection(NodeSection ns) {
+    return isA == ns.isA
+        && dim == ns.dim
+        && id == ns.id
+        && ringId == ns.ringId
+        && isEqual(v0, ns.v0)
+        && isEqual(v1, ns.v1);
+  }
+
+  private static boolean isEqual(Coordinate p0, Coordinate p1) {
+    if (p0 == null || p1 == null)
+      return p0 == p1;
+    return p0.equals2D(p1);
+  }
+
+  public String toString() {
+    String atVertexInd = isNodeAtVertex ? "-V-" : "---";
+    String segStr = v0 == null ? "" : WKTWriter.toLineString(v0, nodePt);
+    segStr += atVertexInd;
+    segStr += v1 == null ? "" : WKTWriter.toLineString(nodePt, v1);
+    return RelateGeometry.name(isA) + dim + ":" + id + "," + ringId + " " + segStr;
+  }
+}
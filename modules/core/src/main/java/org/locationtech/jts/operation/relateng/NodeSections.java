@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2021 Martin Davis.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jts.operation.relateng;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.locationtech.jts.geom.Coordinate;
+
+/**
+ * Collects the {@link NodeSection}s at a node point,
+ * from which the node topology is computed.
+ *
+ * @author Martin Davis
+ *
+ */
+class NodeSections {
+
+  private Coordinate nodePt;
+  private List<NodeSection> sections = new ArrayList<NodeSection>();
+
+  public NodeSections(Coordinate pt) {
+    this.nodePt = pt;
+  }
+
+  public Coordinate getCoordinate() {
+    return nodePt;
+  }
+
+  public List<NodeSection> getSections() {
+    return new ArrayList<NodeSection>(sections);
+  }
+
+  /**
+   * Adds a node section, if an identical one is not already present.
+   *
+   * @param ns the node section to add
+   */
+  public void addNodeSection(NodeSection ns) {
+    for (NodeSection section : sections) {
+      if (section.isSameSection(ns))
+        return;
+    }
+    sections.add(ns);
+  }
+
+  /**
+   * Tests whether the node is at a vertex of an input edge.
+   * If so the node point is exact, and can be used to
+   * find all edges passing through it.
+   *
+   * @return true if the node is at an edge vertex
+   */
+  public boolean isNodeAtVertex() {
+    for (NodeSection ns : sections) {
+      if (ns.isNodeAtVertex())
+        return true;
+    }
+    return false;
+  }
+
+  /**
+   * Tests whether all the sections of an input geometry at the node
+   * are proper intersections which have been rounded to an edge vertex.
+   * In this case the node is not a line endpoint of the input.
+   *
+   * @param isA the input geometry
+   * @return true if the input sections are all rounded proper intersections
+   */
+  public boolean isRoundedToVertex(boolean isA) {
+    for (NodeSection ns : sections) {
+      if (ns.isA() == isA && ! ns.isRoundedToVertex())
+        return false;
+    }
+    return true;
+  }
+
+  public boolean hasInteractionAB() {
+    boolean isA = false;
+    boolean isB = false;
+    for (NodeSection ns : sections) {
+      if (ns.isA())
+        isA = true;
+      else
+        isB = true;
+      if (isA && isB)
+        return true;
+    }
+    return false;
+  }
+
+  /**
+   * Tests whether any section of an input geometry is an area edge.
+   *
+   * @param isA the input geometry
+   * @return true if the input has an area section at the node
+   */
+  public boolean hasArea(boolean isA) {
+    for (NodeSection ns : sections) {
+      if (ns.isA() == isA && ns.isArea())
+        return true;
+    }
+    return false;
+  }
+
+  public RelateNode createNode() {
+    RelateNode node = new RelateNode(nodePt);
+    node.addEdges(sections);
+    node.finish();
+    return node;
+  }
+}
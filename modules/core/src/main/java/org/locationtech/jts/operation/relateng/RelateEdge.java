@@ -0,0 +1,265 @@
+/*
+ * Copyright (c) 2021 Martin Davis.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jts.operation.relateng;
+
+import org.locationtech.jts.algorithm.CGAlgorithmsDD;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Dimension;
+import org.locationtech.jts.geom.Location;
+import org.locationtech.jts.geom.Position;
+import org.locationtech.jts.geom.Quadrant;
+import org.locationtech.jts.io.WKTWriter;
+import org.locationtech.jts.math.DD;
+
+/**
+ * An edge incident on a node, recording the topological locations
+ * of the edge line and its sides for both input geometries.
+ * Edges originating from the same direction at a node are merged,
+ * so the labels may contain information from several input edges.
+ *
+ * @author Martin Davis
+ *
+ */
+class RelateEdge {
+
+  public static final boolean IS_FORWARD = true;
+  public static final boolean IS_REVERSE = false;
+
+  private static final int DIM_UNKNOWN = -1;
+  private static final int LOC_UNKNOWN = Location.NONE;
+
+  /**
+   * Compares the angles of two vectors
+   * relative to the positive X-axis.
+   * Angles increase CCW from the X-axis.
+   * The vectors may have different origins.
+   * This allows the direction of an edge through a node
+   * to be determined from the segment containing the node,
+   * which avoids errors caused by round-off in the node location.
+   *
+   * @param p0 the origin of the vector P
+   * @param p the endpoint of the vector P
+   * @param q0 the origin of the vector Q
+   * @param q the endpoint of the vector Q
+   * @return a negative integer, zero, or a positive integer as vector P has angle less than, equal to, or greater than vector Q
+   */
+  public static int compareAngle(Coordinate p0, Coordinate p, Coordinate q0, Coordinate q) {
+    int quadrantP = Quadrant.quadrant(p0, p);
+    int quadrantQ = Quadrant.quadrant(q0, q);
+    if (quadrantP > quadrantQ) return 1;
+    if (quadrantP < quadrantQ) return -1;
+    //-- vectors are in same quadrant, so check relative orientation
+    return CGAlgorithmsDD.signOfDet2x2(
+        DD.valueOf(q.x).selfSubtract(q0.x), DD.valueOf(q.y).selfSubtract(q0.y),
+        DD.valueOf(p.x).selfSubtract(p0.x), DD.valueOf(p.y).selfSubtract(p0.y));
+  }
+
+  private RelateNode node;
+  private Coordinate originPt;
+  private Coordinate dirPt;
+
+  private int aDim = DIM_UNKNOWN;
+  private int aLocLeft = LOC_UNKNOWN;
+  private int aLocRight = LOC_UNKNOWN;
+  private int aLocLine = LOC_UNKNOWN;
+
+  private int bDim = DIM_UNKNOWN;
+  private int bLocLeft = LOC_UNKNOWN;
+  private int bLocRight = LOC_UNKNOWN;
+  private int bLocLine = LOC_UNKNOWN;
+
+  /**
+   * Creates an edge incident on a node.
+   * The edge direction is the vector from the origin point to the direction point.
+   * This is usually the node point, but for a node which is a proper intersection
+   * it may be the other endpoint of the segment containing the node.
+   *
+   * @param node the node the edge is incident on
+   * @param originPt the origin of the edge direction vector
+   * @param dirPt the endpoint of the edge direction vector
+   * @param isA the input geometry of the edge
+   * @param dim the dimension of the edge
+   * @param isForward whether an area edge is in the ring direction
+   */
+  public RelateEdge(RelateNode node, Coordinate originPt, Coordinate dirPt,
+      boolean isA, int dim, boolean isForward) {
+    this.node = node;
+    this.originPt = originPt;
+    this.dirPt = dirPt;
+    if (dim == Dimension.A) {
+      setLocationsArea(isA, isForward);
+    }
+    else {
+      setLocationsLine(isA);
+    }
+  }
+
+  private void setLocationsArea(boolean isA, boolean isForward) {
+    //-- area interior is on right of ring direction
+    int locLeft = isForward ? Location.EXTERIOR : Location.INTERIOR;
+    int locRight = isForward ? Location.INTERIOR : Location.EXTERIOR;
+    setLocations(isA, Dimension.A, locLeft, locRight, Location.BOUNDARY);
+  }
+
+  private void setLocationsLine(boolean isA) {
+    setLocations(isA, Dimension.L, Location.EXTERIOR, Location.EXTERIOR, Location.INTERIOR);
+  }
+
+  private void setLocations(boolean isA, int dim, int locLeft, int locRight, int locLine) {
+    if (isA) {
+      aDim = dim;
+      aLocLeft = locLeft;
+      aLocRight = locRight;
+      aLocLine = locLine;
+    }
+    else {
+      bDim = dim;
+      bLocLeft = locLeft;
+      bLocRight = locRight;
+      bLocLine = locLine;
+    }
+  }
+
+  public Coordinate getDirectionPt() {
+    return dirPt;
+  }
+
+  public int compareToEdge(Coordinate edgeOriginPt, Coordinate edgeDirPt) {
+    return compareAngle(originPt, dirPt, edgeOriginPt, edgeDirPt);
+  }
+
+  /**
+   * Merges the information from another input edge
+   * with the same direction into this edge.
+   * Area edges of the same geometry are merged by union,
+   * so that an edge with the area interior on both sides
+   * is in the area interior.
+   *
+   * @param isA the input geometry of the edge
+   * @param dim the dimension of the edge
+   * @param isForward whether an area edge is in the ring direction
+   */
+  public void merge(boolean isA, int dim, boolean isForward) {
+    if (! isKnown(isA)) {
+      if (dim == Dimension.A) {
+        setLocationsArea(isA, isForward);
+      }
+      else {
+        setLocationsLine(isA);
+      }
+      return;
+    }
+    //-- a line edge adds nothing to an existing edge of the same geometry
+    if (dim != Dimension.A || dimension(isA) != Dimension.A)
+      return;
+
+    int locLeft = isForward ? Location.EXTERIOR : Location.INTERIOR;
+    int locRight = isForward ? Location.INTERIOR : Location.EXTERIOR;
+    int mergedLeft = mergeInteriorLocation(location(isA, Position.LEFT), locLeft);
+    int mergedRight = mergeInteriorLocation(location(isA, Position.RIGHT), locRight);
+    int mergedLine = Location.BOUNDARY;
+    if (mergedLeft == Location.INTERIOR && mergedRight == Location.INTERIOR) {
+      mergedLine = Location.INTERIOR;
+    }
+    setLocations(isA, Dimension.A, mergedLeft, mergedRight, mergedLine);
+  }
+
+  private static int mergeInteriorLocation(int loc1, int loc2) {
+    if (loc1 == Location.INTERIOR || loc2 == Location.INTERIOR)
+      return Location.INTERIOR;
+    return Location.EXTERIOR;
+  }
+
+  private int dimension(boolean isA) {
+    return isA ? aDim : bDim;
+  }
+
+  public boolean isKnown(boolean isA) {
+    return dimension(isA) != DIM_UNKNOWN;
+  }
+
+  public boolean isAreaEdge(boolean isA) {
+    return dimension(isA) == Dimension.A;
+  }
+
+  /**
+   * Gets the location for an input geometry
+   * of a position on the edge.
+   *
+   * @param isA the input geometry
+   * @param position the edge position (ON, LEFT or RIGHT)
+   * @return the location
+   */
+  public int location(boolean isA, int position) {
+    if (isA) {
+      switch (position) {
+      case Position.LEFT: return aLocLeft;
+      case Position.RIGHT: return aLocRight;
+      case Position.ON: return aLocLine;
+      }
+    }
+    else {
+      switch (position) {
+      case Position.LEFT: return bLocLeft;
+      case Position.RIGHT: return bLocRight;
+      case Position.ON: return bLocLine;
+      }
+    }
+    return LOC_UNKNOWN;
+  }
+
+  /**
+   * Sets all the locations of an edge which is not part of an input geometry
+   * to the location of the region it lies in.
+   *
+   * @param isA the input geometry
+   * @param loc the location of the region containing the edge
+   */
+  public void setAllLocations(boolean isA, int loc) {
+    setLocations(isA, Dimension.A, loc, loc, loc);
+  }
+
+  /**
+   * Sets the locations of an edge which is not part of an input geometry,
+   * if the edge is not already labelled for it.
+   *
+   * @param isA the input geometry
+   * @param loc the location of the region containing the edge
+   */
+  public void setUnknownLocations(boolean isA, int loc) {
+    if (! isKnown(isA)) {
+      setAllLocations(isA, loc);
+    }
+  }
+
+  public String toString() {
+    return WKTWriter.toLineString(node.getCoordinate(), dirPt)
+        + " - " + labelString();
+  }
+
+  private String labelString() {
+    StringBuilder buf = new StringBuilder();
+    buf.append("A:");
+    buf.append(locationString(RelateGeometry.GEOM_A));
+    buf.append("/B:");
+    buf.append(locationString(RelateGeometry.GEOM_B));
+    return buf.toString();
+  }
+
+  private String locationString(boolean isA) {
+    StringBuilder buf = new StringBuilder();
+    buf.append(Location.toLocationSymbol(location(isA, Position.LEFT)));
+    buf.append(Location.toLocationSymbol(location(isA, Position.ON)));
+    buf.append(Location.toLocationSymbol(location(isA, Position.RIGHT)));
+    return buf.toString();
+  }
+}
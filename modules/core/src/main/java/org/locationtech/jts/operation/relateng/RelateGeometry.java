@@ -0,0 +1,251 @@
+/*
+ * Copyright (c) 2021 Martin Davis.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jts.operation.relateng;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.locationtech.jts.algorithm.BoundaryNodeRule;
+import org.locationtech.jts.algorithm.Orientation;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.CoordinateArrays;
+import org.locationtech.jts.geom.Dimension;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.geom.LinearRing;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.Polygon;
+import org.locationtech.jts.geom.Polygonal;
+
+/**
+ * Represents an input geometry to {@link RelateNG}.
+ * The geometry elements are extracted by type,
+ * and the effective dimension of the geometry is determined
+ * (zero-length lines are treated as points).
+ * Provides point location and edge extraction.
+ * <p>
+ * Only geometries with elements of a single dimension are supported
+ * (i.e. atomic geometries and homogeneous collections).
+ * A homogeneous GeometryCollection is evaluated in the same way
+ * as the corresponding multi-geometry,
+ * so its polygonal elements must not overlap or share edges.
+ *
+ * @author Martin Davis
+ *
+ */
+class RelateGeometry {
+
+  public static final boolean GEOM_A = true;
+  public static final boolean GEOM_B = false;
+
+  public static String name(boolean isA) {
+    return isA ? "A" : "B";
+  }
+
+  private Geometry geom;
+  private boolean isPrepared;
+  private Envelope geomEnv;
+  private int geomDim = Dimension.FALSE;
+
+  private Set<Coordinate> points = new HashSet<Coordinate>();
+  private List<LineString> lines = new ArrayList<LineString>();
+  private List<Polygon> polygons = new ArrayList<Polygon>();
+  private RelatePointLocator locator;
+
+  public RelateGeometry(Geometry input, boolean isPrepared, BoundaryNodeRule bnRule) {
+    this.geom = input;
+    this.geomEnv = input.getEnvelopeInternal();
+    this.isPrepared = isPrepared;
+    extractElements(geom);
+    geomDim = computeDimension();
+    locator = new RelatePointLocator(points, lines, polygonal(), isPrepared, bnRule);
+  }
+
+  private void extractElements(Geometry geom) {
+    int realDim = Dimension.FALSE;
+    for (int i = 0; i < geom.getNumGeometries(); i++) {
+      Geometry elem = geom.getGeometryN(i);
+      if (elem.isEmpty())
+        continue;
+      int elemDim = elem.getDimension();
+      if (realDim != Dimension.FALSE && elemDim != realDim) {
+        throw new IllegalArgumentException("Heterogeneous GeometryCollection arguments are not supported");
+      }
+      realDim = elemDim;
+      if (elem instanceof Point) {
+        points.add(elem.getCoordinate());
+      }
+      else if (elem instanceof LineString) {
+        LineString line = (LineString) elem;
+        if (isZeroLength(line)) {
+          //-- zero-length lines have no boundary, so are equivalent to points
+          points.add(line.getCoordinateN(0));
+        }
+        else {
+          lines.add(line);
+        }
+      }
+      else if (elem instanceof Polygon) {
+        polygons.add((Polygon) elem);
+      }
+      else {
+        throw new IllegalArgumentException("Heterogeneous GeometryCollection arguments are not supported");
+      }
+    }
+  }
+
+  private static boolean isZeroLength(LineString line) {
+    Coordinate p0 = line.getCoordinateN(0);
+    for (int i = 1; i < line.getNumPoints(); i++) {
+      if (! p0.equals2D(line.getCoordinateN(i)))
+        return false;
+    }
+    return true;
+  }
+
+  private int computeDimension() {
+    if (! polygons.isEmpty()) return Dimension.A;
+    if (! lines.isEmpty()) return Dimension.L;
+    if (! points.isEmpty()) return Dimension.P;
+    return Dimension.FALSE;
+  }
+
+  private Geometry polygonal() {
+    if (polygons.isEmpty())
+      return null;
+    if (geom instanceof Polygonal)
+      return geom;
+    return geom.getFactory().createMultiPolygon(
+        polygons.toArray(new Polygon[polygons.size()]));
+  }
+
+  public Geometry getGeometry() {
+    return geom;
+  }
+
+  public boolean isPrepared() {
+    return isPrepared;
+  }
+
+  public Envelope getEnvelope() {
+    return geomEnv;
+  }
+
+  /**
+   * Gets the effective dimension of the geometry.
+   * Zero-length lines have dimension 0.
+   * Empty geometries have dimension {@link Dimension#FALSE}.
+   *
+   * @return the effective dimension of the geometry
+   */
+  public int getDimension() {
+    return geomDim;
+  }
+
+  public boolean isEmpty() {
+    return geomDim == Dimension.FALSE;
+  }
+
+  public boolean hasEdges() {
+    return geomDim == Dimension.L || geomDim == Dimension.A;
+  }
+
+  public boolean hasBoundary() {
+    if (geomDim == Dimension.A)
+      return true;
+    return locator.hasBoundary();
+  }
+
+  public boolean isLineBoundary(Coordinate p) {
+    return locator.isLineBoundary(p);
+  }
+
+  public int locateWithDim(Coordinate pt) {
+    if (! geomEnv.intersects(pt))
+      return DimensionLocation.EXTERIOR;
+    return locator.locateWithDim(pt);
+  }
+
+  /**
+   * Gets the points of the geometry which are not part of edges
+   * (point elements and zero-length lines).
+   *
+   * @return the set of points
+   */
+  public Set<Coordinate> getEffectivePoints() {
+    return points;
+  }
+
+  public List<LineString> getLines() {
+    return lines;
+  }
+
+  public List<Polygon> getPolygons() {
+    return polygons;
+  }
+
+  /**
+   * Extracts the edges of the geometry as {@link RelateSegmentString}s,
+   * optionally only those which interact with an envelope.
+   * Rings are oriented with the polygon interior on the right.
+   *
+   * @param isA whether the geometry is the A input
+   * @param env the envelope of interest, or null to extract all edges
+   * @return the list of edges
+   */
+  public List<RelateSegmentString> extractSegmentStrings(boolean isA, Envelope env) {
+    List<RelateSegmentString> segStrings = new ArrayList<RelateSegmentString>();
+    for (int i = 0; i < lines.size(); i++) {
+      LineString line = lines.get(i);
+      if (env != null && ! env.intersects(line.getEnvelopeInternal()))
+        continue;
+      Coordinate[] pts = CoordinateArrays.removeRepeatedPoints(line.getCoordinates());
+      segStrings.add(RelateSegmentString.createLine(pts, isA, i));
+    }
+    for (int i = 0; i < polygons.size(); i++) {
+      Polygon poly = polygons.get(i);
+      if (env != null && ! env.intersects(poly.getEnvelopeInternal()))
+        continue;
+      addRing(poly.getExteriorRing(), true, isA, i, 0, env, segStrings);
+      for (int j = 0; j < poly.getNumInteriorRing(); j++) {
+        addRing(poly.getInteriorRingN(j), false, isA, i, j + 1, env, segStrings);
+      }
+    }
+    return segStrings;
+  }
+
+  private static void addRing(LinearRing ring, boolean isShell, boolean isA, int id, int ringId,
+      Envelope env, List<RelateSegmentString> segStrings) {
+    if (ring.isEmpty())
+      return;
+    if (env != null && ! env.intersects(ring.getEnvelopeInternal()))
+      return;
+    Coordinate[] pts = CoordinateArrays.removeRepeatedPoints(ring.getCoordinates());
+    //-- a ring collapsed to a point has no edges
+    if (pts.length < 2)
+      return;
+    //-- orient shells CW and holes CCW, so the interior is on the right
+    boolean isCCW = Orientation.isCCW(pts);
+    if (isShell == isCCW) {
+      pts = pts.clone();
+      CoordinateArrays.reverse(pts);
+    }
+    segStrings.add(RelateSegmentString.createRing(pts, isA, id, ringId));
+  }
+
+  public String toString() {
+    return geom.toString();
+  }
+}
@@ -0,0 +1,358 @@
+/*
+ * Copyright (c) 2021 Martin Davis.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jts.operation.relateng;
+
+import java.util.List;
+
+import org.locationtech.jts.algorithm.BoundaryNodeRule;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.IntersectionMatrix;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.geom.Location;
+import org.locationtech.jts.geom.Polygon;
+import org.locationtech.jts.index.strtree.STRtree;
+
+/**
+ * Computes the value of topological predicates between two geometries based on the
+ * <a href="https://en.wikipedia.org/wiki/DE-9IM">Dimensionally-Extended 9-Intersection Model</a> (DE-9IM).
+ * Standard and custom topological predicates are provided by {@link RelatePredicate}.
+ * <p>
+ * The algorithm computes topological relationships directly from the
+ * input geometries, without building a topology graph:
+ * <ul>
+ * <li>the isolated points, line endpoints and a vertex of each ring
+ * of each input are located in the other input
+ * <li>the edges of the two inputs are intersected using monotone chain noding,
+ * restricted to the edges which interact with the envelope of the other input
+ * <li>the topology of the nodes formed by the edge intersections is evaluated
+ * </ul>
+ * The predicate being computed is updated with each intersection
+ * of locations found, and evaluation stops as soon
+ * as the predicate value is known.
+ * For example, <code>intersects</code> can often be determined
+ * after locating a single point, and <code>contains</code> is determined
+ * as soon as any part of the test geometry is found to lie outside the target.
+ * <p>
+ * Geometry A can be prepared by using {@link #prepare(Geometry)}.
+ * This caches the point locator and edge index of A,
+ * so that repeated evaluation against different B geometries is efficient.
+ * <p>
+ * Zero-length lines are treated as being topologically identical to points,
+ * since they have no boundary.
+ * <p>
+ * Heterogeneous {@link org.locationtech.jts.geom.GeometryCollection}s
+ * (containing elements of different dimensions) are not supported.
+ * The elements of homogeneous collections are treated as a union.
+ *
+ * @author Martin Davis
+ *
+ * @see org.locationtech.jts.operation.relate.RelateOp
+ */
+public class RelateNG {
+
+  /**
+   * Tests whether the topological relationship between two geometries
+   * satisfies a topological predicate.
+   *
+   * @param a the A input geometry
+   * @param b the B input geometry
+   * @param pred the topological predicate
+   * @return true if the topological relationship is satisfied
+   */
+  public static boolean relate(Geometry a, Geometry b, TopologyPredicate pred) {
+    RelateNG rng = new RelateNG(a, false);
+    return rng.evaluate(b, pred);
+  }
+
+  /**
+   * Tests whether the topological relationship between two geometries
+   * satisfies a topological predicate,
+   * using a given {@link BoundaryNodeRule}.
+   *
+   * @param a the A input geometry
+   * @param b the B input geometry
+   * @param pred the topological predicate
+   * @param bnRule the Boundary Node Rule to use
+   * @return true if the topological relationship is satisfied
+   */
+  public static boolean relate(Geometry a, Geometry b, TopologyPredicate pred, BoundaryNodeRule bnRule) {
+    RelateNG rng = new RelateNG(a, false, bnRule);
+    return rng.evaluate(b, pred);
+  }
+
+  /**
+   * Tests whether the topological relationship to a geometry
+   * matches a DE-9IM matrix pattern.
+   *
+   * @param a the A input geometry
+   * @param b the B input geometry
+   * @param imPattern the DE-9IM pattern to match
+   * @return true if the geometries relationship matches the DE-9IM pattern
+   *
+   * @see IntersectionMatrix#matches(String)
+   */
+  public static boolean relate(Geometry a, Geometry b, String imPattern) {
+    RelateNG rng = new RelateNG(a, false);
+    return rng.evaluate(b, imPattern);
+  }
+
+  /**
+   * Computes the DE-9IM matrix
+   * for the topological relationship between two geometries.
+   *
+   * @param a the A input geometry
+   * @param b the B input geometry
+   * @return the DE-9IM matrix for the topological relationship
+   */
+  public static IntersectionMatrix relate(Geometry a, Geometry b) {
+    RelateNG rng = new RelateNG(a, false);
+    return rng.evaluate(b);
+  }
+
+  /**
+   * Computes the DE-9IM matrix
+   * for the topological relationship between two geometries,
+   * using a given {@link BoundaryNodeRule}.
+   *
+   * @param a the A input geometry
+   * @param b the B input geometry
+   * @param bnRule the Boundary Node Rule to use
+   * @return the DE-9IM matrix for the relationship
+   */
+  public static IntersectionMatrix relate(Geometry a, Geometry b, BoundaryNodeRule bnRule) {
+    RelateNG rng = new RelateNG(a, false, bnRule);
+    return rng.evaluate(b);
+  }
+
+  /**
+   * Creates a prepared RelateNG instance to optimize the
+   * evaluation of relationships against a single geometry.
+   *
+   * @param a the A input geometry
+   * @return a prepared instance
+   */
+  public static RelateNG prepare(Geometry a) {
+    return new RelateNG(a, true);
+  }
+
+  /**
+   * Creates a prepared RelateNG instance to optimize the
+   * computation of predicates against a single geometry,
+   * using a given {@link BoundaryNodeRule}.
+   *
+   * @param a the A input geometry
+   * @param bnRule the Boundary Node Rule to use
+   * @return a prepared instance
+   */
+  public static RelateNG prepare(Geometry a, BoundaryNodeRule bnRule) {
+    return new RelateNG(a, true, bnRule);
+  }
+
+  private BoundaryNodeRule boundaryNodeRule;
+  private RelateGeometry geomA;
+  private volatile STRtree edgeIndexA = null;
+
+  private RelateNG(Geometry inputA, boolean isPrepared) {
+    this(inputA, isPrepared, BoundaryNodeRule.OGC_SFS_BOUNDARY_RULE);
+  }
+
+  private RelateNG(Geometry inputA, boolean isPrepared, BoundaryNodeRule bnRule) {
+    this.boundaryNodeRule = bnRule;
+    this.geomA = new RelateGeometry(inputA, isPrepared, boundaryNodeRule);
+  }
+
+  /**
+   * Computes the DE-9IM matrix for the topological relationship to a geometry.
+   *
+   * @param b the B geometry to test against
+   * @return the DE-9IM matrix
+   */
+  public IntersectionMatrix evaluate(Geometry b) {
+    RelateMatrixPredicate rel = new RelateMatrixPredicate();
+    evaluate(b, rel);
+    return rel.getIM();
+  }
+
+  /**
+   * Tests whether the topological relationship to a geometry
+   * matches a DE-9IM matrix pattern.
+   *
+   * @param b the B geometry to test against
+   * @param imPattern the DE-9IM pattern to match
+   * @return true if the geometries' topological relationship matches the DE-9IM pattern
+   *
+   * @see IntersectionMatrix#matches(String)
+   */
+  public boolean evaluate(Geometry b, String imPattern) {
+    return evaluate(b, RelatePredicate.matches(imPattern));
+  }
+
+  /**
+   * Tests whether the topological relationship to a geometry
+   * satisfies a topology predicate.
+   *
+   * @param b the B geometry to test against
+   * @param predicate the topological predicate
+   * @return true if the predicate is satisfied
+   */
+  public boolean evaluate(Geometry b, TopologyPredicate predicate) {
+    RelateGeometry geomB = new RelateGeometry(b, false, boundaryNodeRule);
+
+    int dimA = geomA.getDimension();
+    int dimB = geomB.getDimension();
+
+    //-- check if predicate is determined by dimension or envelope
+    predicate.init(dimA, dimB);
+    if (predicate.isKnown())
+      return predicate.value();
+
+    predicate.init(geomA.getEnvelope(), geomB.getEnvelope());
+    if (predicate.isKnown())
+      return predicate.value();
+
+    TopologyComputer topoComputer = new TopologyComputer(predicate, geomA, geomB);
+
+    //-- empty inputs are fully handled by the topology computer initialization
+    if (geomA.isEmpty() || geomB.isEmpty()) {
+      return finishValue(topoComputer);
+    }
+    if (! geomA.getEnvelope().intersects(geomB.getEnvelope())) {
+      topoComputer.addDisjoint();
+      return finishValue(topoComputer);
+    }
+
+    /**
+     * Locate points of B in A first,
+     * since A may be prepared with an indexed locator.
+     */
+    computeAtPoints(geomB, RelateGeometry.GEOM_B, geomA, topoComputer);
+    if (topoComputer.isResultKnown())
+      return topoComputer.getResult();
+    computeAtPoints(geomA, RelateGeometry.GEOM_A, geomB, topoComputer);
+    if (topoComputer.isResultKnown())
+      return topoComputer.getResult();
+
+    if (geomA.hasEdges() && geomB.hasEdges()) {
+      EdgeSetIntersector edgeIntersector = computeAtEdges(geomB, topoComputer);
+      if (topoComputer.isResultKnown())
+        return topoComputer.getResult();
+      if (edgeIntersector != null) {
+        topoComputer.evaluateNodes(edgeIntersector);
+      }
+    }
+    return finishValue(topoComputer);
+  }
+
+  private static boolean finishValue(TopologyComputer topoComputer) {
+    topoComputer.finish();
+    return topoComputer.getResult();
+  }
+
+  /**
+   * Locates the isolated points, line endpoints and a vertex
+   * of each ring of a geometry in the target geometry.
+   * This provides topology information for elements
+   * which do not intersect the edges of the target,
+   * and for point elements in general.
+   */
+  private void computeAtPoints(RelateGeometry geom, boolean isA,
+      RelateGeometry geomTarget, TopologyComputer topoComputer) {
+    for (Coordinate p : geom.getEffectivePoints()) {
+      int locDim = geomTarget.locateWithDim(p);
+      topoComputer.addPointOnGeometry(isA, locDim);
+      if (topoComputer.isResultKnown())
+        return;
+    }
+    for (LineString line : geom.getLines()) {
+      computeLineEnd(geom, isA, line.getCoordinateN(0), geomTarget, topoComputer);
+      //-- a closed line has only one endpoint
+      if (! line.isClosed()) {
+        computeLineEnd(geom, isA, line.getCoordinateN(line.getNumPoints() - 1), geomTarget, topoComputer);
+      }
+      if (topoComputer.isResultKnown())
+        return;
+    }
+    List<Polygon> polygons = geom.getPolygons();
+    for (Polygon poly : polygons) {
+      computeAreaVertex(isA, poly.getExteriorRing(), geomTarget, topoComputer);
+      for (int j = 0; j < poly.getNumInteriorRing(); j++) {
+        computeAreaVertex(isA, poly.getInteriorRingN(j), geomTarget, topoComputer);
+      }
+      if (topoComputer.isResultKnown())
+        return;
+    }
+  }
+
+  private void computeLineEnd(RelateGeometry geom, boolean isA, Coordinate pt,
+      RelateGeometry geomTarget, TopologyComputer topoComputer) {
+    int locLineEnd = geom.isLineBoundary(pt) ? Location.BOUNDARY : Location.INTERIOR;
+    int locDimTarget = geomTarget.locateWithDim(pt);
+    topoComputer.addLineEndOnGeometry(isA, locLineEnd, locDimTarget);
+  }
+
+  private void computeAreaVertex(boolean isA, LineString ring,
+      RelateGeometry geomTarget, TopologyComputer topoComputer) {
+    if (ring.isEmpty())
+      return;
+    int locDimTarget = geomTarget.locateWithDim(ring.getCoordinateN(0));
+    topoComputer.addAreaVertex(isA, locDimTarget);
+  }
+
+  /**
+   * Computes the intersections between the edges of A and B,
+   * using only edges which lie in the common envelope.
+   * The intersections are added to the topology computer as node sections.
+   *
+   * @return the edge intersector used, or null if no edges interact
+   */
+  private EdgeSetIntersector computeAtEdges(RelateGeometry geomB, TopologyComputer topoComputer) {
+    Envelope envInt = geomA.getEnvelope().intersection(geomB.getEnvelope());
+    if (envInt.isNull())
+      return null;
+    List<RelateSegmentString> edgesB = geomB.extractSegmentStrings(RelateGeometry.GEOM_B, envInt);
+    if (edgesB.isEmpty())
+      return null;
+    STRtree indexA = getEdgeIndex(envInt);
+    if (indexA == null)
+      return null;
+    EdgeSetIntersector edgeIntersector = new EdgeSetIntersector(indexA, edgesB);
+    edgeIntersector.process(new EdgeSegmentIntersector(topoComputer));
+    return edgeIntersector;
+  }
+
+  /**
+   * Gets an index of the edges of A.
+   * For a prepared geometry the index is built once over all edges and cached.
+   * Otherwise only the edges within the given envelope are indexed.
+   *
+   * @param envInt the envelope of interest
+   * @return an edge index, or null if there are no edges of interest
+   */
+  private STRtree getEdgeIndex(Envelope envInt) {
+    if (geomA.isPrepared()) {
+      STRtree index = edgeIndexA;
+      if (index == null) {
+        //-- a race may build more than one index, but they are equivalent
+        index = EdgeSetIntersector.createIndex(
+            geomA.extractSegmentStrings(RelateGeometry.GEOM_A, null));
+        edgeIndexA = index;
+      }
+      return index;
+    }
+    List<RelateSegmentString> edgesA = geomA.extractSegmentStrings(RelateGeometry.GEOM_A, envInt);
+    if (edgesA.isEmpty())
+      return null;
+    return EdgeSetIntersector.createIndex(edgesA);
+  }
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 2021 Martin Davis.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jts.operation.relateng;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Dimension;
+import org.locationtech.jts.geom.Location;
+import org.locationtech.jts.geom.Position;
+import org.locationtech.jts.io.WKTWriter;
+
+/**
+ * Represents the topology of a node at a point where
+ * the edges of the input geometries intersect.
+ * The incident edges are sorted in CCW order around the node,
+ * with edges in the same direction merged.
+ * After the edges are added, the area locations of the input geometries
+ * are propagated to the edges which do not belong to them.
+ *
+ * @author Martin Davis
+ *
+ */
+class RelateNode {
+
+  private Coordinate nodePt;
+
+  /**
+   * A list of the edges around the node in CCW order,
+   * ordered by their CCW angle with the positive X-axis.
+   */
+  private List<RelateEdge> edges = new ArrayList<RelateEdge>();
+
+  public RelateNode(Coordinate pt) {
+    this.nodePt = pt;
+  }
+
+  public Coordinate getCoordinate() {
+    return nodePt;
+  }
+
+  public List<RelateEdge> getEdges() {
+    return edges;
+  }
+
+  public void addEdges(List<NodeSection> nss) {
+    for (NodeSection ns : nss) {
+      addEdges(ns);
+    }
+  }
+
+  public void addEdges(NodeSection ns) {
+    Coordinate v0 = ns.getVertex(0);
+    Coordinate v1 = ns.getVertex(1);
+    /**
+     * The edges of a proper intersection have the direction of the segment,
+     * which is more accurate than using the computed node point.
+     */
+    Coordinate origin0 = ns.isProper() ? v1 : nodePt;
+    Coordinate origin1 = ns.isProper() ? v0 : nodePt;
+    switch (ns.dimension()) {
+    case Dimension.L:
+      addEdge(ns.isA(), origin0, v0, Dimension.L, false);
+      addEdge(ns.isA(), origin1, v1, Dimension.L, false);
+      break;
+    case Dimension.A:
+      //-- rings are oriented with interior on the right,
+      //-- so the edge to the previous vertex has the interior on the left
+      addEdge(ns.isA(), origin0, v0, Dimension.A, RelateEdge.IS_REVERSE);
+      addEdge(ns.isA(), origin1, v1, Dimension.A, RelateEdge.IS_FORWARD);
+      break;
+    }
+  }
+
+  private void addEdge(boolean isA, Coordinate originPt, Coordinate dirPt, int dim, boolean isForward) {
+    //-- edge at a line endpoint
+    if (dirPt == null)
+      return;
+    //-- zero-length edges are not significant
+    if (originPt.equals2D(dirPt))
+      return;
+
+    int insertIndex = -1;
+    for (int i = 0; i < edges.size(); i++) {
+      RelateEdge e = edges.get(i);
+      int comp = e.compareToEdge(originPt, dirPt);
+      if (comp == 0) {
+        e.merge(isA, dim, isForward);
+        return;
+      }
+      if (comp > 0) {
+        //-- found further edge, so insert new edge before it
+        insertIndex = i;
+        break;
+      }
+    }
+    RelateEdge e = new RelateEdge(this, originPt, dirPt, isA, dim, isForward);
+    if (insertIndex < 0) {
+      edges.add(e);
+    }
+    else {
+      edges.add(insertIndex, e);
+    }
+  }
+
+  /**
+   * Computes the final topology for the edges around the node.
+   * Edges which are not part of an input area are labelled with
+   * the area location they lie in, determined by
+   * propagating the side locations of the area edges around the node.
+   * Edges at a node with no area edges of an input
+   * lie in the exterior of that input.
+   */
+  public void finish() {
+    finishNode(RelateGeometry.GEOM_A);
+    finishNode(RelateGeometry.GEOM_B);
+  }
+
+  private void finishNode(boolean isA) {
+    int startIndex = indexOfAreaEdge(isA);
+    if (startIndex < 0) {
+      for (RelateEdge e : edges) {
+        e.setUnknownLocations(isA, Location.EXTERIOR);
+      }
+      return;
+    }
+    propagateSideLocations(isA, startIndex);
+  }
+
+  private int indexOfAreaEdge(boolean isA) {
+    for (int i = 0; i < edges.size(); i++) {
+      if (edges.get(i).isAreaEdge(isA))
+        return i;
+    }
+    return -1;
+  }
+
+  private void propagateSideLocations(boolean isA, int startIndex) {
+    int currLoc = edges.get(startIndex).location(isA, Position.LEFT);
+    //-- edges are stored in CCW order
+    int index = nextIndex(startIndex);
+    while (index != startIndex) {
+      RelateEdge e = edges.get(index);
+      e.setUnknownLocations(isA, currLoc);
+      currLoc = e.location(isA, Position.LEFT);
+      index = nextIndex(index);
+    }
+  }
+
+  private int nextIndex(int i) {
+    if (i >= edges.size() - 1) {
+      return 0;
+    }
+    return i + 1;
+  }
+
+  /**
+   * Tests whether the node is in the interior of an input area.
+   * This is the case only if the area interior lies on all sides of the node
+   * (which can occur when adjacent polygons are unioned).
+   *
+   * @param isA the input geometry
+   * @return true if the node is in the interior of the input area
+   */
+  public boolean isAreaInterior(boolean isA) {
+    for (RelateEdge e : edges) {
+      if (e.location(isA, Position.LEFT) != Location.INTERIOR)
+        return false;
+    }
+    return true;
+  }
+
+  public String toString() {
+    StringBuilder buf = new StringBuilder();
+    buf.append("Node[" + WKTWriter.toPoint(nodePt) + "]:");
+    buf.append("\n");
+    for (RelateEdge e : edges) {
+      buf.append(e.toString());
+      buf.append("\n");
+    }
+    return buf.toString();
+  }
+}
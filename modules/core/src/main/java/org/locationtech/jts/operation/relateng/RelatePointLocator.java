@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2021 Martin Davis.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jts.operation.relateng;
+
+import java.util.List;
+import java.util.Set;
+
+import org.locationtech.jts.algorithm.BoundaryNodeRule;
+import org.locationtech.jts.algorithm.PointLocation;
+import org.locationtech.jts.algorithm.locate.IndexedPointInAreaLocator;
+import org.locationtech.jts.algorithm.locate.PointOnGeometryLocator;
+import org.locationtech.jts.algorithm.locate.SimplePointInAreaLocator;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.geom.Location;
+
+/**
+ * Locates a point on a geometry, reporting the location
+ * as a {@link DimensionLocation} code.
+ * The geometry elements are supplied already extracted by type.
+ * Zero-length lines are handled as points.
+ * <p>
+ * Area locations are computed using a {@link SimplePointInAreaLocator}
+ * for a few points, and an {@link IndexedPointInAreaLocator}
+ * once enough points have been located to make indexing worthwhile.
+ * For prepared geometries the indexed locator is always used.
+ * Once created the indexed locator is thread-safe.
+ *
+ * @author Martin Davis
+ *
+ */
+class RelatePointLocator {
+
+  /**
+   * The number of area point locations after which
+   * an indexed locator is used.
+   */
+  private static final int INDEX_LOCATE_COUNT = 8;
+
+  private Set<Coordinate> points;
+  private List<LineString> lines;
+  private Geometry polygonal;
+  private boolean isPrepared;
+  private LinearBoundary lineBoundary;
+  private int areaLocateCount = 0;
+  private volatile PointOnGeometryLocator areaLocator;
+
+  /**
+   * Creates a locator for the elements of a geometry.
+   *
+   * @param points the points of the geometry (including zero-length lines)
+   * @param lines the non-zero-length lines of the geometry
+   * @param polygonal the polygonal elements of the geometry, or null
+   * @param isPrepared whether the locator will be used for many locations
+   * @param bnRule the boundary node rule to use for lines
+   */
+  public RelatePointLocator(Set<Coordinate> points, List<LineString> lines, Geometry polygonal,
+      boolean isPrepared, BoundaryNodeRule bnRule) {
+    this.points = points;
+    this.lines = lines;
+    this.polygonal = polygonal;
+    this.isPrepared = isPrepared;
+    if (! lines.isEmpty()) {
+      lineBoundary = new LinearBoundary(lines, bnRule);
+    }
+  }
+
+  public boolean hasBoundary() {
+    return lineBoundary != null && lineBoundary.hasBoundary();
+  }
+
+  public boolean isLineBoundary(Coordinate p) {
+    return lineBoundary != null && lineBoundary.isBoundary(p);
+  }
+
+  public int locate(Coordinate p) {
+    return DimensionLocation.location(locateWithDim(p));
+  }
+
+  /**
+   * Computes the location of a point,
+   * reporting the dimension of the element it lies in.
+   * Area locations take precedence over line and point locations.
+   *
+   * @param p the point to locate
+   * @return the dimension location of the point
+   */
+  public int locateWithDim(Coordinate p) {
+    if (polygonal != null) {
+      int locArea = locateOnArea(p);
+      if (locArea != Location.EXTERIOR)
+        return DimensionLocation.locationArea(locArea);
+    }
+    if (! lines.isEmpty()) {
+      int locLine = locateOnLines(p);
+      if (locLine != Location.EXTERIOR)
+        return DimensionLocation.locationLine(locLine);
+    }
+    if (points.contains(p)) {
+      return DimensionLocation.POINT_INTERIOR;
+    }
+    return DimensionLocation.EXTERIOR;
+  }
+
+  private int locateOnLines(Coordinate p) {
+    if (lineBoundary.isBoundary(p))
+      return Location.BOUNDARY;
+    for (LineString line : lines) {
+      if (! line.getEnvelopeInternal().intersects(p))
+        continue;
+      if (PointLocation.isOnLine(p, line.getCoordinateSequence()))
+        return Location.INTERIOR;
+    }
+    return Location.EXTERIOR;
+  }
+
+  private int locateOnArea(Coordinate p) {
+    if (! polygonal.getEnvelopeInternal().intersects(p))
+      return Location.EXTERIOR;
+    PointOnGeometryLocator locator = getAreaLocator();
+    if (locator == null) {
+      return SimplePointInAreaLocator.locate(p, polygonal);
+    }
+    return locator.locate(p);
+  }
+
+  /**
+   * Gets the indexed area locator, if one is to be used.
+   *
+   * @return the indexed locator, or null if a simple locator should be used
+   */
+  private PointOnGeometryLocator getAreaLocator() {
+    PointOnGeometryLocator locator = areaLocator;
+    if (locator != null)
+      return locator;
+    if (! isPrepared && areaLocateCount++ < INDEX_LOCATE_COUNT)
+      return null;
+    //-- a race may create more than one locator, but they are equivalent
+    locator = new IndexedPointInAreaLocator(polygonal);
+    areaLocator = locator;
+    return locator;
+  }
+}
@@ -0,0 +1,393 @@
+/*
+ * Copyright (c) 2021 Martin Davis.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jts.operation.relateng;
+
+import org.locationtech.jts.geom.Dimension;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.IntersectionMatrix;
+import org.locationtech.jts.geom.Location;
+
+/**
+ * Creates predicate instances for evaluating OGC-standard named topological relationships.
+ * Predicates can be evaluated for geometries using {@link RelateNG}.
+ * Each predicate short-circuits evaluation as soon as its value is known.
+ *
+ * @author Martin Davis
+ *
+ */
+public class RelatePredicate {
+
+  /**
+   * Creates a predicate to determine whether two geometries intersect.
+   *
+   * @return the predicate instance
+   *
+   * @see Geometry#intersects(Geometry)
+   */
+  public static TopologyPredicate intersects() {
+    return new BasicPredicate() {
+
+      public String name() { return "intersects"; }
+
+      public void init(Envelope envA, Envelope envB) {
+        require(envA.intersects(envB));
+      }
+
+      public void updateDimension(int locA, int locB, int dimension) {
+        setValueIf(true, isIntersection(locA, locB));
+      }
+
+      public void finish() {
+        //-- if no intersecting locations were found
+        setValue(false);
+      }
+    };
+  }
+
+  /**
+   * Creates a predicate to determine whether two geometries are disjoint.
+   *
+   * @return the predicate instance
+   *
+   * @see Geometry#disjoint(Geometry)
+   */
+  public static TopologyPredicate disjoint() {
+    return new BasicPredicate() {
+
+      public String name() { return "disjoint"; }
+
+      public void init(Envelope envA, Envelope envB) {
+        setValueIf(true, ! envA.intersects(envB));
+      }
+
+      public void updateDimension(int locA, int locB, int dimension) {
+        setValueIf(false, isIntersection(locA, locB));
+      }
+
+      public void finish() {
+        //-- if no intersecting locations were found
+        setValue(true);
+      }
+    };
+  }
+
+  /**
+   * Creates a predicate to determine whether a geometry contains another geometry.
+   *
+   * @return the predicate instance
+   *
+   * @see Geometry#contains(Geometry)
+   */
+  public static TopologyPredicate contains() {
+    return new IMPredicate() {
+
+      public String name() { return "contains"; }
+
+      public void init(int dimA, int dimB) {
+        super.init(dimA, dimB);
+        require(isDimsCompatibleWithCovers(dimA, dimB));
+      }
+
+      public void init(Envelope envA, Envelope envB) {
+        requireCovers(envA, envB);
+      }
+
+      protected boolean isDetermined() {
+        return intersectsExteriorOf(RelateGeometry.GEOM_A);
+      }
+
+      protected boolean valueIM() {
+        return intMatrix.isContains();
+      }
+    };
+  }
+
+  /**
+   * Creates a predicate to determine whether a geometry is within another geometry.
+   *
+   * @return the predicate instance
+   *
+   * @see Geometry#within(Geometry)
+   */
+  public static TopologyPredicate within() {
+    return new IMPredicate() {
+
+      public String name() { return "within"; }
+
+      public void init(int dimA, int dimB) {
+        super.init(dimA, dimB);
+        require(isDimsCompatibleWithCovers(dimB, dimA));
+      }
+
+      public void init(Envelope envA, Envelope envB) {
+        requireCovers(envB, envA);
+      }
+
+      protected boolean isDetermined() {
+        return intersectsExteriorOf(RelateGeometry.GEOM_B);
+      }
+
+      protected boolean valueIM() {
+        return intMatrix.isWithin();
+      }
+    };
+  }
+
+  /**
+   * Creates a predicate to determine whether a geometry covers another geometry.
+   *
+   * @return the predicate instance
+   *
+   * @see Geometry#covers(Geometry)
+   */
+  public static TopologyPredicate covers() {
+    return new IMPredicate() {
+
+      public String name() { return "covers"; }
+
+      public void init(int dimA, int dimB) {
+        super.init(dimA, dimB);
+        require(isDimsCompatibleWithCovers(dimA, dimB));
+      }
+
+      public void init(Envelope envA, Envelope envB) {
+        requireCovers(envA, envB);
+      }
+
+      protected boolean isDetermined() {
+        return intersectsExteriorOf(RelateGeometry.GEOM_A);
+      }
+
+      protected boolean valueIM() {
+        return intMatrix.isCovers();
+      }
+    };
+  }
+
+  /**
+   * Creates a predicate to determine whether a geometry is covered by another geometry.
+   *
+   * @return the predicate instance
+   *
+   * @see Geometry#coveredBy(Geometry)
+   */
+  public static TopologyPredicate coveredBy() {
+    return new IMPredicate() {
+
+      public String name() { return "coveredBy"; }
+
+      public void init(int dimA, int dimB) {
+        super.init(dimA, dimB);
+        require(isDimsCompatibleWithCovers(dimB, dimA));
+      }
+
+      public void init(Envelope envA, Envelope envB) {
+        requireCovers(envB, envA);
+      }
+
+      protected boolean isDetermined() {
+        return intersectsExteriorOf(RelateGeometry.GEOM_B);
+      }
+
+      protected boolean valueIM() {
+        return intMatrix.isCoveredBy();
+      }
+    };
+  }
+
+  /**
+   * Creates a predicate to determine whether a geometry crosses another geometry.
+   *
+   * @return the predicate instance
+   *
+   * @see Geometry#crosses(Geometry)
+   */
+  public static TopologyPredicate crosses() {
+    return new IMPredicate() {
+
+      public String name() { return "crosses"; }
+
+      public void init(int dimA, int dimB) {
+        super.init(dimA, dimB);
+        boolean isBothPointsOrAreas =
+            (dimA == Dimension.P && dimB == Dimension.P)
+            || (dimA == Dimension.A && dimB == Dimension.A);
+        require(! isBothPointsOrAreas);
+      }
+
+      public void init(Envelope envA, Envelope envB) {
+        require(envA.intersects(envB));
+      }
+
+      protected boolean isDetermined() {
+        if (dimA == Dimension.L && dimB == Dimension.L) {
+          //-- L/L interaction can only be dim = 0
+          if (getDimension(Location.INTERIOR, Location.INTERIOR) > Dimension.P)
+            return true;
+        }
+        else if (dimA < dimB) {
+          if (isIntersects(Location.INTERIOR, Location.INTERIOR)
+              && isIntersects(Location.INTERIOR, Location.EXTERIOR)) {
+            return true;
+          }
+        }
+        else if (dimA > dimB) {
+          if (isIntersects(Location.INTERIOR, Location.INTERIOR)
+              && isIntersects(Location.EXTERIOR, Location.INTERIOR)) {
+            return true;
+          }
+        }
+        return false;
+      }
+
+      protected boolean valueIM() {
+        return intMatrix.isCrosses(dimA, dimB);
+      }
+    };
+  }
+
+  /**
+   * Creates a predicate to determine whether two geometries are
+   * topologically equal.
+   *
+   * @return the predicate instance
+   *
+   * @see Geometry#equalsTopo(Geometry)
+   */
+  public static TopologyPredicate equalsTopo() {
+    return new IMPredicate() {
+
+      public String name() { return "equals"; }
+
+      public void init(int dimA, int dimB) {
+        super.init(dimA, dimB);
+        require(dimA == dimB);
+      }
+
+      public void init(Envelope envA, Envelope envB) {
+        require(envA.equals(envB));
+      }
+
+      protected boolean isDetermined() {
+        boolean isEitherExteriorIntersects =
+            isIntersects(Location.INTERIOR, Location.EXTERIOR)
+            || isIntersects(Location.BOUNDARY, Location.EXTERIOR)
+            || isIntersects(Location.EXTERIOR, Location.INTERIOR)
+            || isIntersects(Location.EXTERIOR, Location.BOUNDARY);
+        return isEitherExteriorIntersects;
+      }
+
+      protected boolean valueIM() {
+        return intMatrix.isEquals(dimA, dimB);
+      }
+    };
+  }
+
+  /**
+   * Creates a predicate to determine whether a geometry overlaps another geometry.
+   *
+   * @return the predicate instance
+   *
+   * @see Geometry#overlaps(Geometry)
+   */
+  public static TopologyPredicate overlaps() {
+    return new IMPredicate() {
+
+      public String name() { return "overlaps"; }
+
+      public void init(int dimA, int dimB) {
+        super.init(dimA, dimB);
+        require(dimA == dimB);
+      }
+
+      public void init(Envelope envA, Envelope envB) {
+        require(envA.intersects(envB));
+      }
+
+      protected boolean isDetermined() {
+        if (dimA == Dimension.A || dimA == Dimension.P) {
+          return isIntersects(Location.INTERIOR, Location.INTERIOR)
+              && isIntersects(Location.INTERIOR, Location.EXTERIOR)
+              && isIntersects(Location.EXTERIOR, Location.INTERIOR);
+        }
+        if (dimA == Dimension.L) {
+          return getDimension(Location.INTERIOR, Location.INTERIOR) == Dimension.L
+              && isIntersects(Location.INTERIOR, Location.EXTERIOR)
+              && isIntersects(Location.EXTERIOR, Location.INTERIOR);
+        }
+        return false;
+      }
+
+      protected boolean valueIM() {
+        return intMatrix.isOverlaps(dimA, dimB);
+      }
+    };
+  }
+
+  /**
+   * Creates a predicate to determine whether a geometry touches another geometry.
+   *
+   * @return the predicate instance
+   *
+   * @see Geometry#touches(Geometry)
+   */
+  public static TopologyPredicate touches() {
+    return new IMPredicate() {
+
+      public String name() { return "touches"; }
+
+      public void init(int dimA, int dimB) {
+        super.init(dimA, dimB);
+        //-- points have only interiors, so cannot touch
+        boolean isBothPoints = dimA == Dimension.P && dimB == Dimension.P;
+        require(! isBothPoints);
+      }
+
+      public void init(Envelope envA, Envelope envB) {
+        require(envA.intersects(envB));
+      }
+
+      protected boolean isDetermined() {
+        //-- for touches, interiors cannot intersect
+        return isIntersects(Location.INTERIOR, Location.INTERIOR);
+      }
+
+      protected boolean valueIM() {
+        return intMatrix.isTouches(dimA, dimB);
+      }
+    };
+  }
+
+  /**
+   * Creates a predicate that matches a DE-9IM matrix pattern.
+   *
+   * @param imPattern the pattern to match
+   * @return a predicate that matches the pattern
+   *
+   * @see IntersectionMatrix#matches(String)
+   */
+  public static TopologyPredicate matches(String imPattern) {
+    return new IMPatternMatcher(imPattern);
+  }
+
+  /**
+   * Tests whether the dimensions of geometries allow
+   * the first to cover the second.
+   * A lower dimension cannot cover a higher one.
+   * Zero-length lines have effective dimension 0,
+   * so can be covered by points.
+   */
+  private static boolean isDimsCompatibleWithCovers(int dim0, int dim1) {
+    return dim0 >= dim1;
+  }
+}
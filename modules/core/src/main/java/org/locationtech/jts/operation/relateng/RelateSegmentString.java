@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2021 Martin Davis.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jts.operation.relateng;
+
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Dimension;
+import org.locationtech.jts.noding.BasicSegmentString;
+
+/**
+ * Models a linear edge of a {@link RelateGeometry}.
+ * Edges are either the non-zero-length lines of a linear geometry,
+ * or the rings of a polygonal geometry.
+ * Rings are oriented so that the polygon interior is on the right.
+ *
+ * @author Martin Davis
+ *
+ */
+class RelateSegmentString extends BasicSegmentString {
+
+  public static RelateSegmentString createLine(Coordinate[] pts, boolean isA, int elementId) {
+    return new RelateSegmentString(pts, isA, Dimension.L, elementId, -1);
+  }
+
+  public static RelateSegmentString createRing(Coordinate[] pts, boolean isA, int elementId, int ringId) {
+    return new RelateSegmentString(pts, isA, Dimension.A, elementId, ringId);
+  }
+
+  private boolean isA;
+  private int dimension;
+  private int id;
+  private int ringId;
+
+  private RelateSegmentString(Coordinate[] pts, boolean isA, int dimension, int id, int ringId) {
+    super(pts, null);
+    this.isA = isA;
+    this.dimension = dimension;
+    this.id = id;
+    this.ringId = ringId;
+  }
+
+  public boolean isA() {
+    return isA;
+  }
+
+  public int getDimension() {
+    return dimension;
+  }
+
+  public int getId() {
+    return id;
+  }
+
+  public int getRingId() {
+    return ringId;
+  }
+
+  /**
+   * Creates a node section for an intersection point on a segment.
+   *
+   * @param segIndex the index of the segment containing the node
+   * @param intPt the node point
+   * @return a node section for the point
+   */
+  public NodeSection createNodeSection(int segIndex, Coordinate intPt) {
+    boolean isNodeAtVertex =
+        intPt.equals2D(getCoordinate(segIndex))
+        || intPt.equals2D(getCoordinate(segIndex + 1));
+    Coordinate prev = prevVertex(segIndex, intPt);
+    Coordinate next = nextVertex(segIndex, intPt);
+    return new NodeSection(isA, dimension, id, ringId, isNodeAtVertex, prev, intPt, next);
+  }
+
+  /**
+   * Creates a node section for a proper intersection point on a segment.
+   * A proper intersection lies in the interior of the segment,
+   * so the section vertices are the segment endpoints.
+   * This is the case even if round-off has made the computed
+   * intersection point equal to a segment endpoint.
+   *
+   * @param segIndex the index of the segment containing the node
+   * @param intPt the node point
+   * @return a node section for the point
+   */
+  public NodeSection createProperNodeSection(int segIndex, Coordinate intPt) {
+    NodeSection ns = new NodeSection(isA, dimension, id, ringId, false,
+        getCoordinate(segIndex), intPt, getCoordinate(segIndex + 1));
+    ns.setProper(true);
+    return ns;
+  }
+
+  private Coordinate prevVertex(int segIndex, Coordinate pt) {
+    Coordinate segStart = getCoordinate(segIndex);
+    if (! segStart.equals2D(pt))
+      return segStart;
+    //-- pt is at segment start, so get previous vertex
+    if (segIndex > 0)
+      return getCoordinate(segIndex - 1);
+    if (isClosed())
+      //-- the ring start vertex is preceded by the vertex before the closing one
+      return getCoordinate(size() - 2);
+    return null;
+  }
+
+  private Coordinate nextVertex(int segIndex, Coordinate pt) {
+    Coordinate segEnd = getCoordinate(segIndex + 1);
+    if (! segEnd.equals2D(pt))
+      return segEnd;
+    //-- pt is at segment end, so get next vertex
+    if (segIndex < size() - 2)
+      return getCoordinate(segIndex + 2);
+    if (isClosed())
+      //-- the ring end vertex is followed by the second vertex
+      return getCoordinate(1);
+    //-- segment is the last one in an open line
+    return null;
+  }
+
+  /**
+   * Tests whether a segment is the one which contributes
+   * the node section for an intersection point.
+   * A node at a vertex is contributed by the segment starting at it,
+   * except at the end of an open line (which has no following segment).
+   * This ensures each node section is created only once.
+   *
+   * @param segIndex the index of a segment containing the point
+   * @param pt an intersection point on the segment
+   * @return true if the segment contributes the node section for the point
+   */
+  public boolean isContainingSegment(int segIndex, Coordinate pt) {
+    //-- intersection is at segment start vertex - process it
+    if (pt.equals2D(getCoordinate(segIndex)))
+      return true;
+    if (pt.equals2D(getCoordinate(segIndex + 1))) {
+      boolean isFinalSegment = segIndex == size() - 2;
+      //-- for a closed line the end vertex is the start of the first segment
+      if (isClosed() || ! isFinalSegment)
+        return false;
+      //-- final vertex of an open line is contributed by the final segment
+      return true;
+    }
+    //-- intersection is in segment interior
+    return true;
+  }
+}
@@ -0,0 +1,299 @@
+/*
+ * Copyright (c) 2021 Martin Davis.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jts.operation.relateng;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Dimension;
+import org.locationtech.jts.geom.Location;
+import org.locationtech.jts.geom.Position;
+
+/**
+ * Computes the topological relationship of two geometries
+ * by supplying the dimensions of location intersections
+ * to a {@link TopologyPredicate}.
+ * Information is provided by the locations of isolated points and components,
+ * and by the topology of the nodes formed by intersecting edges.
+ *
+ * @author Martin Davis
+ *
+ */
+class TopologyComputer {
+
+  private TopologyPredicate predicate;
+  private RelateGeometry geomA;
+  private RelateGeometry geomB;
+  private Map<Coordinate, NodeSections> nodeMap = new HashMap<Coordinate, NodeSections>();
+
+  public TopologyComputer(TopologyPredicate predicate, RelateGeometry geomA, RelateGeometry geomB) {
+    this.predicate = predicate;
+    this.geomA = geomA;
+    this.geomB = geomB;
+    initExteriorDims();
+  }
+
+  /**
+   * Determines the matrix entries which are known
+   * from the dimensions of the inputs alone.
+   * The interior of a higher-dimension geometry always intersects
+   * the exterior of a lower-dimension one.
+   */
+  private void initExteriorDims() {
+    int dimA = geomA.getDimension();
+    int dimB = geomB.getDimension();
+
+    //-- for P/L case, P exterior intersects L interior
+    if (dimA == Dimension.P && dimB == Dimension.L) {
+      updateDim(Location.EXTERIOR, Location.INTERIOR, Dimension.L);
+    }
+    else if (dimA == Dimension.L && dimB == Dimension.P) {
+      updateDim(Location.INTERIOR, Location.EXTERIOR, Dimension.L);
+    }
+    //-- for P/A case, the area interior and boundary intersect the point exterior
+    else if (dimA == Dimension.P && dimB == Dimension.A) {
+      updateDim(Location.EXTERIOR, Location.INTERIOR, Dimension.A);
+      updateDim(Location.EXTERIOR, Location.BOUNDARY, Dimension.L);
+    }
+    else if (dimA == Dimension.A && dimB == Dimension.P) {
+      updateDim(Location.INTERIOR, Location.EXTERIOR, Dimension.A);
+      updateDim(Location.BOUNDARY, Location.EXTERIOR, Dimension.L);
+    }
+    //-- for L/A case, the area interior intersects the line exterior
+    else if (dimA == Dimension.L && dimB == Dimension.A) {
+      updateDim(Location.EXTERIOR, Location.INTERIOR, Dimension.A);
+    }
+    else if (dimA == Dimension.A && dimB == Dimension.L) {
+      updateDim(Location.INTERIOR, Location.EXTERIOR, Dimension.A);
+    }
+    //-- cases where one geometry is empty
+    else if (dimA == Dimension.FALSE || dimB == Dimension.FALSE) {
+      if (dimA != Dimension.FALSE) {
+        initExteriorEmpty(RelateGeometry.GEOM_A);
+      }
+      if (dimB != Dimension.FALSE) {
+        initExteriorEmpty(RelateGeometry.GEOM_B);
+      }
+    }
+  }
+
+  private void initExteriorEmpty(boolean geomNonEmpty) {
+    int dimNonEmpty = getDimension(geomNonEmpty);
+    switch (dimNonEmpty) {
+    case Dimension.P:
+      updateDim(geomNonEmpty, Location.INTERIOR, Location.EXTERIOR, Dimension.P);
+      break;
+    case Dimension.L:
+      if (getGeometry(geomNonEmpty).hasBoundary()) {
+        updateDim(geomNonEmpty, Location.BOUNDARY, Location.EXTERIOR, Dimension.P);
+      }
+      updateDim(geomNonEmpty, Location.INTERIOR, Location.EXTERIOR, Dimension.L);
+      break;
+    case Dimension.A:
+      updateDim(geomNonEmpty, Location.BOUNDARY, Location.EXTERIOR, Dimension.L);
+      updateDim(geomNonEmpty, Location.INTERIOR, Location.EXTERIOR, Dimension.A);
+      break;
+    }
+  }
+
+  /**
+   * Records the topology of geometries which do not intersect
+   * (because their envelopes are disjoint).
+   * Every location of each geometry lies in the exterior of the other.
+   */
+  public void addDisjoint() {
+    initExteriorEmpty(RelateGeometry.GEOM_A);
+    initExteriorEmpty(RelateGeometry.GEOM_B);
+  }
+
+  private RelateGeometry getGeometry(boolean isA) {
+    return isA ? geomA : geomB;
+  }
+
+  public int getDimension(boolean isA) {
+    return getGeometry(isA).getDimension();
+  }
+
+  public boolean isAreaArea() {
+    return getDimension(RelateGeometry.GEOM_A) == Dimension.A
+        && getDimension(RelateGeometry.GEOM_B) == Dimension.A;
+  }
+
+  public boolean isResultKnown() {
+    return predicate.isKnown();
+  }
+
+  public boolean getResult() {
+    return predicate.value();
+  }
+
+  /**
+   * Finalize the evaluation.
+   */
+  public void finish() {
+    predicate.finish();
+  }
+
+  private void updateDim(int locA, int locB, int dimension) {
+    predicate.updateDimension(locA, locB, dimension);
+  }
+
+  /**
+   * Updates an intersection dimension, with the
+   * locations of the source and target geometries
+   * in the order given by the source geometry.
+   *
+   * @param isAB true if the first location is for geometry A
+   * @param loc1 the location of the source geometry
+   * @param loc2 the location of the target geometry
+   * @param dimension the dimension of the intersection
+   */
+  private void updateDim(boolean isAB, int loc1, int loc2, int dimension) {
+    if (isAB) {
+      updateDim(loc1, loc2, dimension);
+    }
+    else {
+      // is ordered BA
+      updateDim(loc2, loc1, dimension);
+    }
+  }
+
+  /**
+   * Records the location of a point of a geometry
+   * (a point element, or a zero-length line)
+   * in the target geometry.
+   *
+   * @param isA the geometry containing the point
+   * @param dimLocTarget the dimension location of the point in the target
+   */
+  public void addPointOnGeometry(boolean isA, int dimLocTarget) {
+    updateDim(isA, Location.INTERIOR, DimensionLocation.location(dimLocTarget), Dimension.P);
+  }
+
+  /**
+   * Records the location of a line endpoint in the target geometry.
+   * If the endpoint lies in an open region of the target
+   * then so does the line interior adjacent to it.
+   *
+   * @param isLineA the geometry containing the line
+   * @param locLineEnd the location of the endpoint on the line (interior or boundary)
+   * @param dimLocTarget the dimension location of the endpoint in the target
+   */
+  public void addLineEndOnGeometry(boolean isLineA, int locLineEnd, int dimLocTarget) {
+    int locTarget = DimensionLocation.location(dimLocTarget);
+    updateDim(isLineA, locLineEnd, locTarget, Dimension.P);
+    if (DimensionLocation.isOpenRegion(dimLocTarget)) {
+      updateDim(isLineA, Location.INTERIOR, locTarget, Dimension.L);
+    }
+  }
+
+  /**
+   * Records the location of a ring vertex of an area in the target geometry.
+   * If the vertex lies in an open region of the target,
+   * then so do the ring boundary adjacent to it
+   * and the area interior and exterior on either side of the ring.
+   *
+   * @param isAreaA the geometry containing the area
+   * @param dimLocTarget the dimension location of the vertex in the target
+   */
+  public void addAreaVertex(boolean isAreaA, int dimLocTarget) {
+    int locTarget = DimensionLocation.location(dimLocTarget);
+    updateDim(isAreaA, Location.BOUNDARY, locTarget, Dimension.P);
+    if (DimensionLocation.isOpenRegion(dimLocTarget)) {
+      updateDim(isAreaA, Location.BOUNDARY, locTarget, Dimension.L);
+      updateDim(isAreaA, Location.INTERIOR, locTarget, Dimension.A);
+      updateDim(isAreaA, Location.EXTERIOR, locTarget, Dimension.A);
+    }
+  }
+
+  /**
+   * Adds a pair of node sections at an intersection point of an edge of A and an edge of B.
+   * The intersection of the node locations is recorded immediately,
+   * and the sections are saved for evaluation of the node topology.
+   *
+   * @param a the node section for geometry A
+   * @param b the node section for geometry B
+   */
+  public void addIntersection(NodeSection a, NodeSection b) {
+    Coordinate pt = a.nodePt();
+    updateDim(locateNode(a), locateNode(b), Dimension.P);
+    NodeSections ns = getNodeSections(pt);
+    ns.addNodeSection(a);
+    ns.addNodeSection(b);
+  }
+
+  private int locateNode(NodeSection ns) {
+    if (ns.isArea())
+      return Location.BOUNDARY;
+    if (ns.isRoundedToVertex())
+      return Location.INTERIOR;
+    return getGeometry(ns.isA()).isLineBoundary(ns.nodePt())
+        ? Location.BOUNDARY : Location.INTERIOR;
+  }
+
+  private NodeSections getNodeSections(Coordinate nodePt) {
+    NodeSections ns = nodeMap.get(nodePt);
+    if (ns == null) {
+      ns = new NodeSections(nodePt);
+      nodeMap.put(nodePt, ns);
+    }
+    return ns;
+  }
+
+  /**
+   * Evaluates the topology of all the nodes found.
+   * Nodes are completed with the sections of all edges
+   * passing through them, since edges which overlap collinearly
+   * through a node are not reported as intersecting there.
+   * Evaluation stops as soon as the predicate result is known.
+   *
+   * @param edgeIntersector the edge intersector used to find the nodes
+   */
+  public void evaluateNodes(EdgeSetIntersector edgeIntersector) {
+    for (NodeSections nodeSections : nodeMap.values()) {
+      if (nodeSections.hasInteractionAB()) {
+        edgeIntersector.addNodeSections(nodeSections);
+        evaluateNode(nodeSections);
+        if (isResultKnown())
+          return;
+      }
+    }
+  }
+
+  private void evaluateNode(NodeSections nodeSections) {
+    RelateNode node = nodeSections.createNode();
+    int locA = locateNodeTopology(node, nodeSections, RelateGeometry.GEOM_A);
+    int locB = locateNodeTopology(node, nodeSections, RelateGeometry.GEOM_B);
+    updateDim(locA, locB, Dimension.P);
+    for (RelateEdge e : node.getEdges()) {
+      //-- the edge line
+      updateDim(e.location(RelateGeometry.GEOM_A, Position.ON),
+          e.location(RelateGeometry.GEOM_B, Position.ON), Dimension.L);
+      //-- the region to the left of the edge (which is right of the previous edge)
+      updateDim(e.location(RelateGeometry.GEOM_A, Position.LEFT),
+          e.location(RelateGeometry.GEOM_B, Position.LEFT), Dimension.A);
+      if (isResultKnown())
+        return;
+    }
+  }
+
+  private int locateNodeTopology(RelateNode node, NodeSections nodeSections, boolean isA) {
+    if (nodeSections.hasArea(isA)) {
+      return node.isAreaInterior(isA) ? Location.INTERIOR : Location.BOUNDARY;
+    }
+    if (nodeSections.isRoundedToVertex(isA))
+      return Location.INTERIOR;
+    return getGeometry(isA).isLineBoundary(node.getCoordinate())
+        ? Location.BOUNDARY : Location.INTERIOR;
+  }
+}
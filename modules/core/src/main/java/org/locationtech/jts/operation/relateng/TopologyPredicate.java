@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2021 Martin Davis.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jts.operation.relateng;
+
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Location;
+
+/**
+ * The API for strategy classes implementing
+ * spatial predicates based on the DE-9IM topology model.
+ * Predicate values for specific geometry pairs can be evaluated by {@link RelateNG}.
+ * <p>
+ * A predicate is supplied with the dimensions and envelopes of the inputs,
+ * and then with the topological dimension of each
+ * intersection of locations found by {@link RelateNG}.
+ * As soon as the predicate value is known the evaluation stops,
+ * which avoids computing the full intersection matrix.
+ * A predicate instance is used for a single evaluation only.
+ *
+ * @author Martin Davis
+ *
+ */
+public interface TopologyPredicate {
+
+  /**
+   * Gets the name of the predicate.
+   *
+   * @return the predicate name
+   */
+  String name();
+
+  /**
+   * Initializes the predicate for a specific geometric case.
+   * This may allow the predicate result to become known
+   * if it can be inferred from the dimensions.
+   *
+   * @param dimA the dimension of geometry A
+   * @param dimB the dimension of geometry B
+   */
+  void init(int dimA, int dimB);
+
+  /**
+   * Initializes the predicate for a specific geometric case.
+   * This may allow the predicate result to become known
+   * if it can be inferred from the envelopes.
+   *
+   * @param envA the envelope of geometry A
+   * @param envB the envelope of geometry B
+   */
+  void init(Envelope envA, Envelope envB);
+
+  /**
+   * Updates the entry in the DE-9IM intersection matrix
+   * for given {@link Location}s in the input geometries.
+   * <p>
+   * If this method is called with a {@link Location} value which is
+   * already set for the predicate,
+   * the dimension value is updated only if it is greater than the current value.
+   *
+   * @param locA the location on the A axis of the matrix
+   * @param locB the location on the B axis of the matrix
+   * @param dimension the dimension value for the entry
+   */
+  void updateDimension(int locA, int locB, int dimension);
+
+  /**
+   * Indicates that the relate computation is complete,
+   * so that the predicate value is determined
+   * by the information supplied so far.
+   */
+  void finish();
+
+  /**
+   * Tests if the predicate value is known.
+   *
+   * @return true if the result is known
+   */
+  boolean isKnown();
+
+  /**
+   * Gets the current value of the predicate result.
+   * The value is meaningful only if the predicate value is known.
+   *
+   * @return the current predicate result value
+   */
+  boolean value();
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2021 Martin Davis.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jts.util;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Executes a computation over a range of integer indexes
+ * in parallel, using the fork-join framework.
+ * The range is split recursively into blocks
+ * no larger than a given size,
+ * and each block is processed by a {@link Procedure}.
+ * The procedure must be safe to run concurrently
+ * on disjoint blocks.
+ * <p>
+ * If execution is started from a thread in a {@link ForkJoinPool}
+ * the computation runs in that pool, otherwise
+ * it runs in the common pool.
+ * Ranges no larger than the block size are computed
+ * directly in the calling thread.
+ *
+ * @author Martin Davis
+ *
+ */
+public class ParallelRange
+{
+  /**
+   * A computation over a block of a range of indexes.
+   */
+  public interface Procedure
+  {
+    /**
+     * Computes the values for a block of indexes.
+     *
+     * @param start the first index of the block
+     * @param end the index after the last index of the block
+     */
+    void compute(int start, int end);
+  }
+
+  /**
+   * Executes a procedure over the range [0, size)
+   * in parallel.
+   *
+   * @param size the size of the range
+   * @param blockSize the maximum size of the blocks to process
+   * @param proc the procedure to execute
+   */
+  public static void execute(int size, int blockSize, Procedure proc) {
+    if (size <= blockSize) {
+      proc.compute(0, size);
+      return;
+    }
+    new RangeAction(proc, blockSize, 0, size).invoke();
+  }
+
+  /**
+   * Executes a procedure over the range [0, size)
+   * in parallel using a given pool.
+   *
+   * @param pool the pool to execute in
+   * @param size the size of the range
+   * @param blockSize the maximum size of the blocks to process
+   * @param proc the procedure to execute
+   */
+  public static void execute(ForkJoinPool pool, int size, int blockSize, Procedure proc) {
+    if (size <= blockSize) {
+      proc.compute(0, size);
+      return;
+    }
+    pool.invoke(new RangeAction(proc, blockSize, 0, size));
+  }
+
+  private static class RangeAction extends RecursiveAction
+  {
+    private static final long serialVersionUID = 1L;
+
+    private Procedure proc;
+    private int blockSize;
+    private int start;
+    private int end;
+
+    RangeAction(Procedure proc, int blockSize, int start, int end) {
+      this.proc = proc;
+      this.blockSize = blockSize;
+      this.start = start;
+      this.end = end;
+    }
+
+    @Override
+    protected void compute() {
+      if (end - start <= blockSize) {
+        proc.compute(start, end);
+        return;
+      }
+      int mid = (start + end) >>> 1;
+      invokeAll(new RangeAction(proc, blockSize, start, mid),
+          new RangeAction(proc, blockSize, mid, end));
+    }
+  }
+}
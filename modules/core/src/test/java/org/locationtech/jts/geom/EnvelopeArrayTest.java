@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2021 Martin Davis.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jts.geom;
+
+import java.util.Random;
+
+import junit.framework.TestCase;
+import junit.textui.TestRunner;
+
+public class EnvelopeArrayTest extends TestCase {
+  public static void main(String args[]) {
+    TestRunner.run(EnvelopeArrayTest.class);
+  }
+
+  public EnvelopeArrayTest(String name) {
+    super(name);
+  }
+
+  public void testAddGet() {
+    EnvelopeArray envs = new EnvelopeArray(1);
+    envs.add(new Envelope(1, 2, 3, 4));
+    envs.add(5, 6, 7, 8);
+    envs.add(new Envelope());
+    assertEquals(3, envs.size());
+    assertEquals(new Envelope(1, 2, 3, 4), envs.getEnvelope(0));
+    assertEquals(new Envelope(5, 7, 6, 8), envs.getEnvelope(1));
+    assertTrue(envs.isNull(2));
+    assertTrue(envs.getEnvelope(2).isNull());
+    assertEquals(new Envelope(1, 7, 3, 8), envs.getExtent());
+  }
+
+  public void testWrapArray() {
+    EnvelopeArray envs = new EnvelopeArray(new double[] { 0, 0, 1, 1, 2, 2, 3, 3 });
+    assertEquals(2, envs.size());
+    assertEquals(new Envelope(2, 3, 2, 3), envs.getEnvelope(1));
+  }
+
+  public void testSetOutOfRange() {
+    EnvelopeArray envs = new EnvelopeArray();
+    try {
+      envs.set(0, new Envelope(0, 1, 0, 1));
+      fail();
+    }
+    catch (IndexOutOfBoundsException e) {
+      // expected
+    }
+  }
+
+  public void testBatchSameAsEnvelope() {
+    Random random = new Random(7);
+    Envelope[] envelopes = new Envelope[500];
+    for (int i = 0; i < envelopes.length; i++) {
+      if (i % 50 == 0) {
+        envelopes[i] = new Envelope();
+        continue;
+      }
+      double x = random.nextInt(100);
+      double y = random.nextInt(100);
+      envelopes[i] = new Envelope(x, x + random.nextInt(20), y, y + random.nextInt(20));
+    }
+    EnvelopeArray envs = EnvelopeArray.create(envelopes);
+    boolean[] intersects = new boolean[envs.size()];
+    boolean[] contains = new boolean[envs.size()];
+    boolean[] coveredBy = new boolean[envs.size()];
+    double[] distance = new double[envs.size()];
+    int[] selected = new int[envs.size()];
+    for (int n = 0; n < 50; n++) {
+      double x = random.nextInt(100);
+      double y = random.nextInt(100);
+      Envelope queryEnv = new Envelope(x, x + random.nextInt(30), y, y + random.nextInt(30));
+      envs.intersects(queryEnv, intersects);
+      envs.contains(queryEnv, contains);
+      envs.coveredBy(queryEnv, coveredBy);
+      envs.distance(queryEnv, distance);
+      int numSelected = envs.selectIntersecting(queryEnv, selected);
+      int count = 0;
+      for (int i = 0; i < envelopes.length; i++) {
+        Envelope env = envelopes[i];
+        assertEquals(env.intersects(queryEnv), intersects[i]);
+        assertEquals(env.intersects(queryEnv), envs.intersects(i, queryEnv));
+        assertEquals(env.contains(queryEnv), contains[i]);
+        assertEquals(queryEnv.covers(env), coveredBy[i]);
+        if (env.isNull()) {
+          assertTrue(Double.isNaN(distance[i]));
+        }
+        else {
+          assertEquals(env.distance(queryEnv), distance[i], 1e-10);
+        }
+        if (env.intersects(queryEnv)) {
+          assertEquals(i, selected[count++]);
+        }
+      }
+      assertEquals(count, numSelected);
+    }
+  }
+
+  public void testNullQuery() {
+    EnvelopeArray envs = EnvelopeArray.create(new Envelope[] { new Envelope(0, 1, 0, 1) });
+    boolean[] result = new boolean[] { true };
+    envs.intersects(new Envelope(), result);
+    assertFalse(result[0]);
+    assertEquals(0, envs.selectIntersecting(new Envelope(), new int[1]));
+  }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2021 Martin Davis.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jts.geom;
+
+import junit.textui.TestRunner;
+import test.jts.GeometryTestCase;
+
+/**
+ * Tests caching of derived {@link Geometry} properties.
+ *
+ * @see Geometry#setPropertyCacheMode(int)
+ */
+public class GeometryPropertyCacheTest extends GeometryTestCase {
+
+  public static void main(String args[]) {
+    TestRunner.run(GeometryPropertyCacheTest.class);
+  }
+
+  public GeometryPropertyCacheTest(String name) { super(name); }
+
+  private static final String WKT_POLY = "POLYGON ((0 0, 0 10, 10 10, 10 0, 0 0), (2 2, 2 4, 4 4, 4 2, 2 2))";
+
+  public void testDefaultNotCached() {
+    Geometry geom = read(WKT_POLY);
+    assertEquals(Geometry.PROPERTY_CACHE_NONE, geom.getPropertyCacheMode());
+    checkPropertiesChange(geom);
+  }
+
+  public void testStrongCacheInvalidated() {
+    Geometry geom = read(WKT_POLY);
+    geom.setPropertyCacheMode(Geometry.PROPERTY_CACHE_STRONG);
+    checkPropertiesChange(geom);
+  }
+
+  public void testSoftCacheInvalidated() {
+    Geometry geom = read(WKT_POLY);
+    geom.setPropertyCacheMode(Geometry.PROPERTY_CACHE_SOFT);
+    checkPropertiesChange(geom);
+  }
+
+  public void testCachedValues() {
+    Geometry geom = read(WKT_POLY);
+    geom.setPropertyCacheMode(Geometry.PROPERTY_CACHE_STRONG);
+    checkProperties(geom, 96, 48, true, true);
+    Point centroid = geom.getCentroid();
+    // modifying the returned point does not change the cached value
+    centroid.getCoordinateSequence().setOrdinate(0, 0, -1);
+    assertEquals(read(WKT_POLY).getCentroid().getX(), geom.getCentroid().getX());
+
+    // modifying the coordinates without notification leaves cached values unchanged
+    translateX((Polygon) geom, 100);
+    assertEquals(96.0, geom.getArea());
+    assertEquals(488.0 / 96, geom.getCentroid().getX(), 1e-10);
+  }
+
+  public void testInvalid() {
+    Geometry geom = read("POLYGON ((0 0, 10 10, 0 10, 10 0, 0 0))");
+    geom.setPropertyCacheMode(Geometry.PROPERTY_CACHE_SOFT);
+    assertFalse(geom.isValid());
+    assertFalse(geom.isValid());
+  }
+
+  public void testCollection() {
+    Geometry geom = read("GEOMETRYCOLLECTION (POLYGON ((0 0, 0 10, 10 10, 10 0, 0 0)), LINESTRING (0 0, 0 5))");
+    geom.setPropertyCacheMode(Geometry.PROPERTY_CACHE_STRONG);
+    assertEquals(100.0, geom.getArea());
+    assertEquals(45.0, geom.getLength());
+    ((LineString) geom.getGeometryN(1)).getCoordinateSequence().setOrdinate(1, 1, 10);
+    geom.geometryChanged();
+    assertEquals(50.0, geom.getLength());
+  }
+
+  public void testCopyAndClone() {
+    Geometry geom = read(WKT_POLY);
+    geom.setPropertyCacheMode(Geometry.PROPERTY_CACHE_STRONG);
+    assertEquals(96.0, geom.getArea());
+
+    Geometry copy = geom.copy();
+    assertEquals(Geometry.PROPERTY_CACHE_STRONG, copy.getPropertyCacheMode());
+    scale((Polygon) copy, 2);
+    assertEquals(4 * 96.0, copy.getArea());
+
+    Geometry clone = (Geometry) geom.clone();
+    scale((Polygon) clone, 2);
+    assertEquals(4 * 96.0, clone.getArea());
+    assertEquals(96.0, geom.getArea());
+  }
+
+  public void testInvalidMode() {
+    try {
+      read(WKT_POLY).setPropertyCacheMode(99);
+      fail("Expected IllegalArgumentException");
+    }
+    catch (IllegalArgumentException expected) {
+    }
+  }
+
+  private void checkPropertiesChange(Geometry geom) {
+    checkProperties(geom, 96, 48, true, true);
+    scale((Polygon) geom, 2);
+    geom.geometryChanged();
+    checkProperties(geom, 4 * 96, 2 * 48, true, true);
+  }
+
+  private static void checkProperties(Geometry geom, double area, double length,
+      boolean isValid, boolean isSimple) {
+    // check twice to exercise cached values
+    for (int i = 0; i < 2; i++) {
+      assertEquals(area, geom.getArea());
+      assertEquals(length, geom.getLength());
+      assertEquals(isValid, geom.isValid());
+      assertEquals(isSimple, geom.isSimple());
+      assertTrue(geom.getCentroid().equalsExact(computeCentroid(geom)));
+      assertTrue(geom.contains(geom.getInteriorPoint()));
+    }
+  }
+
+  private static Point computeCentroid(Geometry geom) {
+    return geom.copy().getCentroid();
+  }
+
+  private static void scale(Polygon poly, double factor) {
+    transform(poly, factor, 0);
+  }
+
+  private static void translateX(Polygon poly, double dx) {
+    transform(poly, 1, dx);
+  }
+
+  private static void transform(Polygon poly, final double factor, final double dx) {
+    poly.apply(new CoordinateSequenceFilter() {
+      public void filter(CoordinateSequence seq, int i) {
+        seq.setOrdinate(i, 0, factor * seq.getX(i) + dx);
+        seq.setOrdinate(i, 1, factor * seq.getY(i));
+      }
+      public boolean isDone() { return false; }
+      public boolean isGeometryChanged() { return false; }
+    });
+  }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2021 Martin Davis.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jts.geom;
+
+import org.locationtech.jts.geom.prep.PreparedGeometry;
+import org.locationtech.jts.geom.prep.PreparedGeometryFactory;
+
+import junit.textui.TestRunner;
+import test.jts.GeometryTestCase;
+
+/**
+ * Tests the behaviour of the {@link GeometryRelate} class.
+ *
+ * Currently does not test the reading of the system property.
+ *
+ * @author Martin Davis
+ *
+ */
+public class GeometryRelateTest extends GeometryTestCase {
+  public static void main(String args[]) {
+    TestRunner.run(GeometryRelateTest.class);
+  }
+
+  public GeometryRelateTest(String name) { super(name); }
+
+  @Override
+  protected void tearDown() {
+    GeometryRelate.setRelateImpl(GeometryRelate.RELATE_PROPERTY_VALUE_OLD);
+  }
+
+  public void testRelateOld() {
+    GeometryRelate.setRelateImpl(GeometryRelate.RELATE_PROPERTY_VALUE_OLD);
+    checkPredicates();
+    checkGeometryCollectionFails();
+  }
+
+  public void testRelateNG() {
+    GeometryRelate.setRelateImpl(GeometryRelate.RELATE_PROPERTY_VALUE_NG);
+    checkPredicates();
+    //-- RelateNG supports homogeneous collections
+    Geometry gc = read("GEOMETRYCOLLECTION (POLYGON ((0 0, 0 4, 4 4, 4 0, 0 0)), POLYGON ((5 0, 5 4, 9 4, 9 0, 5 0)))");
+    assertTrue(gc.contains(read("LINESTRING (6 2, 8 2)")));
+  }
+
+  public void testPreparedOld() {
+    GeometryRelate.setRelateImpl(GeometryRelate.RELATE_PROPERTY_VALUE_OLD);
+    checkPreparedAgrees();
+  }
+
+  public void testPreparedNG() {
+    GeometryRelate.setRelateImpl(GeometryRelate.RELATE_PROPERTY_VALUE_NG);
+    checkPreparedAgrees();
+  }
+
+  /**
+   * Prepared predicates must follow the same relate implementation
+   * as the Geometry methods.
+   * The zero-length line case is evaluated differently by the implementations.
+   */
+  private void checkPreparedAgrees() {
+    checkPreparedAgrees("POINT (110 200)", "LINESTRING (110 200, 110 200)");
+    checkPreparedAgrees("LINESTRING (110 200, 110 200)", "POINT (110 200)");
+    checkPreparedAgrees("POLYGON ((0 0, 0 9, 9 9, 9 0, 0 0), (2 2, 2 7, 7 7, 7 2, 2 2))", "LINESTRING (1 1, 3 3)");
+    checkPreparedAgrees("POLYGON ((0 0, 0 9, 9 9, 9 0, 0 0))", "LINESTRING (1 1, 1 1)");
+  }
+
+  private void checkPreparedAgrees(String wktA, String wktB) {
+    Geometry a = read(wktA);
+    Geometry b = read(wktB);
+    PreparedGeometry pa = PreparedGeometryFactory.prepare(a);
+    assertEquals(a.relate(b).toString(), pa.relate(b).toString());
+    assertEquals(a.relate(b, "T**FF*FF*"), pa.relate(b, "T**FF*FF*"));
+    assertEquals(a.equalsTopo(b), pa.equalsTopo(b));
+    assertEquals(a.contains(b), pa.contains(b));
+    assertEquals(a.covers(b), pa.covers(b));
+    assertEquals(a.coveredBy(b), pa.coveredBy(b));
+    assertEquals(a.within(b), pa.within(b));
+    assertEquals(a.touches(b), pa.touches(b));
+    assertEquals(a.crosses(b), pa.crosses(b));
+    assertEquals(a.overlaps(b), pa.overlaps(b));
+  }
+
+  private void checkPredicates() {
+    Geometry a = read("POLYGON ((0 0, 0 9, 9 9, 9 0, 0 0), (2 2, 2 7, 7 7, 7 2, 2 2))");
+    Geometry line = read("LINESTRING (1 1, 3 3)");
+    Geometry inHole = read("POLYGON ((3 3, 3 6, 6 6, 6 3, 3 3))");
+    assertTrue(a.intersects(line));
+    assertTrue(a.crosses(line));
+    assertFalse(a.contains(line));
+    assertFalse(a.intersects(inHole));
+    assertTrue(a.disjoint(inHole));
+    assertTrue(a.touches(read("POLYGON ((2 2, 2 7, 7 7, 7 2, 2 2))")));
+    assertTrue(a.covers(read("LINESTRING (1 1, 1 8)")));
+    assertTrue(a.overlaps(read("POLYGON ((1 1, 1 3, 3 3, 3 1, 1 1))")));
+    assertTrue(a.equalsTopo(read("POLYGON ((9 9, 9 0, 0 0, 0 9, 9 9), (7 7, 7 2, 2 2, 2 7, 7 7))")));
+    assertTrue(a.relate(line, "1020F1102"));
+    assertEquals("1020F1102", a.relate(line).toString());
+  }
+
+  private void checkGeometryCollectionFails() {
+    Geometry gc = read("GEOMETRYCOLLECTION (POLYGON ((0 0, 0 5, 5 5, 5 0, 0 0)))");
+    try {
+      gc.contains(read("POINT (1 1)"));
+      fail("GeometryCollection argument should not be supported");
+    }
+    catch (IllegalArgumentException ex) {
+      // expected
+    }
+  }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2021 Martin Davis.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+
+package org.locationtech.jts.geom.impl;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.CoordinateSequenceFactory;
+import org.locationtech.jts.geom.CoordinateXY;
+import org.locationtech.jts.geom.CoordinateXYM;
+import org.locationtech.jts.geom.CoordinateXYZM;
+import org.locationtech.jts.geom.Envelope;
+
+import junit.textui.TestRunner;
+
+/**
+ * Test {@link BufferCoordinateSequence}
+ * using the {@link CoordinateSequenceTestBase}
+ */
+public class BufferCoordinateSequenceTest
+    extends CoordinateSequenceTestBase
+{
+  public static void main(String args[]) {
+    TestRunner.run(BufferCoordinateSequenceTest.class);
+  }
+
+  public BufferCoordinateSequenceTest(String name)
+  {
+    super(name);
+  }
+
+  @Override
+  CoordinateSequenceFactory getCSFactory() {
+    return BufferCoordinateSequenceFactory.instance();
+  }
+
+  public void testDimensions() {
+    checkDimension(new CoordinateXY(1, 2), 2, 0);
+    checkDimension(new Coordinate(1, 2, 3), 3, 0);
+    checkDimension(new CoordinateXYM(1, 2, 4), 3, 1);
+    checkDimension(new CoordinateXYZM(1, 2, 3, 4), 4, 1);
+  }
+
+  public void testWrapBuffer() {
+    ByteBuffer buf = ByteBuffer.allocate(8 * 8).order(ByteOrder.BIG_ENDIAN);
+    for (int i = 0; i < 8; i++) {
+      buf.putDouble(i);
+    }
+    buf.flip();
+    // skip the first coordinate
+    buf.position(16);
+    CoordinateSequence seq = BufferCoordinateSequenceFactory.instance().create(buf, 2, 0);
+    assertEquals(3, seq.size());
+    assertEquals(new CoordinateXY(2, 3), seq.getCoordinate(0));
+    assertEquals(new Envelope(2, 6, 3, 7), seq.expandEnvelope(new Envelope()));
+    // writes are visible in the wrapped buffer
+    seq.setOrdinate(2, 1, 99);
+    assertEquals(99.0, buf.getDouble(7 * 8));
+    assertEquals(16, buf.position());
+  }
+
+  public void testCopyIsIndependent() {
+    CoordinateSequence seq = getCSFactory().create(new Coordinate[] {
+        new Coordinate(1, 2, 3), new Coordinate(4, 5, 6) });
+    CoordinateSequence copy = seq.copy();
+    seq.setOrdinate(0, 0, 10);
+    assertEquals(1.0, copy.getX(0));
+    assertEquals(6.0, copy.getZ(1));
+  }
+
+  public void testMappedFile() throws IOException {
+    File file = File.createTempFile("jts-seq", ".bin");
+    file.deleteOnExit();
+    RandomAccessFile raf = new RandomAccessFile(file, "rw");
+    try {
+      FileChannel channel = raf.getChannel();
+      MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_WRITE, 0, 4 * 3 * 8);
+      buf.order(ByteOrder.LITTLE_ENDIAN);
+      for (int i = 0; i < 12; i++) {
+        buf.putDouble(i);
+      }
+      buf.flip();
+      CoordinateSequence seq = BufferCoordinateSequenceFactory.instance().create(buf, 3, 1);
+      assertEquals(4, seq.size());
+      assertTrue(seq.hasM());
+      assertFalse(seq.hasZ());
+      assertEquals(new CoordinateXYM(9, 10, 11), seq.getCoordinate(3));
+    }
+    finally {
+      raf.close();
+    }
+  }
+
+  public void testInvalidBufferSize() {
+    try {
+      BufferCoordinateSequenceFactory.instance().create(ByteBuffer.allocate(3 * 8), 2, 0);
+      fail();
+    }
+    catch (IllegalArgumentException e) {
+      // expected
+    }
+  }
+
+  private void checkDimension(Coordinate p, int dimension, int measures) {
+    CoordinateSequence seq = getCSFactory().create(new Coordinate[] { p, p.copy() });
+    assertEquals(dimension, seq.getDimension());
+    assertEquals(measures, seq.getMeasures());
+    Coordinate actual = seq.getCoordinate(1);
+    assertEquals(p.getClass(), actual.getClass());
+    assertTrue(p.equals3D(actual));
+    assertTrue(p.getM() == actual.getM() || Double.isNaN(p.getM()) && Double.isNaN(actual.getM()));
+  }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2021 Martin Davis.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+
+package org.locationtech.jts.geom.impl;
+
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.CoordinateSequenceFactory;
+import org.locationtech.jts.geom.CoordinateXY;
+import org.locationtech.jts.geom.CoordinateXYM;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.Polygon;
+import org.locationtech.jts.geom.util.AffineTransformation;
+import org.locationtech.jts.io.ParseException;
+import org.locationtech.jts.io.WKTReader;
+
+import junit.textui.TestRunner;
+
+/**
+ * Test {@link InterningCoordinateSequenceFactory}
+ * using the {@link CoordinateSequenceTestBase}
+ */
+public class InterningCoordinateSequenceFactoryTest
+    extends CoordinateSequenceTestBase
+{
+  public static void main(String args[]) {
+    TestRunner.run(InterningCoordinateSequenceFactoryTest.class);
+  }
+
+  public InterningCoordinateSequenceFactoryTest(String name)
+  {
+    super(name);
+  }
+
+  @Override
+  CoordinateSequenceFactory getCSFactory() {
+    return new InterningCoordinateSequenceFactory();
+  }
+
+  public void testSharedVertices() throws ParseException {
+    InterningCoordinateSequenceFactory csFactory = new InterningCoordinateSequenceFactory();
+    GeometryFactory geomFactory = new GeometryFactory(csFactory);
+    Polygon poly1 = geomFactory.createPolygon(new Coordinate[] {
+        new Coordinate(0, 0), new Coordinate(0, 10), new Coordinate(10, 10), 
+        new Coordinate(10, 0), new Coordinate(0, 0) });
+    WKTReader reader = new WKTReader();
+    Polygon poly2 = (Polygon) geomFactory.createGeometry(
+        reader.read("POLYGON ((10 0, 10 10, 20 10, 20 0, 10 0))"));
+    assertSame(poly1.getExteriorRing().getCoordinateN(2), poly2.getExteriorRing().getCoordinateN(1));
+    assertSame(poly1.getExteriorRing().getCoordinateN(3), poly2.getExteriorRing().getCoordinateN(0));
+    assertEquals(10, csFactory.getInputCount());
+    assertEquals(6, csFactory.getUniqueCount());
+    assertEquals(10.0 / 6.0, csFactory.getDedupRatio(), 1e-10);
+  }
+
+  public void testInputCoordinateNotInterned() {
+    InterningCoordinateSequenceFactory csFactory = new InterningCoordinateSequenceFactory();
+    Coordinate p = new Coordinate(1, 2);
+    CoordinateSequence seq1 = csFactory.create(new Coordinate[] { p, new Coordinate(3, 4) });
+    assertNotSame(p, seq1.getCoordinate(0));
+    //-- caller reuses its coordinate
+    p.x = 5;
+    p.y = 6;
+    assertEquals(new Coordinate(1, 2), seq1.getCoordinate(0));
+    CoordinateSequence seq2 = csFactory.create(new Coordinate[] { new Coordinate(1, 2) });
+    assertSame(seq1.getCoordinate(0), seq2.getCoordinate(0));
+  }
+
+  public void testCreateGeometry() throws ParseException {
+    WKTReader reader = new WKTReader();
+    Geometry geom = reader.read("MULTIPOLYGON (((0 0, 0 10, 10 10, 10 0, 0 0)), ((10 0, 10 10, 20 10, 20 0, 10 0)))");
+    InterningCoordinateSequenceFactory csFactory = new InterningCoordinateSequenceFactory();
+    Geometry interned = new GeometryFactory(csFactory).createGeometry(geom);
+    assertTrue(geom.equalsExact(interned));
+    assertEquals(6, csFactory.getUniqueCount());
+  }
+
+  public void testTransformInPlace() throws ParseException {
+    WKTReader reader = new WKTReader();
+    InterningCoordinateSequenceFactory csFactory = new InterningCoordinateSequenceFactory();
+    GeometryFactory geomFactory = new GeometryFactory(csFactory);
+    Geometry poly1 = geomFactory.createGeometry(
+        reader.read("POLYGON ((0 0, 0 10, 10 10, 10 0, 0 0))"));
+    Geometry poly2 = geomFactory.createGeometry(
+        reader.read("POLYGON ((10 0, 10 10, 20 10, 20 0, 10 0))"));
+
+    poly1.apply(AffineTransformation.translationInstance(1, 1));
+
+    //-- the shared ring start and end point is translated only once
+    assertTrue(poly1.equalsExact(reader.read("POLYGON ((1 1, 1 11, 11 11, 11 1, 1 1))")));
+    //-- the neighbouring polygon is unchanged
+    assertTrue(poly2.equalsExact(reader.read("POLYGON ((10 0, 10 10, 20 10, 20 0, 10 0))")));
+    //-- the interned vertices are unchanged
+    CoordinateSequence seq = csFactory.create(new Coordinate[] { new Coordinate(0, 0), new Coordinate(10, 10) });
+    assertEquals(new Coordinate(0, 0), seq.getCoordinate(0));
+    assertSame(((Polygon) poly2).getExteriorRing().getCoordinateN(1), seq.getCoordinate(1));
+    assertEquals(6, csFactory.getUniqueCount());
+  }
+
+  public void testTypeIsSignificant() {
+    InterningCoordinateSequenceFactory csFactory = new InterningCoordinateSequenceFactory();
+    CoordinateSequence seqXY = csFactory.create(new Coordinate[] { new CoordinateXY(1, 2) });
+    CoordinateSequence seqXYZ = csFactory.create(new Coordinate[] { new Coordinate(1, 2, 3) });
+    CoordinateSequence seqXYM = csFactory.create(new Coordinate[] { new CoordinateXYM(1, 2, 3) });
+    assertEquals(3, csFactory.getUniqueCount());
+    assertEquals(3.0, seqXYZ.getZ(0));
+    assertEquals(3.0, seqXYM.getM(0));
+    assertEquals(2, seqXY.getDimension());
+  }
+
+  public void testCreateFromPackedSequence() {
+    InterningCoordinateSequenceFactory csFactory = new InterningCoordinateSequenceFactory();
+    CoordinateSequence packed = PackedCoordinateSequenceFactory.DOUBLE_FACTORY.create(
+        new double[] { 0, 0, 1, 1, 0, 0 }, 2);
+    CoordinateSequence seq = csFactory.create(packed);
+    assertEquals(3, seq.size());
+    assertEquals(2, csFactory.getUniqueCount());
+    assertSame(seq.getCoordinate(0), seq.getCoordinate(2));
+    CoordinateSequence seq2 = csFactory.create(new Coordinate[] { new CoordinateXY(1, 1) });
+    assertSame(seq.getCoordinate(1), seq2.getCoordinate(0));
+  }
+
+  public void testManyVertices() {
+    InterningCoordinateSequenceFactory csFactory = new InterningCoordinateSequenceFactory();
+    int n = 10000;
+    for (int round = 0; round < 2; round++) {
+      Coordinate[] pts = new Coordinate[n];
+      for (int i = 0; i < n; i++) {
+        pts[i] = new CoordinateXY(i % 100, i / 100);
+      }
+      csFactory.create(pts);
+    }
+    assertEquals(n, csFactory.getUniqueCount());
+    assertEquals(2.0, csFactory.getDedupRatio(), 1e-10);
+    csFactory.clear();
+    assertEquals(0, csFactory.getUniqueCount());
+  }
+}
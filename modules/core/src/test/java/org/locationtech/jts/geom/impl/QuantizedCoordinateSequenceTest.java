@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2021 Martin Davis.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+
+package org.locationtech.jts.geom.impl;
+
+import java.util.Random;
+
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.CoordinateSequenceFactory;
+import org.locationtech.jts.geom.CoordinateXY;
+import org.locationtech.jts.geom.CoordinateXYZM;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.geom.PrecisionModel;
+import org.locationtech.jts.io.ParseException;
+import org.locationtech.jts.io.WKTReader;
+
+import junit.textui.TestRunner;
+
+/**
+ * Test {@link QuantizedCoordinateSequence}
+ * using the {@link CoordinateSequenceTestBase}
+ */
+public class QuantizedCoordinateSequenceTest
+    extends CoordinateSequenceTestBase
+{
+  public static void main(String args[]) {
+    TestRunner.run(QuantizedCoordinateSequenceTest.class);
+  }
+
+  private static final PrecisionModel PM = new PrecisionModel(1000);
+
+  public QuantizedCoordinateSequenceTest(String name)
+  {
+    super(name);
+  }
+
+  @Override
+  CoordinateSequenceFactory getCSFactory() {
+    return new QuantizedCoordinateSequenceFactory(PM);
+  }
+
+  public void testFloatingPrecisionModelRejected() {
+    try {
+      new QuantizedCoordinateSequenceFactory(new PrecisionModel());
+      fail("Expected IllegalArgumentException");
+    }
+    catch (IllegalArgumentException expected) {
+    }
+  }
+
+  public void testRoundTripExact() {
+    Coordinate[] pts = createRandomWalk(1000, 12345);
+    QuantizedCoordinateSequence seq = (QuantizedCoordinateSequence) getCSFactory().create(pts);
+    assertTrue(seq.isCompressed());
+    for (int i = 0; i < pts.length; i++) {
+      assertEquals(pts[i].x, seq.getX(i));
+      assertEquals(pts[i].y, seq.getY(i));
+      assertEquals(pts[i].getZ(), seq.getZ(i));
+    }
+    Coordinate[] decoded = seq.toCoordinateArray();
+    for (int i = 0; i < pts.length; i++) {
+      assertTrue(pts[i].equals3D(decoded[i]));
+    }
+  }
+
+  public void testRandomAccess() {
+    Coordinate[] pts = createRandomWalk(100, 4321);
+    CoordinateSequence seq = getCSFactory().create(pts);
+    Coordinate c = new Coordinate();
+    for (int i = pts.length - 1; i >= 0; i -= 7) {
+      assertEquals(pts[i].y, seq.getY(i));
+      assertEquals(pts[i].x, seq.getX(i));
+      seq.getCoordinate(i, c);
+      assertEquals(pts[i].x, c.x);
+      assertEquals(pts[i].y, c.y);
+    }
+  }
+
+  public void testRoundsToGrid() {
+    CoordinateSequence seq = getCSFactory().create(new Coordinate[] {
+        new CoordinateXY(1.23456, -7.89012), new CoordinateXY(-1.0004, 2.0006) });
+    assertEquals(PM.makePrecise(1.23456), seq.getX(0));
+    assertEquals(PM.makePrecise(-7.89012), seq.getY(0));
+    assertEquals(PM.makePrecise(-1.0004), seq.getX(1));
+    assertEquals(PM.makePrecise(2.0006), seq.getY(1));
+  }
+
+  public void testSmallerThanPacked() {
+    Coordinate[] pts = createRandomWalk(1000, 999);
+    QuantizedCoordinateSequence seq = (QuantizedCoordinateSequence) getCSFactory().create(pts);
+    int packedXYSize = 2 * 8 * pts.length;
+    assertTrue(3 * seq.getXYByteSize() < packedXYSize);
+  }
+
+  public void testEnvelope() {
+    Coordinate[] pts = createRandomWalk(100, 42);
+    CoordinateSequence seq = getCSFactory().create(pts);
+    Envelope expected = new CoordinateArraySequence(pts).expandEnvelope(new Envelope());
+    assertEquals(expected, seq.expandEnvelope(new Envelope()));
+  }
+
+  public void testSetOrdinateDecompresses() {
+    Coordinate[] pts = createRandomWalk(40, 7);
+    QuantizedCoordinateSequence seq = (QuantizedCoordinateSequence) getCSFactory().create(pts);
+    QuantizedCoordinateSequence copy = seq.copy();
+    seq.setOrdinate(20, 0, 0.12345);
+    assertFalse(seq.isCompressed());
+    assertEquals(0.12345, seq.getX(20));
+    assertEquals(pts[21].x, seq.getX(21));
+    assertEquals(pts[20].x, copy.getX(20));
+    assertTrue(copy.isCompressed());
+  }
+
+  public void testXYZM() {
+    CoordinateSequence seq = getCSFactory().create(new Coordinate[] {
+        new CoordinateXYZM(1, 2, 3, 4), new CoordinateXYZM(5, 6, 7, 8) });
+    assertEquals(4, seq.getDimension());
+    assertEquals(1, seq.getMeasures());
+    assertEquals(7.0, seq.getZ(1));
+    assertEquals(8.0, seq.getM(1));
+    assertTrue(seq.getCoordinate(1) instanceof CoordinateXYZM);
+  }
+
+  public void testNaN() {
+    QuantizedCoordinateSequence seq = (QuantizedCoordinateSequence) getCSFactory().create(
+        new Coordinate[] { new CoordinateXY(Double.NaN, Double.NaN) });
+    assertFalse(seq.isCompressed());
+    assertTrue(Double.isNaN(seq.getX(0)));
+  }
+
+  public void testCreateGeometry() throws ParseException {
+    Geometry geom = new WKTReader().read("LINESTRING (0.001 0, 1000.5 -20.25, -300 1e6, 0.001 0)");
+    GeometryFactory geomFact = new GeometryFactory(PM, 0, getCSFactory());
+    LineString line = (LineString) geomFact.createGeometry(geom);
+    assertTrue(line.getCoordinateSequence() instanceof QuantizedCoordinateSequence);
+    assertTrue(geom.equalsExact(line));
+    assertTrue(line.isClosed());
+  }
+
+  private static Coordinate[] createRandomWalk(int size, long seed) {
+    Random random = new Random(seed);
+    Coordinate[] pts = new Coordinate[size];
+    long x = 1000000;
+    long y = -500000;
+    for (int i = 0; i < size; i++) {
+      x += random.nextInt(200) - 100;
+      y += random.nextInt(200) - 100;
+      pts[i] = new Coordinate(x / PM.getScale(), y / PM.getScale(), i);
+    }
+    return pts;
+  }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2021 Martin Davis.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jts.geom.prep;
+
+import org.locationtech.jts.geom.Geometry;
+
+import junit.textui.TestRunner;
+import test.jts.GeometryTestCase;
+
+public class PreparedGeometryCacheTest extends GeometryTestCase {
+  public static void main(String args[]) {
+    TestRunner.run(PreparedGeometryCacheTest.class);
+  }
+
+  public PreparedGeometryCacheTest(String name) { super(name); }
+
+  public void testHit() {
+    PreparedGeometryCache cache = new PreparedGeometryCache(100);
+    Geometry poly = read("POLYGON ((0 0, 0 10, 10 10, 10 0, 0 0))");
+    PreparedGeometry pg = cache.prepare(poly);
+    assertSame(poly, pg.getGeometry());
+    assertSame(pg, cache.prepare(poly));
+    assertEquals(1, cache.getHitCount());
+    assertEquals(1, cache.getMissCount());
+    assertEquals(1, cache.size());
+    assertEquals(5, cache.getWeight());
+  }
+
+  public void testIdentityKey() {
+    PreparedGeometryCache cache = new PreparedGeometryCache(100);
+    Geometry poly1 = read("POLYGON ((0 0, 0 10, 10 10, 10 0, 0 0))");
+    Geometry poly2 = read("POLYGON ((0 0, 0 10, 10 10, 10 0, 0 0))");
+    PreparedGeometry pg1 = cache.prepare(poly1);
+    PreparedGeometry pg2 = cache.prepare(poly2);
+    assertNotSame(pg1, pg2);
+    assertSame(poly2, pg2.getGeometry());
+    assertEquals(2, cache.getMissCount());
+    assertEquals(2, cache.size());
+  }
+
+  public void testEvictLeastRecentlyUsed() {
+    PreparedGeometryCache cache = new PreparedGeometryCache(12);
+    Geometry poly1 = read("POLYGON ((0 0, 0 10, 10 10, 10 0, 0 0))");
+    Geometry poly2 = read("POLYGON ((20 0, 20 10, 30 10, 30 0, 20 0))");
+    Geometry poly3 = read("POLYGON ((40 0, 40 10, 50 10, 50 0, 40 0))");
+    cache.prepare(poly1);
+    cache.prepare(poly2);
+    //-- poly1 is now the most recently used
+    cache.prepare(poly1);
+    cache.prepare(poly3);
+    assertEquals(1, cache.getEvictionCount());
+    assertEquals(2, cache.size());
+    assertEquals(10, cache.getWeight());
+
+    cache.prepare(poly1);
+    assertEquals(2, cache.getHitCount());
+    cache.prepare(poly2);
+    assertEquals(4, cache.getMissCount());
+  }
+
+  public void testTooHeavyNotCached() {
+    PreparedGeometryCache cache = new PreparedGeometryCache(4);
+    Geometry poly = read("POLYGON ((0 0, 0 10, 10 10, 10 0, 0 0))");
+    PreparedGeometry pg = cache.prepare(poly);
+    assertTrue(pg.contains(read("POINT (5 5)")));
+    assertEquals(0, cache.size());
+    assertEquals(0, cache.getWeight());
+  }
+
+  public void testClear() {
+    PreparedGeometryCache cache = new PreparedGeometryCache(100);
+    cache.prepare(read("LINESTRING (0 0, 10 10)"));
+    cache.prepare(read("POINT (1 1)"));
+    assertEquals(3, cache.getWeight());
+    cache.clear();
+    assertEquals(0, cache.size());
+    assertEquals(0, cache.getWeight());
+  }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2021 Martin Davis.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jts.geom.prep;
+
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.operation.distance.DistanceOp;
+
+import junit.textui.TestRunner;
+import test.jts.GeometryTestCase;
+
+/**
+ * Tests the distance methods of {@link PreparedGeometry},
+ * checking that they agree with {@link DistanceOp}.
+ *
+ * @author Martin Davis
+ *
+ */
+public class PreparedGeometryDistanceTest extends GeometryTestCase {
+  public static void main(String args[]) {
+    TestRunner.run(PreparedGeometryDistanceTest.class);
+  }
+
+  public PreparedGeometryDistanceTest(String name) { super(name); }
+
+  private static final String POLY_WITH_HOLE = "POLYGON ((0 0, 0 9, 9 9, 9 0, 0 0), (2 2, 2 7, 7 7, 7 2, 2 2))";
+
+  public void testPolygonPointOutside() {
+    checkDistance(POLY_WITH_HOLE, "POINT (12 4)", 3);
+  }
+
+  public void testPolygonPointInHole() {
+    checkDistance(POLY_WITH_HOLE, "POINT (4 4)", 2);
+  }
+
+  public void testPolygonPointInterior() {
+    checkDistance(POLY_WITH_HOLE, "POINT (1 4)", 0);
+  }
+
+  public void testPolygonLineInterior() {
+    checkDistance(POLY_WITH_HOLE, "LINESTRING (1 1, 1 8)", 0);
+  }
+
+  public void testPolygonInPolygonHole() {
+    checkDistance(POLY_WITH_HOLE, "POLYGON ((3 3, 3 6, 6 6, 6 3, 3 3))", 1);
+  }
+
+  public void testPolygonInsideTestPolygon() {
+    checkDistance(POLY_WITH_HOLE, "POLYGON ((-1 -1, -1 10, 10 10, 10 -1, -1 -1))", 0);
+  }
+
+  public void testMultiPolygonComponentInterior() {
+    checkDistance(POLY_WITH_HOLE, "MULTIPOLYGON (((20 20, 20 21, 21 21, 21 20, 20 20)), ((0.5 0.5, 0.5 1, 1 1, 1 0.5, 0.5 0.5)))", 0);
+  }
+
+  public void testLineInsideTestPolygon() {
+    checkDistance("LINESTRING (1 1, 5 5)", "POLYGON ((0 0, 0 9, 9 9, 9 0, 0 0))", 0);
+  }
+
+  public void testLineLine() {
+    checkDistance("LINESTRING (0 0, 10 0)", "LINESTRING (5 3, 5 10)", 3);
+  }
+
+  public void testPointPoint() {
+    checkDistance("MULTIPOINT ((0 0), (10 10))", "POINT (6 10)", 4);
+  }
+
+  public void testEmptyComponent() {
+    String wktEmptyComp = "MULTIPOLYGON (EMPTY, ((98 200, 200 200, 200 99, 98 99, 98 200)))";
+    String wktPoly = "POLYGON ((300 200, 400 200, 400 100, 300 100, 300 200))";
+    checkDistance(wktEmptyComp, wktPoly, 100);
+    checkDistance(wktPoly, wktEmptyComp, 100);
+  }
+
+  public void testEmpty() {
+    PreparedGeometry pg = PreparedGeometryFactory.prepare(read(POLY_WITH_HOLE));
+    Geometry empty = read("POINT EMPTY");
+    assertEquals(0.0, pg.distance(empty));
+    assertFalse(pg.isWithinDistance(empty, 1));
+    assertNull(pg.nearestPoints(empty));
+    PreparedGeometry pgEmpty = PreparedGeometryFactory.prepare(read("POLYGON EMPTY"));
+    assertEquals(0.0, pgEmpty.distance(read("POINT (1 1)")));
+  }
+
+  public void testDefaultMethods() {
+    Geometry a = read(POLY_WITH_HOLE);
+    Geometry b = read("POINT (12 4)");
+    //-- an implementation relying on the default interface methods
+    PreparedGeometry pg = new PreparedGeometry() {
+      public Geometry getGeometry() { return a; }
+      public boolean contains(Geometry g) { return a.contains(g); }
+      public boolean containsProperly(Geometry g) { return a.relate(g, "T**FF*FF*"); }
+      public boolean coveredBy(Geometry g) { return a.coveredBy(g); }
+      public boolean covers(Geometry g) { return a.covers(g); }
+      public boolean crosses(Geometry g) { return a.crosses(g); }
+      public boolean disjoint(Geometry g) { return a.disjoint(g); }
+      public boolean intersects(Geometry g) { return a.intersects(g); }
+      public boolean overlaps(Geometry g) { return a.overlaps(g); }
+      public boolean touches(Geometry g) { return a.touches(g); }
+      public boolean within(Geometry g) { return a.within(g); }
+    };
+    assertEquals(3.0, pg.distance(b), 1e-10);
+    assertTrue(pg.isWithinDistance(b, 3));
+    assertFalse(pg.isWithinDistance(b, 2.9));
+    Coordinate[] pts = pg.nearestPoints(b);
+    assertEquals(3.0, pts[0].distance(pts[1]), 1e-10);
+    assertNull(pg.nearestPoints(read("POINT EMPTY")));
+  }
+
+  private void checkDistance(String wktA, String wktB, double expectedDistance) {
+    Geometry a = read(wktA);
+    Geometry b = read(wktB);
+    PreparedGeometry pa = PreparedGeometryFactory.prepare(a);
+
+    double dist = pa.distance(b);
+    assertEquals(expectedDistance, dist, 1e-10);
+    assertEquals(DistanceOp.distance(a, b), dist, 1e-10);
+
+    assertTrue(pa.isWithinDistance(b, expectedDistance));
+    assertTrue(pa.isWithinDistance(b, expectedDistance + 0.1));
+    assertFalse(pa.isWithinDistance(b, expectedDistance - 0.1));
+
+    Coordinate[] pts = pa.nearestPoints(b);
+    assertEquals(expectedDistance, pts[0].distance(pts[1]), 1e-10);
+    assertTrue(a.distance(a.getFactory().createPoint(pts[0])) < 1e-10);
+    assertTrue(b.distance(b.getFactory().createPoint(pts[1])) < 1e-10);
+  }
+}
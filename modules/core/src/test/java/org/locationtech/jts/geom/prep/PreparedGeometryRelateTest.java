@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2021 Martin Davis.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jts.geom.prep;
+
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.operation.relateng.RelateNG;
+import org.locationtech.jts.operation.relateng.RelatePredicate;
+
+import junit.textui.TestRunner;
+import test.jts.GeometryTestCase;
+
+/**
+ * Tests the DE-9IM methods of {@link PreparedGeometry},
+ * checking that they agree with the {@link Geometry} methods.
+ *
+ * @author Martin Davis
+ *
+ */
+public class PreparedGeometryRelateTest extends GeometryTestCase {
+  public static void main(String args[]) {
+    TestRunner.run(PreparedGeometryRelateTest.class);
+  }
+
+  public PreparedGeometryRelateTest(String name) { super(name); }
+
+  private static final String POLY_WITH_HOLE = "POLYGON ((0 0, 0 9, 9 9, 9 0, 0 0), (2 2, 2 7, 7 7, 7 2, 2 2))";
+
+  public void testPolygonLine() {
+    checkRelate(POLY_WITH_HOLE, "LINESTRING (1 1, 3 3)", "1020F1102");
+  }
+
+  public void testPolygonLineInside() {
+    checkRelate(POLY_WITH_HOLE, "LINESTRING (1 1, 1 8)", "102FF1FF2");
+  }
+
+  public void testPolygonPolygonTouchesHole() {
+    checkRelate(POLY_WITH_HOLE, "POLYGON ((2 2, 2 7, 7 7, 7 2, 2 2))", "FF2F112F2");
+  }
+
+  public void testPolygonPolygonOverlaps() {
+    checkRelate(POLY_WITH_HOLE, "POLYGON ((1 1, 1 3, 3 3, 3 1, 1 1))", "212101212");
+  }
+
+  public void testPolygonPolygonEqual() {
+    checkRelate(POLY_WITH_HOLE, "POLYGON ((9 9, 9 0, 0 0, 0 9, 9 9), (7 7, 7 2, 2 2, 2 7, 7 7))", "2FFF1FFF2");
+  }
+
+  public void testPolygonPointDisjoint() {
+    checkRelate(POLY_WITH_HOLE, "POINT (5 5)", "FF2FF10F2");
+  }
+
+  public void testLineLineCross() {
+    checkRelate("LINESTRING (0 0, 5 5)", "LINESTRING (0 5, 5 0)", "0F1FF0102");
+  }
+
+  public void testMultiPointLine() {
+    checkRelate("MULTIPOINT ((0 0), (2 2))", "LINESTRING (0 0, 5 5)", "00FFFF102");
+  }
+
+  public void testRepeatedEvaluation() {
+    PreparedGeometry pg = PreparedGeometryFactory.prepare(read(POLY_WITH_HOLE));
+    for (int i = 0; i < 10; i++) {
+      Geometry line = read("LINESTRING (" + i + " 1, " + i + " 8)");
+      assertEquals(pg.getGeometry().relate(line).toString(), pg.relate(line).toString());
+    }
+  }
+
+  /**
+   * By default relate and equalsTopo delegate to the base geometry
+   * (unless RelateNG is selected globally), so they agree with it
+   * even where the relate implementations differ.
+   */
+  public void testDefaultRelatePath() {
+    checkDefaultRelate("POINT (110 200)", "LINESTRING (110 200, 110 200)");
+    checkDefaultRelate("LINESTRING (110 200, 110 200)", "POINT (110 200)");
+    checkDefaultRelate(POLY_WITH_HOLE, "LINESTRING (1 1, 3 3)");
+  }
+
+  public void testRelateNGOption() {
+    checkRelateNG("POINT (110 200)", "LINESTRING (110 200, 110 200)");
+    checkRelateNG("LINESTRING (110 200, 110 200)", "POINT (110 200)");
+    checkRelateNG(POLY_WITH_HOLE, "LINESTRING (1 1, 3 3)");
+    checkRelateNG(POLY_WITH_HOLE, "POLYGON ((9 9, 9 0, 0 0, 0 9, 9 9), (7 7, 7 2, 2 2, 2 7, 7 7))");
+    checkRelateNG("MULTIPOINT ((0 0), (2 2))", "LINESTRING (0 0, 5 5)");
+  }
+
+  public void testDefaultMethods() {
+    Geometry a = read(POLY_WITH_HOLE);
+    Geometry b = read("LINESTRING (1 1, 3 3)");
+    PreparedGeometry pg = new DelegatingPreparedGeometry(a);
+    assertEquals("1020F1102", pg.relate(b).toString());
+    assertTrue(pg.relate(b, "1020F1102"));
+    assertFalse(pg.equalsTopo(b));
+  }
+
+  private void checkRelate(String wktA, String wktB, String expectedIM) {
+    Geometry a = read(wktA);
+    Geometry b = read(wktB);
+    PreparedGeometry pa = PreparedGeometryFactory.prepare(a);
+    assertEquals(expectedIM, pa.relate(b).toString());
+    assertEquals(a.relate(b).toString(), pa.relate(b).toString());
+    assertTrue(pa.relate(b, expectedIM));
+
+    assertEquals(a.contains(b), pa.contains(b));
+    assertEquals(a.relate(b, "T**FF*FF*"), pa.containsProperly(b));
+    assertEquals(a.coveredBy(b), pa.coveredBy(b));
+    assertEquals(a.covers(b), pa.covers(b));
+    assertEquals(a.crosses(b), pa.crosses(b));
+    assertEquals(a.disjoint(b), pa.disjoint(b));
+    assertEquals(a.equalsTopo(b), pa.equalsTopo(b));
+    assertEquals(a.intersects(b), pa.intersects(b));
+    assertEquals(a.overlaps(b), pa.overlaps(b));
+    assertEquals(a.touches(b), pa.touches(b));
+    assertEquals(a.within(b), pa.within(b));
+  }
+
+  private void checkDefaultRelate(String wktA, String wktB) {
+    Geometry a = read(wktA);
+    Geometry b = read(wktB);
+    PreparedGeometry pa = PreparedGeometryFactory.prepare(a);
+    assertEquals(a.relate(b).toString(), pa.relate(b).toString());
+    assertEquals(a.relate(b, "0********"), pa.relate(b, "0********"));
+    assertEquals(a.equalsTopo(b), pa.equalsTopo(b));
+  }
+
+  private void checkRelateNG(String wktA, String wktB) {
+    Geometry a = read(wktA);
+    Geometry b = read(wktB);
+    PreparedGeometryFactory factory = new PreparedGeometryFactory();
+    factory.setRelateNG(true);
+    PreparedGeometry pa = factory.create(a);
+    String expectedIM = RelateNG.relate(a, b).toString();
+    //-- repeated calls reuse the prepared state
+    for (int i = 0; i < 2; i++) {
+      assertEquals(expectedIM, pa.relate(b).toString());
+      assertTrue(pa.relate(b, expectedIM));
+      assertEquals(RelateNG.relate(a, b, RelatePredicate.equalsTopo()), pa.equalsTopo(b));
+      assertEquals(RelateNG.relate(a, b, RelatePredicate.contains()), pa.contains(b));
+      assertEquals(RelateNG.relate(a, b, RelatePredicate.touches()), pa.touches(b));
+    }
+  }
+
+  /**
+   * A minimal implementation, as might be provided by client code,
+   * which relies on the default interface methods.
+   */
+  private static class DelegatingPreparedGeometry implements PreparedGeometry {
+    private Geometry geom;
+
+    DelegatingPreparedGeometry(Geometry geom) {
+      this.geom = geom;
+    }
+
+    public Geometry getGeometry() { return geom; }
+    public boolean contains(Geometry g) { return geom.contains(g); }
+    public boolean containsProperly(Geometry g) { return geom.relate(g, "T**FF*FF*"); }
+    public boolean coveredBy(Geometry g) { return geom.coveredBy(g); }
+    public boolean covers(Geometry g) { return geom.covers(g); }
+    public boolean crosses(Geometry g) { return geom.crosses(g); }
+    public boolean disjoint(Geometry g) { return geom.disjoint(g); }
+    public boolean intersects(Geometry g) { return geom.intersects(g); }
+    public boolean overlaps(Geometry g) { return geom.overlaps(g); }
+    public boolean touches(Geometry g) { return geom.touches(g); }
+    public boolean within(Geometry g) { return geom.within(g); }
+  }
+}
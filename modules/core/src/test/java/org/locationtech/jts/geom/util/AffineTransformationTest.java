@@ -15,7 +15,13 @@ package org.locationtech.jts.geom.util;
 import java.io.IOException;
 
 import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.CoordinateSequenceFactory;
 import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.impl.BufferCoordinateSequenceFactory;
+import org.locationtech.jts.geom.impl.CoordinateArraySequenceFactory;
+import org.locationtech.jts.geom.impl.PackedCoordinateSequenceFactory;
 import org.locationtech.jts.io.ParseException;
 import org.locationtech.jts.io.WKTReader;
 
@@ -218,6 +224,76 @@ public class AffineTransformationTest
     checkTransformation(t0, t1);
   }
   
+  public void testBulkPackedDouble() throws ParseException
+  {
+    checkBulk(PackedCoordinateSequenceFactory.DOUBLE_FACTORY);
+  }
+  
+  public void testBulkPackedFloat() throws ParseException
+  {
+    checkBulk(PackedCoordinateSequenceFactory.FLOAT_FACTORY);
+  }
+  
+  public void testBulkCoordinateArray() throws ParseException
+  {
+    checkBulk(CoordinateArraySequenceFactory.instance());
+  }
+  
+  public void testBulkOther() throws ParseException
+  {
+    checkBulk(BufferCoordinateSequenceFactory.instance());
+  }
+  
+  public void testBulkPackedCachedCoordinates()
+  {
+    CoordinateSequence seq = PackedCoordinateSequenceFactory.DOUBLE_FACTORY.create(
+        new double[] { 0, 0, 10, 10, 20, 0 }, 2);
+    // populate the coordinate cache
+    seq.toCoordinateArray();
+    AffineTransformation.translationInstance(5, 1).transform(seq);
+    assertEquals(25.0, seq.toCoordinateArray()[2].x);
+    assertEquals(1.0, seq.getCoordinate(2).y);
+  }
+  
+  public void testParallel() throws ParseException
+  {
+    GeometryFactory geomFact = new GeometryFactory();
+    Geometry[] lines = new Geometry[20];
+    for (int i = 0; i < lines.length; i++) {
+      Coordinate[] pts = new Coordinate[2000];
+      for (int j = 0; j < pts.length; j++) {
+        pts[j] = new Coordinate(i, j);
+      }
+      lines[i] = geomFact.createLineString(pts);
+    }
+    Geometry geom = geomFact.createGeometryCollection(lines);
+    AffineTransformation trans = AffineTransformation.rotationInstance(1.0, 10, 10);
+    Geometry expected = geom.copy();
+    expected.apply(trans);
+    Geometry result = trans.transform(geom, true);
+    assertTrue(expected.equalsExact(result));
+    assertEquals(expected.getEnvelopeInternal(), result.getEnvelopeInternal());
+  }
+  
+  /**
+   * Checks that bulk transformation of geometries using a given sequence type
+   * gives the same result as transforming each coordinate individually.
+   */
+  void checkBulk(CoordinateSequenceFactory csFactory) throws ParseException
+  {
+    WKTReader reader = new WKTReader(new GeometryFactory(csFactory));
+    Geometry geom = reader.read("GEOMETRYCOLLECTION (POINT (1 1), LINESTRING (0 0, 10 10), POLYGON ((0 0, 100 0, 100 100, 0 100, 0 0), (10 10, 20 10, 20 20, 10 10)))");
+    AffineTransformation trans = AffineTransformation.rotationInstance(Math.PI / 3, 7, 3);
+    trans.scale(2, 0.5);
+    Geometry expected = geom.copy();
+    expected.apply(trans);
+    Geometry result = trans.transform(geom);
+    assertTrue(expected.equalsExact(result));
+    assertEquals(expected.getEnvelopeInternal(), result.getEnvelopeInternal());
+    // input is not changed
+    assertEquals(1.0, geom.getGeometryN(0).getCoordinate().x);
+  }
+  
   /**
    * Checks that a transformation produces the expected result
    * @param x the input pt x
@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2021 Martin Davis.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jts.geom.util;
+
+import org.locationtech.jts.geom.Geometry;
+
+import junit.textui.TestRunner;
+import test.jts.GeometryTestCase;
+
+public class GeometryFingerprintTest extends GeometryTestCase {
+
+  public static void main(String args[]) {
+    TestRunner.run(GeometryFingerprintTest.class);
+  }
+
+  public GeometryFingerprintTest(String name) {
+    super(name);
+  }
+
+  public void testPoint() {
+    checkExact("POINT (1 2)", "POINT (1 2)");
+    checkDifferent("POINT (1 2)", "POINT (2 1)");
+    checkDifferent("POINT (1 2)", "POINT EMPTY");
+    checkExact("POINT (0 0)", "POINT (-0.0 0)");
+  }
+
+  public void testLineString() {
+    checkExact("LINESTRING (0 0, 10 10, 20 0)", "LINESTRING (0 0, 10 10, 20 0)");
+    checkExact("LINESTRING (0 0, 10 10, 20 0, 0 0)", "LINEARRING (0 0, 10 10, 20 0, 0 0)");
+    checkNorm("LINESTRING (0 0, 10 10, 20 0)", "LINESTRING (20 0, 10 10, 0 0)");
+    checkDifferent("LINESTRING (0 0, 10 10, 20 0)", "LINESTRING (0 0, 10 10, 20 1)");
+    checkDifferent("LINESTRING (0 0, 10 10, 20 0)", "MULTIPOINT ((0 0), (10 10), (20 0))");
+  }
+
+  public void testIgnoresZ() {
+    checkExact("LINESTRING Z (0 0 1, 10 10 2)", "LINESTRING Z (0 0 3, 10 10 4)");
+  }
+
+  public void testPolygon() {
+    checkNorm("POLYGON ((0 0, 0 10, 10 10, 10 0, 0 0))",
+        "POLYGON ((10 10, 0 10, 0 0, 10 0, 10 10))");
+    checkNorm("POLYGON ((0 0, 0 10, 10 10, 10 0, 0 0), (1 1, 2 1, 2 2, 1 1), (5 5, 6 5, 6 6, 5 5))",
+        "POLYGON ((0 0, 10 0, 10 10, 0 10, 0 0), (5 5, 6 6, 6 5, 5 5), (2 1, 2 2, 1 1, 2 1))");
+    checkDifferent("POLYGON ((0 0, 0 10, 10 10, 10 0, 0 0))",
+        "POLYGON ((0 0, 0 10, 10 10, 11 0, 0 0))");
+    checkDifferent("POLYGON ((0 0, 0 10, 10 10, 10 0, 0 0), (1 1, 2 1, 2 2, 1 1))",
+        "POLYGON ((0 0, 0 10, 10 10, 10 0, 0 0))");
+  }
+
+  public void testCollection() {
+    checkNorm("MULTIPOINT ((1 1), (2 2), (3 3))", "MULTIPOINT ((3 3), (1 1), (2 2))");
+    checkNorm("MULTIPOLYGON (((0 0, 0 1, 1 1, 0 0)), ((5 5, 5 6, 6 6, 5 5)))",
+        "MULTIPOLYGON (((5 5, 6 6, 5 6, 5 5)), ((0 0, 0 1, 1 1, 0 0)))");
+    checkNorm("GEOMETRYCOLLECTION (POINT (1 1), LINESTRING (0 0, 1 1))",
+        "GEOMETRYCOLLECTION (LINESTRING (1 1, 0 0), POINT (1 1))");
+    checkDifferent("MULTIPOINT ((1 1), (2 2))", "MULTIPOINT ((1 1), (2 2), (2 2))");
+    checkDifferent("MULTIPOINT ((1 1), (2 2))", "GEOMETRYCOLLECTION (POINT (1 1), POINT (2 2))");
+  }
+
+  public void testEmpty() {
+    checkExact("POLYGON EMPTY", "POLYGON EMPTY");
+    checkDifferent("POLYGON EMPTY", "LINESTRING EMPTY");
+    checkDifferent("MULTIPOLYGON EMPTY", "GEOMETRYCOLLECTION EMPTY");
+  }
+
+  public void testMatchesEqualsNorm() {
+    Geometry geom = read("MULTIPOLYGON (((20 20, 30 20, 20 30, 20 20)), ((10 10, 10 0, 0 0, 0 10, 10 10), (1 1, 2 2, 2 1, 1 1)))");
+    Geometry norm = geom.norm();
+    assertTrue(geom.equalsNorm(norm));
+    assertEquals(geom.fingerprintNorm(), norm.fingerprintNorm());
+    assertFalse(geom.fingerprint() == norm.fingerprint());
+  }
+
+  public void testStable() {
+    // fingerprints must not change between releases, since they may be persisted
+    Geometry geom = read("POLYGON ((0 0, 0 10, 10 10, 10 0, 0 0), (1 1, 2 1, 2 2, 1 1))");
+    assertEquals(-7077413753038973660L, GeometryFingerprint.fingerprint(geom));
+    assertEquals(2971841369951143358L, GeometryFingerprint.fingerprintNorm(geom));
+  }
+
+  /**
+   * Checks that geometries are exactly equal and have the same fingerprints.
+   */
+  private void checkExact(String wkt1, String wkt2) {
+    Geometry g1 = read(wkt1);
+    Geometry g2 = read(wkt2);
+    assertTrue(g1.equalsExact(g2));
+    assertEquals(g1.fingerprint(), g2.fingerprint());
+    assertEquals(g1.fingerprintNorm(), g2.fingerprintNorm());
+  }
+
+  /**
+   * Checks that geometries are equal only in normalized form,
+   * and have the same normalized fingerprints.
+   */
+  private void checkNorm(String wkt1, String wkt2) {
+    Geometry g1 = read(wkt1);
+    Geometry g2 = read(wkt2);
+    assertFalse(g1.equalsExact(g2));
+    assertTrue(g1.equalsNorm(g2));
+    assertFalse(g1.fingerprint() == g2.fingerprint());
+    assertEquals(g1.fingerprintNorm(), g2.fingerprintNorm());
+  }
+
+  private void checkDifferent(String wkt1, String wkt2) {
+    Geometry g1 = read(wkt1);
+    Geometry g2 = read(wkt2);
+    assertFalse(g1.fingerprint() == g2.fingerprint());
+    assertFalse(g1.fingerprintNorm() == g2.fingerprintNorm());
+  }
+}
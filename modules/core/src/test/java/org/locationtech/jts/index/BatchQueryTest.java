@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2021 Martin Davis.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jts.index;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.index.hprtree.HPRtree;
+import org.locationtech.jts.index.quadtree.Quadtree;
+import org.locationtech.jts.index.strtree.STRtree;
+
+import junit.framework.TestCase;
+import junit.textui.TestRunner;
+
+public class BatchQueryTest extends TestCase {
+
+  public static void main(String args[]) {
+    TestRunner.run(BatchQueryTest.class);
+  }
+
+  public BatchQueryTest(String name) {
+    super(name);
+  }
+
+  public void testSTRtree() {
+    checkBatch(new STRtree(), null);
+  }
+
+  public void testHPRtree() {
+    checkBatch(new HPRtree(), null);
+  }
+
+  public void testQuadtree() {
+    checkBatch(new Quadtree(), null);
+  }
+
+  public void testSTRtreeParallel() {
+    checkBatchParallel(new STRtree());
+  }
+
+  public void testHPRtreeParallel() {
+    checkBatchParallel(new HPRtree());
+  }
+
+  public void testQuadtreeParallel() {
+    checkBatchParallel(new Quadtree());
+  }
+
+  public void testEmptyBatch() {
+    BatchQuery batch = new BatchQuery(new STRtree());
+    assertEquals(0, batch.query(new Envelope[0]).length);
+  }
+
+  private void checkBatchParallel(SpatialIndex index) {
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      checkBatch(index, pool);
+    }
+    finally {
+      pool.shutdown();
+    }
+  }
+
+  private void checkBatch(SpatialIndex index, ForkJoinPool pool) {
+    Random random = new Random(5);
+    for (int i = 0; i < 10000; i++) {
+      Envelope env = randomEnvelope(random, 1);
+      index.insert(env, env);
+    }
+    Envelope[] queryEnvs = new Envelope[2000];
+    for (int i = 0; i < queryEnvs.length; i++) {
+      queryEnvs[i] = randomEnvelope(random, 10);
+    }
+
+    BatchQuery batch = new BatchQuery(index);
+    batch.setPool(pool);
+    List[] results = batch.query(queryEnvs);
+
+    final List[] visited = new List[queryEnvs.length];
+    for (int i = 0; i < visited.length; i++) {
+      visited[i] = new ArrayList();
+    }
+    batch.query(queryEnvs, new BatchItemVisitor() {
+      public void visitItem(int queryIndex, Object item) {
+        // each query is executed by a single thread
+        visited[queryIndex].add(item);
+      }
+    });
+
+    for (int i = 0; i < queryEnvs.length; i++) {
+      List expected = index.query(queryEnvs[i]);
+      assertEquals(expected, results[i]);
+      assertEquals(expected, visited[i]);
+    }
+  }
+
+  private static Envelope randomEnvelope(Random random, double size) {
+    double x = random.nextDouble() * 1000;
+    double y = random.nextDouble() * 1000;
+    return new Envelope(x, x + random.nextDouble() * size, y, y + random.nextDouble() * size);
+  }
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2019 Martin Davis.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jts.index.hprtree;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.index.strtree.GeometryDistanceComparator;
+import org.locationtech.jts.index.strtree.GeometryItemDistance;
+import org.locationtech.jts.index.strtree.STRtree;
+
+import test.jts.GeometryTestCase;
+
+public class HPRtreeNearestNeighbourTest extends GeometryTestCase {
+
+  private static final String POINTS_B = "MULTIPOINT( 5 5, 15 15, 5 15, 15 5, 8 8)";
+  private static final String POINTS_A = "MULTIPOINT( 0 0, 10 10, 0 10, 10 0, 9 9)";
+
+  public HPRtreeNearestNeighbourTest(String name) {
+    super(name);
+  }
+
+  public static void main(String[] args) {
+    String[] testCaseName = { HPRtreeNearestNeighbourTest.class.getName() };
+    junit.textui.TestRunner.main(testCaseName);
+  }
+
+  public void testNearestNeighboursEmpty() {
+    HPRtree tree = new HPRtree();
+    assertNull(tree.nearestNeighbour(new GeometryItemDistance()));
+    assertNull(tree.nearestNeighbour(new Envelope(0, 1, 0, 1), read("POINT (0 0)"), new GeometryItemDistance()));
+    assertFalse(tree.isWithinDistance(new Envelope(0, 1, 0, 1), read("POINT (0 0)"), new GeometryItemDistance(), 100));
+  }
+
+  public void testNearestNeighbours() {
+    checkNN(POINTS_A, "MULTIPOINT(9 9, 10 10)");
+  }
+
+  public void testNearestNeighbourSingleItem() {
+    checkNN("POINT( 5 5 )", null);
+  }
+
+  public void testNearestNeighbours2() {
+    checkNN(POINTS_A, POINTS_B, "POINT( 9 9 )", "POINT( 8 8 )");
+  }
+
+  public void testWithinDistance() {
+    checkWithinDistance(POINTS_A, POINTS_B, 2, true);
+    checkWithinDistance(POINTS_A, POINTS_B, 1, false);
+  }
+
+  public void testWithinDistanceItem() {
+    HPRtree tree = createTree(read(POINTS_A));
+    Geometry query = read("POINT (5 5)");
+    GeometryItemDistance dist = new GeometryItemDistance();
+    assertTrue(tree.isWithinDistance(query.getEnvelopeInternal(), query, dist, 5.7));
+    assertFalse(tree.isWithinDistance(query.getEnvelopeInternal(), query, dist, 5.6));
+  }
+
+  public void testNearestNeighbourManyTrees() {
+    Random random = new Random(13);
+    List<Geometry> points1 = randomPoints(random, 500);
+    List<Geometry> points2 = randomPoints(random, 700);
+    HPRtree hpr1 = createTree(points1);
+    HPRtree hpr2 = createTree(points2);
+    STRtree str1 = createSTRtree(points1);
+    STRtree str2 = createSTRtree(points2);
+
+    GeometryItemDistance dist = new GeometryItemDistance();
+    Object[] nnHPR = hpr1.nearestNeighbour(hpr2, dist);
+    Object[] nnSTR = str1.nearestNeighbour(str2, dist);
+    assertEquals(((Geometry) nnSTR[0]).distance((Geometry) nnSTR[1]),
+        ((Geometry) nnHPR[0]).distance((Geometry) nnHPR[1]), 0.0);
+  }
+
+  public void testKNearestNeighbors() {
+    int topK = 100;
+    Random random = new Random(17);
+    List<Geometry> points = randomPoints(random, 5000);
+    Point queryPt = getGeometryFactory().createPoint(new Coordinate(10.1, -10.1));
+    HPRtree tree = createTree(points);
+
+    Object[] nn = tree.nearestNeighbour(queryPt.getEnvelopeInternal(), queryPt,
+        new GeometryItemDistance(), topK);
+    assertEquals(topK, nn.length);
+
+    GeometryDistanceComparator comp = new GeometryDistanceComparator(queryPt, true);
+    List<Geometry> expected = new ArrayList<Geometry>(points);
+    Collections.sort(expected, comp);
+    for (int i = 0; i < topK; i++) {
+      // results are ordered by increasing distance
+      assertEquals(0, comp.compare(expected.get(i), (Geometry) nn[i]));
+    }
+  }
+
+  public void testKNearestNeighborsFewItems() {
+    HPRtree tree = createTree(read(POINTS_A));
+    Geometry query = read("POINT (1 1)");
+    Object[] nn = tree.nearestNeighbour(query.getEnvelopeInternal(), query, new GeometryItemDistance(), 10);
+    assertEquals(5, nn.length);
+    checkEqual(read("POINT (0 0)"), (Geometry) nn[0]);
+  }
+
+  private void checkNN(String wktItems, String wktExpected) {
+    HPRtree tree = createTree(read(wktItems));
+    Object[] nearest = tree.nearestNeighbour(new GeometryItemDistance());
+    if (wktExpected == null) {
+      assertNull(nearest);
+      return;
+    }
+    Geometry expected = read(wktExpected);
+    assertTrue(isEqual(nearest, expected.getGeometryN(0), expected.getGeometryN(1))
+        || isEqual(nearest, expected.getGeometryN(1), expected.getGeometryN(0)));
+  }
+
+  private void checkNN(String wktItems1, String wktItems2,
+      String wktExpected1, String wktExpected2) {
+    HPRtree tree1 = createTree(read(wktItems1));
+    HPRtree tree2 = createTree(read(wktItems2));
+    Object[] nearest = tree1.nearestNeighbour(tree2, new GeometryItemDistance());
+    assertTrue(isEqual(nearest, read(wktExpected1), read(wktExpected2)));
+  }
+
+  private void checkWithinDistance(String wktItems1, String wktItems2,
+      double distance, boolean expected) {
+    HPRtree tree1 = createTree(read(wktItems1));
+    HPRtree tree2 = createTree(read(wktItems2));
+    boolean result = tree1.isWithinDistance(tree2, new GeometryItemDistance(), distance);
+    assertEquals(expected, result);
+  }
+
+  private boolean isEqual(Object[] items, Geometry g1, Geometry g2) {
+    return g1.equalsExact((Geometry) items[0])
+        && g2.equalsExact((Geometry) items[1]);
+  }
+
+  private List<Geometry> randomPoints(Random random, int n) {
+    List<Geometry> points = new ArrayList<Geometry>();
+    for (int i = 0; i < n; i++) {
+      Coordinate p = new Coordinate(-100 + random.nextInt(1000) * 1.1, random.nextInt(1000) * (-5.1));
+      points.add(getGeometryFactory().createPoint(p));
+    }
+    return points;
+  }
+
+  private HPRtree createTree(Geometry items) {
+    List<Geometry> list = new ArrayList<Geometry>();
+    for (int i = 0; i < items.getNumGeometries(); i++) {
+      list.add(items.getGeometryN(i));
+    }
+    return createTree(list);
+  }
+
+  private HPRtree createTree(List<Geometry> items) {
+    HPRtree tree = new HPRtree(4);
+    for (Geometry item : items) {
+      tree.insert(item.getEnvelopeInternal(), item);
+    }
+    return tree;
+  }
+
+  private STRtree createSTRtree(List<Geometry> items) {
+    STRtree tree = new STRtree();
+    for (Geometry item : items) {
+      tree.insert(item.getEnvelopeInternal(), item);
+    }
+    return tree;
+  }
+}
@@ -12,11 +12,15 @@
  */
 package org.locationtech.jts.index.hprtree;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Random;
 
 import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.EnvelopeArray;
 import org.locationtech.jts.geom.Geometry;
 import org.locationtech.jts.geom.GeometryFactory;
 import org.locationtech.jts.index.ItemVisitor;
@@ -143,6 +147,181 @@ public class HPRtreeTest extends TestCase {
     queryGrid( 100, new HPRtree(2) );
   }
 
+  public void testQueryItemIds() {
+    HPRtree t = new HPRtree(4);
+    for (int i = 0; i < 100; i++ ) {
+      t.insertItemId(new Envelope(i, i+1, i, i+1), 1000 + i);
+    }
+    final List<Integer> ids = new ArrayList<Integer>();
+    t.queryItemIds(new Envelope(5, 6, 5, 6), new ItemIdVisitor() {
+      public void visitItem(int itemId) {
+        ids.add(itemId);
+      }
+    });
+    Collections.sort(ids);
+    assertEquals(Arrays.asList(1004, 1005, 1006), ids);
+    // object query returns boxed ids
+    assertEquals(3, t.query(new Envelope(5, 6, 5, 6)).size());
+  }
+
+  public void testDisallowedMixedInserts() {
+    HPRtree t = new HPRtree();
+    t.insert(new Envelope(0, 0, 0, 0), new Object());
+    try {
+      t.insertItemId(new Envelope(0, 0, 0, 0), 1);
+      fail();
+    }
+    catch (IllegalStateException e) {
+      // expected
+    }
+  }
+
+  public void testParallelBuildIdentical() {
+    Random random = new Random(11);
+    HPRtree serial = new HPRtree();
+    HPRtree parallel = new HPRtree();
+    parallel.setParallelBuild(true);
+    for (int i = 0; i < 100000; i++) {
+      double x = random.nextDouble() * 1000;
+      double y = random.nextDouble() * 1000;
+      Envelope env = new Envelope(x, x + random.nextDouble(), y, y + random.nextDouble());
+      serial.insertItemId(env, i);
+      parallel.insertItemId(env, i);
+    }
+    serial.build();
+    parallel.build();
+    assertTrue(Arrays.equals(serial.getBounds(), parallel.getBounds()));
+    for (int i = 0; i < serial.size(); i++) {
+      assertEquals(serial.getItem(i), parallel.getItem(i));
+    }
+  }
+
+  public void testInsertEnvelopeArray() {
+    Random random = new Random(13);
+    HPRtree tree = new HPRtree();
+    HPRtree arrayTree = new HPRtree();
+    EnvelopeArray envs = new EnvelopeArray();
+    Object[] items = new Object[1000];
+    for (int i = 0; i < items.length; i++) {
+      double x = random.nextDouble() * 100;
+      double y = random.nextDouble() * 100;
+      Envelope env = new Envelope(x, x + random.nextDouble(), y, y + random.nextDouble());
+      items[i] = i;
+      tree.insert(env, items[i]);
+      envs.add(env);
+    }
+    arrayTree.insert(envs, items);
+    tree.build();
+    arrayTree.build();
+    assertEquals(tree.size(), arrayTree.size());
+    assertTrue(Arrays.equals(tree.getBounds(), arrayTree.getBounds()));
+    for (int i = 0; i < 20; i++) {
+      Envelope queryEnv = new Envelope(5 * i, 5 * i + 10, 50, 60);
+      List expected = tree.query(queryEnv);
+      List actual = arrayTree.query(queryEnv);
+      assertEquals(expected.size(), actual.size());
+      assertTrue(actual.containsAll(expected));
+    }
+  }
+
+  public void testInsertItemIdsEnvelopeArray() {
+    EnvelopeArray envs = new EnvelopeArray();
+    for (int i = 0; i < 100; i++ ) {
+      envs.add(i, i, i+1, i+1);
+    }
+    HPRtree t = new HPRtree(4);
+    t.insertItemIds(envs);
+    final List<Integer> ids = new ArrayList<Integer>();
+    t.queryItemIds(new Envelope(5, 6, 5, 6), new ItemIdVisitor() {
+      public void visitItem(int itemId) {
+        ids.add(itemId);
+      }
+    });
+    Collections.sort(ids);
+    assertEquals(Arrays.asList(4, 5, 6), ids);
+  }
+
+  public void testInsertEnvelopeArrayNull() {
+    EnvelopeArray envs = new EnvelopeArray();
+    envs.add(0, 0, 0.1, 0.1);
+    envs.add(new Envelope());
+    envs.add(0.5, 0.5, 1, 1);
+    HPRtree t = new HPRtree();
+    t.insert(envs, new Object[] { "a", "null", "b" });
+    assertEquals(2, t.size());
+    assertTrue(t.query(new Envelope(0.2, 0.3, 0.2, 0.3)).isEmpty());
+    assertEquals(Arrays.asList("a"), t.query(new Envelope(0, 0.05, 0, 0.05)));
+    assertEquals(Arrays.asList("b"), t.query(new Envelope(0.6, 0.7, 0.6, 0.7)));
+  }
+
+  public void testInsertItemIdsEnvelopeArrayNull() {
+    EnvelopeArray envs = new EnvelopeArray();
+    envs.add(0, 0, 0.1, 0.1);
+    envs.add(new Envelope());
+    envs.add(0.5, 0.5, 1, 1);
+    HPRtree t = new HPRtree();
+    t.insertItemIds(envs);
+    assertEquals(2, t.size());
+    assertTrue(queryIds(t, new Envelope(0.2, 0.3, 0.2, 0.3)).isEmpty());
+    assertEquals(Arrays.asList(0, 2), queryIds(t, new Envelope(0, 1, 0, 1)));
+  }
+
+  public void testInsertItemIdsEnvelopeArrayMultiple() {
+    EnvelopeArray envs1 = new EnvelopeArray();
+    envs1.add(0, 0, 1, 1);
+    envs1.add(2, 2, 3, 3);
+    EnvelopeArray envs2 = new EnvelopeArray();
+    envs2.add(10, 10, 11, 11);
+    envs2.add(12, 12, 13, 13);
+    HPRtree t = new HPRtree();
+    t.insertItemIds(envs1);
+    t.insertItemIds(envs2);
+    assertEquals(Arrays.asList(0, 1), queryIds(t, new Envelope(0, 5, 0, 5)));
+    assertEquals(Arrays.asList(2, 3), queryIds(t, new Envelope(10, 15, 10, 15)));
+  }
+
+  public void testInsertItemIdsEnvelopeArrayExplicit() {
+    EnvelopeArray envs = new EnvelopeArray();
+    envs.add(0, 0, 1, 1);
+    envs.add(new Envelope());
+    envs.add(2, 2, 3, 3);
+    HPRtree t = new HPRtree();
+    t.insertItemIds(envs, new int[] { 7, 8, 9 });
+    assertEquals(Arrays.asList(7, 9), queryIds(t, new Envelope(0, 5, 0, 5)));
+  }
+
+  public void testInsertItemIdsMixed() {
+    EnvelopeArray envs1 = new EnvelopeArray();
+    envs1.add(0, 0, 1, 1);
+    envs1.add(2, 2, 3, 3);
+    EnvelopeArray envs2 = new EnvelopeArray();
+    envs2.add(10, 10, 11, 11);
+    envs2.add(12, 12, 13, 13);
+    EnvelopeArray envs3 = new EnvelopeArray();
+    envs3.add(20, 20, 21, 21);
+    HPRtree t = new HPRtree();
+    t.insertItemId(new Envelope(4, 5, 4, 5), 0);
+    t.insertItemIds(envs1);
+    t.insertItemIds(envs2, new int[] { 5, 3 });
+    t.insertItemIds(envs3);
+    t.insertItemId(new Envelope(30, 31, 30, 31), 7);
+    assertEquals(Arrays.asList(0, 1, 2), queryIds(t, new Envelope(0, 5, 0, 5)));
+    assertEquals(Arrays.asList(3, 5), queryIds(t, new Envelope(10, 15, 10, 15)));
+    assertEquals(Arrays.asList(6), queryIds(t, new Envelope(20, 25, 20, 25)));
+    assertEquals(Arrays.asList(0, 1, 2, 3, 5, 6, 7), queryIds(t, new Envelope(0, 40, 0, 40)));
+  }
+
+  private static List<Integer> queryIds(HPRtree t, Envelope env) {
+    final List<Integer> ids = new ArrayList<Integer>();
+    t.queryItemIds(env, new ItemIdVisitor() {
+      public void visitItem(int itemId) {
+        ids.add(itemId);
+      }
+    });
+    Collections.sort(ids);
+    return ids;
+  }
+
   private void queryGrid(int size, HPRtree t) {
     for (int i = 0; i < size; i++ ) {
       t.insert(new Envelope(i, i+1, i, i+1), i);
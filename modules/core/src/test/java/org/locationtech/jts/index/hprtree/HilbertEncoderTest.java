@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2021 Martin Davis.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jts.index.hprtree;
+
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.shape.fractal.HilbertCode;
+
+import junit.framework.TestCase;
+import junit.textui.TestRunner;
+
+public class HilbertEncoderTest extends TestCase {
+
+  public static void main(String args[]) {
+    TestRunner.run(HilbertEncoderTest.class);
+  }
+
+  public HilbertEncoderTest(String name) {
+    super(name);
+  }
+
+  private static final int LEVEL = 4;
+
+  /**
+   * An extent with different X and Y origins
+   * checks that the Y origin is the minimum Y of the extent.
+   */
+  public void testOffsetExtent() {
+    HilbertEncoder encoder = new HilbertEncoder(LEVEL, new Envelope(1000, 1015, 0, 15));
+    checkEncode(encoder, 1000, 0, 0, 0);
+    checkEncode(encoder, 1015, 15, 15, 15);
+    checkEncode(encoder, 1003, 12, 3, 12);
+  }
+
+  public void testNegativeYExtent() {
+    HilbertEncoder encoder = new HilbertEncoder(LEVEL, new Envelope(0, 15, -115, -100));
+    checkEncode(encoder, 0, -115, 0, 0);
+    checkEncode(encoder, 7, -101, 7, 14);
+  }
+
+  private void checkEncode(HilbertEncoder encoder, double x, double y, int cellX, int cellY) {
+    int expected = HilbertCode.encode(LEVEL, cellX, cellY);
+    assertEquals(expected, encoder.encode(new Envelope(x, x, y, y)));
+  }
+}
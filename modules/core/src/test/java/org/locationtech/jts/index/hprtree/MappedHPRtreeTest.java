@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2021 Martin Davis.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jts.index.hprtree;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.locationtech.jts.geom.Envelope;
+
+import junit.framework.TestCase;
+
+public class MappedHPRtreeTest extends TestCase {
+
+  public static void main(String[] args) {
+    junit.textui.TestRunner.run(MappedHPRtreeTest.class);
+  }
+
+  public MappedHPRtreeTest(String name) {
+    super(name);
+  }
+
+  public void testEmpty() throws IOException {
+    MappedHPRtree mapped = writeAndRead(new HPRtree());
+    assertEquals(0, mapped.size());
+    assertTrue(mapped.query(new Envelope(0, 10, 0, 10)).isEmpty());
+  }
+
+  public void testSmall() throws IOException {
+    checkQueries(createTree(10, 16), 100);
+  }
+
+  public void testLarge() throws IOException {
+    checkQueries(createTree(10000, 16), 500);
+  }
+
+  public void testLargeCapacity4() throws IOException {
+    checkQueries(createTree(5000, 4), 500);
+  }
+
+  public void testMappedFile() throws IOException {
+    HPRtree tree = createTree(5000, 16);
+    File file = File.createTempFile("hprtree", ".bin");
+    file.deleteOnExit();
+    FileOutputStream os = new FileOutputStream(file);
+    try {
+      MappedHPRtree.write(tree, os);
+    }
+    finally {
+      os.close();
+    }
+    MappedHPRtree mapped = MappedHPRtree.open(file);
+    assertEquals(tree.size(), mapped.size());
+    checkSameQueries(tree, mapped, 200);
+  }
+
+  public void testObjectItemsNotWritable() throws IOException {
+    HPRtree tree = new HPRtree();
+    tree.insert(new Envelope(0, 1, 0, 1), "A");
+    try {
+      MappedHPRtree.write(tree, new ByteArrayOutputStream());
+      fail();
+    }
+    catch (IllegalArgumentException e) {
+      // expected
+    }
+  }
+
+  public void testInvalidBuffer() {
+    try {
+      new MappedHPRtree(ByteBuffer.wrap(new byte[100]));
+      fail();
+    }
+    catch (IllegalArgumentException e) {
+      // expected
+    }
+  }
+
+  private void checkQueries(HPRtree tree, int numQueries) throws IOException {
+    MappedHPRtree mapped = writeAndRead(tree);
+    assertEquals(tree.size(), mapped.size());
+    checkSameQueries(tree, mapped, numQueries);
+  }
+
+  private void checkSameQueries(HPRtree tree, MappedHPRtree mapped, int numQueries) {
+    Random random = new Random(21);
+    for (int i = 0; i < numQueries; i++) {
+      double x = random.nextDouble() * 1000;
+      double y = random.nextDouble() * 1000;
+      Envelope env = new Envelope(x, x + random.nextDouble() * 50, y, y + random.nextDouble() * 50);
+      List expected = tree.query(env);
+      List actual = mapped.query(env);
+      Collections.sort(expected);
+      Collections.sort(actual);
+      assertEquals(expected, actual);
+    }
+  }
+
+  private static MappedHPRtree writeAndRead(HPRtree tree) throws IOException {
+    ByteArrayOutputStream os = new ByteArrayOutputStream();
+    MappedHPRtree.write(tree, os);
+    return new MappedHPRtree(ByteBuffer.wrap(os.toByteArray()));
+  }
+
+  private static HPRtree createTree(int numItems, int nodeCapacity) {
+    Random random = new Random(13);
+    HPRtree tree = new HPRtree(nodeCapacity);
+    for (int i = 0; i < numItems; i++) {
+      double x = random.nextDouble() * 1000;
+      double y = random.nextDouble() * 1000;
+      tree.insertItemId(new Envelope(x, x + random.nextDouble() * 10, y, y + random.nextDouble() * 10), i);
+    }
+    return tree;
+  }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2021 Martin Davis.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jts.index.kdtree;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.CoordinateArrays;
+import org.locationtech.jts.geom.Envelope;
+
+import junit.framework.TestCase;
+import junit.textui.TestRunner;
+
+public class ArrayKdTreeTest extends TestCase {
+  public static void main(String args[]) {
+    TestRunner.run(ArrayKdTreeTest.class);
+  }
+
+  public ArrayKdTreeTest(String name) {
+    super(name);
+  }
+
+  public void testEmpty() {
+    ArrayKdTree index = new ArrayKdTree();
+    assertTrue(index.isEmpty());
+    assertEquals(0, index.depth());
+    assertTrue(index.query(new Envelope(0, 10, 0, 10)).isEmpty());
+    assertNull(index.query(new Coordinate(1, 1)));
+  }
+
+  public void testRepeatedPoint() {
+    ArrayKdTree index = new ArrayKdTree(.001);
+    int node1 = index.insert(new Coordinate(1, 1), "A");
+    int node2 = index.insert(new Coordinate(1, 1), "B");
+    assertEquals(node1, node2);
+    assertEquals(2, index.getCount(node1));
+    assertEquals("A", index.getData(node1));
+
+    KdNode node = index.query(new Coordinate(1, 1));
+    assertEquals(2, node.getCount());
+    assertEquals("A", node.getData());
+  }
+
+  public void testSameAsKdTree() {
+    checkSameAsKdTree(0.0);
+  }
+
+  public void testSameAsKdTreeTolerance() {
+    checkSameAsKdTree(2.0);
+  }
+
+  public void testLoad() {
+    Coordinate[] pts = new Coordinate[1023];
+    for (int i = 0; i < pts.length; i++) {
+      pts[i] = new Coordinate(i, i);
+    }
+    ArrayKdTree index = new ArrayKdTree();
+    index.load(pts);
+    assertEquals(1023, index.size());
+    assertEquals(10, index.depth());
+    assertEquals(100, index.query(new Envelope(100, 199.5, 0, 1000)).size());
+  }
+
+  public void testLoadManyIdentical() {
+    Coordinate[] pts = new Coordinate[50000];
+    for (int i = 0; i < pts.length; i++) {
+      pts[i] = new Coordinate(5, 5);
+    }
+    ArrayKdTree index = new ArrayKdTree();
+    index.load(pts);
+    assertEquals(1, index.size());
+    assertEquals(50000, index.getCount(0));
+  }
+
+  public void testLoadRepeatedRuns() {
+    Coordinate[] pts = new Coordinate[20000];
+    for (int i = 0; i < pts.length; i++) {
+      pts[i] = new Coordinate(5, i / 20);
+    }
+    ArrayKdTree index = new ArrayKdTree();
+    index.load(pts);
+    assertEquals(1000, index.size());
+    assertTrue(index.depth() <= 2 * 10 + 1);
+    assertEquals(20, index.query(new Coordinate(5, 500)).getCount());
+  }
+
+  private void checkSameAsKdTree(double tolerance) {
+    Random random = new Random(5);
+    KdTree tree = new KdTree(tolerance);
+    ArrayKdTree arrayTree = new ArrayKdTree(tolerance);
+    for (int i = 0; i < 5000; i++) {
+      Coordinate p = new Coordinate(random.nextInt(500), random.nextInt(500));
+      Integer data = i;
+      KdNode node = tree.insert(p, data);
+      int arrayNode = arrayTree.insert(p, data);
+      assertEquals(node.getCoordinate(), arrayTree.getNode(arrayNode).getCoordinate());
+      assertEquals(node.getCount(), arrayTree.getCount(arrayNode));
+      assertEquals(node.getData(), arrayTree.getData(arrayNode));
+    }
+    assertEquals(tree.size(), arrayTree.size());
+    assertEquals(tree.depth(), arrayTree.depth());
+
+    for (int i = 0; i < 100; i++) {
+      double x = random.nextDouble() * 500;
+      double y = random.nextDouble() * 500;
+      Envelope queryEnv = new Envelope(x, x + 30, y, y + 30);
+      checkSameNodes(tree.query(queryEnv), arrayTree.query(queryEnv));
+    }
+  }
+
+  private void checkSameNodes(List expected, List actual) {
+    Coordinate[] expectedPts = KdTree.toCoordinates(expected, true);
+    Coordinate[] actualPts = KdTree.toCoordinates(actual, true);
+    Arrays.sort(expectedPts);
+    Arrays.sort(actualPts);
+    assertTrue(CoordinateArrays.equals(expectedPts, actualPts));
+  }
+}
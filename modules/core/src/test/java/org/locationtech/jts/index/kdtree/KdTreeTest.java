@@ -12,12 +12,16 @@
 
 package org.locationtech.jts.index.kdtree;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Random;
 
 import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.CoordinateArrays;
 import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.impl.CoordinateArraySequence;
 
 import junit.framework.TestCase;
 import junit.textui.TestRunner;
@@ -103,6 +107,103 @@ public class KdTreeTest extends TestCase {
     assertTrue( depth <= size );
   }
   
+  public void testLoadSortedBalanced() {
+    Coordinate[] pts = new Coordinate[1023];
+    for (int i = 0; i < pts.length; i++) {
+      pts[i] = new Coordinate(i, i);
+    }
+    KdTree index = new KdTree();
+    index.load(pts);
+    assertEquals(1023, index.size());
+    assertEquals(10, index.depth());
+    testQuery(index, new Envelope(100, 199.5, 0, 1000), subset(pts, 100, 200));
+  }
+
+  public void testLoadRepeated() {
+    KdTree index = new KdTree();
+    index.load(new CoordinateArraySequence(IOUtil.read(
+        "MULTIPOINT ( (1 1), (1 1), (1 2), (1 3), (1 3), (1 3), (0 2) )").getCoordinates()));
+    assertEquals(4, index.size());
+    assertEquals(3, index.query(new Coordinate(1, 3)).getCount());
+    testQuery(index, new Envelope(0, 10, 0, 10), true,
+        IOUtil.read("MULTIPOINT ( (1 1), (1 1), (1 2), (1 3), (1 3), (1 3), (0 2) )").getCoordinates());
+  }
+
+  public void testLoadManyIdentical() {
+    Coordinate[] pts = new Coordinate[50000];
+    for (int i = 0; i < pts.length; i++) {
+      pts[i] = new Coordinate(5, 5);
+    }
+    KdTree index = new KdTree();
+    index.load(pts);
+    assertEquals(1, index.size());
+    assertEquals(50000, index.query(new Coordinate(5, 5)).getCount());
+  }
+
+  public void testLoadRepeatedRuns() {
+    //-- a stationary point repeated in runs, with equal X values
+    Coordinate[] pts = new Coordinate[20000];
+    for (int i = 0; i < pts.length; i++) {
+      pts[i] = new Coordinate(5, i / 20);
+    }
+    KdTree index = new KdTree();
+    index.load(pts);
+    assertEquals(1000, index.size());
+    assertTrue(index.depth() <= 2 * 10 + 1);
+    assertEquals(20, index.query(new Coordinate(5, 500)).getCount());
+  }
+
+  public void testLoadTolerance() {
+    KdTree index = new KdTree(0.5);
+    index.load(IOUtil.read("MULTIPOINT ( (0 0), (0.1 0.1), (5 5), (5.2 5), (10 10) )").getCoordinates());
+    assertEquals(3, index.size());
+  }
+
+  public void testNearestNeighbours() {
+    Random random = new Random(17);
+    Coordinate[] pts = new Coordinate[2000];
+    for (int i = 0; i < pts.length; i++) {
+      pts[i] = new Coordinate(random.nextInt(1000), random.nextInt(1000));
+    }
+    KdTree index = new KdTree();
+    index.load(pts);
+    for (int q = 0; q < 50; q++) {
+      Coordinate queryPt = new Coordinate(random.nextDouble() * 1000, random.nextDouble() * 1000);
+      KdNode[] nearest = index.nearestNeighbours(queryPt, 8);
+      assertEquals(8, nearest.length);
+      
+      List<Double> distances = new ArrayList<Double>();
+      for (Object node : index.query(new Envelope(-1, 1001, -1, 1001))) {
+        distances.add(queryPt.distance(((KdNode) node).getCoordinate()));
+      }
+      Collections.sort(distances);
+      for (int i = 0; i < nearest.length; i++) {
+        assertEquals(distances.get(i), queryPt.distance(nearest[i].getCoordinate()), 0.0);
+      }
+      assertSame(nearest[0], index.nearestNeighbour(queryPt));
+    }
+  }
+
+  public void testNearestNeighbourEmpty() {
+    KdTree index = new KdTree();
+    assertNull(index.nearestNeighbour(new Coordinate(0, 0)));
+    assertEquals(0, index.nearestNeighbours(new Coordinate(0, 0), 3).length);
+  }
+
+  public void testRadiusQuery() {
+    KdTree index = build("MULTIPOINT ( (0 0), (3 4), (4 4), (-5 0), (0 6) )", 0);
+    List result = index.query(new Coordinate(0, 0), 5);
+    Coordinate[] pts = KdTree.toCoordinates(result);
+    Arrays.sort(pts);
+    assertTrue(CoordinateArrays.equals(pts, IOUtil.read("MULTIPOINT ( (-5 0), (0 0), (3 4) )").getCoordinates()));
+  }
+
+  private static Coordinate[] subset(Coordinate[] pts, int start, int end) {
+    Coordinate[] subset = new Coordinate[end - start];
+    System.arraycopy(pts, start, subset, 0, subset.length);
+    return subset;
+  }
+
   private void testQuery(String wktInput, double tolerance,
       Envelope queryEnv, String wktExpected) {
     KdTree index = build(wktInput, tolerance);
@@ -13,11 +13,13 @@
 package org.locationtech.jts.index.quadtree;
 
 import java.util.List;
+import java.util.Random;
 
 import junit.framework.TestCase;
 import junit.textui.TestRunner;
 
 import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.index.ItemFilter;
 import org.locationtech.jts.index.SpatialIndexTester;
 
 import test.jts.util.SerializationUtil;
@@ -66,5 +68,96 @@ public class QuadtreeTest extends TestCase {
   	assertTrue(result2.size() == 0);
   }
 
+  public void testUpdate() {
+    Random random = new Random(7);
+    Quadtree qt = new Quadtree();
+    Envelope[] envs = new Envelope[1000];
+    for (int i = 0; i < envs.length; i++) {
+      envs[i] = randomEnvelope(random);
+      qt.insert(envs[i], i);
+    }
+    for (int n = 0; n < 10000; n++) {
+      int i = random.nextInt(envs.length);
+      Envelope moved = new Envelope(envs[i]);
+      moved.translate(random.nextDouble() * 10 - 5, random.nextDouble() * 10 - 5);
+      assertTrue(qt.update(envs[i], moved, i));
+      envs[i] = moved;
+    }
+    assertFalse(qt.update(new Envelope(1, 2, 1, 2), new Envelope(2, 3, 2, 3), "missing"));
+    assertEquals(envs.length, qt.size());
+    for (int i = 0; i < envs.length; i++) {
+      assertTrue(qt.query(envs[i]).contains(i));
+    }
+  }
+
+  public void testUpdatePoints() {
+    Quadtree qt = new Quadtree();
+    qt.insert(new Envelope(1, 1, 1, 1), "A");
+    qt.insert(new Envelope(1.5, 1.6, 1.5, 1.6), "B");
+    qt.insert(new Envelope(1.1, 1.1, 1.1, 1.1), "C");
+    assertTrue(qt.update(new Envelope(1, 1, 1, 1), new Envelope(1.2, 1.2, 1.2, 1.2), "A"));
+    assertTrue(qt.update(new Envelope(1.1, 1.1, 1.1, 1.1), new Envelope(-5, -5, -5, -5), "C"));
+    assertEquals(3, qt.size());
+    assertTrue(qt.query(new Envelope(1.2, 1.2, 1.2, 1.2)).contains("A"));
+    assertTrue(qt.query(new Envelope(-5, -5, -5, -5)).contains("C"));
+  }
+
+  public void testRemoveAll() {
+    Random random = new Random(11);
+    Quadtree qt = new Quadtree();
+    for (int i = 0; i < 1000; i++) {
+      qt.insert(randomEnvelope(random), i);
+    }
+    int numRemoved = qt.removeAll(new ItemFilter() {
+      public boolean isSelected(Object item) {
+        return ((Integer) item) % 3 == 0;
+      }
+    });
+    assertEquals(334, numRemoved);
+    assertEquals(666, qt.size());
+    List items = qt.queryAll();
+    for (int i = 0; i < items.size(); i++) {
+      assertTrue(((Integer) items.get(i)) % 3 != 0);
+    }
+  }
+
+  public void testCompact() {
+    Random random = new Random(13);
+    Quadtree qt = new Quadtree();
+    Envelope[] envs = new Envelope[500];
+    for (int i = 0; i < envs.length; i++) {
+      envs[i] = randomEnvelope(random);
+      qt.insert(envs[i], i);
+    }
+    int initialNodeCount = qt.getRoot().getNodeCount();
+    // move all items far away and back again, which expands the tree
+    for (int i = 0; i < envs.length; i++) {
+      Envelope moved = new Envelope(envs[i]);
+      moved.translate(100000, 100000);
+      qt.update(envs[i], moved, i);
+      envs[i] = moved;
+    }
+    for (int i = 0; i < envs.length; i++) {
+      Envelope moved = new Envelope(envs[i]);
+      moved.translate(-100000, -100000);
+      qt.update(envs[i], moved, i);
+      envs[i] = moved;
+    }
+    int depth = qt.depth();
+    qt.compact();
+    assertTrue(qt.depth() < depth);
+    assertEquals(initialNodeCount, qt.getRoot().getNodeCount());
+    assertEquals(envs.length, qt.size());
+    for (int i = 0; i < envs.length; i++) {
+      assertTrue(qt.query(envs[i]).contains(i));
+    }
+  }
+
+  private static Envelope randomEnvelope(Random random) {
+    double x = random.nextDouble() * 1000;
+    double y = random.nextDouble() * 1000;
+    return new Envelope(x, x + random.nextDouble() * 10, y, y + random.nextDouble() * 10);
+  }
+
 
 }
@@ -0,0 +1,226 @@
+/*
+ * Copyright (c) 2021 Martin Davis.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jts.index.rstartree;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.index.SpatialIndexTester;
+import org.locationtech.jts.index.strtree.GeometryItemDistance;
+
+import test.jts.GeometryTestCase;
+
+public class RStarTreeTest extends GeometryTestCase {
+
+  public static void main(String[] args) {
+    junit.textui.TestRunner.run(RStarTreeTest.class);
+  }
+
+  public RStarTreeTest(String name) {
+    super(name);
+  }
+
+  public void testSpatialIndex() {
+    SpatialIndexTester tester = new SpatialIndexTester();
+    tester.setSpatialIndex(new RStarTree(4));
+    tester.init();
+    tester.run();
+    assertTrue(tester.isSuccess());
+  }
+
+  public void testEmpty() {
+    RStarTree tree = new RStarTree();
+    assertTrue(tree.isEmpty());
+    assertTrue(tree.query(new Envelope(0, 10, 0, 10)).isEmpty());
+    assertFalse(tree.remove(new Envelope(0, 1, 0, 1), "A"));
+    assertNull(tree.nearestNeighbour(new Envelope(0, 0, 0, 0), read("POINT (0 0)"), new GeometryItemDistance()));
+  }
+
+  public void testInsertQuery() {
+    Random random = new Random(1);
+    RStarTree tree = new RStarTree(8);
+    List<Envelope> items = new ArrayList<Envelope>();
+    for (int i = 0; i < 5000; i++) {
+      Envelope env = randomEnvelope(random);
+      items.add(env);
+      tree.insert(env, env);
+    }
+    assertEquals(5000, tree.size());
+    checkStructure(tree);
+    checkQueries(tree, items, random);
+  }
+
+  public void testRemove() {
+    Random random = new Random(2);
+    RStarTree tree = new RStarTree(4);
+    List<Envelope> items = new ArrayList<Envelope>();
+    for (int i = 0; i < 2000; i++) {
+      Envelope env = randomEnvelope(random);
+      items.add(env);
+      tree.insert(env, env);
+    }
+    Collections.shuffle(items, random);
+    while (items.size() > 500) {
+      Envelope env = items.remove(items.size() - 1);
+      assertTrue(tree.remove(env, env));
+    }
+    assertFalse(tree.remove(new Envelope(0, 1, 0, 1), "A"));
+    assertEquals(500, tree.size());
+    checkStructure(tree);
+    checkQueries(tree, items, random);
+
+    for (Envelope env : items) {
+      assertTrue(tree.remove(env, env));
+    }
+    assertTrue(tree.isEmpty());
+    assertEquals(1, tree.depth());
+    assertTrue(tree.query(new Envelope(-1000, 1000, -1000, 1000)).isEmpty());
+  }
+
+  public void testMoves() {
+    Random random = new Random(3);
+    RStarTree tree = new RStarTree();
+    Envelope[] envs = new Envelope[3000];
+    Integer[] ids = new Integer[envs.length];
+    for (int i = 0; i < envs.length; i++) {
+      envs[i] = randomEnvelope(random);
+      ids[i] = i;
+    }
+    tree.load(envs, ids);
+    assertEquals(envs.length, tree.size());
+    checkStructure(tree);
+
+    for (int n = 0; n < 20000; n++) {
+      int i = random.nextInt(envs.length);
+      assertTrue(tree.remove(envs[i], ids[i]));
+      Envelope moved = new Envelope(envs[i]);
+      moved.translate(random.nextDouble() * 20 - 10, random.nextDouble() * 20 - 10);
+      envs[i] = moved;
+      tree.insert(moved, ids[i]);
+    }
+    assertEquals(envs.length, tree.size());
+    checkStructure(tree);
+
+    List<Envelope> items = new ArrayList<Envelope>();
+    for (int i = 0; i < envs.length; i++) {
+      items.add(envs[i]);
+    }
+    for (int q = 0; q < 200; q++) {
+      Envelope queryEnv = randomEnvelope(random);
+      queryEnv.expandBy(20);
+      List result = tree.query(queryEnv);
+      int expected = 0;
+      for (int i = 0; i < envs.length; i++) {
+        if (envs[i].intersects(queryEnv)) {
+          assertTrue(result.contains(ids[i]));
+          expected++;
+        }
+      }
+      assertEquals(expected, result.size());
+    }
+  }
+
+  public void testLoadNonEmpty() {
+    RStarTree tree = new RStarTree();
+    tree.insert(new Envelope(0, 1, 0, 1), "A");
+    try {
+      tree.load(new Envelope[] { new Envelope(0, 1, 0, 1) }, new Object[] { "B" });
+      fail();
+    }
+    catch (IllegalStateException e) {
+      // expected
+    }
+  }
+
+  public void testNearestNeighbourK() {
+    Random random = new Random(4);
+    RStarTree tree = new RStarTree(6);
+    List<Geometry> points = new ArrayList<Geometry>();
+    for (int i = 0; i < 1000; i++) {
+      Geometry pt = read("POINT (" + random.nextInt(1000) + " " + random.nextInt(1000) + ")");
+      points.add(pt);
+      tree.insert(pt.getEnvelopeInternal(), pt);
+    }
+    GeometryItemDistance itemDist = new GeometryItemDistance();
+    for (int q = 0; q < 20; q++) {
+      Geometry queryPt = read("POINT (" + random.nextInt(1000) + " " + random.nextInt(1000) + ")");
+      Object[] nearest = tree.nearestNeighbour(queryPt.getEnvelopeInternal(), queryPt, itemDist, 10);
+      assertEquals(10, nearest.length);
+
+      List<Double> distances = new ArrayList<Double>();
+      for (Geometry pt : points) {
+        distances.add(pt.distance(queryPt));
+      }
+      Collections.sort(distances);
+      for (int i = 0; i < nearest.length; i++) {
+        assertEquals(distances.get(i), ((Geometry) nearest[i]).distance(queryPt), 0.0);
+      }
+    }
+  }
+
+  private static Envelope randomEnvelope(Random random) {
+    double x = random.nextDouble() * 1000;
+    double y = random.nextDouble() * 1000;
+    return new Envelope(x, x + random.nextDouble() * 10, y, y + random.nextDouble() * 10);
+  }
+
+  private static void checkQueries(RStarTree tree, List<Envelope> items, Random random) {
+    for (int q = 0; q < 200; q++) {
+      Envelope queryEnv = randomEnvelope(random);
+      queryEnv.expandBy(20);
+      List result = tree.query(queryEnv);
+      int expected = 0;
+      for (Envelope env : items) {
+        if (env.intersects(queryEnv)) {
+          assertTrue(result.contains(env));
+          expected++;
+        }
+      }
+      assertEquals(expected, result.size());
+    }
+  }
+
+  /**
+   * Checks that the tree is balanced, the nodes do not overflow,
+   * the parent links are consistent and the node bounds are exact.
+   */
+  private static void checkStructure(RStarTree tree) {
+    RStarNode root = tree.getRoot();
+    assertNull(root.getParent());
+    assertEquals(tree.size(), checkNode(root, tree.getNodeCapacity()));
+  }
+
+  private static int checkNode(RStarNode node, int nodeCapacity) {
+    assertTrue(node.size() <= nodeCapacity);
+    Envelope bounds = new Envelope();
+    int numItems = 0;
+    for (int i = 0; i < node.size(); i++) {
+      bounds.expandToInclude(node.getEntryEnvelope(i));
+      if (node.isLeaf()) {
+        numItems++;
+      }
+      else {
+        RStarNode child = node.getChild(i);
+        assertSame(node, child.getParent());
+        assertSame(child.getBounds(), node.getEntryEnvelope(i));
+        assertEquals(node.getLevel() - 1, child.getLevel());
+        numItems += checkNode(child, nodeCapacity);
+      }
+    }
+    assertEquals(bounds, node.getBounds());
+    return numItems;
+  }
+}
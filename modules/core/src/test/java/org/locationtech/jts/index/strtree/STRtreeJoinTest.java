@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2021 Martin Davis.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jts.index.strtree;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.util.GeometricShapeFactory;
+
+import test.jts.GeometryTestCase;
+
+public class STRtreeJoinTest extends GeometryTestCase {
+
+  public static void main(String[] args) {
+    junit.textui.TestRunner.run(STRtreeJoinTest.class);
+  }
+
+  public STRtreeJoinTest(String name) {
+    super(name);
+  }
+
+  public void testJoinEmpty() {
+    STRtree tree1 = new STRtree();
+    STRtree tree2 = createTree(randomEnvelopes(new Random(1), 10, 1));
+    PairCollector pairs = new PairCollector();
+    tree1.join(tree2, pairs);
+    tree2.join(tree1, pairs);
+    assertTrue(pairs.pairs.isEmpty());
+  }
+
+  public void testJoin() {
+    Random random = new Random(3);
+    checkJoin(randomEnvelopes(random, 1000, 5), randomEnvelopes(random, 700, 8), 0.0);
+  }
+
+  public void testJoinWithinDistance() {
+    Random random = new Random(7);
+    checkJoin(randomEnvelopes(random, 1000, 2), randomEnvelopes(random, 500, 2), 3.0);
+  }
+
+  public void testPreparedJoinFilter() {
+    GeometricShapeFactory shapeFact = new GeometricShapeFactory();
+    shapeFact.setNumPoints(32);
+    shapeFact.setSize(10);
+    shapeFact.setCentre(new Coordinate(0, 0));
+    Geometry circle = shapeFact.createCircle();
+    STRtree tree1 = new STRtree();
+    tree1.insert(circle.getEnvelopeInternal(), circle);
+
+    STRtree tree2 = new STRtree();
+    Geometry inside = read("POINT (0 0)");
+    Geometry outsideInEnv = read("POINT (4.8 4.8)");
+    Geometry crossing = read("LINESTRING (0 0, 10 10)");
+    Geometry[] geoms = new Geometry[] { inside, outsideInEnv, crossing };
+    for (int i = 0; i < geoms.length; i++) {
+      tree2.insert(geoms[i].getEnvelopeInternal(), geoms[i]);
+    }
+
+    PairCollector candidates = new PairCollector();
+    tree1.join(tree2, candidates);
+    assertEquals(3, candidates.pairs.size());
+
+    PairCollector intersecting = new PairCollector();
+    tree1.join(tree2, new PreparedJoinFilter(intersecting));
+    assertEquals(2, intersecting.pairs.size());
+
+    PairCollector contained = new PairCollector();
+    tree1.join(tree2, new PreparedJoinFilter(PreparedJoinFilter.CONTAINS, contained));
+    assertEquals(1, contained.pairs.size());
+    assertTrue(contained.pairs.contains(pairKey(circle, inside)));
+  }
+
+  private void checkJoin(List<Envelope> envs1, List<Envelope> envs2, double distance) {
+    STRtree tree1 = createTree(envs1);
+    STRtree tree2 = createTree(envs2);
+    PairCollector pairs = new PairCollector();
+    tree1.joinWithinDistance(tree2, distance, pairs);
+
+    Set<String> expected = new HashSet<String>();
+    for (Envelope env1 : envs1) {
+      for (Envelope env2 : envs2) {
+        if (env1.distance(env2) <= distance) {
+          expected.add(pairKey(env1, env2));
+        }
+      }
+    }
+    assertFalse(expected.isEmpty());
+    assertEquals(expected, pairs.pairs);
+    assertEquals(expected.size(), pairs.count);
+  }
+
+  private static List<Envelope> randomEnvelopes(Random random, int n, double size) {
+    List<Envelope> envs = new ArrayList<Envelope>();
+    for (int i = 0; i < n; i++) {
+      double x = random.nextDouble() * 200;
+      double y = random.nextDouble() * 200;
+      envs.add(new Envelope(x, x + random.nextDouble() * size, y, y + random.nextDouble() * size));
+    }
+    return envs;
+  }
+
+  private static STRtree createTree(List<Envelope> envs) {
+    STRtree tree = new STRtree();
+    for (Envelope env : envs) {
+      tree.insert(env, env);
+    }
+    return tree;
+  }
+
+  private static String pairKey(Object item1, Object item2) {
+    return System.identityHashCode(item1) + ":" + System.identityHashCode(item2);
+  }
+
+  private static class PairCollector implements ItemPairVisitor {
+    Set<String> pairs = new HashSet<String>();
+    int count = 0;
+
+    public void visitPair(Object item1, Object item2) {
+      pairs.add(pairKey(item1, item2));
+      count++;
+    }
+  }
+}
@@ -173,6 +173,67 @@ public class STRtreeTest extends TestCase {
     doTestVerticalSlices(5, 3, 2, 1);
   }
 
+  public void testParallelBuildIdentical() {
+    Random random = new Random(11);
+    STRtree serial = new STRtree();
+    STRtree parallel = new STRtree();
+    parallel.setParallelBuild(true);
+    for (int i = 0; i < 50000; i++) {
+      double x = random.nextDouble() * 1000;
+      double y = random.nextDouble() * 1000;
+      Envelope env = new Envelope(x, x + random.nextDouble(), y, y + random.nextDouble());
+      Integer item = i;
+      serial.insert(env, item);
+      parallel.insert(env, item);
+    }
+    serial.build();
+    parallel.build();
+    checkSameStructure(serial.getRoot(), parallel.getRoot());
+  }
+
+  /**
+   * Checks that threads which concurrently trigger the build
+   * of an unbuilt tree all see the fully built tree.
+   */
+  public void testConcurrentBuildAndQuery() throws InterruptedException {
+    final STRtree tree = new STRtree();
+    for (int i = 0; i < 10000; i++) {
+      tree.insert(new Envelope(i, i + 1, i, i + 1), i);
+    }
+    final Envelope queryEnv = new Envelope(100, 200, 100, 200);
+    final int[] counts = new int[8];
+    Thread[] threads = new Thread[counts.length];
+    for (int i = 0; i < threads.length; i++) {
+      final int threadIndex = i;
+      threads[i] = new Thread(new Runnable() {
+        public void run() {
+          counts[threadIndex] = tree.query(queryEnv).size();
+        }
+      });
+      threads[i].start();
+    }
+    for (int i = 0; i < threads.length; i++) {
+      threads[i].join();
+    }
+    for (int i = 0; i < counts.length; i++) {
+      assertEquals(102, counts[i]);
+    }
+  }
+
+  private void checkSameStructure(Boundable expected, Boundable actual) {
+    assertEquals(expected.getBounds(), actual.getBounds());
+    if (expected instanceof ItemBoundable) {
+      assertSame(((ItemBoundable) expected).getItem(), ((ItemBoundable) actual).getItem());
+      return;
+    }
+    List expectedChildren = ((AbstractNode) expected).getChildBoundables();
+    List actualChildren = ((AbstractNode) actual).getChildBoundables();
+    assertEquals(expectedChildren.size(), actualChildren.size());
+    for (int i = 0; i < expectedChildren.size(); i++) {
+      checkSameStructure((Boundable) expectedChildren.get(i), (Boundable) actualChildren.get(i));
+    }
+  }
+
   public void testRemove() {
     STRtree tree = new STRtree();
     tree.insert(new Envelope(0, 10, 0, 10), "1");
@@ -14,12 +14,17 @@ package org.locationtech.jts.io;
 import org.locationtech.jts.geom.CoordinateSequenceComparator;
 import org.locationtech.jts.geom.Geometry;
 import org.locationtech.jts.geom.GeometryCollection;
+import org.locationtech.jts.geom.Envelope;
 import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.LineString;
 import org.locationtech.jts.geom.Polygon;
+import org.locationtech.jts.geom.PrecisionModel;
+import org.locationtech.jts.geom.impl.BufferCoordinateSequence;
 
 import junit.framework.TestCase;
 import junit.textui.TestRunner;
 import org.locationtech.jts.geom.impl.PackedCoordinateSequenceFactory;
+import org.locationtech.jts.geom.CoordinateSequence;
 
 
 /**
@@ -257,9 +262,98 @@ public class WKBReaderTest  extends TestCase
      */
     checkWKBParseException("0000000003FFFFFFFF0000000440590000000000004069000000000000405900000000000040590000000000004069000000000000405900000000000040590000000000004069000000000000");
   }
-  
+  public void testLazy() throws ParseException {
+    checkLazy("POINT (1 2)");
+    checkLazy("LINESTRING (1 2, 10 20, 100 200)");
+    checkLazy("POLYGON ((0 0, 10 0, 10 10, 0 10, 0 0), (1 1, 1 2, 2 2, 1 1))");
+    checkLazy("MULTIPOLYGON (((0 0, 10 0, 10 10, 0 0)), ((20 20, 30 20, 30 30, 20 20)))");
+    checkLazy("GEOMETRYCOLLECTION (POINT (1 2), LINESTRING (0 0, 5 5))");
+    checkLazy("LINESTRING Z (1 2 3, 4 5 6)");
+  }
+
+  public void testLazyUsesBytes() throws ParseException {
+    Geometry geom = rdr.read("LINESTRING (1 2, 10 20, 100 200)");
+    byte[] wkb = new WKBWriter().write(geom);
+    WKBReader wkbReader = new WKBReader(geomFactory);
+    wkbReader.setLazy(true);
+    LineString line = (LineString) wkbReader.read(wkb);
+    CoordinateSequence seq = line.getCoordinateSequence();
+    assertTrue(seq instanceof BufferCoordinateSequence);
+    assertEquals(new Envelope(1, 100, 2, 200), line.getEnvelopeInternal());
+  }
+
+  public void testLazyFloatingSingle() throws ParseException {
+    GeometryFactory singleFactory = new GeometryFactory(new PrecisionModel(PrecisionModel.FLOATING_SINGLE));
+    Geometry geom = rdr.read("LINESTRING (1.123456789012 2.123456789012, 10.1 20.1)");
+    byte[] wkb = new WKBWriter().write(geom);
+    Geometry eager = new WKBReader(singleFactory).read(wkb);
+    WKBReader lazyReader = new WKBReader(singleFactory);
+    lazyReader.setLazy(true);
+    Geometry lazy = lazyReader.read(wkb);
+    assertTrue(eager.equalsExact(lazy));
+    assertEquals((double) (float) 1.123456789012, lazy.getCoordinate().getX());
+  }
+
+  public void testLazyXYZM() throws ParseException {
+    // LINESTRING ZM (1 2 3 4, 5 6 7 8)
+    String wkbHex = "01BA0B000002000000000000000000F03F000000000000004000000000000008400000000000001040000000000000144000000000000018400000000000001C400000000000002040";
+    WKBReader wkbReader = new WKBReader(geomFactory);
+    wkbReader.setLazy(true);
+    LineString line = (LineString) wkbReader.read(WKBReader.hexToBytes(wkbHex));
+    CoordinateSequence seq = line.getCoordinateSequence();
+    assertEquals(4, seq.getDimension());
+    assertEquals(1, seq.getMeasures());
+    assertEquals(7.0, seq.getZ(1));
+    assertEquals(8.0, seq.getM(1));
+  }
+
+  public void testLazyTruncated() throws ParseException {
+    // LINESTRING with 2 points, missing final ordinate
+    checkWKBParseExceptionLazy("0002000000020000000000000000000000000000000040240000000000004024");
+  }
+
+  public void testLazyRingRepaired() throws ParseException {
+    // POLYGON with an unclosed ring
+    WKBReader wkbReader = new WKBReader(geomFactory);
+    wkbReader.setLazy(true);
+    Geometry geom = wkbReader.read(WKBReader.hexToBytes(
+        "000000000300000001000000030000000000000000000000000000000040240000000000000000000000000000402400000000000040240000000000000000000000000000"));
+    Polygon poly = (Polygon) geom;
+    assertTrue(poly.getExteriorRing().isClosed());
+  }
+
   //======================================
   
+  private void checkLazy(String wkt) throws ParseException {
+    Geometry geom = rdr.read(wkt);
+    checkLazy(geom, ByteOrderValues.BIG_ENDIAN);
+    checkLazy(geom, ByteOrderValues.LITTLE_ENDIAN);
+  }
+
+  private void checkLazy(Geometry geom, int byteOrder) throws ParseException {
+    int dim = geom.getCoordinate() != null && ! Double.isNaN(geom.getCoordinate().getZ()) ? 3 : 2;
+    byte[] wkb = new WKBWriter(dim, byteOrder).write(geom);
+    WKBReader wkbReader = new WKBReader(geomFactory);
+    wkbReader.setLazy(true);
+    Geometry lazy = wkbReader.read(wkb);
+    assertEquals(geom.getGeometryType(), lazy.getGeometryType());
+    assertEquals(geom.getEnvelopeInternal(), lazy.getEnvelopeInternal());
+    assertTrue(geom.equalsExact(lazy));
+  }
+
+  private void checkWKBParseExceptionLazy(String wkbHex) 
+  {
+    WKBReader wkbReader = new WKBReader(geomFactory);
+    wkbReader.setLazy(true);
+    try {
+      wkbReader.read(WKBReader.hexToBytes(wkbHex));
+    } catch (ParseException e) {
+      // all good
+      return;
+    }
+    fail();
+  }
+
   private void checkWKBParseException(String wkbHex) 
   {
     try {
@@ -0,0 +1,269 @@
+/*
+ * Copyright (c) 2021 Martin Davis.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package org.locationtech.jts.operation.relateng;
+
+import org.locationtech.jts.algorithm.BoundaryNodeRule;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.IntersectionMatrix;
+
+import junit.textui.TestRunner;
+import test.jts.GeometryTestCase;
+
+public class RelateNGTest extends GeometryTestCase {
+
+  public static void main(String args[]) {
+    TestRunner.run(RelateNGTest.class);
+  }
+
+  public RelateNGTest(String name) { super(name); }
+
+  //======  Points  ==================
+
+  public void testPointsDisjoint() {
+    checkRelate("POINT (0 0)", "POINT (1 1)", "FF0FFF0F2");
+    checkPredicate(RelatePredicate.disjoint(), "POINT (0 0)", "POINT (1 1)", true);
+  }
+
+  public void testPointsContained() {
+    checkRelate("MULTIPOINT ((0 0), (1 1), (2 2))", "MULTIPOINT ((1 1), (2 2))", "0F0FFFFF2");
+    checkPredicate(RelatePredicate.contains(), "MULTIPOINT ((0 0), (1 1), (2 2))", "MULTIPOINT ((1 1), (2 2))", true);
+  }
+
+  public void testPointsEqual() {
+    checkRelate("MULTIPOINT ((0 0), (1 1))", "MULTIPOINT ((1 1), (0 0), (0 0))", "0FFFFFFF2");
+    checkPredicate(RelatePredicate.equalsTopo(), "MULTIPOINT ((0 0), (1 1))", "MULTIPOINT ((1 1), (0 0), (0 0))", true);
+  }
+
+  //======  Point / Line  ==================
+
+  public void testPointOnLineEnd() {
+    checkRelate("POINT (0 0)", "LINESTRING (0 0, 5 5)", "F0FFFF102");
+    checkPredicate(RelatePredicate.touches(), "POINT (0 0)", "LINESTRING (0 0, 5 5)", true);
+  }
+
+  public void testPointOnLineInterior() {
+    checkRelate("POINT (2 2)", "LINESTRING (0 0, 5 5)", "0FFFFF102");
+    checkPredicate(RelatePredicate.within(), "POINT (2 2)", "LINESTRING (0 0, 5 5)", true);
+  }
+
+  public void testPointOnClosedLine() {
+    checkRelate("POINT (0 0)", "LINESTRING (0 0, 5 5, 5 0, 0 0)", "0FFFFF1F2");
+  }
+
+  public void testPointOnLineEndMod2() {
+    String a = "POINT (0 0)";
+    String b = "MULTILINESTRING ((0 0, 5 5), (0 0, 5 0))";
+    checkRelate(a, b, "0FFFFF102");
+    checkRelate(a, b, BoundaryNodeRule.ENDPOINT_BOUNDARY_RULE, "F0FFFF102");
+  }
+
+  //======  Lines  ==================
+
+  public void testLinesCrossProper() {
+    checkRelate("LINESTRING (0 0, 9 9)", "LINESTRING (0 9, 9 0)", "0F1FF0102");
+    checkPredicate(RelatePredicate.crosses(), "LINESTRING (0 0, 9 9)", "LINESTRING (0 9, 9 0)", true);
+  }
+
+  public void testLinesOverlap() {
+    checkRelate("LINESTRING (0 0, 5 0)", "LINESTRING (3 0, 9 0)", "1010F0102");
+    checkPredicate(RelatePredicate.overlaps(), "LINESTRING (0 0, 5 0)", "LINESTRING (3 0, 9 0)", true);
+  }
+
+  public void testLinesTouchAtEnds() {
+    checkRelate("LINESTRING (0 0, 5 0)", "LINESTRING (5 0, 9 9)", "FF1F00102");
+    checkPredicate(RelatePredicate.touches(), "LINESTRING (0 0, 5 0)", "LINESTRING (5 0, 9 9)", true);
+  }
+
+  public void testLinesEqualReversed() {
+    checkRelate("LINESTRING (0 0, 5 0, 5 5)", "LINESTRING (5 5, 5 0, 0 0)", "1FFF0FFF2");
+    checkPredicate(RelatePredicate.equalsTopo(), "LINESTRING (0 0, 5 0, 5 5)", "LINESTRING (5 5, 5 0, 0 0)", true);
+  }
+
+  /**
+   * A line which overlaps itself has a node
+   * where it passes collinearly through the end of the other line.
+   */
+  public void testLineSelfOverlapping() {
+    checkRelate("LINESTRING (0 0, 110 0, 60 0)", "LINESTRING (60 0, 90 0)", "101F00FF2");
+  }
+
+  /**
+   * A line crossing two collinear lines at a rounded intersection point
+   * must find both of the lines at the node.
+   */
+  public void testLinesCollinearThroughProperNode() {
+    checkRelate("LINESTRING (1 4, 8 3)", "MULTILINESTRING ((1 4, 8 3), (1 1, 4 2, 5 3, 7 9))", "1FFF0F102");
+  }
+
+  public void testZeroLengthLineIsPoint() {
+    checkRelate("LINESTRING (1 1, 1 1)", "POINT (1 1)", "0FFFFFFF2");
+  }
+
+  //======  Line / Area  ==================
+
+  public void testLineInPolygon() {
+    checkRelate("POLYGON ((0 0, 0 9, 9 9, 9 0, 0 0))", "LINESTRING (1 1, 5 5)", "102FF1FF2");
+    checkPredicate(RelatePredicate.contains(), "POLYGON ((0 0, 0 9, 9 9, 9 0, 0 0))", "LINESTRING (1 1, 5 5)", true);
+  }
+
+  public void testLineAlongPolygonEdge() {
+    checkRelate("POLYGON ((0 0, 0 9, 9 9, 9 0, 0 0))", "LINESTRING (0 2, 0 5)", "FF2101FF2");
+    checkPredicate(RelatePredicate.covers(), "POLYGON ((0 0, 0 9, 9 9, 9 0, 0 0))", "LINESTRING (0 2, 0 5)", true);
+    checkPredicate(RelatePredicate.contains(), "POLYGON ((0 0, 0 9, 9 9, 9 0, 0 0))", "LINESTRING (0 2, 0 5)", false);
+  }
+
+  public void testLineCrossingPolygonVertex() {
+    checkRelate("POLYGON ((0 5, 5 9, 9 5, 5 0, 0 5))", "LINESTRING (-1 9, 5 9, 9 9)", "FF20F1102");
+  }
+
+  /**
+   * The intersection of the line with the polygon edge
+   * is rounded to the line endpoint, which lies just inside the polygon.
+   */
+  public void testLineEndRoundedToNode() {
+    checkRelate("POLYGON ((3.6666666666666665 7.333333333333333, 4 8, 8 7, 6.666666666666667 4.333333333333333, 3.6666666666666665 7.333333333333333))",
+        "LINESTRING (0 5, 5 6)", "1020F1102");
+  }
+
+  //======  Areas  ==================
+
+  public void testPolygonsOverlapping() {
+    checkRelate("POLYGON ((0 0, 0 5, 5 5, 5 0, 0 0))", "POLYGON ((3 3, 3 8, 8 8, 8 3, 3 3))", "212101212");
+    checkPredicate(RelatePredicate.overlaps(), "POLYGON ((0 0, 0 5, 5 5, 5 0, 0 0))", "POLYGON ((3 3, 3 8, 8 8, 8 3, 3 3))", true);
+  }
+
+  public void testPolygonsAdjacent() {
+    checkRelate("POLYGON ((0 0, 0 5, 5 5, 5 0, 0 0))", "POLYGON ((5 0, 5 5, 9 5, 9 0, 5 0))", "FF2F11212");
+    checkPredicate(RelatePredicate.touches(), "POLYGON ((0 0, 0 5, 5 5, 5 0, 0 0))", "POLYGON ((5 0, 5 5, 9 5, 9 0, 5 0))", true);
+  }
+
+  public void testPolygonInHole() {
+    String a = "POLYGON ((0 0, 0 9, 9 9, 9 0, 0 0), (2 2, 2 7, 7 7, 7 2, 2 2))";
+    String b = "POLYGON ((3 3, 3 6, 6 6, 6 3, 3 3))";
+    checkRelate(a, b, "FF2FF1212");
+    checkPredicate(RelatePredicate.disjoint(), a, b, true);
+  }
+
+  public void testPolygonFillingHole() {
+    String a = "POLYGON ((0 0, 0 9, 9 9, 9 0, 0 0), (2 2, 2 7, 7 7, 7 2, 2 2))";
+    String b = "POLYGON ((2 2, 2 7, 7 7, 7 2, 2 2))";
+    checkRelate(a, b, "FF2F112F2");
+  }
+
+  public void testMultiPolygonPointOnBoundary() {
+    String a = "MULTIPOLYGON (((0 0, 0 4, 4 4, 4 0, 0 0)), ((5 0, 5 4, 9 4, 9 0, 5 0)))";
+    String b = "POINT (4 2)";
+    checkRelate(a, b, "FF20F1FF2");
+    checkPredicate(RelatePredicate.covers(), a, b, true);
+  }
+
+  public void testPolygonsEqualDifferentStart() {
+    String a = "POLYGON ((0 0, 0 5, 5 5, 5 0, 0 0))";
+    String b = "POLYGON ((5 5, 5 0, 0 0, 0 5, 5 5))";
+    checkRelate(a, b, "2FFF1FFF2");
+    checkPredicate(RelatePredicate.equalsTopo(), a, b, true);
+  }
+
+  //======  Empty and collections  ==================
+
+  public void testEmpty() {
+    checkRelate("POLYGON EMPTY", "POINT (1 1)", "FFFFFF0F2");
+    checkPredicate(RelatePredicate.intersects(), "POLYGON EMPTY", "POINT (1 1)", false);
+  }
+
+  public void testHomogeneousCollection() {
+    checkRelate("GEOMETRYCOLLECTION (POLYGON ((0 0, 0 4, 4 4, 4 0, 0 0)), POLYGON ((5 0, 5 4, 9 4, 9 0, 5 0)))",
+        "LINESTRING (2 2, 7 2)", "1020F11F2");
+  }
+
+  public void testHeterogeneousCollectionFails() {
+    Geometry a = read("GEOMETRYCOLLECTION (POINT (1 1), LINESTRING (0 0, 2 2))");
+    Geometry b = read("POINT (1 1)");
+    try {
+      RelateNG.relate(a, b);
+      fail("Heterogeneous GeometryCollection should not be supported");
+    }
+    catch (IllegalArgumentException ex) {
+      // expected
+    }
+  }
+
+  //======  Patterns and prepared  ==================
+
+  public void testPatternMatch() {
+    Geometry a = read("POLYGON ((0 0, 0 5, 5 5, 5 0, 0 0))");
+    Geometry b = read("LINESTRING (1 1, 9 9)");
+    assertTrue(RelateNG.relate(a, b, "1020F1102"));
+    assertTrue(RelateNG.relate(a, b, "T*T******"));
+    assertFalse(RelateNG.relate(a, b, "T*F**F***"));
+  }
+
+  public void testPrepared() {
+    Geometry a = read("POLYGON ((0 0, 0 9, 9 9, 9 0, 0 0), (2 2, 2 7, 7 7, 7 2, 2 2))");
+    RelateNG prep = RelateNG.prepare(a);
+    checkPrepared(prep, a, "POINT (1 1)");
+    checkPrepared(prep, a, "POINT (3 3)");
+    checkPrepared(prep, a, "LINESTRING (1 1, 3 3)");
+    checkPrepared(prep, a, "POLYGON ((2 2, 2 7, 7 7, 7 2, 2 2))");
+    checkPrepared(prep, a, "POLYGON ((1 1, 1 8, 8 8, 8 1, 1 1))");
+    assertTrue(prep.evaluate(read("LINESTRING (1 1, 1 8)"), RelatePredicate.contains()));
+    assertTrue(prep.evaluate(read("LINESTRING (1 1, 3 3)"), "1020F1102"));
+  }
+
+  private void checkPrepared(RelateNG prep, Geometry a, String wktB) {
+    Geometry b = read(wktB);
+    IntersectionMatrix expected = RelateNG.relate(a, b);
+    assertEquals(expected.toString(), prep.evaluate(b).toString());
+  }
+
+  private void checkRelate(String wkta, String wktb, String expectedIM) {
+    checkRelate(wkta, wktb, BoundaryNodeRule.OGC_SFS_BOUNDARY_RULE, expectedIM);
+  }
+
+  /**
+   * Checks the computed matrix for both argument orders,
+   * and that each named predicate computed with short-circuiting
+   * agrees with the matrix.
+   */
+  private void checkRelate(String wkta, String wktb, BoundaryNodeRule bnRule, String expectedIM) {
+    Geometry a = read(wkta);
+    Geometry b = read(wktb);
+    IntersectionMatrix im = RelateNG.relate(a, b, bnRule);
+    assertEquals(expectedIM, im.toString());
+    IntersectionMatrix imRev = RelateNG.relate(b, a, bnRule);
+    assertEquals(new IntersectionMatrix(im).transpose().toString(), imRev.toString());
+    checkPredicates(a, b, bnRule, im);
+  }
+
+  private void checkPredicates(Geometry a, Geometry b, BoundaryNodeRule bnRule, IntersectionMatrix im) {
+    int dimA = a.getDimension();
+    int dimB = b.getDimension();
+    checkPredicate(RelatePredicate.intersects(), a, b, bnRule, im.isIntersects());
+    checkPredicate(RelatePredicate.disjoint(), a, b, bnRule, im.isDisjoint());
+    checkPredicate(RelatePredicate.contains(), a, b, bnRule, im.isContains());
+    checkPredicate(RelatePredicate.within(), a, b, bnRule, im.isWithin());
+    checkPredicate(RelatePredicate.covers(), a, b, bnRule, im.isCovers());
+    checkPredicate(RelatePredicate.coveredBy(), a, b, bnRule, im.isCoveredBy());
+    checkPredicate(RelatePredicate.crosses(), a, b, bnRule, im.isCrosses(dimA, dimB));
+    checkPredicate(RelatePredicate.overlaps(), a, b, bnRule, im.isOverlaps(dimA, dimB));
+    checkPredicate(RelatePredicate.touches(), a, b, bnRule, im.isTouches(dimA, dimB));
+  }
+
+  private void checkPredicate(TopologyPredicate pred, String wkta, String wktb, boolean expected) {
+    checkPredicate(pred, read(wkta), read(wktb), BoundaryNodeRule.OGC_SFS_BOUNDARY_RULE, expected);
+  }
+
+  private void checkPredicate(TopologyPredicate pred, Geometry a, Geometry b, BoundaryNodeRule bnRule, boolean expected) {
+    boolean actual = RelateNG.relate(a, b, pred, bnRule);
+    assertEquals(pred.name(), expected, actual);
+  }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2021 Martin Davis.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+
+package test.jts.perf.geom.prep;
+
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.prep.PreparedGeometry;
+import org.locationtech.jts.geom.prep.PreparedGeometryFactory;
+import org.locationtech.jts.geom.util.SineStarFactory;
+import org.locationtech.jts.util.Stopwatch;
+
+/**
+ * Measures the throughput of predicates evaluated concurrently
+ * against a single shared {@link PreparedGeometry}.
+ * The test geometries are small, so that the cost of accessing
+ * the cached indexes is significant.
+ * This exposes contention on the lazy index initialization.
+ *
+ * @author Martin Davis
+ *
+ */
+public class PreparedGeometryContentionPerfTest
+{
+  public static void main(String[] args) throws InterruptedException {
+    PreparedGeometryContentionPerfTest test = new PreparedGeometryContentionPerfTest();
+    test.run();
+  }
+
+  static final int NUM_POLY_PTS = 10000;
+  static final int NUM_TEST_GEOMS = 1000;
+  static final int NUM_ITER = 200;
+  static final int[] THREAD_COUNTS = new int[] { 1, 2, 4, 8, 16, 32, 64 };
+
+  GeometryFactory factory = new GeometryFactory();
+
+  private Geometry[] testGeoms;
+
+  void run() throws InterruptedException
+  {
+    Geometry poly = createSineStar(new Coordinate(0, 0), 100, NUM_POLY_PTS);
+    testGeoms = createTestGeoms(poly.getEnvelopeInternal(), NUM_TEST_GEOMS);
+
+    System.out.println("Polygon vertices = " + NUM_POLY_PTS
+        + ", test geometries = " + NUM_TEST_GEOMS
+        + ", iterations per thread = " + NUM_ITER);
+    //-- warm up
+    runThreads(PreparedGeometryFactory.prepare(poly), 4);
+
+    for (int nThreads : THREAD_COUNTS) {
+      PreparedGeometry pg = PreparedGeometryFactory.prepare(poly);
+      Stopwatch sw = new Stopwatch();
+      int count = runThreads(pg, nThreads);
+      long time = sw.getTime();
+      long nOps = (long) nThreads * NUM_ITER * NUM_TEST_GEOMS;
+      System.out.println("Threads = " + nThreads
+          + "  Time = " + time + " ms"
+          + "  Ops/ms = " + (time == 0 ? nOps : nOps / time)
+          + "  (result count = " + count + ")");
+    }
+  }
+
+  private int runThreads(final PreparedGeometry pg, int nThreads) throws InterruptedException
+  {
+    final int[] counts = new int[nThreads];
+    Thread[] threads = new Thread[nThreads];
+    for (int i = 0; i < nThreads; i++) {
+      final int threadIndex = i;
+      threads[i] = new Thread(new Runnable() {
+        public void run()
+        {
+          counts[threadIndex] = evaluate(pg);
+        }
+      });
+    }
+    for (Thread t : threads) {
+      t.start();
+    }
+    int count = 0;
+    for (int i = 0; i < nThreads; i++) {
+      threads[i].join();
+      count += counts[i];
+    }
+    return count;
+  }
+
+  private int evaluate(PreparedGeometry pg)
+  {
+    int count = 0;
+    for (int iter = 0; iter < NUM_ITER; iter++) {
+      for (Geometry g : testGeoms) {
+        if (pg.intersects(g)) count++;
+        if (pg.contains(g)) count++;
+      }
+    }
+    return count;
+  }
+
+  private Geometry[] createTestGeoms(Envelope env, int nGeoms)
+  {
+    Geometry[] geoms = new Geometry[nGeoms];
+    double width = env.getWidth();
+    double height = env.getHeight();
+    double segLen = width / 100;
+    int nCell = (int) Math.sqrt(nGeoms) + 1;
+    for (int i = 0; i < nGeoms; i++) {
+      double x = env.getMinX() + (i % nCell) * width / nCell;
+      double y = env.getMinY() + (i / nCell) * height / nCell;
+      if (i % 2 == 0) {
+        geoms[i] = factory.createPoint(new Coordinate(x, y));
+      }
+      else {
+        geoms[i] = factory.createLineString(new Coordinate[] {
+            new Coordinate(x, y), new Coordinate(x + segLen, y + segLen) });
+      }
+    }
+    return geoms;
+  }
+
+  Geometry createSineStar(Coordinate origin, double size, int nPts) {
+    SineStarFactory gsf = new SineStarFactory(factory);
+    gsf.setCentre(origin);
+    gsf.setSize(size);
+    gsf.setNumPoints(nPts);
+    gsf.setArmLengthRatio(0.1);
+    gsf.setNumArms(20);
+    return gsf.createSineStar();
+  }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2021 Martin Davis.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package test.jts.perf.index;
+
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.index.hprtree.HPRtree;
+import org.locationtech.jts.index.strtree.STRtree;
+
+import test.jts.perf.PerformanceTestCase;
+import test.jts.perf.PerformanceTestRunner;
+
+/**
+ * Tests the speedup of parallel building of {@link STRtree} and {@link HPRtree}
+ * by the number of cores used.
+ * The run size is the parallelism of the fork-join pool the build is run in.
+ *
+ * @author Martin Davis
+ *
+ */
+public class ParallelBuildPerfTest
+extends PerformanceTestCase {
+
+  private static final int NUM_ITEMS = 2000000;
+
+  public static void main(String args[]) {
+    PerformanceTestRunner.run(ParallelBuildPerfTest.class);
+  }
+
+  private Envelope[] items;
+  private ForkJoinPool pool;
+  private boolean isParallel;
+
+  public ParallelBuildPerfTest(String name) {
+    super(name);
+    setRunSize(coreCounts());
+    setRunIterations(1);
+  }
+
+  private static int[] coreCounts() {
+    int numCores = Runtime.getRuntime().availableProcessors();
+    int numSizes = 1;
+    for (int n = 2; n <= numCores; n *= 2) numSizes++;
+    int[] sizes = new int[numSizes];
+    int n = 1;
+    for (int i = 0; i < numSizes; i++) {
+      sizes[i] = n;
+      n *= 2;
+    }
+    return sizes;
+  }
+
+  public void setUp()
+  {
+    items = new Envelope[NUM_ITEMS];
+    Random random = new Random(1);
+    for (int i = 0; i < NUM_ITEMS; i++) {
+      double x = random.nextDouble() * 10000;
+      double y = random.nextDouble() * 10000;
+      items[i] = new Envelope(x, x + random.nextDouble() * 10, y, y + random.nextDouble() * 10);
+    }
+  }
+
+  public void startRun(int numCores)
+  {
+    System.out.println("----- Cores: " + numCores);
+    pool = new ForkJoinPool(numCores);
+    // a single core runs the serial build as a baseline
+    isParallel = numCores > 1;
+  }
+
+  public void endRun()
+  {
+    pool.shutdown();
+  }
+
+  public void runSTRtree() throws Exception {
+    final STRtree tree = new STRtree();
+    tree.setParallelBuild(isParallel);
+    for (int i = 0; i < items.length; i++) {
+      tree.insert(items[i], items[i]);
+    }
+    pool.submit(new Callable<Object>() {
+      public Object call() {
+        tree.build();
+        return null;
+      }
+    }).get();
+  }
+
+  public void runHPRtree() throws Exception {
+    final HPRtree tree = new HPRtree();
+    tree.setParallelBuild(isParallel);
+    for (int i = 0; i < items.length; i++) {
+      tree.insert(items[i], items[i]);
+    }
+    pool.submit(new Callable<Object>() {
+      public Object call() {
+        tree.build();
+        return null;
+      }
+    }).get();
+  }
+}
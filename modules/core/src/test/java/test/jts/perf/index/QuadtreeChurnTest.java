@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2021 Martin Davis.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package test.jts.perf.index;
+
+import java.util.Random;
+
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.index.quadtree.Quadtree;
+import org.locationtech.jts.util.Stopwatch;
+
+/**
+ * Simulates a long-running index of moving objects in a {@link Quadtree},
+ * with the objects drifting across an unbounded area.
+ * Reports the update time and the heap used after each round,
+ * to show that with periodic compaction the memory used
+ * reaches a steady state.
+ * Also compares moving items using
+ * {@link Quadtree#update(Envelope, Envelope, Object)}
+ * with removing and reinserting them.
+ *
+ * @author Martin Davis
+ *
+ */
+public class QuadtreeChurnTest {
+
+  private static final int NUM_ITEMS = 100000;
+  private static final int NUM_ROUNDS = 20;
+  private static final double EXTENT = 10000;
+  private static final double ITEM_SIZE = 5;
+  private static final double MAX_MOVE = 50;
+
+  public static void main(String[] args) {
+    QuadtreeChurnTest test = new QuadtreeChurnTest();
+    System.out.println("---- Remove + insert, no compaction");
+    test.run(false, false);
+    System.out.println("---- Update, no compaction");
+    test.run(true, false);
+    System.out.println("---- Update, compaction every round");
+    test.run(true, true);
+  }
+
+  private void run(boolean isUpdate, boolean isCompact) {
+    Random random = new Random(42);
+    Quadtree index = new Quadtree();
+    Envelope[] envs = new Envelope[NUM_ITEMS];
+    for (int i = 0; i < NUM_ITEMS; i++) {
+      double x = random.nextDouble() * EXTENT;
+      double y = random.nextDouble() * EXTENT;
+      envs[i] = new Envelope(x, x + ITEM_SIZE, y, y + ITEM_SIZE);
+      index.insert(envs[i], i);
+    }
+    for (int round = 0; round < NUM_ROUNDS; round++) {
+      Stopwatch sw = new Stopwatch();
+      for (int i = 0; i < NUM_ITEMS; i++) {
+        Envelope moved = new Envelope(envs[i]);
+        // drift diagonally, so the occupied area moves away from the origin
+        moved.translate(random.nextDouble() * MAX_MOVE, random.nextDouble() * MAX_MOVE);
+        Integer item = i;
+        if (isUpdate) {
+          index.update(envs[i], moved, item);
+        }
+        else {
+          index.remove(envs[i], item);
+          index.insert(moved, item);
+        }
+        envs[i] = moved;
+      }
+      if (isCompact) {
+        index.compact();
+      }
+      String time = sw.getTimeString();
+      System.out.println("Round " + round
+          + "  Time = " + time
+          + "  Size = " + index.size()
+          + "  Depth = " + index.depth()
+          + "  Heap used = " + usedMemoryMB() + " MB");
+    }
+  }
+
+  private static long usedMemoryMB() {
+    Runtime runtime = Runtime.getRuntime();
+    System.gc();
+    return (runtime.totalMemory() - runtime.freeMemory()) / (1024 * 1024);
+  }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2021 Martin Davis.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * and Eclipse Distribution License v. 1.0 which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v20.html
+ * and the Eclipse Distribution License is available at
+ *
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ */
+package test.jts.perf.index;
+
+import java.util.Random;
+
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.index.strtree.STRtree;
+
+import test.jts.perf.ThreadTestCase;
+import test.jts.perf.ThreadTestRunner;
+
+/**
+ * Measures the query throughput of a shared, built {@link STRtree}
+ * queried concurrently by many threads.
+ * Since queries on a built tree do not synchronize,
+ * the throughput per thread should not degrade
+ * as the number of threads increases (up to the number of cores).
+ *
+ * @author Martin Davis
+ *
+ */
+public class STRtreeThreadedQueryTest extends ThreadTestCase
+{
+  public static void main(String[] args) {
+    ThreadTestRunner.run(new STRtreeThreadedQueryTest());
+  }
+
+  private static final int NUM_ITEMS = 100000;
+  private static final int NUM_QUERIES = 200000;
+  private static final int NUM_ROUNDS = 5;
+  private static final double EXTENT = 1000;
+  private static final double QUERY_SIZE = 5;
+
+  private STRtree tree;
+
+  public STRtreeThreadedQueryTest()
+  {
+
+  }
+
+  public void setup()
+  {
+    Random random = new Random(13);
+    tree = new STRtree();
+    for (int i = 0; i < NUM_ITEMS; i++) {
+      double x = random.nextDouble() * EXTENT;
+      double y = random.nextDouble() * EXTENT;
+      tree.insert(new Envelope(x, x + random.nextDouble(), y, y + random.nextDouble()), i);
+    }
+    tree.build();
+  }
+
+  @Override
+  public Runnable getRunnable(final int threadIndex)
+  {
+    return new Runnable() {
+
+      public void run()
+      {
+        Random random = new Random(threadIndex);
+        CountItemVisitor visitor = new CountItemVisitor();
+        for (int round = 0; round < NUM_ROUNDS; round++) {
+          long start = System.nanoTime();
+          for (int i = 0; i < NUM_QUERIES; i++) {
+            double x = random.nextDouble() * EXTENT;
+            double y = random.nextDouble() * EXTENT;
+            tree.query(new Envelope(x, x + QUERY_SIZE, y, y + QUERY_SIZE), visitor);
+          }
+          long millis = (System.nanoTime() - start) / 1000000;
+          System.out.println("Thread " + threadIndex + " round " + round
+              + ": " + (NUM_QUERIES * 1000L / Math.max(1, millis)) + " queries/s");
+        }
+      }
+
+    };
+  }
+}
@@ -16,9 +16,12 @@ import java.util.ArrayList;
 import java.util.List;
 
 import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.index.SpatialIndex;
 import org.locationtech.jts.index.hprtree.HPRtree;
 import org.locationtech.jts.index.quadtree.Quadtree;
+import org.locationtech.jts.index.rstartree.RStarTree;
 import org.locationtech.jts.index.strtree.STRtree;
+import org.locationtech.jts.util.Stopwatch;
 
 
 /**
@@ -43,6 +46,12 @@ public class TreeTimeTest {
     System.out.println("Real run");
     System.out.println("----------------------------------------------");
     test.run(items, queries);
+    
+    System.out.println("----------------------------------------------");
+    System.out.println("Update run");
+    System.out.println("----------------------------------------------");
+    test.runUpdates(new Quadtree(), items, queries);
+    test.runUpdates(new RStarTree(), items, queries);
   }
 
   public TreeTimeTest()
@@ -55,7 +64,8 @@ public class TreeTimeTest {
     System.out.println("# items = " + items.size());
     indexResults.add(run(new HPRtreeIndex(16), items, queries));
     indexResults.add(run(new STRtreeIndex(4), items, queries));
-    //indexResults.add(run(new QuadtreeIndex(), items));
+    indexResults.add(run(new RStarTreeIndex(16), items, queries));
+    indexResults.add(run(new QuadtreeIndex(), items, queries));
     //indexResults.add(run(new QXtreeIndex(), n));
     //indexResults.add(run(new EnvelopeListIndex(), n));
     return indexResults;
@@ -66,6 +76,30 @@ public class TreeTimeTest {
     return new IndexTester(index).testAll(items, queries);
   }
 
+  /**
+   * Times moving every item in a dynamic index,
+   * by removing it and inserting it with a shifted envelope,
+   * with a query after each move.
+   */
+  public void runUpdates(SpatialIndex index, List items, List queries)
+  {
+    for (int i = 0; i < items.size(); i++) {
+      Envelope env = (Envelope) items.get(i);
+      index.insert(env, env);
+    }
+    Stopwatch sw = new Stopwatch();
+    for (int i = 0; i < items.size(); i++) {
+      Envelope env = (Envelope) items.get(i);
+      index.remove(env, env);
+      Envelope moved = new Envelope(env);
+      moved.translate(1.0, 1.0);
+      index.insert(moved, moved);
+      index.query((Envelope) queries.get(i));
+    }
+    System.out.println(index.getClass().getSimpleName() 
+        + "  Update + Query Time = " + sw.getTimeString());
+  }
+
   class STRtreeIndex
   implements Index
 {
@@ -118,6 +152,29 @@ public class TreeTimeTest {
   public String toString() { return "HPR[M=" + nodeCapacity + "]"; }
 }
 
+  class RStarTreeIndex
+  implements Index
+{
+  public RStarTreeIndex(int nodeCapacity)
+  {
+    index = new RStarTree(nodeCapacity);
+  }
+  RStarTree index;
+
+  public void insert(Envelope itemEnv, Object item)
+  {
+    index.insert(itemEnv, item);
+  }
+  public List query(Envelope searchEnv)
+  {
+    return index.query(searchEnv);
+  }
+  public void finishInserting()
+  {
+  }
+  public String toString() { return "R*[M=" + index.getNodeCapacity() + "]"; }
+}
+
   class QuadtreeIndex
     implements Index
   {